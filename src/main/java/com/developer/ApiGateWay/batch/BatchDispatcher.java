@@ -0,0 +1,215 @@
+package com.developer.ApiGateWay.batch;
+
+import com.developer.ApiGateWay.config.BatchProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sub-requests of a batch in parallel through the gateway's own
+ * {@link HttpHandler}, in process: each one is a request of its own to the web
+ * filter chain (security), the route table and the route's filters (auth, rate
+ * limiting, circuit breakers and their fallbacks), sharing the caller's remote
+ * address and headers. Results are streamed as {@code {"responses":[...]}} in
+ * completion order, each element flushed when its sub-request finishes, so the
+ * caller waits for the slowest call rather than the sum of all of them.
+ *
+ * <p>At most {@code max-concurrency} sub-requests of a batch run at once. A
+ * sub-request that exceeds its timeout is cancelled (and with it the upstream
+ * call) and reported with status 504; other failures become elements with their
+ * own status, so a batch always completes with whatever results it got.
+ */
+public class BatchDispatcher {
+
+    public static final String PATH = "/api/batch";
+
+    // Headers of the batch request that describe its own body or encoding, not the sub-requests'
+    private static final Set<String> BATCH_ONLY_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_TYPE, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.EXPECT, HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.UPGRADE);
+    private static final Set<HttpMethod> METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST,
+            HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE, HttpMethod.OPTIONS);
+    private static final byte[] OPEN = "{\"responses\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "]}".getBytes(StandardCharsets.US_ASCII);
+
+    private final ObjectProvider<HttpHandler> httpHandler;
+    private final BatchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public BatchDispatcher(ObjectProvider<HttpHandler> httpHandler, BatchProperties properties,
+                           ObjectMapper objectMapper) {
+        this.httpHandler = httpHandler;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Checks the batch as a whole; invalid entries are reported per element instead.
+     */
+    public void validate(BatchRequest batch) {
+        List<SubRequest> requests = batch.requests();
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A batch needs at least one request");
+        }
+        if (requests.size() > properties.getMaxRequests()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch takes at most " + properties.getMaxRequests() + " requests");
+        }
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null || !ids.add(id(requests.get(i), i))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch request ids must be unique");
+            }
+        }
+    }
+
+    /**
+     * The combined response body, one inner publisher per flush.
+     */
+    public Flux<Flux<DataBuffer>> dispatch(ServerHttpRequest batchRequest, BatchRequest batch,
+                                           DataBufferFactory bufferFactory) {
+        HttpHandler handler = httpHandler.getObject();
+        List<SubRequest> requests = batch.requests();
+        Flux<Flux<DataBuffer>> elements = Flux.range(0, requests.size())
+                .flatMap(i -> execute(handler, batchRequest, requests.get(i), id(requests.get(i), i), bufferFactory),
+                        properties.getMaxConcurrency())
+                .doOnDiscard(SubResult.class, SubResult::release)
+                .index()
+                .map(indexed -> indexed.getT2().encode(bufferFactory, jsonFactory, indexed.getT1() == 0));
+        return Flux.concat(
+                Mono.fromSupplier(() -> Flux.just(bufferFactory.wrap(OPEN))),
+                elements,
+                Mono.fromSupplier(() -> Flux.just(bufferFactory.wrap(CLOSE))));
+    }
+
+    private Mono<SubResult> execute(HttpHandler handler, ServerHttpRequest batchRequest, SubRequest sub, String id,
+                                    DataBufferFactory bufferFactory) {
+        ServerHttpRequest request;
+        try {
+            request = request(batchRequest, sub, bufferFactory);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(SubResult.error(id, HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+        }
+        Duration timeout = timeout(sub);
+        CapturingResponse response = new CapturingResponse(bufferFactory,
+                (int) Math.min(Integer.MAX_VALUE, properties.getMaxResponseSize().toBytes()));
+        return Mono.defer(() -> handler.handle(request, response))
+                .doOnCancel(response::release)
+                .then(Mono.fromSupplier(() -> SubResult.response(id, response.getStatusCode() != null
+                        ? response.getStatusCode().value() : HttpStatus.OK.value(),
+                        response.getHeaders(), response.takeBody())))
+                .timeout(timeout)
+                .doOnError(e -> response.release())
+                .onErrorResume(TimeoutException.class, e -> Mono.just(SubResult.error(id,
+                        HttpStatus.GATEWAY_TIMEOUT.value(), "Timed out after " + timeout.toMillis() + "ms")))
+                .onErrorResume(DataBufferLimitException.class, e -> Mono.just(SubResult.error(id,
+                        HttpStatus.BAD_GATEWAY.value(), "Response larger than " + properties.getMaxResponseSize())))
+                .onErrorResume(e -> Mono.just(SubResult.error(id,
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(), "Sub-request failed")));
+    }
+
+    private ServerHttpRequest request(ServerHttpRequest batchRequest, SubRequest sub, DataBufferFactory bufferFactory) {
+        HttpMethod method = HttpMethod.valueOf(sub.method() != null ? sub.method().toUpperCase() : "GET");
+        if (!METHODS.contains(method)) {
+            throw new IllegalArgumentException("Unsupported method " + sub.method());
+        }
+        URI uri = uri(batchRequest, sub.path());
+        byte[] body = body(sub);
+        ServerHttpRequest mutated = batchRequest.mutate()
+                .method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    BATCH_ONLY_HEADERS.forEach(headers::remove);
+                    if (body != null) {
+                        headers.setContentType(MediaType.APPLICATION_JSON);
+                        headers.setContentLength(body.length);
+                    }
+                    if (sub.headers() != null) {
+                        for (Map.Entry<String, String> header : sub.headers().entrySet()) {
+                            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                                headers.set(header.getKey(), header.getValue());
+                            }
+                        }
+                    }
+                })
+                .build();
+        return new ServerHttpRequestDecorator(mutated) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body != null ? Flux.just(bufferFactory.wrap(body)) : Flux.empty();
+            }
+        };
+    }
+
+    private static URI uri(ServerHttpRequest batchRequest, String path) {
+        if (path == null || !path.startsWith("/") || path.startsWith("//")) {
+            throw new IllegalArgumentException("Path must be absolute, e.g. /api/users/42");
+        }
+        URI reference = URI.create(path);
+        if (reference.getPath().equals(PATH) || reference.getPath().startsWith(PATH + "/")) {
+            throw new IllegalArgumentException("Batches cannot be nested");
+        }
+        return batchRequest.getURI().resolve(reference);
+    }
+
+    // JSON unless the body is a string sent with a non-JSON Content-Type
+    private byte[] body(SubRequest sub) {
+        JsonNode body = sub.body();
+        if (body == null || body.isNull() || body.isMissingNode()) {
+            return null;
+        }
+        String contentType = sub.headers() != null ? sub.headers().entrySet().stream()
+                .filter(header -> HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null) : null;
+        if (body.isTextual() && contentType != null
+                && !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            return body.textValue().getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Body cannot be serialized");
+        }
+    }
+
+    private Duration timeout(SubRequest sub) {
+        Duration timeout = properties.getTimeout();
+        if (sub.timeoutMs() != null && sub.timeoutMs() > 0) {
+            timeout = Duration.ofMillis(sub.timeoutMs());
+        }
+        return timeout.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : timeout;
+    }
+
+    private static String id(SubRequest sub, int index) {
+        return sub.id() != null ? sub.id() : Integer.toString(index);
+    }
+}
@@ -0,0 +1,9 @@
+package com.developer.ApiGateWay.batch;
+
+import java.util.List;
+
+/**
+ * Body of a {@code POST /api/batch}.
+ */
+public record BatchRequest(List<SubRequest> requests) {
+}
@@ -0,0 +1,80 @@
+package com.developer.ApiGateWay.batch;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Response of a sub-request. Status and headers stay in the response; the body is
+ * joined into one buffer of at most {@code maxBodyBytes} (upstream chunks are
+ * retained, not copied, with a Netty buffer factory) and kept until taken.
+ */
+class CapturingResponse extends AbstractServerHttpResponse {
+
+    private final int maxBodyBytes;
+    private DataBuffer body;
+
+    CapturingResponse(DataBufferFactory bufferFactory, int maxBodyBytes) {
+        super(bufferFactory);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * The captured body, or null when none was written; the caller releases it.
+     */
+    synchronized DataBuffer takeBody() {
+        DataBuffer taken = body;
+        body = null;
+        return taken;
+    }
+
+    void release() {
+        DataBuffer taken = takeBody();
+        if (taken != null) {
+            DataBufferUtils.release(taken);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getNativeResponse() {
+        return (T) this;
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+        // Not doOnNext().then(): then() hands the element to the discard hook the response installs downstream
+        return DataBufferUtils.join(body, maxBodyBytes).flatMap(joined -> {
+            keep(joined);
+            return Mono.empty();
+        });
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWithInternal(Flux.concat(body));
+    }
+
+    private synchronized void keep(DataBuffer joined) {
+        if (body != null) {
+            DataBufferUtils.release(body);
+        }
+        body = joined;
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+}
@@ -0,0 +1,15 @@
+package com.developer.ApiGateWay.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+/**
+ * One entry of a batch: a request to any path the gateway serves. {@code id} names
+ * the entry in the combined response (its index when absent); {@code body} is sent
+ * as JSON, or as text when it is a string and {@code headers} give a non-JSON
+ * Content-Type; {@code timeoutMs} shortens the configured sub-request timeout.
+ */
+public record SubRequest(String id, String method, String path, Map<String, String> headers, JsonNode body,
+                         Long timeoutMs) {
+}
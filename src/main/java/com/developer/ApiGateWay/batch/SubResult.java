@@ -0,0 +1,170 @@
+package com.developer.ApiGateWay.batch;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The outcome of one sub-request, written as one element of the combined
+ * response: {@code id}, {@code status}, the response {@code headers} and the body.
+ * A JSON body is embedded as is, from the captured buffer without copying; text
+ * goes in as a string and anything else as {@code bodyBase64}. Sub-requests that
+ * got no response (invalid, timed out, too large) carry an {@code error} instead.
+ */
+class SubResult {
+
+    // Per-connection or framing headers, meaningless inside the combined body
+    private static final Set<String> OMITTED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(), "keep-alive", HttpHeaders.SET_COOKIE.toLowerCase());
+    private static final byte[] BODY_FIELD = ",\"body\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] END = {'}'};
+
+    private final String id;
+    private final int status;
+    private final HttpHeaders headers;
+    private final String error;
+    private DataBuffer body;
+
+    private SubResult(String id, int status, HttpHeaders headers, DataBuffer body, String error) {
+        this.id = id;
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.error = error;
+    }
+
+    static SubResult response(String id, int status, HttpHeaders headers, DataBuffer body) {
+        return new SubResult(id, status, headers, body, null);
+    }
+
+    static SubResult error(String id, int status, String error) {
+        return new SubResult(id, status, null, null, error);
+    }
+
+    synchronized void release() {
+        if (body != null) {
+            DataBufferUtils.release(body);
+            body = null;
+        }
+    }
+
+    /**
+     * The element's buffers, preceded by a comma unless it is the first element;
+     * the captured body passes to the returned buffers.
+     */
+    synchronized Flux<DataBuffer> encode(DataBufferFactory factory, JsonFactory json, boolean first) {
+        DataBuffer captured = body;
+        body = null;
+        if (captured != null && captured.readableByteCount() == 0) {
+            DataBufferUtils.release(captured);
+            captured = null;
+        }
+        DataBuffer head = factory.allocateBuffer(256);
+        try {
+            if (!first) {
+                head.write(SEPARATOR);
+            }
+            boolean rawBody = captured != null && isJson(captured, json);
+            try (JsonGenerator generator = json.createGenerator(head.asOutputStream())) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartObject();
+                generator.writeStringField("id", id);
+                generator.writeNumberField("status", status);
+                if (error != null) {
+                    generator.writeStringField("error", error);
+                }
+                if (headers != null) {
+                    writeHeaders(generator);
+                }
+                if (captured != null && !rawBody) {
+                    writeBody(generator, captured);
+                }
+                if (!rawBody) {
+                    generator.writeEndObject();
+                }
+            }
+            if (!rawBody) {
+                if (captured != null) {
+                    DataBufferUtils.release(captured);
+                }
+                return Flux.just(head);
+            }
+            head.write(BODY_FIELD);
+            return Flux.just(head, captured, factory.wrap(END));
+        } catch (IOException e) {
+            DataBufferUtils.release(head);
+            if (captured != null) {
+                DataBufferUtils.release(captured);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHeaders(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("headers");
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            if (!OMITTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                generator.writeStringField(header.getKey(), String.join(", ", header.getValue()));
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeBody(JsonGenerator generator, DataBuffer captured) throws IOException {
+        byte[] bytes = new byte[captured.readableByteCount()];
+        captured.read(bytes);
+        MediaType contentType = headers != null ? headers.getContentType() : null;
+        if (contentType != null && isText(contentType)) {
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            generator.writeStringField("body", new String(bytes, charset));
+        } else {
+            generator.writeFieldName("bodyBase64");
+            generator.writeBinary(bytes);
+        }
+    }
+
+    // A JSON (or untyped) body is embedded raw only when it parses as exactly one JSON value
+    private boolean isJson(DataBuffer captured, JsonFactory json) {
+        MediaType contentType = headers != null ? headers.getContentType() : null;
+        if (contentType != null && !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                && !contentType.getSubtype().endsWith("+json")) {
+            return false;
+        }
+        int position = captured.readPosition();
+        try (InputStream in = captured.asInputStream(); JsonParser parser = json.createParser(in)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            captured.readPosition(position);
+        }
+    }
+
+    private static boolean isText(MediaType contentType) {
+        return "text".equals(contentType.getType())
+                || contentType.getSubtype().endsWith("xml")
+                || contentType.getSubtype().endsWith("javascript")
+                || contentType.getSubtype().endsWith("json");
+    }
+}
@@ -0,0 +1,153 @@
+package com.developer.ApiGateWay.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Shared-cache rules from RFC 9111 that the gateway applies: what may be stored,
+ * for how long it is fresh, and how long it may be served stale while it is being
+ * revalidated.
+ */
+public final class CachePolicy {
+
+    private CachePolicy() {
+    }
+
+    public static boolean requestAllowsLookup(HttpHeaders requestHeaders) {
+        String cacheControl = requestHeaders.getCacheControl();
+        return cacheControl == null || !(hasDirective(cacheControl, "no-cache") || hasDirective(cacheControl, "no-store"));
+    }
+
+    public static boolean requestAllowsStore(HttpHeaders requestHeaders) {
+        String cacheControl = requestHeaders.getCacheControl();
+        return cacheControl == null || !hasDirective(cacheControl, "no-store");
+    }
+
+    /**
+     * Whether a 200 response may be kept in a cache shared between clients.
+     * Responses to authenticated requests are only stored when marked public.
+     */
+    public static boolean isStorable(HttpHeaders requestHeaders, HttpHeaders responseHeaders,
+                                     Collection<String> keyHeaders) {
+        if (responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = responseHeaders.getCacheControl();
+        if (cacheControl != null && (hasDirective(cacheControl, "no-store")
+                || hasDirective(cacheControl, "private")
+                || hasDirective(cacheControl, "no-cache"))) {
+            return false;
+        }
+        if (requestHeaders.containsKey(HttpHeaders.AUTHORIZATION) && (cacheControl == null
+                || !(hasDirective(cacheControl, "public") || directiveSeconds(cacheControl, "s-maxage") >= 0))) {
+            return false;
+        }
+        for (String vary : responseHeaders.getVary()) {
+            if ("*".equals(vary) || keyHeaders.stream().noneMatch(vary::equalsIgnoreCase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Freshness lifetime in seconds: s-maxage, then max-age, then the route default.
+     */
+    public static long freshnessSeconds(HttpHeaders responseHeaders, long defaultSeconds) {
+        String cacheControl = responseHeaders.getCacheControl();
+        if (cacheControl != null) {
+            long sharedMaxAge = directiveSeconds(cacheControl, "s-maxage");
+            if (sharedMaxAge >= 0) {
+                return sharedMaxAge;
+            }
+            long maxAge = directiveSeconds(cacheControl, "max-age");
+            if (maxAge >= 0) {
+                return maxAge;
+            }
+        }
+        return defaultSeconds;
+    }
+
+    public static long staleWhileRevalidateSeconds(HttpHeaders responseHeaders, long defaultSeconds) {
+        String cacheControl = responseHeaders.getCacheControl();
+        if (cacheControl != null) {
+            if (hasDirective(cacheControl, "must-revalidate") || hasDirective(cacheControl, "proxy-revalidate")) {
+                return 0;
+            }
+            long seconds = directiveSeconds(cacheControl, "stale-while-revalidate");
+            if (seconds >= 0) {
+                return seconds;
+            }
+        }
+        return defaultSeconds;
+    }
+
+    /**
+     * Whether intermediaries may change the body's encoding (no Cache-Control: no-transform).
+     */
+    public static boolean allowsTransform(HttpHeaders responseHeaders) {
+        String cacheControl = responseHeaders.getCacheControl();
+        return cacheControl == null || !hasDirective(cacheControl, "no-transform");
+    }
+
+    /**
+     * Whether data derived from a response may be reused for other requests: it
+     * sets no cookie and is not marked no-store or private.
+     */
+    public static boolean allowsReuse(HttpHeaders responseHeaders) {
+        if (responseHeaders.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = responseHeaders.getCacheControl();
+        return cacheControl == null || !(hasDirective(cacheControl, "no-store") || hasDirective(cacheControl, "private"));
+    }
+
+    /**
+     * Weak comparison of an entity tag against If-None-Match values (RFC 9110,
+     * section 13.1.2), so that the W/ tag of a compressed response still matches.
+     */
+    public static boolean matchesIfNoneMatch(Collection<String> ifNoneMatch, String etag) {
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || opaqueTag(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    static boolean hasDirective(String cacheControl, String directive) {
+        return directiveValue(cacheControl, directive) != null;
+    }
+
+    static long directiveSeconds(String cacheControl, String directive) {
+        String value = directiveValue(cacheControl, directive);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Returns "" for a directive without a value and null when it is absent
+    private static String directiveValue(String cacheControl, String directive) {
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            String name = equals < 0 ? token : token.substring(0, equals).trim();
+            if (name.toLowerCase(Locale.ROOT).equals(directive)) {
+                return equals < 0 ? "" : token.substring(equals + 1).trim().replace("\"", "");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.developer.ApiGateWay.cache;
+
+import io.netty.buffer.ByteBuf;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A stored response. The body lives in a pooled direct buffer owned by the cache;
+ * every client write gets its own retained duplicate, so serving a hit neither
+ * copies the body nor frees it while another write is still in progress.
+ *
+ * <p>The entry counts its holders: the cache is one, and a reader taking a
+ * duplicate is another until it has one. The body is released only when the count
+ * drops to zero, and no reader can join after that; a pooled buffer released
+ * under a reader could be reallocated and its new contents served.
+ */
+public class CachedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final NettyDataBuffer body;
+    private final int bodySize;
+    private final AtomicInteger holders = new AtomicInteger(1);
+    private final String etag;
+    private final URI upstreamUri;
+    private final long storedAtNanos;
+    private final long freshUntilNanos;
+    private final long staleUntilNanos;
+    private final long retainUntilNanos;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    CachedResponse(int status, HttpHeaders headers, NettyDataBuffer body, URI upstreamUri, long storedAtNanos,
+                   long freshNanos, long staleNanos, long lastKnownGoodNanos) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.bodySize = body.readableByteCount();
+        this.etag = headers.getETag();
+        this.upstreamUri = upstreamUri;
+        this.storedAtNanos = storedAtNanos;
+        this.freshUntilNanos = storedAtNanos + freshNanos;
+        this.staleUntilNanos = freshUntilNanos + staleNanos;
+        this.retainUntilNanos = staleUntilNanos + lastKnownGoodNanos;
+    }
+
+    /**
+     * Returns a buffer for one client write, or null if the entry was evicted and
+     * its body released in the meantime.
+     */
+    public DataBuffer bodyFor(DataBufferFactory factory) {
+        if (!acquire()) {
+            return null;
+        }
+        ByteBuf duplicate;
+        try {
+            duplicate = body.getNativeBuffer().retainedDuplicate();
+        } finally {
+            release();
+        }
+        if (factory instanceof NettyDataBufferFactory nettyFactory) {
+            return nettyFactory.wrap(duplicate);
+        }
+        // Non-Netty responses (e.g. mock exchanges) need their own buffer type
+        try {
+            byte[] bytes = new byte[duplicate.readableBytes()];
+            duplicate.readBytes(bytes);
+            return factory.wrap(bytes);
+        } finally {
+            duplicate.release();
+        }
+    }
+
+    public boolean isFresh(long nowNanos) {
+        return nowNanos < freshUntilNanos;
+    }
+
+    public boolean isServableStale(long nowNanos) {
+        return nowNanos < staleUntilNanos;
+    }
+
+    /**
+     * Whether the entry may still stand in for an unavailable backend, past its
+     * stale window; see {@code FallbackController}.
+     */
+    public boolean isLastKnownGood(long nowNanos) {
+        return nowNanos < retainUntilNanos;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return (nowNanos - storedAtNanos) / 1_000_000_000L;
+    }
+
+    public boolean startRevalidation() {
+        return etag != null && revalidating.compareAndSet(false, true);
+    }
+
+    public void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * Backend URL the response came from (lb:// for load-balanced routes), used for
+     * revalidation; null if unknown.
+     */
+    public URI upstreamUri() {
+        return upstreamUri;
+    }
+
+    public int bodySize() {
+        return bodySize;
+    }
+
+    long retainUntilNanos() {
+        return retainUntilNanos;
+    }
+
+    long lastKnownGoodNanos() {
+        return retainUntilNanos - staleUntilNanos;
+    }
+
+    /**
+     * The body with a reference of its own for another entry, or null if this
+     * entry's body was already released.
+     */
+    NettyDataBuffer retainBody() {
+        if (!acquire()) {
+            return null;
+        }
+        try {
+            return DataBufferUtils.retain(body);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Drops the cache's hold on the entry, on removal.
+     */
+    void release() {
+        if (holders.decrementAndGet() == 0) {
+            DataBufferUtils.release(body);
+        }
+    }
+
+    private boolean acquire() {
+        int count;
+        do {
+            count = holders.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!holders.compareAndSet(count, count + 1));
+        return true;
+    }
+}
@@ -0,0 +1,155 @@
+package com.developer.ApiGateWay.cache;
+
+import com.developer.ApiGateWay.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Byte-budgeted store for cached gateway responses, shared by all routes. Caffeine
+ * weighs entries by body size and evicts by W-TinyLFU once the budget is reached;
+ * an entry's pooled body buffer is released when it is evicted, expires at the end
+ * of its stale window, or is replaced, and no reader is taking a duplicate of it.
+ */
+public class ResponseCacheStore implements MeterBinder {
+
+    // Rough allowance for key and header storage next to the body
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final Map<String, Sinks.Empty<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, CachedResponse> cache;
+    private final ResponseCacheProperties properties;
+
+    public ResponseCacheStore(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.bodySize() + key.length() + ENTRY_OVERHEAD)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return Math.max(0, response.retainUntilNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Release on the calling thread, and expire on a timer rather than on the next access,
+                // so off-heap memory is returned promptly
+                .executor(Runnable::run)
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> {
+                    if (response != null) {
+                        response.release();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Allocates a pooled direct buffer for capturing a response body.
+     */
+    public NettyDataBuffer allocate(int initialCapacity) {
+        return bufferFactory.allocateBuffer(Math.max(initialCapacity, 256));
+    }
+
+    public long maxEntryBytes() {
+        return properties.getMaxEntrySize().toBytes();
+    }
+
+    /**
+     * Stores a captured response; the cache takes ownership of {@code body}. The
+     * entry is kept for {@code lastKnownGoodSeconds} past its stale window as a
+     * fallback only.
+     */
+    public CachedResponse put(String key, int status, HttpHeaders headers, NettyDataBuffer body, URI upstreamUri,
+                              long freshSeconds, long staleSeconds, long lastKnownGoodSeconds) {
+        CachedResponse response = new CachedResponse(status, headers, body, upstreamUri, System.nanoTime(),
+                TimeUnit.SECONDS.toNanos(freshSeconds), TimeUnit.SECONDS.toNanos(staleSeconds),
+                TimeUnit.SECONDS.toNanos(lastKnownGoodSeconds));
+        cache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Replaces {@code previous} with a fresh copy after a 304, sharing its body.
+     * Returns null if the previous entry's body was already released.
+     */
+    public CachedResponse refresh(String key, CachedResponse previous, HttpHeaders notModifiedHeaders,
+                                  long freshSeconds, long staleSeconds) {
+        NettyDataBuffer body = previous.retainBody();
+        if (body == null) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(previous.headers());
+        // A 304 carries the updated validators and freshness headers
+        for (String name : new String[] {HttpHeaders.CACHE_CONTROL, HttpHeaders.ETAG, HttpHeaders.EXPIRES,
+                HttpHeaders.LAST_MODIFIED, HttpHeaders.DATE}) {
+            if (notModifiedHeaders.containsKey(name)) {
+                headers.put(name, notModifiedHeaders.get(name));
+            }
+        }
+        return put(key, previous.status(), headers, body, previous.upstreamUri(), freshSeconds,
+                staleSeconds, TimeUnit.NANOSECONDS.toSeconds(previous.lastKnownGoodNanos()));
+    }
+
+    /**
+     * Registers {@code signal} as the leader for {@code key}. Returns null when the
+     * caller is now the leader, or the current leader's completion otherwise.
+     */
+    public Mono<Void> awaitOrLead(String key, Sinks.Empty<Void> signal) {
+        Sinks.Empty<Void> leader = inFlight.putIfAbsent(key, signal);
+        return leader == null ? null : leader.asMono();
+    }
+
+    public void completeLead(String key, Sinks.Empty<Void> signal) {
+        inFlight.remove(key, signal);
+        signal.tryEmitEmpty();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway.response.cache");
+    }
+}
@@ -0,0 +1,66 @@
+package com.developer.ApiGateWay.capture;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of a traffic capture. The file is a sequence of tagged entries and is
+ * only ever appended to:
+ *
+ * <pre>
+ * segment: 'S' int magic "GWTC", byte version, byte flags, long start (epoch millis), double sample rate
+ * request: 'R' varint length, then length bytes of:
+ *          zigzag varint arrival - previous arrival (nanos), string route, string method,
+ *          string path template, varint client, varint request header bytes,
+ *          varint request body bytes, varint response header bytes, varint response body bytes,
+ *          varint status, varint duration (micros)
+ * string:  varint 0, varint length, UTF-8 bytes (defines the next dictionary entry)
+ *          or varint n > 0 (dictionary entry n - 1)
+ * </pre>
+ *
+ * Each gateway run starts a segment, and a segment starts a new string
+ * dictionary. The first arrival of a run counts from its segment's start, so runs
+ * appended to one file replay back to back; a segment with {@link #CONTINUATION}
+ * was started only because the writer's dictionary filled up. Requests are
+ * length-prefixed, so a reader stops cleanly at an entry cut short by a crash.
+ */
+final class CaptureFormat {
+
+    static final byte SEGMENT = 'S';
+    static final byte REQUEST = 'R';
+    static final int MAGIC = 0x47575443;
+    static final byte VERSION = 1;
+    static final byte CONTINUATION = 1;
+    static final int SEGMENT_BYTES = 1 + 4 + 1 + 1 + 8 + 8;
+
+    private CaptureFormat() {
+    }
+
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static void putZigzag(ByteBuffer out, long value) {
+        putVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    static long getZigzag(ByteBuffer in) {
+        long value = getVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,14 @@
+package com.developer.ApiGateWay.capture;
+
+/**
+ * One sampled request as read back from a capture. {@code arrivalNanos} counts
+ * from the start of the capture; the difference between consecutive requests is
+ * their inter-arrival time. {@code client} numbers the rate-limit keys (user id
+ * or remote address) from 1 in order of first appearance, without recording
+ * them; 0 means the client was unknown. Body sizes are the bytes the gateway
+ * actually read and wrote, header sizes those of HTTP/1.1 header lines.
+ */
+public record CapturedRequest(long arrivalNanos, String routeId, String method, String pathTemplate,
+                              int client, int requestHeaderBytes, long requestBodyBytes,
+                              int responseHeaderBytes, long responseBodyBytes, int status, long durationNanos) {
+}
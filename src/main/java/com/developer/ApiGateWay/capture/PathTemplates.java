@@ -0,0 +1,97 @@
+package com.developer.ApiGateWay.capture;
+
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Turns request paths into templates, so captures hold the shape of traffic and
+ * not the identifiers in it: a segment of digits becomes {@code {n}}, a UUID
+ * {@code {uuid}}, and any other segment of 16 or more characters that contains a
+ * digit (hex ids, tokens) {@code {id}}. {@link #expand} fills a template with
+ * random values of the same kind for replay.
+ */
+public final class PathTemplates {
+
+    static final String NUMBER = "{n}";
+    static final String UUID_VALUE = "{uuid}";
+    static final String ID = "{id}";
+
+    private static final int MIN_ID_LENGTH = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private PathTemplates() {
+    }
+
+    public static String template(String path) {
+        StringBuilder template = null;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            String replacement = replacement(path, start, end);
+            if (replacement != null && template == null) {
+                template = new StringBuilder(path.length()).append(path, 0, start);
+            }
+            if (template != null) {
+                template.append(replacement != null ? replacement : path.substring(start, end));
+                if (end < path.length()) {
+                    template.append('/');
+                }
+            }
+            start = end + 1;
+        }
+        return template != null ? template.toString() : path;
+    }
+
+    public static String expand(String template, RandomGenerator random) {
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        return template
+                .replace(NUMBER, Long.toString(1 + random.nextInt(100_000)))
+                .replace(UUID_VALUE, new UUID(random.nextLong(), random.nextLong()).toString())
+                .replace(ID, hex(random, 24));
+    }
+
+    private static String replacement(String path, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return null;
+        }
+        boolean digitsOnly = true;
+        boolean hasDigit = false;
+        for (int i = start; i < end; i++) {
+            boolean digit = Character.isDigit(path.charAt(i));
+            digitsOnly &= digit;
+            hasDigit |= digit;
+        }
+        if (digitsOnly) {
+            return NUMBER;
+        }
+        if (length == 36 && isUuid(path, start)) {
+            return UUID_VALUE;
+        }
+        return hasDigit && length >= MIN_ID_LENGTH ? ID : null;
+    }
+
+    private static boolean isUuid(String path, int start) {
+        for (int i = 0; i < 36; i++) {
+            char c = path.charAt(start + i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String hex(RandomGenerator random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = HEX[random.nextInt(16)];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,153 @@
+package com.developer.ApiGateWay.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a capture written by {@link TrafficCaptureWriter}, one request at a time,
+ * with arrivals on one clock across all segments of the file. An entry cut short
+ * at the end of the file ends the capture; anything else that does not decode is
+ * an {@link IOException}.
+ */
+public final class TrafficCaptureReader implements Closeable {
+
+    /**
+     * A segment header: one gateway run, or the continuation of one.
+     */
+    public record Segment(long startEpochMillis, double sampleRate, boolean continuation) {
+    }
+
+    private final DataInputStream in;
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private ByteBuffer payload = ByteBuffer.allocate(256);
+    private long arrival;
+
+    public TrafficCaptureReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+    }
+
+    public static List<CapturedRequest> readAll(Path file) throws IOException {
+        List<CapturedRequest> requests = new ArrayList<>();
+        try (TrafficCaptureReader reader = new TrafficCaptureReader(file)) {
+            CapturedRequest request;
+            while ((request = reader.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * The next request, or null at the end of the capture.
+     */
+    public CapturedRequest next() throws IOException {
+        try {
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) {
+                    return null;
+                }
+                if (tag == CaptureFormat.SEGMENT) {
+                    readSegment();
+                } else if (tag == CaptureFormat.REQUEST) {
+                    if (segments.isEmpty()) {
+                        throw new IOException("Capture does not start with a segment header");
+                    }
+                    return readRequest();
+                } else {
+                    throw new IOException("Unknown capture entry " + tag);
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The segment headers read so far.
+     */
+    public List<Segment> segments() {
+        return List.copyOf(segments);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readSegment() throws IOException {
+        if (in.readInt() != CaptureFormat.MAGIC) {
+            throw new IOException("Not a traffic capture");
+        }
+        byte version = in.readByte();
+        if (version != CaptureFormat.VERSION) {
+            throw new IOException("Unsupported capture version " + version);
+        }
+        boolean continuation = (in.readByte() & CaptureFormat.CONTINUATION) != 0;
+        segments.add(new Segment(in.readLong(), in.readDouble(), continuation));
+        dictionary.clear();
+    }
+
+    private CapturedRequest readRequest() throws IOException {
+        long length = readVarint(in);
+        if (length > 1 << 20) {
+            throw new IOException("Capture entry of " + length + " bytes");
+        }
+        if (payload.capacity() < length) {
+            payload = ByteBuffer.allocate(Integer.highestOneBit((int) length) << 1);
+        }
+        payload.clear().limit((int) length);
+        in.readFully(payload.array(), 0, (int) length);
+        try {
+            arrival += CaptureFormat.getZigzag(payload);
+            return new CapturedRequest(arrival, string(), string(), string(),
+                    (int) CaptureFormat.getVarint(payload),
+                    (int) CaptureFormat.getVarint(payload),
+                    CaptureFormat.getVarint(payload),
+                    (int) CaptureFormat.getVarint(payload),
+                    CaptureFormat.getVarint(payload),
+                    (int) CaptureFormat.getVarint(payload),
+                    CaptureFormat.getVarint(payload) * 1_000);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed capture entry", e);
+        }
+    }
+
+    private String string() {
+        int reference = (int) CaptureFormat.getVarint(payload);
+        if (reference > 0) {
+            return dictionary.get(reference - 1);
+        }
+        byte[] utf8 = new byte[(int) CaptureFormat.getVarint(payload)];
+        payload.get(utf8);
+        String value = new String(utf8, StandardCharsets.UTF_8);
+        dictionary.add(value);
+        return value;
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
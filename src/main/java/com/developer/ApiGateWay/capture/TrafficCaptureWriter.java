@@ -0,0 +1,312 @@
+package com.developer.ApiGateWay.capture;
+
+import com.developer.ApiGateWay.config.CaptureProperties;
+import com.developer.ApiGateWay.logging.AccessLogRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends sampled requests to a capture file (see {@link CaptureFormat}). As with
+ * the structured access log, request threads only copy numbers and references
+ * into an {@link AccessLogRingBuffer} slot; one background thread turns paths into
+ * templates, numbers clients, dictionary-codes strings, encodes the entries and
+ * appends them in batches. A full ring drops the request instead of waiting. Once
+ * the file reaches {@code max-file-size} capturing stops.
+ */
+public class TrafficCaptureWriter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureWriter.class);
+
+    // Record layout inside a ring slot; strings and the method are held by reference
+    private static final int ARRIVAL = 0;
+    private static final int DURATION = 8;
+    private static final int REQUEST_BODY = 16;
+    private static final int RESPONSE_BODY = 24;
+    private static final int REQUEST_HEADERS = 32;
+    private static final int RESPONSE_HEADERS = 36;
+    private static final int STATUS = 40;
+    private static final int RECORD_SIZE = 48;
+    private static final int REFERENCES = 4;
+
+    private static final int MAX_ROUTE_LENGTH = 256;
+    private static final int MAX_TEMPLATE_LENGTH = 1024;
+    // Three strings defined in one entry, at up to 3 UTF-8 bytes per char, plus the numbers
+    private static final int MAX_ENTRY = 4096;
+    private static final int MAX_DICTIONARY = 65536;
+    private static final int MAX_CLIENTS = 65536;
+
+    private final AccessLogRingBuffer ring;
+    private final Object[] references;
+    private final Path file;
+    private final double sampleRate;
+    private final long maxFileSize;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+
+    // Drainer state
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final Map<String, Integer> clients = new HashMap<>();
+    private long previousArrival;
+    private long fileBytes;
+
+    private volatile boolean full;
+    private volatile boolean running;
+    private Thread drainer;
+    private FileChannel channel;
+
+    public TrafficCaptureWriter(CaptureProperties properties) {
+        if (properties.getSampleRate() <= 0 || properties.getSampleRate() > 1) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1]: " + properties.getSampleRate());
+        }
+        this.ring = new AccessLogRingBuffer(properties.getBufferCapacity(), RECORD_SIZE);
+        this.references = new Object[properties.getBufferCapacity() * REFERENCES];
+        this.file = properties.getFile();
+        this.sampleRate = properties.getSampleRate();
+        this.maxFileSize = properties.getMaxFileSize().toBytes();
+        this.batchSize = Math.max(64 * 1024, 2 * (MAX_ENTRY + CaptureFormat.SEGMENT_BYTES));
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+    }
+
+    public void start() throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        previousArrival = System.nanoTime();
+        full = fileBytes + CaptureFormat.SEGMENT_BYTES + MAX_ENTRY > maxFileSize;
+        if (full) {
+            logger.warn("Traffic capture {} is already {} bytes; not capturing", file, fileBytes);
+        }
+        running = true;
+        drainer = new Thread(this::drainLoop, "traffic-capture-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        if (drainer != null) {
+            LockSupport.unpark(drainer);
+            drainer.join(5_000);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * False once the file is full or the writer stopped; requests are not worth
+     * sampling then.
+     */
+    public boolean accepting() {
+        return running && !full;
+    }
+
+    /**
+     * Queues one sampled request. Returns false, and counts it as dropped, when
+     * the ring is full.
+     */
+    public boolean record(long arrivalNanos, long durationNanos, String routeId, HttpMethod method, String path,
+                          String clientKey, int requestHeaderBytes, long requestBodyBytes,
+                          int responseHeaderBytes, long responseBodyBytes, int status) {
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        ByteBuffer buffer = ring.buffer();
+        int offset = ring.offset(sequence);
+        buffer.putLong(offset + ARRIVAL, arrivalNanos);
+        buffer.putLong(offset + DURATION, durationNanos);
+        buffer.putLong(offset + REQUEST_BODY, requestBodyBytes);
+        buffer.putLong(offset + RESPONSE_BODY, responseBodyBytes);
+        buffer.putInt(offset + REQUEST_HEADERS, requestHeaderBytes);
+        buffer.putInt(offset + RESPONSE_HEADERS, responseHeaderBytes);
+        buffer.putShort(offset + STATUS, (short) status);
+        int slot = ((int) sequence & (ring.capacity() - 1)) * REFERENCES;
+        references[slot] = routeId;
+        references[slot + 1] = method;
+        references[slot + 2] = path;
+        references[slot + 3] = clientKey;
+        ring.publish(sequence);
+        return true;
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    public long dropped() {
+        return ring.dropped() + discarded.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.capture.records", written, LongAdder::sum)
+                .description("Sampled requests written to the traffic capture")
+                .register(registry);
+        FunctionCounter.builder("gateway.capture.dropped", this, TrafficCaptureWriter::dropped)
+                .description("Sampled requests dropped because the ring buffer or the capture file was full")
+                .register(registry);
+        FunctionCounter.builder("gateway.capture.write.errors", writeErrors, LongAdder::sum)
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(batchSize);
+        ByteBuffer entry = ByteBuffer.allocate(MAX_ENTRY);
+        if (!full) {
+            segment(batch, false);
+        }
+        while (running) {
+            int drained = drain(batch, entry);
+            if (batch.position() > 0 && (drained == 0 || batch.remaining() < 2 * MAX_ENTRY)) {
+                flush(batch);
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        // Final pass on shutdown: write whatever has been published
+        while (drain(batch, entry) > 0) {
+            flush(batch);
+        }
+        flush(batch);
+    }
+
+    private int drain(ByteBuffer batch, ByteBuffer entry) {
+        int drained = 0;
+        long sequence = ring.head();
+        while (batch.remaining() >= 2 * MAX_ENTRY && ring.isPublished(sequence)) {
+            int slot = ((int) sequence & (ring.capacity() - 1)) * REFERENCES;
+            if (!full && fileBytes + batch.position() + 2 * MAX_ENTRY > maxFileSize) {
+                full = true;
+                logger.warn("Traffic capture {} reached its maximum size; capturing stopped", file);
+            }
+            if (!full) {
+                encode(sequence, slot, batch, entry);
+                written.increment();
+            } else {
+                discarded.increment();
+            }
+            for (int i = 0; i < REFERENCES; i++) {
+                references[slot + i] = null;
+            }
+            ring.release(sequence);
+            sequence++;
+            drained++;
+        }
+        return drained;
+    }
+
+    private void segment(ByteBuffer batch, boolean continuation) {
+        batch.put(CaptureFormat.SEGMENT);
+        batch.putInt(CaptureFormat.MAGIC);
+        batch.put(CaptureFormat.VERSION);
+        batch.put(continuation ? CaptureFormat.CONTINUATION : 0);
+        batch.putLong(System.currentTimeMillis());
+        batch.putDouble(sampleRate);
+        dictionary.clear();
+    }
+
+    private void encode(long sequence, int slot, ByteBuffer batch, ByteBuffer entry) {
+        if (dictionary.size() > MAX_DICTIONARY - 3) {
+            segment(batch, true);
+        }
+        ByteBuffer buffer = ring.buffer();
+        int offset = ring.offset(sequence);
+        long arrival = buffer.getLong(offset + ARRIVAL);
+        entry.clear();
+        CaptureFormat.putZigzag(entry, arrival - previousArrival);
+        previousArrival = arrival;
+        string(entry, truncate((String) references[slot], MAX_ROUTE_LENGTH));
+        HttpMethod method = (HttpMethod) references[slot + 1];
+        string(entry, method != null ? method.name() : "OTHER");
+        string(entry, truncate(PathTemplates.template((String) references[slot + 2]), MAX_TEMPLATE_LENGTH));
+        CaptureFormat.putVarint(entry, client((String) references[slot + 3]));
+        CaptureFormat.putVarint(entry, Math.max(0, buffer.getInt(offset + REQUEST_HEADERS)));
+        CaptureFormat.putVarint(entry, Math.max(0, buffer.getLong(offset + REQUEST_BODY)));
+        CaptureFormat.putVarint(entry, Math.max(0, buffer.getInt(offset + RESPONSE_HEADERS)));
+        CaptureFormat.putVarint(entry, Math.max(0, buffer.getLong(offset + RESPONSE_BODY)));
+        CaptureFormat.putVarint(entry, buffer.getShort(offset + STATUS) & 0xFFFF);
+        CaptureFormat.putVarint(entry, Math.max(0, buffer.getLong(offset + DURATION) / 1_000));
+        entry.flip();
+        batch.put(CaptureFormat.REQUEST);
+        CaptureFormat.putVarint(batch, entry.remaining());
+        batch.put(entry);
+    }
+
+    private void string(ByteBuffer entry, String value) {
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            CaptureFormat.putVarint(entry, index + 1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        CaptureFormat.putVarint(entry, 0);
+        CaptureFormat.putVarint(entry, utf8.length);
+        entry.put(utf8);
+        dictionary.put(value, dictionary.size());
+    }
+
+    // Numbered from 1 in order of appearance; past MAX_CLIENTS new clients share numbers by hash
+    private int client(String key) {
+        if (key == null) {
+            return 0;
+        }
+        Integer number = clients.get(key);
+        if (number != null) {
+            return number;
+        }
+        if (clients.size() < MAX_CLIENTS) {
+            number = clients.size() + 1;
+            clients.put(key, number);
+            return number;
+        }
+        return 1 + Math.floorMod(key.hashCode(), MAX_CLIENTS);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private void flush(ByteBuffer batch) {
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                fileBytes += channel.write(batch);
+            }
+        } catch (IOException e) {
+            writeErrors.increment();
+            logger.warn("Failed to write traffic capture batch to {}: {}", file, e.getMessage());
+        }
+        batch.clear();
+    }
+}
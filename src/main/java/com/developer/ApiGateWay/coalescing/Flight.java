@@ -0,0 +1,118 @@
+package com.developer.ApiGateWay.coalescing;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+
+/**
+ * One upstream call in progress for a request key, with the requests waiting on
+ * it. The flight leaves the in-flight map before it completes, so a request
+ * arriving afterwards starts a new call instead of seeing a finished one; nothing
+ * outlives the call.
+ *
+ * <p>Every follower that joined either reads the {@link #response()} once after
+ * {@link #done()} and releases it, or calls {@link #leave()}.
+ */
+public final class Flight {
+
+    private final Map<String, Flight> inFlight;
+    private final String key;
+    private final Sinks.Empty<Void> done = Sinks.empty();
+
+    private int followers;
+    private boolean completed;
+    private SharedResponse response;
+
+    public Flight(Map<String, Flight> inFlight, String key) {
+        this.inFlight = inFlight;
+        this.key = key;
+    }
+
+    /**
+     * Registers a follower; false once the flight has completed.
+     */
+    public synchronized boolean join() {
+        if (completed) {
+            return false;
+        }
+        followers++;
+        return true;
+    }
+
+    /**
+     * Unregisters a follower that stopped waiting, releasing its share of the
+     * response if the flight completed in the meantime.
+     */
+    public void leave() {
+        SharedResponse shared;
+        synchronized (this) {
+            if (!completed) {
+                followers--;
+                return;
+            }
+            shared = response;
+        }
+        if (shared != null) {
+            shared.release();
+        }
+    }
+
+    /**
+     * Completes with the leader's response for every follower to write, or with
+     * null if the response could not be shared and followers must call upstream
+     * themselves.
+     */
+    public void complete(SharedResponse shared) {
+        inFlight.remove(key, this);
+        int holders;
+        synchronized (this) {
+            if (completed) {
+                if (shared != null) {
+                    shared.release();
+                }
+                return;
+            }
+            completed = true;
+            response = shared;
+            holders = followers;
+        }
+        if (shared != null) {
+            shared.setHolders(holders + 1);
+        }
+        done.tryEmitEmpty();
+        if (shared != null) {
+            shared.release();
+        }
+    }
+
+    public void abandon() {
+        complete(null);
+    }
+
+    /**
+     * Hands the leader's error to every follower.
+     */
+    public void fail(Throwable error) {
+        inFlight.remove(key, this);
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+        }
+        done.tryEmitError(error);
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    public Mono<Void> done() {
+        return done.asMono();
+    }
+
+    public synchronized SharedResponse response() {
+        return response;
+    }
+}
@@ -0,0 +1,183 @@
+package com.developer.ApiGateWay.coalescing;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Response decorator that, once its exchange leads a {@link Flight}, keeps the
+ * body chunks written to the client and completes the flight with them. Chunks
+ * are retained, not copied. Responses that set cookies, are streamed with flushes,
+ * or grow past the size limit are not shared; their followers call upstream
+ * themselves.
+ *
+ * <p>Installed ahead of NettyWriteResponseFilter so the upstream body passes
+ * through it; the flight itself is started later, where the route's filters have
+ * finished with the request.
+ */
+public class LeaderCapture extends ServerHttpResponseDecorator {
+
+    public static final String ATTR = LeaderCapture.class.getName();
+
+    // Per-exchange or hop-by-hop headers that followers must not receive
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(), "keep-alive", HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            "x-request-id", "x-response-time");
+
+    private volatile Flight flight;
+    private volatile long maxBodyBytes;
+
+    public LeaderCapture(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Makes this exchange the leader of the flight; a retried exchange leads the new one.
+     */
+    public void lead(Flight flight, long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.flight = flight;
+    }
+
+    /**
+     * Called when the exchange is done. A flight that got no response through this
+     * decorator is abandoned so its followers do not wait for nothing.
+     */
+    public void finish() {
+        Flight current = flight;
+        if (current != null) {
+            current.abandon();
+        }
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        Flight current = flight;
+        if (current == null || current.isCompleted()) {
+            return super.writeWith(body);
+        }
+        HttpStatusCode status = getStatusCode();
+        HttpHeaders headers = getHeaders();
+        if (!isShareable(status, headers)) {
+            current.abandon();
+            return super.writeWith(body);
+        }
+        HttpHeaders sharedHeaders = sharedHeaders(headers);
+        Chunks chunks = new Chunks(maxBodyBytes);
+        return super.writeWith(Flux.from(body)
+                .doOnNext(chunks::add)
+                .doOnComplete(() -> current.complete(chunks.toResponse(status, sharedHeaders)))
+                .doOnCancel(() -> {
+                    chunks.discard();
+                    current.abandon();
+                })
+                .doOnError(e -> {
+                    chunks.discard();
+                    current.abandon();
+                }));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        Flight current = flight;
+        if (current != null) {
+            current.abandon();
+        }
+        return super.writeAndFlushWith(body);
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        Flight current = flight;
+        if (current != null && !current.isCompleted()) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            current.complete(isShareable(status, headers)
+                    ? new SharedResponse(status, sharedHeaders(headers), List.of(), 0)
+                    : null);
+        }
+        return super.setComplete();
+    }
+
+    private boolean isShareable(HttpStatusCode status, HttpHeaders headers) {
+        return status != null
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && getCookies().isEmpty()
+                && headers.getContentLength() <= maxBodyBytes;
+    }
+
+    private static HttpHeaders sharedHeaders(HttpHeaders headers) {
+        HttpHeaders shared = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNSHARED_HEADERS.contains(name.toLowerCase())) {
+                shared.put(name, List.copyOf(values));
+            }
+        });
+        return shared;
+    }
+
+    /**
+     * Retained duplicates of the chunks written so far, dropped once they exceed the limit.
+     */
+    private static final class Chunks {
+
+        private final long maxBytes;
+        private List<ByteBuf> buffers = new ArrayList<>();
+        private int length;
+
+        Chunks(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized void add(DataBuffer chunk) {
+            if (buffers == null) {
+                return;
+            }
+            if (length + chunk.readableByteCount() > maxBytes) {
+                discard();
+                return;
+            }
+            length += chunk.readableByteCount();
+            if (chunk instanceof NettyDataBuffer netty) {
+                // Independent indexes, shared memory: the write to the leader's client does not move them
+                buffers.add(netty.getNativeBuffer().retainedDuplicate());
+            } else {
+                ByteBuf copy = Unpooled.buffer(chunk.readableByteCount());
+                try (DataBuffer.ByteBufferIterator iterator = chunk.readableByteBuffers()) {
+                    while (iterator.hasNext()) {
+                        copy.writeBytes(iterator.next());
+                    }
+                }
+                buffers.add(copy);
+            }
+        }
+
+        synchronized SharedResponse toResponse(HttpStatusCode status, HttpHeaders headers) {
+            if (buffers == null) {
+                return null;
+            }
+            SharedResponse response = new SharedResponse(status, headers, buffers, length);
+            buffers = null;
+            return response;
+        }
+
+        synchronized void discard() {
+            if (buffers != null) {
+                buffers.forEach(ByteBuf::release);
+                buffers = null;
+            }
+        }
+    }
+}
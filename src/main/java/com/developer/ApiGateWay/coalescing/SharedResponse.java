@@ -0,0 +1,76 @@
+package com.developer.ApiGateWay.coalescing;
+
+import io.netty.buffer.ByteBuf;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The leader's response in a coalesced call. The body chunks are retained
+ * duplicates of the buffers written to the leader's client; every follower writes
+ * its own duplicates of them, so the body is never copied. The chunks are released
+ * once the leader and every follower have let go of the response.
+ */
+public final class SharedResponse {
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final List<ByteBuf> chunks;
+    private final int length;
+    private final AtomicInteger holders = new AtomicInteger(1);
+
+    SharedResponse(HttpStatusCode status, HttpHeaders headers, List<ByteBuf> chunks, int length) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    public HttpStatusCode status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Buffers for one follower's write; must be called before that follower's
+     * {@link #release()}.
+     */
+    public List<DataBuffer> bodyFor(DataBufferFactory factory) {
+        List<DataBuffer> body = new ArrayList<>(chunks.size());
+        for (ByteBuf chunk : chunks) {
+            if (factory instanceof NettyDataBufferFactory nettyFactory) {
+                body.add(nettyFactory.wrap(chunk.retainedDuplicate()));
+            } else {
+                // Non-Netty responses (e.g. mock exchanges) need their own buffer type
+                byte[] bytes = new byte[chunk.readableBytes()];
+                chunk.getBytes(chunk.readerIndex(), bytes);
+                body.add(factory.wrap(bytes));
+            }
+        }
+        return body;
+    }
+
+    public void release() {
+        if (holders.decrementAndGet() == 0) {
+            chunks.forEach(ByteBuf::release);
+        }
+    }
+
+    // Set once, before the response is handed to anyone
+    void setHolders(int count) {
+        holders.set(count);
+    }
+}
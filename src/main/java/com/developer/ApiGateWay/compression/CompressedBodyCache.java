@@ -0,0 +1,137 @@
+package com.developer.ApiGateWay.compression;
+
+import com.developer.ApiGateWay.config.CompressionProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compressed forms of cacheable response bodies, so that a hot payload is
+ * compressed once rather than on every request. Entries are keyed by coding,
+ * route, path and the response's strong ETag: a strong ETag names one exact byte
+ * sequence, so a later response with the same ETag has the same compressed form.
+ * Bodies are held in pooled direct buffers, weighed by size and released on
+ * eviction, expiry or replacement once no reader is taking a duplicate; a pooled
+ * buffer released under a reader could be reallocated and served under this key.
+ */
+public class CompressedBodyCache implements MeterBinder {
+
+    // Rough allowance for the key next to the body
+    private static final int ENTRY_OVERHEAD = 256;
+
+    /**
+     * A compressed body and the length of the identity body it was made from.
+     */
+    public record Entry(ByteBuf body, long identityLength) {
+    }
+
+    /**
+     * A cached body and its holders: the cache, and each reader while it takes a
+     * duplicate. The body is released when the count reaches zero.
+     */
+    private static final class Stored {
+
+        final ByteBuf body;
+        final long identityLength;
+        final int length;
+        final AtomicInteger holders = new AtomicInteger(1);
+
+        Stored(ByteBuf body, long identityLength) {
+            this.body = body;
+            this.identityLength = identityLength;
+            this.length = body.readableBytes();
+        }
+
+        Entry duplicate() {
+            int count;
+            do {
+                count = holders.get();
+                if (count == 0) {
+                    return null;
+                }
+            } while (!holders.compareAndSet(count, count + 1));
+            try {
+                return new Entry(body.retainedDuplicate(), identityLength);
+            } finally {
+                release();
+            }
+        }
+
+        void release() {
+            if (holders.decrementAndGet() == 0) {
+                body.release();
+            }
+        }
+    }
+
+    private final Cache<String, Stored> cache;
+    private final CompressionProperties properties;
+
+    public CompressedBodyCache(CompressionProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCache().getMaxSize().toBytes())
+                .weigher((String key, Stored stored) -> stored.length + key.length() + ENTRY_OVERHEAD)
+                .expireAfterWrite(properties.getCache().getTtl())
+                // Release on the calling thread, and expire on a timer, as ResponseCacheStore does
+                .executor(Runnable::run)
+                .scheduler(Scheduler.systemScheduler())
+                .removalListener((String key, Stored stored, RemovalCause cause) -> {
+                    if (stored != null) {
+                        stored.release();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a retained duplicate of the cached body for {@code key}, which the
+     * caller must release, or null on a miss.
+     */
+    public Entry get(String key) {
+        Stored stored = cache.getIfPresent(key);
+        // Null as well when evicted and released since the lookup
+        return stored != null ? stored.duplicate() : null;
+    }
+
+    /**
+     * Allocates a pooled direct buffer for capturing a compressed body.
+     */
+    public ByteBuf allocate(int initialCapacity) {
+        return PooledByteBufAllocator.DEFAULT.directBuffer(Math.max(initialCapacity, 256));
+    }
+
+    public long maxEntryBytes() {
+        return properties.getCache().getMaxEntrySize().toBytes();
+    }
+
+    /**
+     * Stores a compressed body; the cache takes ownership of {@code body}.
+     */
+    public void put(String key, ByteBuf body, long identityLength) {
+        cache.put(key, new Stored(body, identityLength));
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "gateway.compression.cache");
+    }
+}
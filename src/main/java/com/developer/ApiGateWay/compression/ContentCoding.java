@@ -0,0 +1,153 @@
+package com.developer.ApiGateWay.compression;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.compression.ZstdEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content codings the gateway can apply to response bodies, and their Netty
+ * encoders. Brotli and zstd need native libraries; where these cannot be loaded
+ * the coding is never negotiated.
+ */
+public enum ContentCoding {
+
+    ZSTD("zstd") {
+        @Override
+        public boolean isAvailable() {
+            return Zstd.isAvailable();
+        }
+
+        @Override
+        MessageToByteEncoder<ByteBuf> newEncoder(int level) {
+            return new ZstdEncoder(level);
+        }
+    },
+
+    BROTLI("br") {
+        @Override
+        public boolean isAvailable() {
+            return Brotli.isAvailable();
+        }
+
+        @Override
+        MessageToByteEncoder<ByteBuf> newEncoder(int level) {
+            return new BrotliEncoder(new Encoder.Parameters().setQuality(level));
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        MessageToByteEncoder<ByteBuf> newEncoder(int level) {
+            return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, level);
+        }
+    };
+
+    private static final ContentCoding[] VALUES = values();
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * The coding's name in Accept-Encoding and Content-Encoding.
+     */
+    public String token() {
+        return token;
+    }
+
+    public abstract boolean isAvailable();
+
+    abstract MessageToByteEncoder<ByteBuf> newEncoder(int level);
+
+    public static ContentCoding fromToken(String token) {
+        String name = token.trim().toLowerCase(Locale.ROOT);
+        for (ContentCoding coding : VALUES) {
+            if (coding.token.equals(name)) {
+                return coding;
+            }
+        }
+        // Legacy alias from RFC 9110, section 8.4.1.3
+        return "x-gzip".equals(name) ? GZIP : null;
+    }
+
+    /**
+     * Picks the coding with the highest q-value in {@code acceptEncoding}, or null
+     * if the client accepts none of {@code preferred}. Codings the client rates
+     * equally go by the order of {@code preferred}; a coding the client does not
+     * name gets the q-value of {@code *}, if present.
+     */
+    public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> preferred) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        float[] qualities = new float[VALUES.length];
+        Arrays.fill(qualities, -1f);
+        float any = -1f;
+
+        int start = 0;
+        int length = acceptEncoding.length();
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int semicolon = acceptEncoding.indexOf(';', start);
+            int nameEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+            String name = acceptEncoding.substring(start, nameEnd).trim();
+            float quality = nameEnd < end ? quality(acceptEncoding.substring(nameEnd + 1, end)) : 1f;
+            if ("*".equals(name)) {
+                any = quality;
+            } else if (!name.isEmpty()) {
+                ContentCoding coding = fromToken(name);
+                if (coding != null) {
+                    qualities[coding.ordinal()] = quality;
+                }
+            }
+            start = end + 1;
+        }
+
+        ContentCoding best = null;
+        float bestQuality = 0f;
+        for (ContentCoding coding : preferred) {
+            float quality = qualities[coding.ordinal()] >= 0 ? qualities[coding.ordinal()] : any;
+            if (quality > bestQuality && coding.isAvailable()) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // Parses the parameters after a coding, e.g. " q=0.8"; a malformed q-value counts as 0
+    private static float quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.charAt(0) == 'q' || trimmed.charAt(0) == 'Q')
+                    && trimmed.charAt(1) == '=') {
+                try {
+                    return Math.max(0f, Math.min(1f, Float.parseFloat(trimmed.substring(2))));
+                } catch (NumberFormatException e) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+}
@@ -0,0 +1,120 @@
+package com.developer.ApiGateWay.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Compresses one response body as it streams past, one chunk at a time. Each
+ * chunk goes through the coding's Netty encoder in an {@link EmbeddedChannel}
+ * whose allocator is the response's, so compressed output lands in pooled
+ * buffers that are written out as they are and never joined. The encoder takes
+ * ownership of every chunk it is given.
+ *
+ * <p>Calls are serialized; {@link #discard()} may come from a cancelling thread
+ * while a chunk is being encoded.
+ */
+public final class StreamingCompressor {
+
+    private final ByteBufAllocator allocator;
+    private final EmbeddedChannel channel;
+    private long identityBytes;
+    private long encodedBytes;
+    private long encodeNanos;
+    private boolean closed;
+
+    public StreamingCompressor(ContentCoding coding, int level, ByteBufAllocator allocator) {
+        this.allocator = allocator;
+        // The allocator has to be set before the encoder is added, which is when some encoders allocate
+        this.channel = new EmbeddedChannel(false, false);
+        channel.config().setAllocator(allocator);
+        channel.pipeline().addLast(coding.newEncoder(level));
+        try {
+            channel.register();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start " + coding.token() + " encoder", e);
+        }
+    }
+
+    /**
+     * Compresses {@code chunk} and returns what the encoder produced for it, or
+     * null if it is still holding the data back.
+     */
+    public synchronized ByteBuf encode(ByteBuf chunk) {
+        if (closed) {
+            chunk.release();
+            throw new IllegalStateException("Compressor already finished");
+        }
+        identityBytes += chunk.readableBytes();
+        long start = System.nanoTime();
+        try {
+            channel.writeOutbound(chunk);
+            return drain();
+        } finally {
+            encodeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Ends the stream and returns the encoder's remaining output and trailer.
+     */
+    public synchronized ByteBuf finish() {
+        if (closed) {
+            return null;
+        }
+        closed = true;
+        long start = System.nanoTime();
+        try {
+            channel.finish();
+            return drain();
+        } finally {
+            encodeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Releases everything the encoder still holds, when the body is abandoned.
+     */
+    public synchronized void discard() {
+        if (!closed) {
+            closed = true;
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    public synchronized long identityBytes() {
+        return identityBytes;
+    }
+
+    public synchronized long encodedBytes() {
+        return encodedBytes;
+    }
+
+    public synchronized long encodeNanos() {
+        return encodeNanos;
+    }
+
+    private ByteBuf drain() {
+        ByteBuf first = null;
+        CompositeByteBuf composite = null;
+        ByteBuf next;
+        while ((next = channel.readOutbound()) != null) {
+            if (!next.isReadable()) {
+                next.release();
+                continue;
+            }
+            encodedBytes += next.readableBytes();
+            if (first == null) {
+                first = next;
+            } else {
+                if (composite == null) {
+                    composite = allocator.compositeBuffer();
+                    composite.addComponent(true, first);
+                }
+                composite.addComponent(true, next);
+            }
+        }
+        return composite != null ? composite : first;
+    }
+}
@@ -0,0 +1,119 @@
+package com.developer.ApiGateWay.concurrency;
+
+import com.developer.ApiGateWay.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit for one route. Admission is a CAS on the in-flight count
+ * against the share of the limit the request's {@link Priority} may use; there is
+ * no queue, a request either gets a slot or is rejected. Completed requests feed a
+ * latency window, and when the window closes one caller folds it into the
+ * {@link GradientLimit} while the others carry on.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final GradientLimit estimator;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double normalShare;
+    private final double bulkShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowLatencySum = new AtomicLong();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicBoolean windowDropped = new AtomicBoolean();
+    private final AtomicBoolean updating = new AtomicBoolean();
+    private volatile long windowStart;
+
+    // Admission thresholds per priority, recomputed whenever the limit changes
+    private volatile int criticalLimit;
+    private volatile int normalLimit;
+    private volatile int bulkLimit;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.estimator = new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getTolerance(), properties.getSmoothing(),
+                properties.getBackoffRatio(), properties.getBaselineWindows());
+        this.windowNanos = properties.getWindow().toNanos();
+        this.minWindowSamples = properties.getMinWindowSamples();
+        this.normalShare = properties.getNormalShare();
+        this.bulkShare = properties.getBulkShare();
+        this.windowStart = System.nanoTime();
+        applyLimit(estimator.limit());
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int allowed = switch (priority) {
+            case CRITICAL -> criticalLimit;
+            case NORMAL -> normalLimit;
+            case BULK -> bulkLimit;
+        };
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot and records the request's latency; {@code dropped} marks an
+     * upstream error or timeout.
+     */
+    public void release(long latencyNanos, boolean dropped, long nowNanos) {
+        inFlight.decrementAndGet();
+        windowLatencySum.addAndGet(latencyNanos);
+        windowSamples.incrementAndGet();
+        if (dropped) {
+            windowDropped.set(true);
+        }
+        if (nowNanos - windowStart >= windowNanos && windowSamples.get() >= minWindowSamples
+                && updating.compareAndSet(false, true)) {
+            try {
+                closeWindow(nowNanos);
+            } finally {
+                updating.set(false);
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without a sample, for requests cancelled by the client.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private void closeWindow(long nowNanos) {
+        int samples = windowSamples.getAndSet(0);
+        long sum = windowLatencySum.getAndSet(0);
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        boolean dropped = windowDropped.getAndSet(false);
+        windowStart = nowNanos;
+        if (samples > 0) {
+            applyLimit(estimator.update(sum / samples, maxInFlight, dropped));
+        }
+    }
+
+    private void applyLimit(double limit) {
+        criticalLimit = Math.max(1, (int) limit);
+        normalLimit = Math.max(1, (int) (limit * normalShare));
+        bulkLimit = Math.max(1, (int) (limit * bulkShare));
+    }
+
+    public int limit() {
+        return criticalLimit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
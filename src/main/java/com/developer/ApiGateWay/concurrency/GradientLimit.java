@@ -0,0 +1,75 @@
+package com.developer.ApiGateWay.concurrency;
+
+/**
+ * Gradient concurrency limit estimator. Each window's average latency is compared
+ * with a slowly moving baseline: while latency stays within {@code tolerance} of the
+ * baseline the limit grows by about its square root per window (the allowance for
+ * queueing), and once latency rises beyond it the limit shrinks in proportion, down
+ * to half per window. A window with upstream errors backs off multiplicatively. The
+ * limit is left alone while the route uses less than half of it, so an idle route
+ * cannot grow a limit it never exercised.
+ *
+ * <p>Not thread-safe; {@link AdaptiveConcurrencyLimiter} serializes updates.
+ */
+public class GradientLimit {
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double baselineAlpha;
+
+    private double limit;
+    private double baselineNanos = Double.NaN;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         double backoffRatio, int baselineWindows) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.baselineAlpha = 2.0 / (Math.max(1, baselineWindows) + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Folds one window into the estimate and returns the new limit.
+     *
+     * @param averageNanos average latency of the window's requests
+     * @param maxInFlight  highest concurrency seen during the window
+     * @param dropped      whether any request of the window failed upstream
+     */
+    public double update(long averageNanos, int maxInFlight, boolean dropped) {
+        if (Double.isNaN(baselineNanos)) {
+            baselineNanos = averageNanos;
+        } else {
+            baselineNanos += baselineAlpha * (averageNanos - baselineNanos);
+            // Latency well below the baseline means the baseline was recorded under load; let it catch up
+            if (baselineNanos > 2.0 * averageNanos) {
+                baselineNanos = 0.95 * baselineNanos + 0.05 * averageNanos;
+            }
+        }
+
+        double next;
+        if (dropped) {
+            next = limit * backoffRatio;
+        } else if (maxInFlight < limit / 2) {
+            return limit;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / Math.max(1, averageNanos)));
+            next = limit * (1 - smoothing) + (limit * gradient + Math.sqrt(limit)) * smoothing;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+        return limit;
+    }
+
+    public double limit() {
+        return limit;
+    }
+
+    public double baselineNanos() {
+        return baselineNanos;
+    }
+}
@@ -0,0 +1,10 @@
+package com.developer.ApiGateWay.concurrency;
+
+/**
+ * Shedding order under overload: bulk requests are rejected first, critical ones last.
+ */
+public enum Priority {
+    CRITICAL,
+    NORMAL,
+    BULK
+}
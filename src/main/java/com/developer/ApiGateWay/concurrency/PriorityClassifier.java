@@ -0,0 +1,40 @@
+package com.developer.ApiGateWay.concurrency;
+
+import com.developer.ApiGateWay.routing.PathPrefixIndex;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Assigns a {@link Priority} to a request: critical path patterns first, then bulk
+ * methods, otherwise normal.
+ */
+public class PriorityClassifier {
+
+    private final PathPrefixIndex<PathPattern> criticalPaths;
+    private final Set<HttpMethod> bulkMethods;
+
+    public PriorityClassifier(List<String> criticalPaths, List<HttpMethod> bulkMethods) {
+        PathPrefixIndex.Builder<PathPattern> builder = PathPrefixIndex.builder();
+        for (String pattern : criticalPaths) {
+            builder.add(PathPatternParser.defaultInstance.parse(pattern), List.of(pattern));
+        }
+        this.criticalPaths = builder.build();
+        this.bulkMethods = Set.copyOf(bulkMethods);
+    }
+
+    public Priority classify(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : criticalPaths.candidates(path)) {
+            if (pattern.matches(path)) {
+                return Priority.CRITICAL;
+            }
+        }
+        return bulkMethods.contains(request.getMethod()) ? Priority.BULK : Priority.NORMAL;
+    }
+}
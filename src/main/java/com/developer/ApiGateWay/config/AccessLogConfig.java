@@ -0,0 +1,18 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.logging.AccessLogWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "gateway.access-log", name = "mode", havingValue = "structured")
+    public AccessLogWriter accessLogWriter(AccessLogProperties properties) {
+        return new AccessLogWriter(properties);
+    }
+}
@@ -0,0 +1,76 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    public enum Mode {
+        // Human-readable request/response lines through SLF4J
+        TEXT,
+        // Fixed-layout records drained to a file on a background thread
+        STRUCTURED
+    }
+
+    private Mode mode = Mode.TEXT;
+    private String file = "logs/access.log";
+
+    // Number of records the ring holds; must be a power of two
+    private int bufferCapacity = 65536;
+
+    // Bytes per record; paths longer than the space left after the fixed fields are truncated
+    private int recordSize = 256;
+
+    private int batchSize = 64 * 1024;
+    private Duration flushInterval = Duration.ofMillis(100);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    public void setRecordSize(int recordSize) {
+        this.recordSize = recordSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,21 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.batch.BatchDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.HttpHandler;
+
+@Configuration
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfig {
+
+    // The HttpHandler is looked up on first use: it is built from the context that holds the controller
+    @Bean
+    public BatchDispatcher batchDispatcher(ObjectProvider<HttpHandler> httpHandler, BatchProperties properties,
+                                           ObjectMapper objectMapper) {
+        return new BatchDispatcher(httpHandler, properties, objectMapper);
+    }
+}
@@ -0,0 +1,65 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+
+    // Sub-requests accepted in one batch; larger batches are rejected with 400
+    private int maxRequests = 20;
+
+    // Sub-requests of one batch in flight at a time
+    private int maxConcurrency = 8;
+
+    // Per sub-request, unless the sub-request asks for less (timeoutMs)
+    private Duration timeout = Duration.ofSeconds(5);
+
+    // Upper bound for a sub-request's own timeoutMs
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    // Sub-response bodies are buffered to be embedded; larger ones are answered with 502
+    private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    public void setMaxTimeout(Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+}
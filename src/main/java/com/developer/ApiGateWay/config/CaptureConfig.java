@@ -0,0 +1,24 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.capture.TrafficCaptureWriter;
+import com.developer.ApiGateWay.filter.TrafficCaptureFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CaptureProperties.class)
+@ConditionalOnProperty(prefix = "gateway.capture", name = "enabled", havingValue = "true")
+public class CaptureConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TrafficCaptureWriter trafficCaptureWriter(CaptureProperties properties) {
+        return new TrafficCaptureWriter(properties);
+    }
+
+    @Bean
+    public TrafficCaptureFilter trafficCaptureFilter(TrafficCaptureWriter trafficCaptureWriter) {
+        return new TrafficCaptureFilter(trafficCaptureWriter);
+    }
+}
@@ -0,0 +1,75 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.capture")
+public class CaptureProperties {
+
+    private boolean enabled = false;
+
+    // Appended to across restarts; each run starts a new segment
+    private Path file = Path.of("logs/traffic.capture");
+
+    // Fraction of requests recorded, in (0, 1]
+    private double sampleRate = 0.01;
+
+    // Sampled requests waiting for the writer thread; must be a power of two
+    private int bufferCapacity = 16384;
+
+    // Capturing stops once the file reaches this size
+    private DataSize maxFileSize = DataSize.ofGigabytes(1);
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public void setBufferCapacity(int bufferCapacity) {
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
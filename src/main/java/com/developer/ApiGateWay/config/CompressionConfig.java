@@ -0,0 +1,16 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.compression.CompressedBodyCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    @Bean(destroyMethod = "invalidateAll")
+    public CompressedBodyCache compressedBodyCache(CompressionProperties properties) {
+        return new CompressedBodyCache(properties);
+    }
+}
@@ -0,0 +1,86 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    // Compression levels: gzip 1-9, brotli 0-11, zstd 1-22; higher trades CPU for smaller bodies
+    private int gzipLevel = 6;
+
+    private int brotliLevel = 4;
+
+    private int zstdLevel = 3;
+
+    private Cache cache = new Cache();
+
+    public int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    public void setGzipLevel(int gzipLevel) {
+        this.gzipLevel = gzipLevel;
+    }
+
+    public int getBrotliLevel() {
+        return brotliLevel;
+    }
+
+    public void setBrotliLevel(int brotliLevel) {
+        this.brotliLevel = brotliLevel;
+    }
+
+    public int getZstdLevel() {
+        return zstdLevel;
+    }
+
+    public void setZstdLevel(int zstdLevel) {
+        this.zstdLevel = zstdLevel;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public static class Cache {
+
+        // Total compressed bytes held across routes and codings
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        // Larger compressed bodies are streamed without being kept
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.filter.AdaptiveConcurrencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "gateway.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyFilter adaptiveConcurrencyFilter(ConcurrencyLimitProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyFilter(properties, meterRegistry);
+    }
+}
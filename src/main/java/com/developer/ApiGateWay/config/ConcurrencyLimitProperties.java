@@ -0,0 +1,175 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled;
+
+    private int initialLimit = 50;
+
+    private int minLimit = 8;
+
+    private int maxLimit = 1000;
+
+    // How long latency samples are collected before the limit is recomputed
+    private Duration window = Duration.ofMillis(100);
+
+    // Samples needed in a window before it counts; quieter windows are carried over
+    private int minWindowSamples = 10;
+
+    // Number of windows averaged into the no-load latency baseline
+    private int baselineWindows = 100;
+
+    // Latency may grow to tolerance x baseline before the limit shrinks
+    private double tolerance = 1.5;
+
+    // Weight of each new estimate in the limit, smoothing out single noisy windows
+    private double smoothing = 0.2;
+
+    // Multiplier applied to the limit after a window with upstream errors or timeouts
+    private double backoffRatio = 0.9;
+
+    // Sent as Retry-After with a 503 rejection
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Never shed while the route has spare capacity; matched before bulk methods
+    private List<String> criticalPaths = new ArrayList<>(List.of(
+            "/api/auth/login",
+            "/api/admin/**"
+    ));
+
+    // Requests with these methods (outside criticalPaths) are shed first
+    private List<HttpMethod> bulkMethods = new ArrayList<>(List.of(HttpMethod.GET, HttpMethod.HEAD));
+
+    // Share of the limit usable by normal and bulk requests; critical requests may use all of it
+    private double normalShare = 0.9;
+
+    private double bulkShare = 0.7;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMinWindowSamples() {
+        return minWindowSamples;
+    }
+
+    public void setMinWindowSamples(int minWindowSamples) {
+        this.minWindowSamples = minWindowSamples;
+    }
+
+    public int getBaselineWindows() {
+        return baselineWindows;
+    }
+
+    public void setBaselineWindows(int baselineWindows) {
+        this.baselineWindows = baselineWindows;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public List<String> getCriticalPaths() {
+        return criticalPaths;
+    }
+
+    public void setCriticalPaths(List<String> criticalPaths) {
+        this.criticalPaths = criticalPaths;
+    }
+
+    public List<HttpMethod> getBulkMethods() {
+        return bulkMethods;
+    }
+
+    public void setBulkMethods(List<HttpMethod> bulkMethods) {
+        this.bulkMethods = bulkMethods;
+    }
+
+    public double getNormalShare() {
+        return normalShare;
+    }
+
+    public void setNormalShare(double normalShare) {
+        this.normalShare = normalShare;
+    }
+
+    public double getBulkShare() {
+        return bulkShare;
+    }
+
+    public void setBulkShare(double bulkShare) {
+        this.bulkShare = bulkShare;
+    }
+}
@@ -0,0 +1,23 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.exception.ErrorBodies;
+import com.developer.ApiGateWay.exception.ErrorReporter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ErrorHandlingProperties.class)
+public class ErrorHandlingConfig {
+
+    @Bean
+    public ErrorReporter errorReporter(MeterRegistry meterRegistry, ErrorHandlingProperties properties) {
+        return new ErrorReporter(meterRegistry, properties.getTraceInterval(), properties.getMaxTracked());
+    }
+
+    @Bean
+    public ErrorBodies errorBodies(ErrorHandlingProperties properties) {
+        return new ErrorBodies(properties.getMaxBodies());
+    }
+}
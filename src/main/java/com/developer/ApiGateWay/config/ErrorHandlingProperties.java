@@ -0,0 +1,42 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.errors")
+public class ErrorHandlingProperties {
+
+    // At most one stack trace per route, exception type and status in this time; the rest are counted
+    private Duration traceInterval = Duration.ofSeconds(10);
+
+    // Route, exception type and status combinations tracked separately; further types count as "other"
+    private int maxTracked = 1000;
+
+    // Distinct status and message pairs whose error bodies are kept encoded
+    private int maxBodies = 256;
+
+    public Duration getTraceInterval() {
+        return traceInterval;
+    }
+
+    public void setTraceInterval(Duration traceInterval) {
+        this.traceInterval = traceInterval;
+    }
+
+    public int getMaxTracked() {
+        return maxTracked;
+    }
+
+    public void setMaxTracked(int maxTracked) {
+        this.maxTracked = maxTracked;
+    }
+
+    public int getMaxBodies() {
+        return maxBodies;
+    }
+
+    public void setMaxBodies(int maxBodies) {
+        this.maxBodies = maxBodies;
+    }
+}
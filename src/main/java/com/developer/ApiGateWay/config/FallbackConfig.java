@@ -0,0 +1,17 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.fallback.FallbackResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FallbackProperties.class)
+public class FallbackConfig {
+
+    @Bean
+    public FallbackResponses fallbackResponses(FallbackProperties properties, ObjectMapper objectMapper) {
+        return new FallbackResponses(properties, objectMapper);
+    }
+}
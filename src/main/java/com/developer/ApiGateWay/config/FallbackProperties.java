@@ -0,0 +1,88 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.fallback")
+public class FallbackProperties {
+
+    // Bodies by the name in a route's fallbackUri (forward:/fallback/{name}); "default" answers any other name
+    private Map<String, Body> bodies = new LinkedHashMap<>(Map.of(
+            "default", new Body("unknown",
+                    "Service is currently unavailable. Please try again later.",
+                    "Please try again in a few minutes or contact support")));
+
+    public Map<String, Body> getBodies() {
+        return bodies;
+    }
+
+    public void setBodies(Map<String, Body> bodies) {
+        this.bodies = bodies;
+    }
+
+    public static class Body {
+
+        private String service;
+
+        private String message;
+
+        private String suggestion;
+
+        private HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        // Serve the route's last cached GET response instead, when ResponseCacheFilter still holds one
+        private boolean lastKnownGood;
+
+        public Body() {
+        }
+
+        public Body(String service, String message, String suggestion) {
+            this.service = service;
+            this.message = message;
+            this.suggestion = suggestion;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public void setService(String service) {
+            this.service = service;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public String getSuggestion() {
+            return suggestion;
+        }
+
+        public void setSuggestion(String suggestion) {
+            this.suggestion = suggestion;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(HttpStatus status) {
+            this.status = status;
+        }
+
+        public boolean isLastKnownGood() {
+            return lastKnownGood;
+        }
+
+        public void setLastKnownGood(boolean lastKnownGood) {
+            this.lastKnownGood = lastKnownGood;
+        }
+    }
+}
@@ -1,23 +1,34 @@
 package com.developer.ApiGateWay.config;
 
+import com.developer.ApiGateWay.filter.StreamingPassThroughFilter;
+import com.developer.ApiGateWay.routing.IndexedRoutePredicateHandlerMapping;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(StreamingProperties.class)
+@ImportRuntimeHints(GatewayRuntimeHints.class)
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           StreamingPassThroughFilter streamingPassThroughFilter,
+                                           StreamingProperties streamingProperties) {
         return builder.routes()
                 // Authentication Service Route
                 .route("auth-service", r -> r
                         .path("/api/auth/**")
                         .filters(f -> f
                                 .stripPrefix(2)
-                                .addRequestHeader("X-Gateway", "API-Gateway")
-                                .addResponseHeader("X-Response-Time", String.valueOf(System.currentTimeMillis())))
+                                .addRequestHeader("X-Gateway", "API-Gateway"))
+                        .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/auth/**"))
                         .uri("lb://auth-service"))
                 
                 // Notification Service Route
@@ -27,15 +38,19 @@ public class GatewayConfig {
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .addRequestHeader("X-Gateway", "API-Gateway"))
+                        .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/notifications/**"))
                         .uri("lb://notification-service"))
                 
-                // File Service Route with size limit
+                // File Service Route: streamed pass-through with a size limit enforced on the body stream
                 .route("file-service", r -> r
                         .path("/api/files/**")
-                        .and()
-                        .header("Content-Length", "\\d+")
                         .filters(f -> f
-                                .stripPrefix(2)) 
+                                .stripPrefix(2)
+                                .filter(streamingPassThroughFilter.apply(new StreamingPassThroughFilter.Config()
+                                        .setMaxBodySize(streamingProperties.getMaxBodySize())
+                                        .setMaxInFlightBytes(streamingProperties.getMaxInFlightBytes()))))
+                        .metadata(StreamingRoutes.METADATA_KEY, true)
+                        .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/files/**"))
                         .uri("lb://file-service"))
                 
                 // Admin routes with specific method restrictions
@@ -46,6 +61,7 @@ public class GatewayConfig {
                         .filters(f -> f
                                 .stripPrefix(2)
                                 .addRequestHeader("X-Admin-Request", "true"))
+                        .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/admin/**"))
                         .uri("lb://admin-service"))
                 
                 .build();
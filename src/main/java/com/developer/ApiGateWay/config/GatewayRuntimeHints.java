@@ -0,0 +1,57 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.cloud.gateway.support.Configurable;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Hints for the AOT builds (native and cds profiles). Route filter args and rate
+ * limiter args are bound onto each factory's config class by reflection; Spring
+ * Cloud Gateway registers its own factories but only scans its own package, so
+ * every {@link Configurable} in this application is registered here with its
+ * config type. The Redis Lua scripts are classpath resources. Controllers write
+ * pre-serialized JSON and need nothing beyond Spring's request-mapping hints.
+ *
+ * <p>brotli4j and zstd-jni load JNI libraries that are not described here; in a
+ * native image they report themselves unavailable and compression uses gzip.
+ */
+public class GatewayRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String BASE_PACKAGE = "com.developer.ApiGateWay";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("scripts/*.lua");
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        for (Class<?> type : configurableTypes(classLoader)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+            Class<?> config = ResolvableType.forClass(type).as(Configurable.class).resolveGeneric(0);
+            if (config != null) {
+                bindings.registerReflectionHints(hints.reflection(), config);
+            }
+        }
+    }
+
+    static Set<Class<?>> configurableTypes(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter(new AssignableTypeFilter(Configurable.class));
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+        }
+        return types;
+    }
+}
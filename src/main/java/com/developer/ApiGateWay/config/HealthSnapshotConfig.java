@@ -0,0 +1,22 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.health.HealthSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@EnableConfigurationProperties(HealthSnapshotProperties.class)
+public class HealthSnapshotConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public HealthSnapshotService healthSnapshotService(DiscoveryClient discoveryClient,
+                                                       HealthSnapshotProperties properties,
+                                                       ObjectMapper objectMapper,
+                                                       WebClient.Builder webClientBuilder) {
+        return new HealthSnapshotService(discoveryClient, properties, objectMapper, webClientBuilder);
+    }
+}
@@ -0,0 +1,22 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.security.JwksKeyStore;
+import com.developer.ApiGateWay.security.JwtVerifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public JwksKeyStore jwksKeyStore(JwtProperties properties) {
+        return new JwksKeyStore(properties);
+    }
+
+    @Bean
+    public JwtVerifier jwtVerifier(JwksKeyStore keyStore, JwtProperties properties) {
+        return new JwtVerifier(keyStore, properties);
+    }
+}
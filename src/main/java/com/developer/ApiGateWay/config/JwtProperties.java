@@ -0,0 +1,137 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.jwt")
+public class JwtProperties {
+
+    // Local JWKS file, re-read periodically so keys can be rotated without a restart
+    private String jwksFile;
+
+    // Inline JWKS JSON, used when no file is configured
+    private String jwks;
+
+    private String issuer;
+    private String audience;
+    private Duration clockSkew = Duration.ofSeconds(30);
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    // Shortest gap between the last reload and an early one for a token with an unknown key id
+    private Duration minRefreshInterval = Duration.ofSeconds(5);
+
+    private String userIdClaim = "sub";
+    private String roleClaim = "role";
+    private String defaultRole = "USER";
+
+    private final Cache cache = new Cache();
+
+    public String getJwksFile() {
+        return jwksFile;
+    }
+
+    public void setJwksFile(String jwksFile) {
+        this.jwksFile = jwksFile;
+    }
+
+    public String getJwks() {
+        return jwks;
+    }
+
+    public void setJwks(String jwks) {
+        this.jwks = jwks;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+
+    public String getAudience() {
+        return audience;
+    }
+
+    public void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public void setClockSkew(Duration clockSkew) {
+        this.clockSkew = clockSkew;
+    }
+
+    public Duration getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(Duration reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public Duration getMinRefreshInterval() {
+        return minRefreshInterval;
+    }
+
+    public void setMinRefreshInterval(Duration minRefreshInterval) {
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    public String getUserIdClaim() {
+        return userIdClaim;
+    }
+
+    public void setUserIdClaim(String userIdClaim) {
+        this.userIdClaim = userIdClaim;
+    }
+
+    public String getRoleClaim() {
+        return roleClaim;
+    }
+
+    public void setRoleClaim(String roleClaim) {
+        this.roleClaim = roleClaim;
+    }
+
+    public String getDefaultRole() {
+        return defaultRole;
+    }
+
+    public void setDefaultRole(String defaultRole) {
+        this.defaultRole = defaultRole;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Cache {
+
+        private long maxSize = 100_000;
+
+        // Upper bound on how long a verified token is trusted without re-checking the signature
+        private Duration maxTtl = Duration.ofMinutes(5);
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxTtl() {
+            return maxTtl;
+        }
+
+        public void setMaxTtl(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+    }
+}
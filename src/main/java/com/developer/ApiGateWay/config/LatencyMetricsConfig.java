@@ -0,0 +1,67 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.filter.UpstreamTimingFilter;
+import com.developer.ApiGateWay.latency.LatencyEndpoint;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.TimedRateLimiter;
+import com.developer.ApiGateWay.latency.UpstreamTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LatencyMetricsProperties.class)
+public class LatencyMetricsConfig {
+
+    @Bean
+    public RouteLatencyRecorder routeLatencyRecorder(MeterRegistry meterRegistry, LatencyMetricsProperties properties) {
+        return new RouteLatencyRecorder(meterRegistry, properties);
+    }
+
+    @Bean
+    public LatencyEndpoint latencyEndpoint(RouteLatencyRecorder routeLatencyRecorder) {
+        return new LatencyEndpoint(routeLatencyRecorder);
+    }
+
+    @Bean
+    public UpstreamTimingFilter upstreamTimingFilter() {
+        return new UpstreamTimingFilter();
+    }
+
+    // Connection acquisition and time to first byte, read from the UpstreamTiming in the request's context
+    @Bean
+    public HttpClientCustomizer upstreamTimingHttpClientCustomizer(RouteLatencyRecorder routeLatencyRecorder) {
+        return httpClient -> httpClient
+                .doOnRequest((request, connection) -> {
+                    UpstreamTiming timing = request.currentContextView().getOrDefault(UpstreamTiming.class, null);
+                    if (timing != null) {
+                        timing.requestStarted(routeLatencyRecorder, System.nanoTime());
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    UpstreamTiming timing = response.currentContextView().getOrDefault(UpstreamTiming.class, null);
+                    if (timing != null) {
+                        timing.responseReceived(routeLatencyRecorder, System.nanoTime());
+                    }
+                });
+    }
+
+    // Static so that rate limiter beans created early are still post-processed
+    @Bean
+    public static BeanPostProcessor timedRateLimiterPostProcessor(ObjectProvider<RouteLatencyRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RateLimiter<?> rateLimiter && !(bean instanceof TimedRateLimiter<?>)) {
+                    return new TimedRateLimiter<>(rateLimiter, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
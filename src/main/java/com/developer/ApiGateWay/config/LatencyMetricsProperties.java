@@ -0,0 +1,66 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.latency")
+public class LatencyMetricsProperties {
+
+    // Published per route and stage, and shown by /actuator/latency
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.99, 0.999));
+
+    // Also publish histogram buckets, for percentiles aggregated across instances in Prometheus
+    private boolean percentileHistogram;
+
+    // Percentiles cover roughly this much recent time
+    private Duration window = Duration.ofMinutes(1);
+
+    // The window rotates in this many steps, so percentiles never reset all at once
+    private int windowBuffers = 3;
+
+    // Samples above this are clamped to it in the histograms
+    private Duration maxExpected = Duration.ofSeconds(30);
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getWindowBuffers() {
+        return windowBuffers;
+    }
+
+    public void setWindowBuffers(int windowBuffers) {
+        this.windowBuffers = windowBuffers;
+    }
+
+    public Duration getMaxExpected() {
+        return maxExpected;
+    }
+
+    public void setMaxExpected(Duration maxExpected) {
+        this.maxExpected = maxExpected;
+    }
+}
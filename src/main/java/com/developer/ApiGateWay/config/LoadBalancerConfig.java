@@ -0,0 +1,27 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.filter.LoadBalancerStatsFilter;
+import com.developer.ApiGateWay.loadbalancer.InstanceStatsRegistry;
+import com.developer.ApiGateWay.loadbalancer.LatencyAwareLoadBalancerClientConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@ConditionalOnProperty(prefix = "gateway.load-balancer", name = "mode", havingValue = "latency-aware")
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerClientConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(LoadBalancerProperties properties) {
+        return new InstanceStatsRegistry(properties);
+    }
+
+    @Bean
+    public LoadBalancerStatsFilter loadBalancerStatsFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        return new LoadBalancerStatsFilter(instanceStatsRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    public enum Mode {
+        // Spring Cloud LoadBalancer's default round-robin over discovered instances
+        ROUND_ROBIN,
+        // Power-of-two-choices on decaying latency, in-flight requests and recent failures
+        LATENCY_AWARE
+    }
+
+    private Mode mode = Mode.ROUND_ROBIN;
+
+    // Time constant of the latency average; older samples weigh e^(-age/decayTime)
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    // Cost multiplier for an instance that failed within failurePenaltyWindow
+    private double failurePenalty = 4.0;
+
+    private Duration failurePenaltyWindow = Duration.ofSeconds(10);
+
+    // Consecutive failures after which an instance is skipped while others are healthy
+    private int tripThreshold = 5;
+
+    private Duration tripDuration = Duration.ofSeconds(30);
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public double getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(double failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+
+    public Duration getFailurePenaltyWindow() {
+        return failurePenaltyWindow;
+    }
+
+    public void setFailurePenaltyWindow(Duration failurePenaltyWindow) {
+        this.failurePenaltyWindow = failurePenaltyWindow;
+    }
+
+    public int getTripThreshold() {
+        return tripThreshold;
+    }
+
+    public void setTripThreshold(int tripThreshold) {
+        this.tripThreshold = tripThreshold;
+    }
+
+    public Duration getTripDuration() {
+        return tripDuration;
+    }
+
+    public void setTripDuration(Duration tripDuration) {
+        this.tripDuration = tripDuration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.ratelimit.LocalRateLimiter;
+import com.developer.ApiGateWay.ratelimit.RedisRateReconciler;
+import com.developer.ApiGateWay.ratelimit.TokenBucketMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * Replaces the default RedisRateLimiter with in-process token buckets when
+ * gateway.rate-limiter.mode is local or hybrid.
+ */
+@Configuration
+@EnableConfigurationProperties(LocalRateLimitProperties.class)
+@ConditionalOnExpression("'${gateway.rate-limiter.mode:redis}'.toLowerCase() matches 'local|hybrid'")
+public class LocalRateLimitConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TokenBucketMap tokenBucketMap(LocalRateLimitProperties properties) {
+        return new TokenBucketMap(properties.getStripes(), properties.getIdleTimeout().toMillis(),
+                properties.getMode() == LocalRateLimitProperties.Mode.HYBRID);
+    }
+
+    @Bean
+    @Primary
+    public LocalRateLimiter localRateLimiter(TokenBucketMap tokenBucketMap, ConfigurationService configurationService) {
+        return new LocalRateLimiter(tokenBucketMap, configurationService);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "gateway.rate-limiter", name = "mode", havingValue = "hybrid")
+    public RedisRateReconciler redisRateReconciler(ReactiveStringRedisTemplate redisTemplate,
+                                                   TokenBucketMap tokenBucketMap,
+                                                   LocalRateLimitProperties properties) {
+        return new RedisRateReconciler(redisTemplate, tokenBucketMap, properties.getHybrid());
+    }
+}
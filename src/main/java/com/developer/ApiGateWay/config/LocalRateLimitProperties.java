@@ -0,0 +1,124 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.rate-limiter")
+public class LocalRateLimitProperties {
+
+    public enum Mode {
+        // Spring Cloud Gateway's RedisRateLimiter, one Redis call per request
+        REDIS,
+        // The same Redis buckets, with concurrent requests' calls merged into batches (gateway.redis-batch)
+        BATCHED,
+        // Token buckets kept in process, per gateway node
+        LOCAL,
+        // Local buckets sized to this node's share, reconciled with Redis in the background
+        HYBRID
+    }
+
+    private Mode mode = Mode.REDIS;
+
+    // Number of independent bucket maps; keys are spread across them by hash
+    private int stripes = 64;
+
+    // Buckets untouched for this long are evicted; keep it above burstCapacity / replenishRate
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private final Hybrid hybrid = new Hybrid();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Hybrid getHybrid() {
+        return hybrid;
+    }
+
+    public static class Hybrid {
+
+        // How often consumed tokens are pushed to Redis
+        private Duration syncInterval = Duration.ofMillis(100);
+
+        // Window over which the cluster-wide total is compared with the limit
+        private Duration window = Duration.ofSeconds(1);
+
+        // Maximum keys sent in one Lua batch call
+        private int batchSize = 500;
+
+        // Assumed node count until the first heartbeat round trip completes
+        private int initialClusterSize = 1;
+
+        private String nodeId;
+        private String keyPrefix = "gateway_rate_limiter";
+
+        public Duration getSyncInterval() {
+            return syncInterval;
+        }
+
+        public void setSyncInterval(Duration syncInterval) {
+            this.syncInterval = syncInterval;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getInitialClusterSize() {
+            return initialClusterSize;
+        }
+
+        public void setInitialClusterSize(int initialClusterSize) {
+            this.initialClusterSize = initialClusterSize;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public void setKeyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+}
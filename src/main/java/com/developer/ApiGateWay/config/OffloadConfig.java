@@ -0,0 +1,27 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.offload.BlockingCallDetector;
+import com.developer.ApiGateWay.offload.BlockingOffload;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OffloadProperties.class)
+public class OffloadConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public BlockingOffload blockingOffload(OffloadProperties properties, MeterRegistry meterRegistry) {
+        return new BlockingOffload(properties.getMaxConcurrency(), properties.getMaxQueued(),
+                properties.getTimeout(), meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "gateway.offload.blocking-detection.enabled", havingValue = "true")
+    public BlockingCallDetector blockingCallDetector(OffloadProperties properties, MeterRegistry meterRegistry) {
+        OffloadProperties.BlockingDetection detection = properties.getBlockingDetection();
+        return new BlockingCallDetector(detection.getInterval(), detection.getMode(), meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.offload.BlockingCallDetector;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.offload")
+public class OffloadProperties {
+
+    // Offloaded tasks running at once; each runs on its own virtual thread
+    private int maxConcurrency = 256;
+
+    // Tasks waiting beyond maxConcurrency; more are rejected
+    private int maxQueued = 10000;
+
+    // Timeout for BlockingOffload.call without an explicit one, queueing included
+    private Duration timeout = Duration.ofSeconds(5);
+
+    private BlockingDetection blockingDetection = new BlockingDetection();
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public BlockingDetection getBlockingDetection() {
+        return blockingDetection;
+    }
+
+    public void setBlockingDetection(BlockingDetection blockingDetection) {
+        this.blockingDetection = blockingDetection;
+    }
+
+    public static class BlockingDetection {
+
+        // Debug mode: report blocking calls on event-loop threads
+        private boolean enabled = false;
+
+        // How often event-loop threads are sampled
+        private Duration interval = Duration.ofMillis(50);
+
+        // LOG reports guarded calls, FAIL also throws from them
+        private BlockingCallDetector.Mode mode = BlockingCallDetector.Mode.LOG;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public BlockingCallDetector.Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(BlockingCallDetector.Mode mode) {
+            this.mode = mode;
+        }
+    }
+}
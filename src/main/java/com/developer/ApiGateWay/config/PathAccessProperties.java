@@ -0,0 +1,39 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.security")
+public class PathAccessProperties {
+
+    // Path patterns reachable without a token; checked before authenticatedPaths
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/api/health/**",
+            "/api/auth/login",
+            "/api/auth/register",
+            "/actuator/**",
+            "/fallback/**"
+    ));
+
+    private List<String> authenticatedPaths = new ArrayList<>(List.of(
+            "/api/admin/**"
+    ));
+
+    public List<String> getPublicPaths() {
+        return publicPaths;
+    }
+
+    public void setPublicPaths(List<String> publicPaths) {
+        this.publicPaths = publicPaths;
+    }
+
+    public List<String> getAuthenticatedPaths() {
+        return authenticatedPaths;
+    }
+
+    public void setAuthenticatedPaths(List<String> authenticatedPaths) {
+        this.authenticatedPaths = authenticatedPaths;
+    }
+}
@@ -3,12 +3,14 @@ package com.developer.ApiGateWay.config;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import reactor.core.publisher.Mono;
 
 @Configuration
 public class RateLimitConfig {
 
     @Bean
+    @Primary
     public KeyResolver userKeyResolver() {
         return exchange -> {
             // Rate limit by user ID if available, otherwise by IP
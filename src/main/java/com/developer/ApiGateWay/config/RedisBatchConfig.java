@@ -0,0 +1,34 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.ratelimit.BatchedRedisRateLimiter;
+import com.developer.ApiGateWay.redis.RedisBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * Replaces the default RedisRateLimiter with {@link BatchedRedisRateLimiter} when
+ * gateway.rate-limiter.mode is batched; the RequestRateLimiter default filter then
+ * uses it on every route.
+ */
+@Configuration
+@EnableConfigurationProperties(RedisBatchProperties.class)
+@ConditionalOnProperty(prefix = "gateway.rate-limiter", name = "mode", havingValue = "batched")
+public class RedisBatchConfig {
+
+    @Bean
+    @Primary
+    public BatchedRedisRateLimiter batchedRedisRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                                           RedisBatchProperties properties,
+                                                           MeterRegistry meterRegistry,
+                                                           ConfigurationService configurationService) {
+        RedisBatcher batcher = new RedisBatcher("rate_limiter", redisTemplate, BatchedRedisRateLimiter.BATCH_SCRIPT,
+                properties.getMaxBatchSize(), properties.getWindow(), meterRegistry);
+        return new BatchedRedisRateLimiter(batcher, configurationService);
+    }
+}
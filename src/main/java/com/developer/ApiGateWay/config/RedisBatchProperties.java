@@ -0,0 +1,31 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.redis-batch")
+public class RedisBatchProperties {
+
+    // How long the first operation of a batch waits for others before the batch is sent
+    private Duration window = Duration.ofNanos(100_000);
+
+    // A batch is sent as soon as it holds this many operations
+    private int maxBatchSize = 64;
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
@@ -0,0 +1,44 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.registry.EurekaRegistryClient;
+import com.developer.ApiGateWay.registry.RegistrySnapshotService;
+import com.developer.ApiGateWay.registry.SnapshotDiscoveryClient;
+import com.developer.ApiGateWay.registry.SnapshotReactiveDiscoveryClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+@EnableConfigurationProperties(RegistryProperties.class)
+@ConditionalOnProperty(prefix = "gateway.registry", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(prefix = "eureka.client", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RegistryConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RegistrySnapshotService registrySnapshotService(RegistryProperties properties,
+                                                           WebClient.Builder webClientBuilder,
+                                                           ObjectMapper objectMapper,
+                                                           ApplicationEventPublisher publisher,
+                                                           MeterRegistry meterRegistry) {
+        EurekaRegistryClient eureka = new EurekaRegistryClient(properties.getEurekaUrls(), webClientBuilder,
+                objectMapper, properties.getFetchTimeout(),
+                (int) Math.min(Integer.MAX_VALUE, properties.getMaxResponseSize().toBytes()));
+        return new RegistrySnapshotService(eureka, properties, publisher, meterRegistry);
+    }
+
+    @Bean
+    public SnapshotDiscoveryClient snapshotDiscoveryClient(RegistrySnapshotService registrySnapshotService) {
+        return new SnapshotDiscoveryClient(registrySnapshotService);
+    }
+
+    @Bean
+    public SnapshotReactiveDiscoveryClient snapshotReactiveDiscoveryClient(
+            RegistrySnapshotService registrySnapshotService) {
+        return new SnapshotReactiveDiscoveryClient(registrySnapshotService);
+    }
+}
@@ -0,0 +1,99 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.registry")
+public class RegistryProperties {
+
+    // Keep a persisted registry snapshot, reconciled with Eureka, in front of the Eureka client's registry
+    private boolean enabled = true;
+
+    // Eureka servers, tried in order; the same as eureka.client.service-url.defaultZone
+    private List<String> eurekaUrls = new ArrayList<>(List.of("http://localhost:8761/eureka/"));
+
+    // Last known registry, loaded at startup and rewritten when it changes
+    private Path snapshotFile = Path.of("data/registry.snapshot");
+
+    // An older snapshot is not loaded; its instances are likely gone
+    private Duration maxSnapshotAge = Duration.ofHours(24);
+
+    private Duration fetchInterval = Duration.ofSeconds(30);
+
+    private Duration fetchTimeout = Duration.ofSeconds(5);
+
+    // How long Eureka keeps changes for apps/delta (eureka.server.retention-time-in-m-s-in-delta-queue);
+    // a registry last synced longer ago than this is fetched in full
+    private Duration deltaWindow = Duration.ofMinutes(3);
+
+    private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getEurekaUrls() {
+        return eurekaUrls;
+    }
+
+    public void setEurekaUrls(List<String> eurekaUrls) {
+        this.eurekaUrls = eurekaUrls;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public Duration getMaxSnapshotAge() {
+        return maxSnapshotAge;
+    }
+
+    public void setMaxSnapshotAge(Duration maxSnapshotAge) {
+        this.maxSnapshotAge = maxSnapshotAge;
+    }
+
+    public Duration getFetchInterval() {
+        return fetchInterval;
+    }
+
+    public void setFetchInterval(Duration fetchInterval) {
+        this.fetchInterval = fetchInterval;
+    }
+
+    public Duration getFetchTimeout() {
+        return fetchTimeout;
+    }
+
+    public void setFetchTimeout(Duration fetchTimeout) {
+        this.fetchTimeout = fetchTimeout;
+    }
+
+    public Duration getDeltaWindow() {
+        return deltaWindow;
+    }
+
+    public void setDeltaWindow(Duration deltaWindow) {
+        this.deltaWindow = deltaWindow;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+}
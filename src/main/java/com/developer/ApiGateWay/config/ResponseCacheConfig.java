@@ -0,0 +1,16 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.cache.ResponseCacheStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean(destroyMethod = "invalidateAll")
+    public ResponseCacheStore responseCacheStore(ResponseCacheProperties properties) {
+        return new ResponseCacheStore(properties);
+    }
+}
@@ -0,0 +1,53 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // Total body bytes held by all cached responses across routes
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    // Larger responses are streamed through without being stored
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    // How long a request waits for an identical in-flight request before going upstream itself
+    private Duration collapseTimeout = Duration.ofSeconds(5);
+
+    private Duration revalidationTimeout = Duration.ofSeconds(10);
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Duration getCollapseTimeout() {
+        return collapseTimeout;
+    }
+
+    public void setCollapseTimeout(Duration collapseTimeout) {
+        this.collapseTimeout = collapseTimeout;
+    }
+
+    public Duration getRevalidationTimeout() {
+        return revalidationTimeout;
+    }
+
+    public void setRevalidationTimeout(Duration revalidationTimeout) {
+        this.revalidationTimeout = revalidationTimeout;
+    }
+}
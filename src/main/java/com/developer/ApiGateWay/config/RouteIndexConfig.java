@@ -0,0 +1,46 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.TimedRoutePredicateHandlerMapping;
+import com.developer.ApiGateWay.routing.IndexedRoutePredicateHandlerMapping;
+import com.developer.ApiGateWay.routing.RouteStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class RouteIndexConfig {
+
+    // Replaces Gateway's linear RoutePredicateHandlerMapping; disable to fall back to it
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.route-index", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                     RouteLocator routeLocator,
+                                                                     RouteDefinitionLocator routeDefinitionLocator,
+                                                                     ObjectProvider<RouteStore> routeStore,
+                                                                     GlobalCorsProperties globalCorsProperties,
+                                                                     Environment environment,
+                                                                     RouteLatencyRecorder routeLatencyRecorder) {
+        return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator, routeStore,
+                globalCorsProperties, environment, routeLatencyRecorder);
+    }
+
+    // Gateway's linear scan, still recording route lookup latency
+    @Bean
+    @ConditionalOnProperty(prefix = "gateway.route-index", name = "enabled", havingValue = "false")
+    public RoutePredicateHandlerMapping timedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                          RouteLocator routeLocator,
+                                                                          GlobalCorsProperties globalCorsProperties,
+                                                                          Environment environment,
+                                                                          RouteLatencyRecorder routeLatencyRecorder) {
+        return new TimedRoutePredicateHandlerMapping(webHandler, routeLocator, globalCorsProperties, environment,
+                routeLatencyRecorder);
+    }
+}
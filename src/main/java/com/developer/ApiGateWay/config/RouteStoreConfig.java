@@ -0,0 +1,37 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.routing.RouteFileWatcher;
+import com.developer.ApiGateWay.routing.RouteStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(RouteStoreProperties.class)
+@ConditionalOnProperty(prefix = "gateway.route-store", name = "enabled", havingValue = "true")
+public class RouteStoreConfig {
+
+    // A RouteLocator bean, so Gateway's cached composite locator picks up its routes
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RouteStore routeStore(List<RoutePredicateFactory> predicates, List<GatewayFilterFactory> filterFactories,
+                                 GatewayProperties gatewayProperties, ConfigurationService configurationService,
+                                 ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        return new RouteStore(predicates, filterFactories, gatewayProperties, configurationService, publisher,
+                meterRegistry);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public RouteFileWatcher routeFileWatcher(RouteStore routeStore, RouteStoreProperties properties) {
+        return new RouteFileWatcher(properties.getFile(), properties.getSettle(), routeStore);
+    }
+}
@@ -0,0 +1,43 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.route-store")
+public class RouteStoreProperties {
+
+    // Load routes from a watched file in addition to application.yml and GatewayConfig
+    private boolean enabled = false;
+
+    // YAML file with a top-level routes list, as under spring.cloud.gateway.server.webflux.routes
+    private Path file = Path.of("config/routes.yml");
+
+    // Wait after a change before reading the file, so several quick writes make one reload
+    private Duration settle = Duration.ofMillis(200);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void setFile(Path file) {
+        this.file = file;
+    }
+
+    public Duration getSettle() {
+        return settle;
+    }
+
+    public void setSettle(Duration settle) {
+        this.settle = settle;
+    }
+}
@@ -1,5 +1,7 @@
 package com.developer.ApiGateWay.config;
 
+import com.developer.ApiGateWay.security.PathAccessRules;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -14,21 +16,24 @@ import java.util.List;
 
 @Configuration
 @EnableWebFluxSecurity
+@EnableConfigurationProperties(PathAccessProperties.class)
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public PathAccessRules pathAccessRules(PathAccessProperties properties) {
+        return new PathAccessRules(properties.getPublicPaths(), properties.getAuthenticatedPaths());
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, PathAccessRules pathAccessRules) {
         return http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeExchange(exchanges -> exchanges
-                        // Public endpoints
-                        .pathMatchers("/api/health/**").permitAll()
-                        .pathMatchers("/api/auth/login", "/api/auth/register").permitAll()
-                        .pathMatchers("/actuator/**").permitAll()
-                        .pathMatchers("/fallback/**").permitAll()
-                        // Admin endpoints - require authentication
-                        .pathMatchers("/api/admin/**").authenticated()
+                        // Public endpoints (gateway.security.public-paths)
+                        .matchers(pathAccessRules.matcher(PathAccessRules.Access.PUBLIC)).permitAll()
+                        // Admin endpoints - require authentication (gateway.security.authenticated-paths)
+                        .matchers(pathAccessRules.matcher(PathAccessRules.Access.AUTHENTICATED)).authenticated()
                         // All other endpoints
                         .anyExchange().permitAll()
                 )
@@ -0,0 +1,30 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "gateway.streaming")
+public class StreamingProperties {
+
+    // Largest request body accepted by streaming routes, whether declared or chunked
+    private DataSize maxBodySize = DataSize.ofGigabytes(10);
+
+    // Body bytes requested ahead of the receiving side, per direction and connection
+    private DataSize maxInFlightBytes = DataSize.ofMegabytes(1);
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public DataSize getMaxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    public void setMaxInFlightBytes(DataSize maxInFlightBytes) {
+        this.maxInFlightBytes = maxInFlightBytes;
+    }
+}
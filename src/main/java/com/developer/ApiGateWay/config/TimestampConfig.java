@@ -0,0 +1,17 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.time.TimestampWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class TimestampConfig {
+
+    // Shared by fallback and error bodies
+    @Bean
+    public TimestampWriter timestampWriter() {
+        return new TimestampWriter(Clock.systemDefaultZone());
+    }
+}
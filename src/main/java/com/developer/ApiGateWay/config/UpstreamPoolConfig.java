@@ -0,0 +1,85 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.filter.UpstreamPoolRoutingFilter;
+import com.developer.ApiGateWay.upstream.ConnectionPrewarmer;
+import com.developer.ApiGateWay.upstream.UpstreamPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
+public class UpstreamPoolConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public UpstreamPools upstreamPools(UpstreamPoolProperties properties, MeterRegistry meterRegistry,
+                                       HttpClientProperties httpClientProperties, ServerProperties serverProperties,
+                                       HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers) {
+        return new UpstreamPools(properties, meterRegistry, provider -> new ProfileHttpClientFactory(
+                provider, httpClientProperties, serverProperties, sslConfigurer, customizers).create());
+    }
+
+    @Bean(destroyMethod = "stop")
+    public ConnectionPrewarmer connectionPrewarmer(UpstreamPools upstreamPools, RouteLocator routeLocator,
+                                                   DiscoveryClient discoveryClient, UpstreamPoolProperties properties) {
+        return new ConnectionPrewarmer(upstreamPools, routeLocator, discoveryClient, properties);
+    }
+
+    // The gateway's routing filter bean cannot be replaced by declaring another, so it is swapped when created
+    @Bean
+    public static BeanPostProcessor upstreamPoolRoutingFilterPostProcessor(
+            ObjectProvider<UpstreamPools> pools, ObjectProvider<HttpClient> httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters, ObjectProvider<HttpClientProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof NettyRoutingFilter && !(bean instanceof UpstreamPoolRoutingFilter)) {
+                    return new UpstreamPoolRoutingFilter(httpClient.getObject(), headersFilters,
+                            properties.getObject(), pools.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * The gateway's client factory (decoder, proxy, SSL, customizers) on a profile's
+     * connection provider instead of the shared one.
+     */
+    private static class ProfileHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider provider;
+
+        ProfileHttpClientFactory(ConnectionProvider provider, HttpClientProperties properties,
+                                 ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+                                 List<HttpClientCustomizer> customizers) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.provider = provider;
+        }
+
+        HttpClient create() {
+            return createInstance();
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return provider;
+        }
+    }
+}
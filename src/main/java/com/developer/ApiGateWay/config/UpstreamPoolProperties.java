@@ -0,0 +1,163 @@
+package com.developer.ApiGateWay.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.upstream-pool")
+public class UpstreamPoolProperties {
+
+    // Connection pool profiles by name
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+
+    // Profile name by route id; checked before services
+    private Map<String, String> routes = new LinkedHashMap<>();
+
+    // Profile name by service id of lb:// routes
+    private Map<String, String> services = new LinkedHashMap<>();
+
+    // Limit for each pre-warm request; a failed instance is tried again after the next registry fetch
+    private Duration prewarmTimeout = Duration.ofSeconds(2);
+
+    public Map<String, Profile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public Map<String, String> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, String> routes) {
+        this.routes = routes;
+    }
+
+    public Map<String, String> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, String> services) {
+        this.services = services;
+    }
+
+    public Duration getPrewarmTimeout() {
+        return prewarmTimeout;
+    }
+
+    public void setPrewarmTimeout(Duration prewarmTimeout) {
+        this.prewarmTimeout = prewarmTimeout;
+    }
+
+    public enum Protocol {
+        HTTP11,
+        // HTTP/2 with prior knowledge over plain TCP; many requests share one connection
+        H2C,
+        // HTTP/2 negotiated through ALPN for https backends, falling back to HTTP/1.1
+        H2
+    }
+
+    public static class Profile {
+
+        private Protocol protocol = Protocol.HTTP11;
+
+        // Per instance; with HTTP/2 each connection carries many concurrent requests
+        private int maxConnections = 500;
+
+        // Requests allowed to wait for a connection per instance; -1 for no limit
+        private int pendingAcquireMaxCount = 1000;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+        // Keep below the backend's keep-alive timeout so the gateway closes idle connections first
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        // Connections are closed after this age; unset for no limit
+        private Duration maxLifeTime;
+
+        // How often idle and expired connections are closed in the background; zero checks only on acquire
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        // Connections opened to each instance at startup and whenever discovery reports a new instance
+        private int prewarmConnections;
+
+        // Requested on each pre-warm connection; any response leaves the connection in the pool
+        private String prewarmPath = "/actuator/health";
+
+        public Protocol getProtocol() {
+            return protocol;
+        }
+
+        public void setProtocol(Protocol protocol) {
+            this.protocol = protocol;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+
+        public int getPrewarmConnections() {
+            return prewarmConnections;
+        }
+
+        public void setPrewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+        }
+
+        public String getPrewarmPath() {
+            return prewarmPath;
+        }
+
+        public void setPrewarmPath(String prewarmPath) {
+            this.prewarmPath = prewarmPath;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.developer.ApiGateWay.controller;
+
+import com.developer.ApiGateWay.batch.BatchDispatcher;
+import com.developer.ApiGateWay.batch.BatchRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code POST /api/batch}: several gateway requests in one round trip, e.g.
+ * {@code {"requests":[{"id":"user","path":"/api/users/42"},{"id":"orders","path":"/api/orders?user=42"}]}}.
+ * The answer is streamed as each sub-request completes; see {@link BatchDispatcher}.
+ */
+@RestController
+public class BatchController {
+
+    private final BatchDispatcher dispatcher;
+
+    public BatchController(BatchDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @PostMapping(path = BatchDispatcher.PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Void> batch(@RequestBody BatchRequest batch, ServerWebExchange exchange) {
+        dispatcher.validate(batch);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeAndFlushWith(dispatcher.dispatch(exchange.getRequest(), batch, response.bufferFactory()));
+    }
+}
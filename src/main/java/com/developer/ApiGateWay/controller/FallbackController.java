@@ -1,82 +1,79 @@
 package com.developer.ApiGateWay.controller;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
+import com.developer.ApiGateWay.cache.CachedResponse;
+import com.developer.ApiGateWay.cache.ResponseCacheStore;
+import com.developer.ApiGateWay.fallback.FallbackBody;
+import com.developer.ApiGateWay.fallback.FallbackResponses;
+import com.developer.ApiGateWay.filter.ResponseCacheFilter;
+import com.developer.ApiGateWay.time.TimestampWriter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Circuit-breaker fallbacks, configured per route under {@code gateway.fallback.bodies}.
+ * Bodies are serialized at startup; a request only copies them into one buffer with
+ * the current timestamp. For GETs on routes whose body enables last-known-good, the
+ * last response ResponseCacheFilter stored for the same request is served instead
+ * while it is still retained.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    @GetMapping("/users")
-    @PostMapping("/users")
-    public ResponseEntity<Map<String, Object>> userServiceFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "User service is currently unavailable. Please try again later.");
-        response.put("service", "user-service");
-        response.put("status", "fallback");
-        response.put("timestamp", LocalDateTime.now());
-        response.put("suggestion", "Check user service health or contact support");
-        
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
-    }
-
-    @GetMapping("/products")
-    @PostMapping("/products")
-    public ResponseEntity<Map<String, Object>> productServiceFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Product service is currently unavailable. Please try again later.");
-        response.put("service", "product-service");
-        response.put("status", "fallback");
-        response.put("timestamp", LocalDateTime.now());
-        response.put("suggestion", "Browse cached products or try again in a few minutes");
-        
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
-    }
+    private final FallbackResponses responses;
+    private final TimestampWriter clock;
+    private final ResponseCacheStore cacheStore;
 
-    @GetMapping("/orders")
-    @PostMapping("/orders")
-    public ResponseEntity<Map<String, Object>> orderServiceFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Order service is currently unavailable. Please try again later.");
-        response.put("service", "order-service");
-        response.put("status", "fallback");
-        response.put("timestamp", LocalDateTime.now());
-        response.put("suggestion", "Your order may be saved. Please check order history later");
-        
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    public FallbackController(FallbackResponses responses, TimestampWriter clock, ResponseCacheStore cacheStore) {
+        this.responses = responses;
+        this.clock = clock;
+        this.cacheStore = cacheStore;
     }
 
-    @GetMapping("/auth")
-    @PostMapping("/auth")
-    public ResponseEntity<Map<String, Object>> authServiceFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Authentication service is currently unavailable. Please try again later.");
-        response.put("service", "auth-service");
-        response.put("status", "fallback");
-        response.put("timestamp", LocalDateTime.now());
-        response.put("suggestion", "Try logging in again or contact support if issue persists");
-        
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    // Any method: the circuit breaker forwards with the original request's method
+    @RequestMapping("/{name}")
+    public Mono<Void> fallback(@PathVariable String name, ServerWebExchange exchange) {
+        FallbackBody body = responses.get(name);
+        ServerHttpResponse response = exchange.getResponse();
+        if (body.lastKnownGood() && exchange.getRequest().getMethod() == HttpMethod.GET) {
+            Mono<Void> lastKnownGood = serveLastKnownGood(exchange, response);
+            if (lastKnownGood != null) {
+                return lastKnownGood;
+            }
+        }
+        response.setStatusCode(body.status());
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length());
+        return response.writeWith(Mono.fromSupplier(() -> body.render(response.bufferFactory(), clock)));
     }
 
-    @GetMapping("/default")
-    @PostMapping("/default")
-    public ResponseEntity<Map<String, Object>> defaultFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Service is currently unavailable. Please try again later.");
-        response.put("service", "unknown");
-        response.put("status", "fallback");
-        response.put("timestamp", LocalDateTime.now());
-        response.put("suggestion", "Please try again in a few minutes or contact support");
-        
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    private Mono<Void> serveLastKnownGood(ServerWebExchange exchange, ServerHttpResponse response) {
+        String key = exchange.getAttribute(ResponseCacheFilter.CACHE_KEY_ATTR);
+        CachedResponse cached = key != null ? cacheStore.get(key) : null;
+        long now = System.nanoTime();
+        if (cached == null || !cached.isLastKnownGood(now)) {
+            return null;
+        }
+        DataBuffer body = cached.bodyFor(response.bufferFactory());
+        if (body == null) {
+            return null;
+        }
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        headers.set(ResponseCacheFilter.CACHE_STATUS_HEADER, "LAST-KNOWN-GOOD");
+        headers.setContentLength(body.readableByteCount());
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        return response.writeWith(Mono.just(body));
     }
 }
@@ -0,0 +1,41 @@
+package com.developer.ApiGateWay.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ErrorBody} per status and message, encoded on first use and kept. Messages
+ * come from a fixed set plus {@code ResponseStatusException} reasons, which are
+ * almost always constants; past {@code maxEntries} distinct pairs, bodies are
+ * encoded per response instead of cached.
+ */
+public class ErrorBodies {
+
+    private record Key(HttpStatus status, String message) {
+    }
+
+    private final int maxEntries;
+    private final Map<Key, ErrorBody> bodies = new ConcurrentHashMap<>();
+
+    public ErrorBodies(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public ErrorBody get(HttpStatus status, String message) {
+        Key key = new Key(status, message);
+        ErrorBody body = bodies.get(key);
+        if (body != null) {
+            return body;
+        }
+        if (bodies.size() >= maxEntries) {
+            return new ErrorBody(status, message);
+        }
+        return bodies.computeIfAbsent(key, k -> new ErrorBody(k.status(), k.message()));
+    }
+
+    public int size() {
+        return bodies.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.developer.ApiGateWay.exception;
+
+import com.developer.ApiGateWay.time.TimestampWriter;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An error body for one status and message, encoded once up to the timestamp.
+ * Per response only the timestamp, path and request id are written, straight
+ * into one exact-size buffer from the response's (pooled) buffer factory.
+ */
+public class ErrorBody {
+
+    private static final byte[] PATH = "\",\"path\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REQUEST_ID = ",\"requestId\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpStatus status;
+    private final byte[] head;
+
+    ErrorBody(HttpStatus status, String message) {
+        this.status = status;
+        StringBuilder json = new StringBuilder("{\"error\":");
+        if (message == null) {
+            json.append("null");
+        } else {
+            json.append('"');
+            JsonStringEncoder.getInstance().quoteAsString(message, json);
+            json.append('"');
+        }
+        json.append(",\"status\":").append(status.value()).append(",\"timestamp\":\"");
+        this.head = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    /**
+     * Exact byte length of the body rendered for this path and request id.
+     */
+    public int length(String path, String requestId) {
+        return head.length + TimestampWriter.WIDTH + PATH.length + jsonLength(path) + REQUEST_ID.length
+                + jsonLength(requestId) + 1;
+    }
+
+    public DataBuffer render(DataBufferFactory factory, TimestampWriter clock, String path, String requestId) {
+        DataBuffer buffer = factory.allocateBuffer(length(path, requestId));
+        buffer.write(head);
+        clock.writeNow(buffer);
+        buffer.write(PATH);
+        writeJson(buffer, path);
+        buffer.write(REQUEST_ID);
+        writeJson(buffer, requestId);
+        buffer.write((byte) '}');
+        return buffer;
+    }
+
+    // Quoted and escaped; ASCII is written char by char, anything else goes through Jackson's encoder
+    private static int jsonLength(String value) {
+        if (value == null) {
+            return NULL.length;
+        }
+        int length = 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                return length + JsonStringEncoder.getInstance().quoteAsUTF8(value.substring(i)).length;
+            }
+            length += c == '"' || c == '\\' ? 2 : c < 0x20 ? 6 : 1;
+        }
+        return length;
+    }
+
+    private static void writeJson(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                buffer.write(JsonStringEncoder.getInstance().quoteAsUTF8(value.substring(i)));
+                break;
+            }
+            if (c == '"' || c == '\\') {
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+            } else if (c < 0x20) {
+                buffer.write((byte) '\\');
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xF]);
+            } else {
+                buffer.write((byte) c);
+            }
+        }
+        buffer.write((byte) '"');
+    }
+}
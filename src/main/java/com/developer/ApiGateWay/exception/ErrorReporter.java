@@ -0,0 +1,130 @@
+package com.developer.ApiGateWay.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts every error handled by {@link GlobalExceptionHandler} per route, exception
+ * type and status ({@code gateway.errors}) and logs stack traces sparingly: at most
+ * one per route and exception type per trace interval, carrying the number of
+ * similar errors suppressed since the previous one. During an outage the counters
+ * show the error rate while the log gets a trace per interval instead of one per
+ * request. Client errors (4xx) are counted but only logged at DEBUG.
+ */
+public class ErrorReporter {
+
+    public static final String METER_NAME = "gateway.errors";
+
+    // Route and exception pairs past the limit share one entry per route
+    static final String OTHER_EXCEPTION = "other";
+
+    private static final Logger logger = LoggerFactory.getLogger(ErrorReporter.class);
+
+    private record Key(String routeId, Class<?> type, int status) {
+    }
+
+    private static final class Entry {
+
+        final Counter errors;
+        final AtomicLong nextTraceAt;
+        final LongAdder suppressed = new LongAdder();
+
+        Entry(Counter errors, long firstTraceAt) {
+            this.errors = errors;
+            this.nextTraceAt = new AtomicLong(firstTraceAt);
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final long traceIntervalNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+    private final Counter suppressedTraces;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public ErrorReporter(MeterRegistry registry, Duration traceInterval, int maxEntries) {
+        this(registry, traceInterval, maxEntries, System::nanoTime);
+    }
+
+    ErrorReporter(MeterRegistry registry, Duration traceInterval, int maxEntries, LongSupplier nanoTime) {
+        this.registry = registry;
+        this.traceIntervalNanos = traceInterval.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoTime = nanoTime;
+        this.suppressedTraces = Counter.builder(METER_NAME + ".suppressed")
+                .description("Error stack traces not logged because one for the same route and exception was recent")
+                .register(registry);
+    }
+
+    public void report(String routeId, String path, int status, Throwable error) {
+        Entry entry = entry(routeId, error.getClass(), status);
+        entry.errors.increment();
+        if (status < 500) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Gateway client error {} on route {}, path {}: {}", status, routeId, path, error.toString());
+            }
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        long next = entry.nextTraceAt.get();
+        if (now - next < 0 || !entry.nextTraceAt.compareAndSet(next, now + traceIntervalNanos)) {
+            entry.suppressed.increment();
+            suppressedTraces.increment();
+            return;
+        }
+        long suppressed = entry.suppressed.sumThenReset();
+        if (suppressed == 0) {
+            logger.error("Gateway exception on route {}, path {}: {}", routeId, path, error.toString(), error);
+        } else {
+            logger.error("Gateway exception on route {}, path {}: {} ({} similar suppressed since the last trace)",
+                    routeId, path, error.toString(), suppressed, error);
+        }
+    }
+
+    private Entry entry(String routeId, Class<?> type, int status) {
+        Key key = new Key(routeId, type, status);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        if (entries.size() >= maxEntries) {
+            key = new Key(routeId, Other.class, status);
+            entry = entries.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return entries.computeIfAbsent(key, this::register);
+    }
+
+    private Entry register(Key key) {
+        Counter errors = Counter.builder(METER_NAME)
+                .description("Errors answered by the gateway's exception handler")
+                .tag("route", key.routeId())
+                .tag("exception", exceptionTag(key.type()))
+                .tag("status", Integer.toString(key.status()))
+                .register(registry);
+        return new Entry(errors, nanoTime.getAsLong());
+    }
+
+    private static String exceptionTag(Class<?> type) {
+        if (type == Other.class) {
+            return OTHER_EXCEPTION;
+        }
+        String name = type.getSimpleName();
+        return name.isEmpty() ? type.getName() : name;
+    }
+
+    // Stands in for exception types past the entry limit
+    private static final class Other {
+    }
+}
@@ -1,48 +1,57 @@
 package com.developer.ApiGateWay.exception;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.time.TimestampWriter;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-
+/**
+ * JSON error responses for failures that reach the gateway's handler chain. The
+ * path is built for error storms, when a backend outage sends every request here:
+ * errors are counted per route and exception type by {@link ErrorReporter}, which
+ * logs only a sample of stack traces, and bodies come pre-encoded per status and
+ * message from {@link ErrorBodies} with only the timestamp, path and request id
+ * written per response.
+ */
 @Component
 @Order(-1)
 public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
 
-    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String REQUEST_ID_HEADER = "X-Request-ID";
+
+    private final ErrorReporter reporter;
+    private final ErrorBodies bodies;
+    private final TimestampWriter clock;
+
+    public GlobalExceptionHandler(ErrorReporter reporter, ErrorBodies bodies, TimestampWriter clock) {
+        this.reporter = reporter;
+        this.bodies = bodies;
+        this.clock = clock;
+    }
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
         ServerHttpResponse response = exchange.getResponse();
-        
+
         if (response.isCommitted()) {
             return Mono.error(ex);
         }
 
-        // Log the exception
-        logger.error("Gateway Exception: {} - Path: {}", ex.getMessage(), exchange.getRequest().getPath(), ex);
-
-        // Set response headers
-        response.getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-        
         HttpStatus status;
         String message;
-        
-        if (ex instanceof ResponseStatusException) {
-            ResponseStatusException rse = (ResponseStatusException) ex;
-            status = HttpStatus.valueOf(rse.getStatusCode().value());
+
+        if (ex instanceof ResponseStatusException rse) {
+            HttpStatus resolved = HttpStatus.resolve(rse.getStatusCode().value());
+            status = resolved != null ? resolved : HttpStatus.INTERNAL_SERVER_ERROR;
             message = rse.getReason();
         } else if (ex instanceof java.net.ConnectException) {
             status = HttpStatus.SERVICE_UNAVAILABLE;
@@ -54,19 +63,22 @@ public class GlobalExceptionHandler implements ErrorWebExceptionHandler {
             status = HttpStatus.INTERNAL_SERVER_ERROR;
             message = "Internal server error";
         }
-        
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        reporter.report(RouteLatencyRecorder.routeId(exchange), path, status.value(), ex);
+
+        // LoggingFilter passes the id on in a mutated request, so the original may only have it on the response
+        String requestId = request.getHeaders().getFirst(REQUEST_ID_HEADER);
+        if (requestId == null) {
+            requestId = response.getHeaders().getFirst(REQUEST_ID_HEADER);
+        }
+        ErrorBody body = bodies.get(status, message);
         response.setStatusCode(status);
-        
-        String body = String.format(
-            "{\"error\": \"%s\", \"status\": %d, \"timestamp\": \"%s\", \"path\": \"%s\", \"requestId\": \"%s\"}",
-            message,
-            status.value(),
-            LocalDateTime.now().format(formatter),
-            exchange.getRequest().getPath().value(),
-            exchange.getRequest().getHeaders().getFirst("X-Request-ID")
-        );
-        
-        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes());
-        return response.writeWith(Mono.just(buffer));
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length(path, requestId));
+        String id = requestId;
+        return response.writeWith(Mono.fromSupplier(() -> body.render(response.bufferFactory(), clock, path, id)));
     }
 }
@@ -0,0 +1,77 @@
+package com.developer.ApiGateWay.fallback;
+
+import com.developer.ApiGateWay.config.FallbackProperties;
+import com.developer.ApiGateWay.time.TimestampWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A fallback body serialized once. The JSON is split around the timestamp value,
+ * and the timestamp is always {@link TimestampWriter#WIDTH} characters, so each
+ * response is a single exact-size buffer filled from three precomputed parts.
+ */
+public class FallbackBody {
+
+    private static final String PLACEHOLDER = "\u0000timestamp\u0000";
+
+    private final HttpStatus status;
+    private final boolean lastKnownGood;
+    private final byte[] head;
+    private final byte[] tail;
+    private final int length;
+
+    FallbackBody(FallbackProperties.Body body, ObjectMapper objectMapper) {
+        this.status = body.getStatus();
+        this.lastKnownGood = body.isLastKnownGood();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("message", body.getMessage());
+        fields.put("service", body.getService());
+        fields.put("status", "fallback");
+        fields.put("timestamp", PLACEHOLDER);
+        fields.put("suggestion", body.getSuggestion());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize fallback body for " + body.getService(), e);
+        }
+        String placeholder;
+        try {
+            placeholder = objectMapper.writeValueAsString(PLACEHOLDER);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        // Split inside the quotes, which stay part of head and tail
+        int at = json.indexOf(placeholder);
+        this.head = json.substring(0, at + 1).getBytes(StandardCharsets.UTF_8);
+        this.tail = json.substring(at + placeholder.length() - 1).getBytes(StandardCharsets.UTF_8);
+        this.length = head.length + TimestampWriter.WIDTH + tail.length;
+    }
+
+    public DataBuffer render(DataBufferFactory factory, TimestampWriter clock) {
+        DataBuffer buffer = factory.allocateBuffer(length);
+        buffer.write(head);
+        clock.writeNow(buffer);
+        buffer.write(tail);
+        return buffer;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public boolean lastKnownGood() {
+        return lastKnownGood;
+    }
+
+    public int length() {
+        return length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.developer.ApiGateWay.fallback;
+
+import com.developer.ApiGateWay.config.FallbackProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed {@link FallbackBody} per fallback name, built once at startup. The
+ * gateway runs with spring.cloud.refresh disabled (refresh scope cannot be
+ * processed ahead of time), so {@code gateway.fallback.*} changes take a restart.
+ */
+public class FallbackResponses {
+
+    private static final String DEFAULT = "default";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, FallbackBody> bodies;
+
+    public FallbackResponses(FallbackProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.bodies = build(properties);
+    }
+
+    /**
+     * The body for {@code name}, or the default body for unconfigured names.
+     */
+    public FallbackBody get(String name) {
+        FallbackBody body = bodies.get(name);
+        return body != null ? body : bodies.get(DEFAULT);
+    }
+
+    private Map<String, FallbackBody> build(FallbackProperties properties) {
+        Map<String, FallbackBody> built = new HashMap<>();
+        properties.getBodies().forEach((name, body) -> built.put(name, new FallbackBody(body, objectMapper)));
+        if (!built.containsKey(DEFAULT)) {
+            built.put(DEFAULT, new FallbackBody(new FallbackProperties().getBodies().get(DEFAULT), objectMapper));
+        }
+        return Map.copyOf(built);
+    }
+}
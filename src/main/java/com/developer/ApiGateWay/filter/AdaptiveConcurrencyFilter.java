@@ -0,0 +1,143 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.concurrency.AdaptiveConcurrencyLimiter;
+import com.developer.ApiGateWay.concurrency.Priority;
+import com.developer.ApiGateWay.concurrency.PriorityClassifier;
+import com.developer.ApiGateWay.config.ConcurrencyLimitProperties;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive load shedding per route. Each route gets an {@link AdaptiveConcurrencyLimiter};
+ * a request that finds its priority's share of the limit taken is answered at once
+ * with 503 and Retry-After instead of queueing in front of a saturated backend.
+ * Runs before the rate limiter and retries, so a shed request costs no Redis call.
+ * Cache hits hold a slot only while they are written and feed no latency sample.
+ */
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = 0;
+
+    private static final byte[] REJECTED_BODY = "{\"error\": \"Service overloaded, retry later\", \"status\": 503}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ConcurrencyLimitProperties properties;
+    private final PriorityClassifier classifier;
+    private final MeterRegistry meterRegistry;
+    private final String retryAfter;
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.classifier = new PriorityClassifier(properties.getCriticalPaths(), properties.getBulkMethods());
+        this.meterRegistry = meterRegistry;
+        this.retryAfter = Long.toString(Math.max(1, (properties.getRetryAfter().toMillis() + 999) / 1000));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        RouteLimit routeLimit = limits.computeIfAbsent(route.getId(), this::register);
+        Priority priority = classifier.classify(exchange.getRequest());
+        if (!routeLimit.limiter.tryAcquire(priority)) {
+            routeLimit.rejected.get(priority).increment();
+            return reject(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            // Transfer times of streamed bodies and cache hits say nothing about backend saturation
+            if (signal == SignalType.CANCEL || StreamingRoutes.isStreaming(route)
+                    || ResponseCacheFilter.isServedFromCache(exchange)) {
+                routeLimit.limiter.release();
+                return;
+            }
+            long now = System.nanoTime();
+            routeLimit.limiter.release(now - start, upstreamDropped(exchange, signal), now);
+        });
+    }
+
+    /**
+     * Whether the upstream call failed, timed out or answered 503/504. Only exchanges
+     * still marked as routed count: a circuit-breaker fallback resets that mark
+     * before forwarding, and responses the gateway makes up itself (no instance,
+     * rate limited, unauthorized) never get it.
+     */
+    static boolean upstreamDropped(ServerWebExchange exchange, SignalType signal) {
+        if (!ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+            return false;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(REJECTED_BODY.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(REJECTED_BODY)));
+    }
+
+    private RouteLimit register(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("gateway.concurrency.rejected")
+                    .description("Requests shed by the adaptive concurrency limit")
+                    .tag("route", routeId)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return new RouteLimit(limiter, rejected);
+    }
+
+    AdaptiveConcurrencyLimiter limiter(String routeId) {
+        RouteLimit routeLimit = limits.get(routeId);
+        return routeLimit != null ? routeLimit.limiter : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private record RouteLimit(AdaptiveConcurrencyLimiter limiter, Map<Priority, Counter> rejected) {
+    }
+}
@@ -1,6 +1,12 @@
 package com.developer.ApiGateWay.filter;
 
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.Stage;
+import com.developer.ApiGateWay.security.JwtVerifier;
+import com.developer.ApiGateWay.security.PathAccessRules;
+import com.developer.ApiGateWay.security.VerifiedToken;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -10,80 +16,66 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
-    public AuthenticationFilter() {
+    private final JwtVerifier jwtVerifier;
+    private final PathAccessRules pathAccessRules;
+    private final RouteLatencyRecorder latencyRecorder;
+
+    public AuthenticationFilter(JwtVerifier jwtVerifier, PathAccessRules pathAccessRules,
+                                RouteLatencyRecorder latencyRecorder) {
         super(Config.class);
+        this.jwtVerifier = jwtVerifier;
+        this.pathAccessRules = pathAccessRules;
+        this.latencyRecorder = latencyRecorder;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            ServerHttpRequest request = exchange.getRequest();
-            
-            // Skip authentication for public endpoints
-            if (isPublicEndpoint(request.getPath().toString())) {
-                return chain.filter(exchange);
-            }
-            
-            // Check for Authorization header
-            if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                return onError(exchange, "Missing Authorization header", HttpStatus.UNAUTHORIZED);
-            }
-            
-            String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-            
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return onError(exchange, "Invalid Authorization header format", HttpStatus.UNAUTHORIZED);
-            }
-            
-            String token = authHeader.substring(7);
-            
-            // Validate token (simplified - in real scenario, validate with auth service)
-            if (!isValidToken(token)) {
-                return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
-            }
-            
-            // Add user info to request headers for downstream services
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Id", extractUserIdFromToken(token))
-                    .header("X-User-Role", extractUserRoleFromToken(token))
-                    .build();
-            
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            long start = System.nanoTime();
+            Mono<Void> result = authenticate(exchange, chain);
+            // The chain only runs once the result is subscribed, so this times the checks alone
+            latencyRecorder.record(exchange, Stage.AUTH, System.nanoTime() - start);
+            return result;
         };
     }
-    
-    private boolean isPublicEndpoint(String path) {
-        List<String> publicEndpoints = List.of(
-                "/api/auth/login",
-                "/api/auth/register",
-                "/api/health",
-                "/actuator"
-        );
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
         
-        return publicEndpoints.stream().anyMatch(path::startsWith);
-    }
-    
-    private boolean isValidToken(String token) {
-        // Simplified token validation
-        // In real scenario, validate with JWT library or auth service
-        return token != null && token.length() > 10;
-    }
-    
-    private String extractUserIdFromToken(String token) {
-        // Simplified user ID extraction
-        // In real scenario, decode JWT token
-        return "user123";
-    }
-    
-    private String extractUserRoleFromToken(String token) {
-        // Simplified role extraction
-        // In real scenario, decode JWT token
-        return "USER";
+        // Skip authentication for public endpoints
+        if (pathAccessRules.isPublic(request.getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        
+        // Check for Authorization header
+        if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return onError(exchange, "Missing Authorization header", HttpStatus.UNAUTHORIZED);
+        }
+        
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return onError(exchange, "Invalid Authorization header format", HttpStatus.UNAUTHORIZED);
+        }
+        
+        String token = authHeader.substring(7);
+        
+        // Verify signature and expiry locally; hot tokens are served from the verified-claims cache
+        VerifiedToken verified = jwtVerifier.verify(token);
+        if (verified == null) {
+            return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
+        }
+        
+        // Add user info to request headers for downstream services
+        ServerHttpRequest modifiedRequest = request.mutate()
+                .header("X-User-Id", verified.userId())
+                .header("X-User-Role", verified.role())
+                .build();
+        
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
     }
     
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
@@ -0,0 +1,44 @@
+package com.developer.ApiGateWay.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Installs the response capture of {@link ResponseCacheFilter} on routes that declare
+ * it. It must sit ahead of NettyWriteResponseFilter for the upstream body to pass
+ * through it, while the cache lookup is done at the filter's declared position; the
+ * capture stays idle unless that lookup misses.
+ */
+@Component
+public class CacheCaptureFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCacheFilter cacheFilter;
+
+    public CacheCaptureFilter(ResponseCacheFilter cacheFilter) {
+        this.cacheFilter = cacheFilter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !cacheFilter.isCached(route.getId())) {
+            return chain.filter(exchange);
+        }
+        ResponseCacheFilter.Capture capture = cacheFilter.capture(exchange);
+        exchange.getAttributes().put(ResponseCacheFilter.Capture.ATTR, capture);
+        return chain.filter(exchange.mutate().response(capture).build())
+                .doFinally(signal -> capture.finish());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.coalescing.LeaderCapture;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Installs a {@link LeaderCapture} on routes that declare {@link RequestCoalescingFilter}.
+ * It must sit ahead of NettyWriteResponseFilter for the upstream body to pass through
+ * it, while the coalescing decision is taken at the filter's declared position; the
+ * capture stays idle unless that exchange becomes a leader.
+ */
+@Component
+public class CoalescingCaptureFilter implements GlobalFilter, Ordered {
+
+    private final RequestCoalescingFilter coalescingFilter;
+
+    public CoalescingCaptureFilter(RequestCoalescingFilter coalescingFilter) {
+        this.coalescingFilter = coalescingFilter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !coalescingFilter.isCoalesced(route.getId())) {
+            return chain.filter(exchange);
+        }
+        LeaderCapture capture = new LeaderCapture(exchange.getResponse());
+        exchange.getAttributes().put(LeaderCapture.ATTR, capture);
+        return chain.filter(exchange.mutate().response(capture).build())
+                .doFinally(signal -> capture.finish());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+}
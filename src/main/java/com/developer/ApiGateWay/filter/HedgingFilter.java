@@ -0,0 +1,338 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.hedging.AttemptExchange;
+import com.developer.ApiGateWay.hedging.HedgeBudget;
+import com.developer.ApiGateWay.hedging.LatencyWindow;
+import com.developer.ApiGateWay.loadbalancer.LatencyAwareLoadBalancer;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedged requests for idempotent, bodiless requests. If the upstream has not
+ * answered after a fixed delay, or after the route's live latency percentile, a
+ * second attempt is sent (to a different instance when the latency-aware load
+ * balancer is in use). The first attempt to receive response headers wins and the
+ * other is cancelled. Hedges are limited by a {@link HedgeBudget} per route, so
+ * under overload, when every request is slow, at most that share of extra load is
+ * added.
+ *
+ * <p>Must be declared after CircuitBreaker so that a breaker timeout cancels both
+ * attempts.
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MIN_SAMPLES = 50;
+
+    private final MeterRegistry meterRegistry;
+
+    public HedgingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteHedging state = new RouteHedging(config);
+        return (exchange, chain) -> {
+            if (!isHedgeable(exchange, config)) {
+                return chain.filter(exchange);
+            }
+            state.budget.deposit();
+            long delayNanos = state.delayNanos(System.nanoTime());
+            if (delayNanos < 0) {
+                // Percentile mode without enough recent samples yet: measure only
+                long start = System.nanoTime();
+                return chain.filter(exchange)
+                        .doOnSuccess(v -> state.window.record(System.nanoTime() - start, System.nanoTime()));
+            }
+            return Mono.create(sink -> {
+                HedgedCall call = new HedgedCall(exchange, chain, state, sink);
+                sink.onCancel(call::cancel);
+                call.start(delayNanos);
+            });
+        };
+    }
+
+    private static boolean isHedgeable(ServerWebExchange exchange, Config config) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return config.getMethods().contains(exchange.getRequest().getMethod())
+                && !StreamingRoutes.isStreaming(exchange)
+                && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    /**
+     * Per-route state, created once per route definition.
+     */
+    private final class RouteHedging {
+
+        final Config config;
+        final LatencyWindow window = new LatencyWindow(WINDOW_NANOS, MIN_SAMPLES);
+        final HedgeBudget budget;
+        private volatile Counters counters;
+
+        RouteHedging(Config config) {
+            this.config = config;
+            this.budget = new HedgeBudget(config.getBudget(), config.getBudgetBurst());
+        }
+
+        long delayNanos(long nowNanos) {
+            long minDelay = config.getMinDelay().toNanos();
+            if (config.getDelay() != null) {
+                return Math.max(config.getDelay().toNanos(), minDelay);
+            }
+            long quantile = window.quantile(config.getPercentile() / 100.0, nowNanos);
+            return quantile < 0 ? -1 : Math.max(quantile, minDelay);
+        }
+
+        Counters counters(ServerWebExchange exchange) {
+            Counters current = counters;
+            if (current == null) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                current = new Counters(meterRegistry, route != null ? route.getId() : "unknown");
+                counters = current;
+            }
+            return current;
+        }
+    }
+
+    private record Counters(Counter sent, Counter won, Counter budgetExhausted) {
+
+        Counters(MeterRegistry registry, String routeId) {
+            this(counter(registry, routeId, "sent"), counter(registry, routeId, "won"),
+                    counter(registry, routeId, "budget_exhausted"));
+        }
+
+        private static Counter counter(MeterRegistry registry, String routeId, String outcome) {
+            return Counter.builder("gateway.hedge.requests")
+                    .description("Hedged attempts per route by outcome")
+                    .tag("route", routeId)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Race between the primary attempt and, once the delay passes, the hedge. State
+     * transitions are guarded by the call's monitor; it is only contended when both
+     * attempts finish at the same moment.
+     */
+    private static final class HedgedCall {
+
+        private final ServerWebExchange exchange;
+        private final GatewayFilterChain chain;
+        private final RouteHedging state;
+        private final MonoSink<Void> sink;
+        private final long startNanos = System.nanoTime();
+
+        private Attempt primary;
+        private Attempt hedge;
+        private Disposable timer;
+        private boolean done;
+
+        HedgedCall(ServerWebExchange exchange, GatewayFilterChain chain, RouteHedging state, MonoSink<Void> sink) {
+            this.exchange = exchange;
+            this.chain = chain;
+            this.state = state;
+            this.sink = sink;
+        }
+
+        synchronized void start(long delayNanos) {
+            primary = new Attempt(new AttemptExchange(exchange));
+            timer = Mono.delay(Duration.ofNanos(delayNanos)).subscribe(t -> launchHedge());
+            launch(primary);
+        }
+
+        private void launch(Attempt attempt) {
+            attempt.subscription = chain.filter(attempt.exchange)
+                    .contextWrite(sink.contextView())
+                    .subscribe(null, error -> onError(attempt, error), () -> onSuccess(attempt));
+        }
+
+        private synchronized void launchHedge() {
+            if (done || primary.failed) {
+                return;
+            }
+            Counters counters = state.counters(exchange);
+            if (!state.budget.tryWithdraw()) {
+                counters.budgetExhausted().increment();
+                return;
+            }
+            hedge = new Attempt(new AttemptExchange(exchange));
+            Response<ServiceInstance> chosen = primary.exchange.getAttribute(
+                    ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+            if (chosen != null && chosen.hasServer()) {
+                hedge.exchange.getAttributes().put(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR, chosen.getServer());
+            }
+            counters.sent().increment();
+            launch(hedge);
+        }
+
+        private void onSuccess(Attempt attempt) {
+            Attempt loser;
+            synchronized (this) {
+                if (done) {
+                    attempt.exchange.release();
+                    return;
+                }
+                done = true;
+                timer.dispose();
+                loser = attempt == primary ? hedge : primary;
+            }
+            long now = System.nanoTime();
+            // The primary's time is a lower bound when the hedge won; it still shows the route is slow
+            state.window.record(now - startNanos, now);
+            if (attempt == hedge) {
+                state.counters(exchange).won().increment();
+            }
+            if (loser != null) {
+                loser.cancel();
+            }
+            attempt.exchange.commitTo(exchange);
+            sink.success();
+        }
+
+        private void onError(Attempt attempt, Throwable error) {
+            synchronized (this) {
+                attempt.failed = true;
+                attempt.error = error;
+                Attempt other = attempt == primary ? hedge : primary;
+                // Keep waiting while the other attempt may still answer
+                if (done || (other != null && !other.failed)) {
+                    return;
+                }
+                done = true;
+                timer.dispose();
+            }
+            // Report the primary's error, which is what the request would have failed with unhedged
+            sink.error(primary.error != null ? primary.error : error);
+        }
+
+        void cancel() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (timer != null) {
+                    timer.dispose();
+                }
+            }
+            if (primary != null) {
+                primary.cancel();
+            }
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private static final class Attempt {
+
+        final AttemptExchange exchange;
+        volatile Disposable subscription;
+        boolean failed;
+        Throwable error;
+
+        Attempt(AttemptExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        void cancel() {
+            Disposable current = subscription;
+            if (current != null) {
+                current.dispose();
+            }
+            exchange.release();
+        }
+    }
+
+    public static class Config {
+
+        // Fixed hedge delay; when unset the delay follows the route's live latency percentile
+        private Duration delay;
+
+        // Latency percentile (0-100) of the last 10 seconds after which a hedge is sent
+        private double percentile = 95;
+
+        // Lower bound for the hedge delay in either mode
+        private Duration minDelay = Duration.ofMillis(5);
+
+        // Hedges allowed per request, on average
+        private double budget = 0.05;
+
+        // Hedges that may be sent back to back after a quiet period
+        private int budgetBurst = 10;
+
+        private List<HttpMethod> methods = List.of(HttpMethod.GET, HttpMethod.HEAD);
+
+        public Duration getDelay() {
+            return delay;
+        }
+
+        public void setDelay(Duration delay) {
+            this.delay = delay;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public double getBudget() {
+            return budget;
+        }
+
+        public void setBudget(double budget) {
+            this.budget = budget;
+        }
+
+        public int getBudgetBurst() {
+            return budgetBurst;
+        }
+
+        public void setBudgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+        }
+
+        public List<HttpMethod> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<HttpMethod> methods) {
+            this.methods = methods;
+        }
+    }
+}
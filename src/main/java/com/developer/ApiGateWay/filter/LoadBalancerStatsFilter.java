@@ -0,0 +1,60 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.loadbalancer.InstanceStats;
+import com.developer.ApiGateWay.loadbalancer.InstanceStatsRegistry;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Feeds {@link InstanceStatsRegistry} with the outcome of every load-balanced
+ * request. Runs right after the load-balancer filter, so the measured latency is
+ * the time until the upstream response headers arrive. Errors and 5xx responses
+ * count as failures. A cancellation (a circuit-breaker timeout, a hedged attempt
+ * that lost, a client that went away) says nothing about the outcome: it only
+ * contributes its elapsed time as a latency sample and leaves the failure streak
+ * alone.
+ */
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatsRegistry registry;
+
+    public LoadBalancerStatsFilter(InstanceStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer() || StreamingRoutes.isStreaming(exchange)) {
+            return chain.filter(exchange);
+        }
+        InstanceStats stats = registry.stats(response.getServer());
+        stats.start();
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long elapsed = System.nanoTime() - start;
+            if (signal == SignalType.CANCEL) {
+                registry.recordCancelled(stats, elapsed);
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            registry.record(stats, elapsed, !failed);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
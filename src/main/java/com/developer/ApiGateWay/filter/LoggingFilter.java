@@ -1,10 +1,17 @@
 package com.developer.ApiGateWay.filter;
 
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.Stage;
+import com.developer.ApiGateWay.logging.AccessLogWriter;
+import com.developer.ApiGateWay.logging.RequestIds;
+import com.developer.ApiGateWay.offload.BlockingOffload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
@@ -13,7 +20,6 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
@@ -21,44 +27,78 @@ public class LoggingFilter implements GlobalFilter, Ordered {
     private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    // Present when gateway.access-log.mode=structured; otherwise requests are logged as text
+    private final AccessLogWriter accessLogWriter;
+    private final RouteLatencyRecorder latencyRecorder;
+    private final BlockingOffload offload;
+
+    public LoggingFilter(ObjectProvider<AccessLogWriter> accessLogWriter, RouteLatencyRecorder latencyRecorder,
+                         BlockingOffload offload) {
+        this.accessLogWriter = accessLogWriter.getIfAvailable();
+        this.latencyRecorder = latencyRecorder;
+        this.offload = offload;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String requestId = UUID.randomUUID().toString();
+        ServerHttpResponse response = exchange.getResponse();
+        long requestId = RequestIds.next();
+        String requestIdHeader = RequestIds.toHex(requestId);
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
-        // Log incoming request
-        logger.info("Incoming Request [{}] - Method: {}, URI: {}, Headers: {}, Remote Address: {}, Timestamp: {}",
-                requestId,
-                request.getMethod(),
-                request.getURI(),
-                request.getHeaders().toSingleValueMap(),
-                request.getRemoteAddress(),
-                LocalDateTime.now().format(formatter));
+        // Log incoming request; appenders may block, so the text is written on an offload thread
+        if (accessLogWriter == null && logger.isInfoEnabled()) {
+            Object[] arguments = {
+                    requestIdHeader,
+                    request.getMethod(),
+                    request.getURI(),
+                    request.getHeaders().toSingleValueMap(),
+                    request.getRemoteAddress(),
+                    LocalDateTime.now().format(formatter)};
+            offload.execute("access-log", () -> logger.info(
+                    "Incoming Request [{}] - Method: {}, URI: {}, Headers: {}, Remote Address: {}, Timestamp: {}",
+                    arguments));
+        }
         
         // Add request ID to headers for tracing
         ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Request-ID", requestId)
+                .header("X-Request-ID", requestIdHeader)
                 .header("X-Request-Timestamp", String.valueOf(startTime))
                 .build();
         
+        // Response headers are read-only once committed, so they are added just before commit
+        response.beforeCommit(() -> {
+            response.getHeaders().set("X-Request-ID", requestIdHeader);
+            response.getHeaders().set("X-Response-Time", String.valueOf((System.nanoTime() - startNanos) / 1_000_000));
+            return Mono.empty();
+        });
+        
         return chain.filter(exchange.mutate().request(modifiedRequest).build())
                 .doFinally(signalType -> {
-                    ServerHttpResponse response = exchange.getResponse();
-                    long endTime = System.currentTimeMillis();
-                    long duration = endTime - startTime;
-                    
-                    // Log outgoing response
-                    logger.info("Outgoing Response [{}] - Status: {}, Duration: {}ms, Headers: {}, Timestamp: {}",
-                            requestId,
-                            response.getStatusCode(),
-                            duration,
-                            response.getHeaders().toSingleValueMap(),
-                            LocalDateTime.now().format(formatter));
+                    long durationNanos = System.nanoTime() - startNanos;
+                    latencyRecorder.record(exchange, Stage.TOTAL, durationNanos);
                     
-                    // Add response headers
-                    response.getHeaders().add("X-Request-ID", requestId);
-                    response.getHeaders().add("X-Response-Time", String.valueOf(duration));
+                    if (accessLogWriter != null) {
+                        HttpStatusCode status = response.getStatusCode();
+                        accessLogWriter.record(startTime, requestId, durationNanos,
+                                status != null ? status.value() : 0,
+                                request.getMethod(),
+                                request.getPath().value(),
+                                request.getRemoteAddress());
+                    } else if (logger.isInfoEnabled()) {
+                        // Log outgoing response
+                        Object[] arguments = {
+                                requestIdHeader,
+                                response.getStatusCode(),
+                                durationNanos / 1_000_000,
+                                response.getHeaders().toSingleValueMap(),
+                                LocalDateTime.now().format(formatter)};
+                        offload.execute("access-log", () -> logger.info(
+                                "Outgoing Response [{}] - Status: {}, Duration: {}ms, Headers: {}, Timestamp: {}",
+                                arguments));
+                    }
                 });
     }
 
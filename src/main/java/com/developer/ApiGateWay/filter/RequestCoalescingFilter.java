@@ -0,0 +1,286 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.coalescing.Flight;
+import com.developer.ApiGateWay.coalescing.LeaderCapture;
+import com.developer.ApiGateWay.coalescing.SharedResponse;
+import com.developer.ApiGateWay.hedging.AttemptExchange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Merges concurrent identical requests into one upstream call (singleflight). The
+ * first request for a key goes on down the chain; requests with the same key that
+ * arrive while it is in flight wait for it and are answered with its status,
+ * headers and body, sharing the body buffers instead of copying them. Nothing is
+ * kept once the call completes: the next request starts a new one. This differs
+ * from ResponseCacheFilter's collapsing, which only covers cacheable responses.
+ *
+ * <p>The key is method, path and query, plus the configured request headers as
+ * they are when this filter runs, so declare it after filters that set headers
+ * such as AuthenticationFilter's X-User-Role, and before HedgingFilter. If the
+ * leader fails, its followers fail with the same error; if its response cannot be
+ * shared, or it takes longer than {@code maxWait}, they call upstream themselves.
+ * {@link CoalescingCaptureFilter} captures the leader's body.
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> coalescedRoutes = ConcurrentHashMap.newKeySet();
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Whether a route declares this filter, so that its responses need capturing.
+     */
+    public boolean isCoalesced(String routeId) {
+        return coalescedRoutes.contains(routeId);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getRouteId() != null) {
+            coalescedRoutes.add(config.getRouteId());
+        }
+        RouteCoalescing state = new RouteCoalescing(config);
+        return (exchange, chain) -> {
+            LeaderCapture capture = exchange.getAttribute(LeaderCapture.ATTR);
+            if (capture == null || !isCoalescable(exchange, config)) {
+                return chain.filter(exchange);
+            }
+            return state.filter(exchange, chain, capture);
+        };
+    }
+
+    private static boolean isCoalescable(ServerWebExchange exchange, Config config) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        // A hedged attempt cannot write a response of its own
+        return config.getMethods().contains(exchange.getRequest().getMethod())
+                && !AttemptExchange.isAttempt(exchange)
+                && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    /**
+     * Per-route state, created once per route definition.
+     */
+    private final class RouteCoalescing {
+
+        final Config config;
+        final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+        private volatile Counters counters;
+
+        RouteCoalescing(Config config) {
+            this.config = config;
+        }
+
+        Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, LeaderCapture capture) {
+            String key = key(exchange.getRequest(), config.getKeyHeaders());
+            Flight flight = new Flight(inFlight, key);
+            while (true) {
+                Flight current = inFlight.putIfAbsent(key, flight);
+                if (current == null) {
+                    return lead(exchange, chain, capture, flight);
+                }
+                if (current.join()) {
+                    return follow(exchange, chain, current);
+                }
+                // That flight is completing and leaving the map; try again
+            }
+        }
+
+        private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, LeaderCapture capture,
+                                Flight flight) {
+            counters(exchange).leader().increment();
+            capture.lead(flight, config.getMaxBodySize().toBytes());
+            // The response itself arrives through the capture after this chain completes
+            return chain.filter(exchange)
+                    .doOnError(flight::fail)
+                    .doOnCancel(flight::abandon);
+        }
+
+        private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+            AtomicBoolean settled = new AtomicBoolean();
+            return flight.done()
+                    .thenReturn(Boolean.TRUE)
+                    .timeout(config.getMaxWait(), Mono.just(Boolean.FALSE))
+                    .flatMap(completed -> {
+                        settled.set(true);
+                        Counters current = counters(exchange);
+                        if (!completed) {
+                            flight.leave();
+                            current.timeout().increment();
+                            return chain.filter(exchange);
+                        }
+                        SharedResponse shared = flight.response();
+                        if (shared == null) {
+                            current.notShared().increment();
+                            return chain.filter(exchange);
+                        }
+                        current.shared().increment();
+                        return write(exchange, shared);
+                    })
+                    .doOnError(e -> settled.set(true))
+                    .doOnCancel(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            flight.leave();
+                        }
+                    });
+        }
+
+        Counters counters(ServerWebExchange exchange) {
+            Counters current = counters;
+            if (current == null) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                current = new Counters(meterRegistry, route != null ? route.getId() : "unknown");
+                counters = current;
+            }
+            return current;
+        }
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        List<DataBuffer> body;
+        try {
+            body = shared.bodyFor(response.bufferFactory());
+        } finally {
+            shared.release();
+        }
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(shared.headers());
+        if (headers.getContentLength() < 0 && exchange.getRequest().getMethod() != HttpMethod.HEAD) {
+            headers.setContentLength(shared.length());
+        }
+        headers.set(COALESCED_HEADER, "true");
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ALREADY_ROUTED_ATTR, true);
+        if (body.isEmpty()) {
+            return response.setComplete();
+        }
+        return response.writeWith(Flux.fromIterable(body)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+    }
+
+    private static String key(ServerHttpRequest request, List<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(128)
+                .append(request.getMethod().name())
+                .append(' ')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String name : keyHeaders) {
+            key.append('\n').append(name).append(':');
+            List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    private record Counters(Counter leader, Counter shared, Counter notShared, Counter timeout) {
+
+        Counters(MeterRegistry registry, String routeId) {
+            this(counter(registry, routeId, "leader"), counter(registry, routeId, "shared"),
+                    counter(registry, routeId, "not_shared"), counter(registry, routeId, "timeout"));
+        }
+
+        private static Counter counter(MeterRegistry registry, String routeId, String outcome) {
+            return Counter.builder("gateway.coalescing.requests")
+                    .description("Coalesced requests per route: leaders, and followers by outcome")
+                    .tag("route", routeId)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private List<HttpMethod> methods = List.of(HttpMethod.GET, HttpMethod.HEAD);
+
+        // Request headers that must match for requests to share a response; the default keeps users apart
+        private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+
+        // Larger responses are not shared; waiting requests then call upstream themselves
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        // How long a request waits for the call in flight before making its own
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public List<HttpMethod> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<HttpMethod> methods) {
+            this.methods = methods;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,563 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.cache.CachePolicy;
+import com.developer.ApiGateWay.cache.CachedResponse;
+import com.developer.ApiGateWay.cache.ResponseCacheStore;
+import com.developer.ApiGateWay.config.ResponseCacheProperties;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches GET responses per route in {@link ResponseCacheStore}, honouring
+ * Cache-Control and ETag. Concurrent misses for the same key are collapsed into one
+ * upstream request. Entries past their freshness but inside the stale window are
+ * served immediately while a background request with If-None-Match revalidates
+ * them; that request goes straight to the backend URL the entry was fetched from,
+ * without passing through the route's filters again.
+ *
+ * <p>The lookup runs at the filter's declared position, so hits and collapsed
+ * requests pass through the filters before it, including the default
+ * RequestRateLimiter, and skip the ones after it such as CircuitBreaker and Retry.
+ * The upstream body is captured by {@link CacheCaptureFilter}, which sits ahead of
+ * {@link NettyWriteResponseFilter} so that the body is written through it.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Exchange attribute with the request's cache key, for FallbackController's last-known-good lookup
+    public static final String CACHE_KEY_ATTR = ResponseCacheFilter.class.getName() + ".cacheKey";
+
+    // Set on exchanges answered from the cache rather than upstream
+    private static final String SERVED_ATTR = ResponseCacheFilter.class.getName() + ".served";
+
+    // Per-exchange or hop-by-hop headers that must not be replayed from the cache
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(), "keep-alive", HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.AGE.toLowerCase(), "x-request-id", "x-response-time", CACHE_STATUS_HEADER.toLowerCase());
+
+    private final ResponseCacheStore store;
+    private final Duration collapseTimeout;
+    private final Duration revalidationTimeout;
+    private final WebClient webClient;
+    private final WebClient loadBalancedWebClient;
+    private final Set<String> cachedRoutes = ConcurrentHashMap.newKeySet();
+
+    public ResponseCacheFilter(ResponseCacheStore store,
+                               ResponseCacheProperties properties,
+                               WebClient.Builder webClientBuilder,
+                               ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer) {
+        super(Config.class);
+        this.store = store;
+        this.collapseTimeout = properties.getCollapseTimeout();
+        this.revalidationTimeout = properties.getRevalidationTimeout();
+        this.webClient = webClientBuilder.clone().build();
+        ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction = loadBalancer.getIfAvailable();
+        this.loadBalancedWebClient = loadBalancerFunction != null
+                ? webClientBuilder.clone().filter(loadBalancerFunction).build()
+                : null;
+    }
+
+    /**
+     * Whether a route declares this filter, so that its responses need capturing.
+     */
+    public boolean isCached(String routeId) {
+        return cachedRoutes.contains(routeId);
+    }
+
+    /**
+     * Whether the exchange was answered from the cache rather than upstream.
+     */
+    public static boolean isServedFromCache(ServerWebExchange exchange) {
+        return exchange.getAttributes().containsKey(SERVED_ATTR);
+    }
+
+    /**
+     * Response decorator for {@link CacheCaptureFilter} to install; it stays idle
+     * unless the exchange misses the cache.
+     */
+    Capture capture(ServerWebExchange exchange) {
+        return new Capture(exchange);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getRouteId() != null) {
+            cachedRoutes.add(config.getRouteId());
+        }
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !CachePolicy.requestAllowsStore(request.getHeaders())
+                    || StreamingRoutes.isStreaming(exchange)) {
+                return chain.filter(exchange);
+            }
+            String key = cacheKey(exchange, config);
+            exchange.getAttributes().put(CACHE_KEY_ATTR, key);
+            if (!CachePolicy.requestAllowsLookup(request.getHeaders())) {
+                return fetch(exchange, chain, config, key, null);
+            }
+
+            long now = System.nanoTime();
+            CachedResponse cached = store.get(key);
+            if (cached != null && cached.isFresh(now)) {
+                Mono<Void> hit = serve(exchange, cached, now, "HIT");
+                if (hit != null) {
+                    return hit;
+                }
+            } else if (cached != null && cached.isServableStale(now)) {
+                Mono<Void> stale = serve(exchange, cached, now, "STALE");
+                if (stale != null) {
+                    revalidate(exchange, config, key, cached);
+                    return stale;
+                }
+            }
+
+            // Miss: the first request fetches, identical concurrent requests wait for it
+            Sinks.Empty<Void> signal = Sinks.empty();
+            Mono<Void> leader = store.awaitOrLead(key, signal);
+            if (leader == null) {
+                return fetch(exchange, chain, config, key, signal);
+            }
+            return leader.timeout(collapseTimeout)
+                    .onErrorResume(e -> Mono.empty())
+                    .then(Mono.defer(() -> {
+                        long afterWait = System.nanoTime();
+                        CachedResponse collapsed = store.get(key);
+                        Mono<Void> served = collapsed != null && collapsed.isFresh(afterWait)
+                                ? serve(exchange, collapsed, afterWait, "COLLAPSED")
+                                : null;
+                        // Leader's response was not storable: go upstream ourselves
+                        return served != null ? served : fetch(exchange, chain, config, key, null);
+                    }));
+        };
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, long now, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders responseHeaders = response.getHeaders();
+        boolean notModified = cached.etag() != null
+                && CachePolicy.matchesIfNoneMatch(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag());
+
+        DataBuffer body = null;
+        if (!notModified) {
+            body = cached.bodyFor(response.bufferFactory());
+            if (body == null) {
+                return null;
+            }
+        }
+        cached.headers().forEach((name, values) -> {
+            // Added to the Vary values this exchange already has, e.g. from CORS
+            if (HttpHeaders.VARY.equalsIgnoreCase(name)) {
+                responseHeaders.addAll(name, values);
+            } else {
+                responseHeaders.put(name, values);
+            }
+        });
+        responseHeaders.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        responseHeaders.set(CACHE_STATUS_HEADER, cacheStatus);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ALREADY_ROUTED_ATTR, true);
+        exchange.getAttributes().put(SERVED_ATTR, Boolean.TRUE);
+
+        if (notModified) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            responseHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        responseHeaders.setContentLength(body.readableByteCount());
+        return response.writeWith(Mono.just(body));
+    }
+
+    /**
+     * Sends the request on down the chain with the exchange's {@link Capture} armed
+     * to store the response. A leader's {@code lead} is completed once the body is
+     * stored or turned out not to be storable, so collapsed requests can read it.
+     */
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String key,
+                             Sinks.Empty<Void> lead) {
+        Capture capture = exchange.getAttribute(Capture.ATTR);
+        if (capture == null) {
+            return lead != null
+                    ? chain.filter(exchange).doFinally(s -> store.completeLead(key, lead))
+                    : chain.filter(exchange);
+        }
+        capture.arm(config, key, lead);
+        return chain.filter(exchange);
+    }
+
+    private void revalidate(ServerWebExchange exchange, Config config, String key, CachedResponse cached) {
+        if (!cached.startRevalidation()) {
+            return;
+        }
+        URI upstream = cached.upstreamUri();
+        boolean loadBalanced = upstream != null && "lb".equals(upstream.getScheme());
+        WebClient client = loadBalanced ? loadBalancedWebClient : webClient;
+        if (upstream == null || client == null) {
+            cached.endRevalidation();
+            return;
+        }
+        URI uri = loadBalanced
+                ? UriComponentsBuilder.fromUri(upstream).scheme("http").build(true).toUri()
+                : upstream;
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+
+        client.get()
+                .uri(uri)
+                .headers(headers -> {
+                    for (String name : config.getKeyHeaders()) {
+                        List<String> values = requestHeaders.get(name);
+                        if (values != null) {
+                            headers.put(name, values);
+                        }
+                    }
+                    headers.setIfNoneMatch(cached.etag());
+                })
+                .exchangeToMono(response -> onRevalidated(response, config, key, cached, requestHeaders))
+                .timeout(revalidationTimeout)
+                .doFinally(signal -> cached.endRevalidation())
+                .subscribe(null, error -> logger.debug("Revalidation of {} failed: {}", key, error.getMessage()));
+    }
+
+    private Mono<Void> onRevalidated(ClientResponse response, Config config, String key, CachedResponse cached,
+                                     HttpHeaders requestHeaders) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        int status = response.statusCode().value();
+        if (status == HttpStatus.NOT_MODIFIED.value()) {
+            HttpHeaders freshness = headers.getCacheControl() != null ? headers : cached.headers();
+            store.refresh(key, cached, headers,
+                    CachePolicy.freshnessSeconds(freshness, config.getTtl().toSeconds()),
+                    CachePolicy.staleWhileRevalidateSeconds(freshness, config.getStaleWhileRevalidate().toSeconds()));
+            return response.releaseBody();
+        }
+        if (status != HttpStatus.OK.value() || !CachePolicy.isStorable(requestHeaders, headers, config.getKeyHeaders())) {
+            return response.releaseBody();
+        }
+        long freshSeconds = CachePolicy.freshnessSeconds(headers, config.getTtl().toSeconds());
+        long staleSeconds = CachePolicy.staleWhileRevalidateSeconds(headers, config.getStaleWhileRevalidate().toSeconds());
+        BodyCapture capture = new BodyCapture(key, storableHeaders(headers), cached.upstreamUri(), freshSeconds,
+                staleSeconds, config.getLastKnownGood().toSeconds(), (int) Math.max(headers.getContentLength(), 0));
+        return response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> {
+                    capture.append(buffer);
+                    DataBufferUtils.release(buffer);
+                })
+                .doOnComplete(capture::store)
+                .doOnCancel(capture::discard)
+                .doOnError(e -> capture.discard())
+                .then();
+    }
+
+    private static String cacheKey(ServerWebExchange exchange, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        StringBuilder key = new StringBuilder(128)
+                .append(route != null ? route.getId() : "")
+                .append(' ')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String name : config.getKeyHeaders()) {
+            key.append('\n').append(name).append(':');
+            List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The load-balanced URL the request was routed to if there was one (so
+     * revalidation picks an instance again), otherwise the final request URL.
+     */
+    private static URI upstreamUri(ServerWebExchange exchange) {
+        LinkedHashSet<URI> originals = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        URI loadBalanced = null;
+        if (originals != null) {
+            for (URI original : originals) {
+                if ("lb".equals(original.getScheme())) {
+                    loadBalanced = original;
+                }
+            }
+        }
+        return loadBalanced != null ? loadBalanced : exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+    }
+
+    private static HttpHeaders storableHeaders(HttpHeaders headers) {
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase())) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Response decorator installed by {@link CacheCaptureFilter}. Once armed by a
+     * cache miss it stores a storable 200 response as its body streams past. Header
+     * values the gateway set before arming (CORS Vary, rate-limit and request-id
+     * headers) belong to this exchange; they are neither checked nor stored.
+     */
+    class Capture extends ServerHttpResponseDecorator {
+
+        static final String ATTR = Capture.class.getName();
+
+        private final ServerWebExchange exchange;
+        private volatile Config config;
+        private volatile String key;
+        private volatile Sinks.Empty<Void> lead;
+        private volatile HttpHeaders gatewayHeaders;
+
+        Capture(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        void arm(Config config, String key, Sinks.Empty<Void> lead) {
+            HttpHeaders snapshot = new HttpHeaders();
+            getHeaders().forEach((name, values) -> snapshot.put(name, List.copyOf(values)));
+            this.gatewayHeaders = snapshot;
+            this.config = config;
+            this.key = key;
+            this.lead = lead;
+        }
+
+        /**
+         * Called when the exchange is done; releases collapsed requests still waiting
+         * for a response that never came through here.
+         */
+        void finish() {
+            completeLead();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Config current = config;
+            if (current == null) {
+                return super.writeWith(body);
+            }
+            config = null;
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            HttpHeaders upstreamHeaders = withoutGatewayHeaders(headers, gatewayHeaders);
+            // A response that already came from the cache (a last-known-good fallback) is not stored again
+            if (status == null || status.value() != 200 || headers.containsKey(CACHE_STATUS_HEADER)
+                    || !CachePolicy.isStorable(exchange.getRequest().getHeaders(), upstreamHeaders,
+                    current.getKeyHeaders())
+                    || headers.getContentLength() > store.maxEntryBytes()) {
+                completeLead();
+                return super.writeWith(body);
+            }
+            long freshSeconds = CachePolicy.freshnessSeconds(headers, current.getTtl().toSeconds());
+            if (freshSeconds <= 0) {
+                completeLead();
+                return super.writeWith(body);
+            }
+            long staleSeconds = CachePolicy.staleWhileRevalidateSeconds(headers,
+                    current.getStaleWhileRevalidate().toSeconds());
+
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            BodyCapture capture = new BodyCapture(key, storableHeaders(upstreamHeaders), upstreamUri(exchange),
+                    freshSeconds, staleSeconds, current.getLastKnownGood().toSeconds(),
+                    (int) Math.max(headers.getContentLength(), 0));
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(capture::store)
+                    .doOnCancel(capture::discard)
+                    .doOnError(e -> capture.discard())
+                    .doFinally(signal -> completeLead()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            config = null;
+            completeLead();
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            config = null;
+            completeLead();
+            return super.setComplete();
+        }
+
+        private static HttpHeaders withoutGatewayHeaders(HttpHeaders headers, HttpHeaders gatewayHeaders) {
+            HttpHeaders upstream = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                List<String> gatewayValues = gatewayHeaders.get(name);
+                List<String> remaining = gatewayValues == null ? values
+                        : values.stream().filter(value -> !gatewayValues.contains(value)).toList();
+                if (!remaining.isEmpty()) {
+                    upstream.put(name, remaining);
+                }
+            });
+            return upstream;
+        }
+
+        private void completeLead() {
+            Sinks.Empty<Void> current = lead;
+            if (current != null) {
+                lead = null;
+                store.completeLead(key, current);
+            }
+        }
+    }
+
+    /**
+     * Copies body chunks into one pooled direct buffer as they stream past, without
+     * moving the chunks' read positions, and hands it to the store on completion.
+     */
+    private class BodyCapture {
+
+        private final String key;
+        private final HttpHeaders headers;
+        private final URI upstreamUri;
+        private final long freshSeconds;
+        private final long staleSeconds;
+        private final long lastKnownGoodSeconds;
+        private NettyDataBuffer target;
+
+        BodyCapture(String key, HttpHeaders headers, URI upstreamUri, long freshSeconds, long staleSeconds,
+                    long lastKnownGoodSeconds, int expectedLength) {
+            this.key = key;
+            this.headers = headers;
+            this.upstreamUri = upstreamUri;
+            this.freshSeconds = freshSeconds;
+            this.staleSeconds = staleSeconds;
+            this.lastKnownGoodSeconds = lastKnownGoodSeconds;
+            this.target = store.allocate(expectedLength);
+        }
+
+        void append(DataBuffer chunk) {
+            if (target == null) {
+                return;
+            }
+            if (target.readableByteCount() + chunk.readableByteCount() > store.maxEntryBytes()) {
+                discard();
+                return;
+            }
+            try (DataBuffer.ByteBufferIterator iterator = chunk.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    target.write(iterator.next());
+                }
+            }
+        }
+
+        void store() {
+            if (target != null) {
+                store.put(key, HttpStatus.OK.value(), headers, target, upstreamUri, freshSeconds, staleSeconds,
+                        lastKnownGoodSeconds);
+                target = null;
+            }
+        }
+
+        void discard() {
+            if (target != null) {
+                DataBufferUtils.release(target);
+                target = null;
+            }
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        // Freshness for responses without max-age or s-maxage
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // How long past freshness an entry may be served while it is revalidated
+        private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+
+        // Request headers that take part in the cache key; responses may only Vary on these
+        private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT);
+
+        // How long past the stale window an entry is kept for FallbackController to serve during an outage
+        private Duration lastKnownGood = Duration.ZERO;
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+
+        public Duration getLastKnownGood() {
+            return lastKnownGood;
+        }
+
+        public void setLastKnownGood(Duration lastKnownGood) {
+            this.lastKnownGood = lastKnownGood;
+        }
+    }
+}
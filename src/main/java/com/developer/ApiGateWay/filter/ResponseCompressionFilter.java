@@ -0,0 +1,493 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.cache.CachePolicy;
+import com.developer.ApiGateWay.compression.CompressedBodyCache;
+import com.developer.ApiGateWay.compression.ContentCoding;
+import com.developer.ApiGateWay.compression.StreamingCompressor;
+import com.developer.ApiGateWay.config.CompressionProperties;
+import com.developer.ApiGateWay.streaming.StreamingRoutes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compresses response bodies with the best coding the client accepts: zstd,
+ * brotli or gzip, in the route's order of preference. The body is compressed chunk
+ * by chunk as it streams through, into pooled buffers, and never held whole.
+ * Bodies that are already encoded, smaller than {@code minSize}, of a type not in
+ * {@code mimeTypes}, or marked no-transform pass through unchanged.
+ *
+ * <p>For 200 responses with a strong ETag that may be reused, the compressed
+ * body is kept in {@link CompressedBodyCache}; later responses with the same
+ * ETag are answered from it without compressing again. Compressed responses get
+ * a weak ETag, since their bytes differ from the identity body's.
+ *
+ * <p>Runs ahead of the cache and coalescing captures, so those keep
+ * identity bodies and their answers are compressed here like upstream ones. Per
+ * route, {@code gateway.compression.time} (encoder time) set against
+ * {@code gateway.compression.bytes} in and out shows what compression costs and
+ * saves.
+ */
+@Component
+public class ResponseCompressionFilter extends AbstractGatewayFilterFactory<ResponseCompressionFilter.Config> {
+
+    private final CompressedBodyCache cache;
+    private final CompressionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCompressionFilter(CompressedBodyCache cache, CompressionProperties properties,
+                                     MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteCompression state = new RouteCompression(config);
+        // Outside the other response decorators, so it sees the body they pass on
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() == HttpMethod.HEAD || StreamingRoutes.isStreaming(exchange)) {
+                return chain.filter(exchange);
+            }
+            List<String> acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+            ContentCoding coding = acceptEncoding == null ? null
+                    : ContentCoding.negotiate(String.join(",", acceptEncoding), state.preferred);
+            return chain.filter(exchange.mutate()
+                    .response(new CompressingResponse(exchange, state, coding))
+                    .build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    private int level(ContentCoding coding) {
+        return switch (coding) {
+            case GZIP -> properties.getGzipLevel();
+            case BROTLI -> properties.getBrotliLevel();
+            case ZSTD -> properties.getZstdLevel();
+        };
+    }
+
+    /**
+     * Per-route state, created once per route definition.
+     */
+    private final class RouteCompression {
+
+        final Config config;
+        final List<ContentCoding> preferred;
+        final List<MimeType> mimeTypes;
+        private volatile Meters meters;
+
+        RouteCompression(Config config) {
+            this.config = config;
+            List<ContentCoding> codings = new ArrayList<>();
+            for (String token : config.getEncodings()) {
+                ContentCoding coding = ContentCoding.fromToken(token);
+                if (coding == null) {
+                    throw new IllegalArgumentException("Unsupported content coding: " + token);
+                }
+                if (coding.isAvailable()) {
+                    codings.add(coding);
+                }
+            }
+            this.preferred = List.copyOf(codings);
+            this.mimeTypes = config.getMimeTypes().stream().map(MimeType::valueOf).toList();
+        }
+
+        boolean isCompressible(HttpHeaders headers) {
+            MediaType contentType;
+            try {
+                contentType = headers.getContentType();
+            } catch (InvalidMediaTypeException e) {
+                return false;
+            }
+            if (contentType == null) {
+                return false;
+            }
+            for (MimeType mimeType : mimeTypes) {
+                if (mimeType.includes(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Meters meters(ServerWebExchange exchange) {
+            Meters current = meters;
+            if (current == null) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                current = new Meters(meterRegistry, route != null ? route.getId() : "unknown", preferred);
+                meters = current;
+            }
+            return current;
+        }
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final RouteCompression state;
+        private final ContentCoding coding;
+
+        CompressingResponse(ServerWebExchange exchange, RouteCompression state, ContentCoding coding) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.state = state;
+            this.coding = coding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Meters meters = state.meters(exchange);
+            String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding)) {
+                meters.alreadyEncoded.increment();
+                return super.writeWith(body);
+            }
+            if (!isCompressibleStatus(getStatusCode()) || headers.containsKey(HttpHeaders.CONTENT_RANGE)
+                    || !CachePolicy.allowsTransform(headers) || !state.isCompressible(headers)) {
+                meters.notCompressible.increment();
+                return super.writeWith(body);
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0 && contentLength < state.config.getMinSize().toBytes()) {
+                meters.tooSmall.increment();
+                return super.writeWith(body);
+            }
+            // From here the body's coding depends on Accept-Encoding, whether or not it is compressed
+            if (headers.getVary().stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (coding == null) {
+                meters.notAccepted.increment();
+                return super.writeWith(body);
+            }
+
+            CodingMeters codingMeters = meters.byCoding.get(coding);
+            String cacheKey = state.config.isCache() ? cacheKey(headers) : null;
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            CompressedBodyCache.Entry cached = cacheKey != null ? cache.get(cacheKey) : null;
+            if (cached != null) {
+                codingMeters.cacheHit.increment();
+                codingMeters.identityBytes.increment(cached.identityLength());
+                codingMeters.encodedBytes.increment(cached.body().readableBytes());
+                headers.setContentLength(cached.body().readableBytes());
+                return writeCached(body, cached.body());
+            }
+            return super.writeWith(compress(body, codingMeters, cacheKey));
+        }
+
+        private Flux<DataBuffer> compress(Publisher<? extends DataBuffer> body, CodingMeters codingMeters,
+                                          String cacheKey) {
+            DataBufferFactory factory = bufferFactory();
+            ByteBufAllocator allocator = factory instanceof NettyDataBufferFactory nettyFactory
+                    ? nettyFactory.getByteBufAllocator()
+                    : PooledByteBufAllocator.DEFAULT;
+            StreamingCompressor compressor = new StreamingCompressor(coding, level(coding), allocator);
+            CompressedCapture capture = cacheKey != null ? new CompressedCapture(cacheKey) : null;
+
+            return Flux.from(body)
+                    .<DataBuffer>handle((chunk, sink) -> {
+                        ByteBuf encoded = compressor.encode(toByteBuf(chunk, allocator));
+                        if (encoded != null) {
+                            sink.next(emit(encoded, factory, capture));
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(compressor::finish)
+                            .map(encoded -> emit(encoded, factory, capture)))
+                    .doOnComplete(() -> {
+                        if (capture != null) {
+                            capture.store(compressor.identityBytes());
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (signal != SignalType.ON_COMPLETE) {
+                            compressor.discard();
+                            if (capture != null) {
+                                capture.discard();
+                            }
+                        }
+                        codingMeters.compressed.increment();
+                        codingMeters.identityBytes.increment(compressor.identityBytes());
+                        codingMeters.encodedBytes.increment(compressor.encodedBytes());
+                        codingMeters.time.record(compressor.encodeNanos(), TimeUnit.NANOSECONDS);
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        }
+
+        // The upstream body is drained unread; the cached compressed form is written in its place
+        private Mono<Void> writeCached(Publisher<? extends DataBuffer> body, ByteBuf compressed) {
+            AtomicBoolean handedOver = new AtomicBoolean();
+            return Flux.from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.defer(() -> {
+                        handedOver.set(true);
+                        return CompressingResponse.super.writeWith(
+                                Mono.just(toDataBuffer(compressed, bufferFactory())));
+                    }))
+                    .doFinally(signal -> {
+                        if (handedOver.compareAndSet(false, true)) {
+                            compressed.release();
+                        }
+                    });
+        }
+
+        private String cacheKey(HttpHeaders headers) {
+            HttpStatusCode status = getStatusCode();
+            String etag = headers.getETag();
+            if (status == null || status.value() != 200 || etag == null || etag.startsWith("W/")
+                    || !CachePolicy.allowsReuse(headers)) {
+                return null;
+            }
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            StringBuilder key = new StringBuilder(128)
+                    .append(coding.token())
+                    .append(' ')
+                    .append(route != null ? route.getId() : "")
+                    .append(' ')
+                    .append(request.getURI().getRawPath());
+            String query = request.getURI().getRawQuery();
+            if (query != null) {
+                key.append('?').append(query);
+            }
+            return key.append(' ').append(etag).toString();
+        }
+    }
+
+    private static boolean isCompressibleStatus(HttpStatusCode status) {
+        if (status == null) {
+            return true;
+        }
+        int value = status.value();
+        return value >= 200 && value != 204 && value != 206 && value != 304;
+    }
+
+    private static ByteBuf toByteBuf(DataBuffer chunk, ByteBufAllocator allocator) {
+        if (chunk instanceof NettyDataBuffer nettyBuffer) {
+            return nettyBuffer.getNativeBuffer();
+        }
+        // Non-Netty bodies (e.g. mock exchanges) are copied into a pooled buffer
+        try {
+            ByteBuf copy = allocator.directBuffer(chunk.readableByteCount());
+            try (DataBuffer.ByteBufferIterator iterator = chunk.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    copy.writeBytes(iterator.next());
+                }
+            }
+            return copy;
+        } finally {
+            DataBufferUtils.release(chunk);
+        }
+    }
+
+    private static DataBuffer emit(ByteBuf encoded, DataBufferFactory factory, CompressedCapture capture) {
+        if (capture != null) {
+            capture.append(encoded);
+        }
+        return toDataBuffer(encoded, factory);
+    }
+
+    private static DataBuffer toDataBuffer(ByteBuf buffer, DataBufferFactory factory) {
+        if (factory instanceof NettyDataBufferFactory nettyFactory) {
+            return nettyFactory.wrap(buffer);
+        }
+        try {
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return factory.wrap(bytes);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Copies compressed chunks into one pooled buffer as they are written, without
+     * moving their read positions, and hands it to the cache on completion.
+     */
+    private final class CompressedCapture {
+
+        private final String key;
+        private ByteBuf target;
+
+        CompressedCapture(String key) {
+            this.key = key;
+            this.target = cache.allocate(4096);
+        }
+
+        synchronized void append(ByteBuf chunk) {
+            if (target == null) {
+                return;
+            }
+            if (target.readableBytes() + chunk.readableBytes() > cache.maxEntryBytes()) {
+                discard();
+                return;
+            }
+            target.writeBytes(chunk, chunk.readerIndex(), chunk.readableBytes());
+        }
+
+        synchronized void store(long identityLength) {
+            if (target != null) {
+                cache.put(key, target, identityLength);
+                target = null;
+            }
+        }
+
+        synchronized void discard() {
+            if (target != null) {
+                target.release();
+                target = null;
+            }
+        }
+    }
+
+    private static final class CodingMeters {
+
+        final Counter compressed;
+        final Counter cacheHit;
+        final Counter identityBytes;
+        final Counter encodedBytes;
+        final Timer time;
+
+        CodingMeters(MeterRegistry registry, String routeId, ContentCoding coding) {
+            this.compressed = responses(registry, routeId, coding.token(), "compressed");
+            this.cacheHit = responses(registry, routeId, coding.token(), "cache_hit");
+            this.identityBytes = bytes(registry, routeId, coding.token(), "in");
+            this.encodedBytes = bytes(registry, routeId, coding.token(), "out");
+            this.time = Timer.builder("gateway.compression.time")
+                    .description("Time spent in the encoder per compressed response")
+                    .tag("route", routeId)
+                    .tag("encoding", coding.token())
+                    .register(registry);
+        }
+
+        private static Counter bytes(MeterRegistry registry, String routeId, String encoding, String direction) {
+            return Counter.builder("gateway.compression.bytes")
+                    .description("Body bytes before (in) and after (out) compression, cache hits included")
+                    .baseUnit("bytes")
+                    .tag("route", routeId)
+                    .tag("encoding", encoding)
+                    .tag("direction", direction)
+                    .register(registry);
+        }
+    }
+
+    private static final class Meters {
+
+        final Counter alreadyEncoded;
+        final Counter notCompressible;
+        final Counter tooSmall;
+        final Counter notAccepted;
+        final Map<ContentCoding, CodingMeters> byCoding = new EnumMap<>(ContentCoding.class);
+
+        Meters(MeterRegistry registry, String routeId, List<ContentCoding> codings) {
+            this.alreadyEncoded = responses(registry, routeId, "identity", "already_encoded");
+            this.notCompressible = responses(registry, routeId, "identity", "not_compressible");
+            this.tooSmall = responses(registry, routeId, "identity", "too_small");
+            this.notAccepted = responses(registry, routeId, "identity", "not_accepted");
+            for (ContentCoding coding : codings) {
+                byCoding.put(coding, new CodingMeters(registry, routeId, coding));
+            }
+        }
+    }
+
+    private static Counter responses(MeterRegistry registry, String routeId, String encoding, String result) {
+        return Counter.builder("gateway.compression.responses")
+                .description("Responses per route by coding and by why they were or were not compressed")
+                .tag("route", routeId)
+                .tag("encoding", encoding)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public static class Config {
+
+        // Codings offered, most preferred first; unavailable native codings are left out
+        private List<String> encodings = List.of("zstd", "br", "gzip");
+
+        // Bodies declared smaller than this are not worth the CPU; chunked bodies are always compressed
+        private DataSize minSize = DataSize.ofKilobytes(1);
+
+        private List<String> mimeTypes = List.of(MediaType.APPLICATION_JSON_VALUE, "application/*+json",
+                "application/javascript", MediaType.APPLICATION_XML_VALUE, "application/*+xml", "text/*");
+
+        // Keep compressed forms of responses with a strong ETag in CompressedBodyCache
+        private boolean cache = true;
+
+        public List<String> getEncodings() {
+            return encodings;
+        }
+
+        public void setEncodings(List<String> encodings) {
+            this.encodings = encodings;
+        }
+
+        public DataSize getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(DataSize minSize) {
+            this.minSize = minSize;
+        }
+
+        public List<String> getMimeTypes() {
+            return mimeTypes;
+        }
+
+        public void setMimeTypes(List<String> mimeTypes) {
+            this.mimeTypes = mimeTypes;
+        }
+
+        public boolean isCache() {
+            return cache;
+        }
+
+        public void setCache(boolean cache) {
+            this.cache = cache;
+        }
+    }
+}
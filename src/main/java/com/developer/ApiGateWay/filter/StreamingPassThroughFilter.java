@@ -0,0 +1,124 @@
+package com.developer.ApiGateWay.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pass-through for large bodies. Request and response bodies stay the Netty buffers
+ * they arrived in and are never joined; this filter only bounds how far each side
+ * may read ahead and enforces the body size limit on the stream itself, so chunked
+ * uploads are limited as strictly as declared ones.
+ *
+ * <p>Demand is capped at {@code maxInFlightBytes / 64KB} buffers (64KB being
+ * Netty's largest read), so a slow backend stops the gateway reading from the
+ * client, and a slow client stops it reading from the backend. Use on routes marked
+ * with {@code streaming} metadata, see {@link com.developer.ApiGateWay.streaming.StreamingRoutes}.
+ */
+@Component
+public class StreamingPassThroughFilter extends AbstractGatewayFilterFactory<StreamingPassThroughFilter.Config> {
+
+    private static final int MAX_READ_BYTES = 64 * 1024;
+
+    public StreamingPassThroughFilter() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long maxBodyBytes = config.getMaxBodySize().toBytes();
+        int prefetch = (int) Math.max(1, Math.min(Integer.MAX_VALUE, config.getMaxInFlightBytes().toBytes() / MAX_READ_BYTES));
+        byte[] tooLargeBody = ("{\"error\": \"Request body exceeds " + maxBodyBytes + " bytes\", \"status\": "
+                + HttpStatus.PAYLOAD_TOO_LARGE.value() + "}").getBytes(StandardCharsets.UTF_8);
+        // Ahead of NettyWriteResponseFilter, so that it writes the response through the paced decorator
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getHeaders().getContentLength() > maxBodyBytes) {
+                return tooLarge(exchange.getResponse(), tooLargeBody);
+            }
+            ServerHttpRequest bounded = new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return limit(super.getBody(), maxBodyBytes).limitRate(prefetch);
+                }
+            };
+            ServerHttpResponse paced = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    return super.writeWith(Flux.from(body).limitRate(prefetch));
+                }
+
+                @Override
+                public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                    return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).limitRate(prefetch)));
+                }
+            };
+            return chain.filter(exchange.mutate().request(bounded).response(paced).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private static Flux<DataBuffer> limit(Flux<DataBuffer> body, long maxBodyBytes) {
+        return Flux.defer(() -> {
+            long[] total = {0};
+            return body.handle((buffer, sink) -> {
+                total[0] += buffer.readableByteCount();
+                if (total[0] > maxBodyBytes) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Request body exceeds " + maxBodyBytes + " bytes"));
+                } else {
+                    sink.next(buffer);
+                }
+            });
+        });
+    }
+
+    private static Mono<Void> tooLarge(ServerHttpResponse response, byte[] body) {
+        response.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    public static class Config {
+
+        private DataSize maxBodySize = DataSize.ofGigabytes(10);
+
+        private DataSize maxInFlightBytes = DataSize.ofMegabytes(1);
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public Config setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        public DataSize getMaxInFlightBytes() {
+            return maxInFlightBytes;
+        }
+
+        public Config setMaxInFlightBytes(DataSize maxInFlightBytes) {
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.capture.TrafficCaptureWriter;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples requests into the traffic capture: route, method, path, client, header
+ * and body sizes, status and duration. Requests that are not sampled cost one
+ * random number; sampled ones are wrapped to count the body bytes read and
+ * written, and recorded when they complete. Runs right inside LoggingFilter, so
+ * the duration is the gateway's own and the byte counts are what the client
+ * sent and received.
+ */
+public class TrafficCaptureFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 1;
+
+    // Added by LoggingFilter; left out so a replay, which passes through it again, matches the capture
+    private static final List<String> GATEWAY_HEADERS = List.of("X-Request-ID", "X-Request-Timestamp");
+
+    private final TrafficCaptureWriter writer;
+    private final double sampleRate;
+
+    public TrafficCaptureFilter(TrafficCaptureWriter writer) {
+        this.writer = writer;
+        this.sampleRate = writer.sampleRate();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!writer.accepting() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return chain.filter(exchange);
+        }
+        long arrivalNanos = System.nanoTime();
+        CountingRequest request = new CountingRequest(exchange.getRequest());
+        CountingResponse response = new CountingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signalType -> {
+                    HttpStatusCode status = response.getStatusCode();
+                    writer.record(arrivalNanos, System.nanoTime() - arrivalNanos,
+                            RouteLatencyRecorder.routeId(exchange),
+                            request.getMethod(),
+                            request.getPath().value(),
+                            clientKey(request),
+                            headerBytes(request.getHeaders()),
+                            request.bodyBytes,
+                            headerBytes(response.getHeaders()),
+                            response.bodyBytes,
+                            status != null ? status.value() : 0);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    // The rate limiter's key: the user id when present, else the remote address
+    private static String clientKey(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        if (userId != null) {
+            return userId;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null ? remoteAddress.getHostString() : null;
+    }
+
+    // Names and values plus ": " and CRLF per line, as on the wire in HTTP/1.1
+    private static int headerBytes(HttpHeaders headers) {
+        int bytes = 0;
+        for (Map.Entry<String, List<String>> header : headers.headerSet()) {
+            if (GATEWAY_HEADERS.stream().anyMatch(header.getKey()::equalsIgnoreCase)) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                bytes += header.getKey().length() + value.length() + 4;
+            }
+        }
+        return bytes;
+    }
+
+    private static final class CountingRequest extends ServerHttpRequestDecorator {
+
+        // Written on the thread reading the body, read in doFinally after it has completed
+        private volatile long bodyBytes;
+
+        CountingRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> bodyBytes += buffer.readableByteCount());
+        }
+    }
+
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+
+        private volatile long bodyBytes;
+
+        CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bodyBytes += buffer.readableByteCount();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.upstream.UpstreamPool;
+import com.developer.ApiGateWay.upstream.UpstreamPools;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * NettyRoutingFilter that sends a route's requests through the client of its
+ * {@link UpstreamPool}, when it has one. Everything else, including response
+ * timeouts from route metadata, is left to the gateway's filter.
+ */
+public class UpstreamPoolRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamPools pools;
+
+    public UpstreamPoolRoutingFilter(HttpClient httpClient,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                     HttpClientProperties properties, UpstreamPools pools) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.pools = pools;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        UpstreamPool pool = pools.poolFor(route);
+        if (pool == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        // The profile client already carries the global connect timeout; only a per-route one is applied here
+        Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            return pool.client().option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.valueOf(connectTimeout.toString()));
+        }
+        return pool.client();
+    }
+}
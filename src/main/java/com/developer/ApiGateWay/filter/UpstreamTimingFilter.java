@@ -0,0 +1,30 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.UpstreamTiming;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the clock for connection acquisition right before NettyRoutingFilter.
+ * The {@link UpstreamTiming} travels in the Reactor context to the HTTP client's
+ * callbacks, which record acquisition and time to first byte; retried or hedged
+ * attempts pass through here again and are timed separately.
+ */
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        UpstreamTiming timing = new UpstreamTiming(RouteLatencyRecorder.routeId(exchange), System.nanoTime());
+        return chain.filter(exchange).contextWrite(context -> context.put(UpstreamTiming.class, timing));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.developer.ApiGateWay.health;
+
+import java.util.List;
+
+/**
+ * What discovery (and probing, when enabled) reported in one refresh. Value
+ * equality decides whether a refresh changed anything.
+ */
+public record DiscoveryState(List<Service> services, String error) {
+
+    public enum Status {
+        // Listed by discovery, not probed
+        DISCOVERED,
+        UP,
+        DOWN
+    }
+
+    public record Service(String name, List<Instance> instances) {
+
+        public long healthyInstances() {
+            return instances.stream().filter(instance -> instance.status() != Status.DOWN).count();
+        }
+
+        /**
+         * DISCOVERED or UP while every instance is, DEGRADED when only some are
+         * down, DOWN when all are (or there are none).
+         */
+        public String status() {
+            long healthy = healthyInstances();
+            if (healthy == 0) {
+                return "DOWN";
+            }
+            if (healthy < instances.size()) {
+                return "DEGRADED";
+            }
+            return instances.get(0).status().name();
+        }
+    }
+
+    public record Instance(String instanceId, String host, int port, Status status) {
+    }
+
+    public static DiscoveryState empty() {
+        return new DiscoveryState(List.of(), null);
+    }
+}
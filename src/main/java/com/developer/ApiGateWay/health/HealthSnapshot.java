@@ -0,0 +1,89 @@
+package com.developer.ApiGateWay.health;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.health.Health;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of a {@link DiscoveryState} with the health endpoints' JSON bodies
+ * and the actuator {@link Health} built once, when the state changed.
+ */
+public class HealthSnapshot {
+
+    private final DiscoveryState state;
+    private final LocalDateTime timestamp;
+    private final byte[] summaryJson;
+    private final byte[] servicesJson;
+    private final Health health;
+
+    HealthSnapshot(DiscoveryState state, LocalDateTime timestamp, ObjectMapper objectMapper) {
+        this.state = state;
+        this.timestamp = timestamp;
+        List<String> names = state.services().stream().map(DiscoveryState.Service::name).toList();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", "UP");
+        summary.put("timestamp", timestamp);
+        summary.put("service", "api-gateway");
+        summary.put("version", "1.0.0");
+        summary.put("discoveredServices", names);
+        summary.put("serviceCount", names.size());
+        Map<String, Object> system = new LinkedHashMap<>();
+        system.put("javaVersion", System.getProperty("java.version"));
+        system.put("osName", System.getProperty("os.name"));
+        system.put("osVersion", System.getProperty("os.version"));
+        system.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        system.put("maxMemory", Runtime.getRuntime().maxMemory());
+        summary.put("system", system);
+
+        Map<String, Object> services = new LinkedHashMap<>();
+        for (DiscoveryState.Service service : state.services()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("instances", service.instances().size());
+            info.put("healthyInstances", service.healthyInstances());
+            info.put("status", service.status());
+            services.put(service.name(), info);
+        }
+        Map<String, Object> servicesBody = new LinkedHashMap<>();
+        servicesBody.put("timestamp", timestamp);
+        servicesBody.put("totalServices", names.size());
+        servicesBody.put("services", services);
+
+        try {
+            this.summaryJson = objectMapper.writeValueAsBytes(summary);
+            this.servicesJson = objectMapper.writeValueAsBytes(servicesBody);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize health snapshot", e);
+        }
+
+        this.health = state.error() != null
+                ? Health.down().withDetail("error", state.error()).build()
+                : Health.up().withDetail("discoveredServices", names.size()).withDetail("services", names).build();
+    }
+
+    public DiscoveryState state() {
+        return state;
+    }
+
+    public LocalDateTime timestamp() {
+        return timestamp;
+    }
+
+    // Shared arrays: callers must not modify them
+    public byte[] summaryJson() {
+        return summaryJson;
+    }
+
+    public byte[] servicesJson() {
+        return servicesJson;
+    }
+
+    public Health health() {
+        return health;
+    }
+}
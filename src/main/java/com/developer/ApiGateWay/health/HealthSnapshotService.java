@@ -0,0 +1,157 @@
+package com.developer.ApiGateWay.health;
+
+import com.developer.ApiGateWay.config.HealthSnapshotProperties;
+import com.developer.ApiGateWay.offload.BlockingCallDetector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a {@link HealthSnapshot} of discovery state current. The blocking
+ * DiscoveryClient calls, and instance probes when enabled, run on one background
+ * thread on a fixed interval and after every Eureka registry fetch; request
+ * threads only read the volatile snapshot. A new snapshot, with its JSON, is built
+ * only when the state differs from the current one.
+ */
+public class HealthSnapshotService implements ApplicationListener<HeartbeatEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthSnapshotService.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final HealthSnapshotProperties properties;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HealthSnapshot snapshot;
+
+    public HealthSnapshotService(DiscoveryClient discoveryClient, HealthSnapshotProperties properties,
+                                 ObjectMapper objectMapper, WebClient.Builder webClientBuilder) {
+        this.discoveryClient = discoveryClient;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.clone().build();
+        this.snapshot = new HealthSnapshot(DiscoveryState.empty(), LocalDateTime.now(), objectMapper);
+    }
+
+    public void start() {
+        long interval = properties.getRefreshInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::refreshQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public HealthSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void onApplicationEvent(HeartbeatEvent event) {
+        // Several heartbeats before the thread gets to it still make one refresh
+        if (refreshQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                refreshQueued.set(false);
+                refreshQuietly();
+            });
+        }
+    }
+
+    /**
+     * Reads discovery (and probes) now; returns true if the snapshot changed.
+     */
+    public boolean refresh() {
+        DiscoveryState state = read();
+        HealthSnapshot current = snapshot;
+        if (state.equals(current.state())) {
+            return false;
+        }
+        snapshot = new HealthSnapshot(state, LocalDateTime.now(), objectMapper);
+        return true;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Health snapshot refresh failed", e);
+        }
+    }
+
+    private DiscoveryState read() {
+        List<ServiceInstance> discovered = new ArrayList<>();
+        List<String> names;
+        BlockingCallDetector.checkBlockingAllowed("DiscoveryClient.getServices");
+        try {
+            names = new ArrayList<>(discoveryClient.getServices());
+            names.sort(Comparator.naturalOrder());
+            for (String name : names) {
+                discovered.addAll(discoveryClient.getInstances(name));
+            }
+        } catch (RuntimeException e) {
+            // Keep reporting the last known services next to the error
+            return new DiscoveryState(snapshot.state().services(), String.valueOf(e.getMessage()));
+        }
+        Map<ServiceInstance, DiscoveryState.Status> statuses = properties.getProbe().isEnabled()
+                ? probe(discovered)
+                : Map.of();
+
+        List<DiscoveryState.Service> services = new ArrayList<>(names.size());
+        for (String name : names) {
+            List<DiscoveryState.Instance> instances = new ArrayList<>();
+            for (ServiceInstance instance : discovered) {
+                if (name.equalsIgnoreCase(instance.getServiceId())) {
+                    instances.add(new DiscoveryState.Instance(instanceId(instance), instance.getHost(),
+                            instance.getPort(), statuses.getOrDefault(instance, DiscoveryState.Status.DISCOVERED)));
+                }
+            }
+            instances.sort(Comparator.comparing(DiscoveryState.Instance::instanceId));
+            services.add(new DiscoveryState.Service(name, List.copyOf(instances)));
+        }
+        return new DiscoveryState(List.copyOf(services), null);
+    }
+
+    private Map<ServiceInstance, DiscoveryState.Status> probe(List<ServiceInstance> instances) {
+        Duration timeout = properties.getProbe().getTimeout();
+        Map<ServiceInstance, DiscoveryState.Status> statuses = Flux.fromIterable(instances)
+                .flatMap(instance -> webClient.get()
+                        .uri(instance.getUri() + properties.getProbe().getPath())
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(response.statusCode().is2xxSuccessful()
+                                        ? DiscoveryState.Status.UP
+                                        : DiscoveryState.Status.DOWN))
+                        .timeout(timeout)
+                        .onErrorReturn(DiscoveryState.Status.DOWN)
+                        .map(status -> Map.entry(instance, status)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(timeout.plusSeconds(1));
+        return statuses != null ? statuses : Map.of();
+    }
+
+    private static String instanceId(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,154 @@
+package com.developer.ApiGateWay.hedging;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One attempt of a hedged request. It has its own copy of the exchange attributes
+ * (so load balancing and NettyRoutingFilter's routed/connection attributes stay
+ * per attempt) and a response that only collects status and headers. The winning
+ * attempt is copied onto the real exchange; NettyWriteResponseFilter then streams
+ * the body from the winner's connection.
+ */
+public class AttemptExchange extends ServerWebExchangeDecorator {
+
+    private static final String ATTEMPT_ATTR = AttemptExchange.class.getName();
+
+    private final Map<String, Object> attributes;
+    private final AttemptResponse response;
+
+    public AttemptExchange(ServerWebExchange delegate) {
+        super(delegate);
+        this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+        this.attributes.put(ATTEMPT_ATTR, Boolean.TRUE);
+        this.response = new AttemptResponse(delegate.getResponse());
+    }
+
+    /**
+     * Whether the exchange is a hedged attempt, whose response cannot be written by
+     * filters further down the chain.
+     */
+    public static boolean isAttempt(ServerWebExchange exchange) {
+        return exchange.getAttributes().containsKey(ATTEMPT_ATTR);
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public ServerHttpResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Copies the attempt's response status, headers, cookies and attributes onto the
+     * real exchange.
+     */
+    public void commitTo(ServerWebExchange exchange) {
+        ServerHttpResponse target = exchange.getResponse();
+        if (response.status != null) {
+            target.setStatusCode(response.status);
+        }
+        target.getHeaders().putAll(response.headers);
+        response.cookies.values().forEach(cookies -> cookies.forEach(target::addCookie));
+        exchange.getAttributes().putAll(attributes);
+        exchange.getAttributes().remove(ATTEMPT_ATTR);
+    }
+
+    /**
+     * Closes the upstream connection of an attempt that lost the race after
+     * receiving its response headers.
+     */
+    public void release() {
+        Connection connection = (Connection) attributes.remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+        }
+    }
+
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+        private volatile HttpStatusCode status;
+
+        AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @Deprecated
+        public boolean setRawStatusCode(Integer value) {
+            return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+        }
+
+        @Override
+        @Deprecated
+        public Integer getRawStatusCode() {
+            return status != null ? status.value() : null;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return cookies;
+        }
+
+        @Override
+        public void addCookie(ResponseCookie cookie) {
+            cookies.add(cookie.getName(), cookie);
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return Mono.error(new IllegalStateException("A hedged attempt cannot write the response body"));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return Mono.error(new IllegalStateException("A hedged attempt cannot write the response body"));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+    }
+}
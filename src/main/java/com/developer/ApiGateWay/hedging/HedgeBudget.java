@@ -0,0 +1,47 @@
+package com.developer.ApiGateWay.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged attempts at a fraction of a route's traffic. Every request deposits
+ * {@code ratio} of a token and every hedge withdraws a whole one, so hedges cannot
+ * exceed that share of requests over time; the balance is capped at {@code burst}
+ * tokens so a quiet period cannot bank an unbounded hedge storm.
+ */
+public class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double ratio, int burst) {
+        this.deposit = Math.max(0, Math.round(ratio * SCALE));
+        this.capacity = Math.max(1, burst) * SCALE;
+    }
+
+    public void deposit() {
+        while (true) {
+            long current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+            if (balance.compareAndSet(current, Math.min(capacity, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
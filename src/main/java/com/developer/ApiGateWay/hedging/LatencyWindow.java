@@ -0,0 +1,114 @@
+package com.developer.ApiGateWay.hedging;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent latency distribution of one route, for choosing the hedge delay. Samples
+ * go into log-linear buckets (4 per power of two, so quantiles are within ~19%)
+ * of the current window; windows rotate every {@code windowNanos} and quantiles
+ * are read from the previous, complete one. Recording is a single atomic
+ * increment with no allocation.
+ */
+public class LatencyWindow {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long windowNanos;
+    private final int minSamples;
+    private final AtomicLongArray[] windows = {new AtomicLongArray(BUCKETS), new AtomicLongArray(BUCKETS)};
+
+    private volatile int current;
+    private volatile long windowStartNanos;
+    private volatile long quantileCacheWindow = -1;
+    private volatile double cachedQuantile;
+    private volatile long cachedValue;
+
+    public LatencyWindow(long windowNanos, int minSamples) {
+        this.windowNanos = windowNanos;
+        this.minSamples = minSamples;
+        this.windowStartNanos = System.nanoTime();
+    }
+
+    public void record(long latencyNanos, long nowNanos) {
+        rotateIfNeeded(nowNanos);
+        windows[current].incrementAndGet(bucket(Math.max(latencyNanos, 1)));
+    }
+
+    /**
+     * Latency at {@code quantile} (0..1) in the last complete window, or -1 when it
+     * held fewer than {@code minSamples} samples.
+     */
+    public long quantile(double quantile, long nowNanos) {
+        rotateIfNeeded(nowNanos);
+        long start = windowStartNanos;
+        if (quantileCacheWindow == start && cachedQuantile == quantile) {
+            return cachedValue;
+        }
+        AtomicLongArray previous = windows[current ^ 1];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += previous.get(i);
+        }
+        long value = -1;
+        if (total >= minSamples) {
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += previous.get(i);
+                if (seen >= rank) {
+                    value = upperBound(i);
+                    break;
+                }
+            }
+        }
+        cachedQuantile = quantile;
+        cachedValue = value;
+        quantileCacheWindow = start;
+        return value;
+    }
+
+    private void rotateIfNeeded(long nowNanos) {
+        long start = windowStartNanos;
+        if (nowNanos - start < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (windowStartNanos != start) {
+                return;
+            }
+            int next = current ^ 1;
+            AtomicLongArray stale = windows[next];
+            for (int i = 0; i < BUCKETS; i++) {
+                stale.set(i, 0);
+            }
+            current = next;
+            // A window idle for longer than its length leaves nothing worth keeping
+            if (nowNanos - start >= 2 * windowNanos) {
+                AtomicLongArray old = windows[next ^ 1];
+                for (int i = 0; i < BUCKETS; i++) {
+                    old.set(i, 0);
+                }
+            }
+            windowStartNanos = nowNanos;
+        }
+    }
+
+    static int bucket(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < 2) {
+            return (int) value;
+        }
+        int sub = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(exponent * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    static long upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        if (exponent < 2) {
+            return bucket;
+        }
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+    }
+}
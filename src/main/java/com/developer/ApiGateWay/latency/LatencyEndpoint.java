@@ -0,0 +1,72 @@
+package com.developer.ApiGateWay.latency;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/latency}: live percentiles in milliseconds per route and stage,
+ * over the configured window. Stages a route has not passed through are omitted.
+ */
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final RouteLatencyRecorder recorder;
+
+    public LatencyEndpoint(RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, StageLatency>> routes() {
+        Map<String, Map<String, StageLatency>> routes = new TreeMap<>();
+        recorder.timers().forEach((routeId, timers) -> routes.put(routeId, stages(timers)));
+        return routes;
+    }
+
+    @ReadOperation
+    public Map<String, StageLatency> route(@Selector String route) {
+        Timer[] timers = recorder.timers().get(route);
+        return timers != null ? stages(timers) : null;
+    }
+
+    private static Map<String, StageLatency> stages(Timer[] timers) {
+        Map<String, StageLatency> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            HistogramSnapshot snapshot = timers[stage.ordinal()].takeSnapshot();
+            if (snapshot.count() > 0) {
+                stages.put(stage.tagValue(), StageLatency.of(snapshot));
+            }
+        }
+        return stages;
+    }
+
+    /**
+     * Percentiles and max cover the recent window.
+     */
+    public record StageLatency(long count, double max, Map<String, Double> percentiles) {
+
+        static StageLatency of(HistogramSnapshot snapshot) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(label(value.percentile()), value.value(TimeUnit.MILLISECONDS));
+            }
+            return new StageLatency(snapshot.count(), snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+        }
+
+        // 0.5 -> p50, 0.99 -> p99, 0.999 -> p999
+        private static String label(double percentile) {
+            return "p" + BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros()
+                    .toPlainString().replace(".", "");
+        }
+    }
+}
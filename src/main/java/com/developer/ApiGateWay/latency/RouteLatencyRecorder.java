@@ -0,0 +1,87 @@
+package com.developer.ApiGateWay.latency;
+
+import com.developer.ApiGateWay.config.LatencyMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route, per-{@link Stage} latency timers ({@code gateway.stage.latency}). Each
+ * timer keeps its percentiles in Micrometer's HdrHistogram-based recorders, which
+ * take samples without locks or allocation; the timers for a route are registered
+ * together on its first request, so later records are a map lookup and an array
+ * index.
+ */
+public class RouteLatencyRecorder {
+
+    public static final String METER_NAME = "gateway.stage.latency";
+
+    // Requests that reached no route, or stages recorded before a route was chosen
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final MeterRegistry registry;
+    private final LatencyMetricsProperties properties;
+    private final double[] percentiles;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public RouteLatencyRecorder(MeterRegistry registry, LatencyMetricsProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    public void record(String routeId, Stage stage, long nanos) {
+        timers(routeId)[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void record(ServerWebExchange exchange, Stage stage, long nanos) {
+        record(routeId(exchange), stage, nanos);
+    }
+
+    /**
+     * Timers by stage for every route seen so far, for reporting.
+     */
+    public Map<String, Timer[]> timers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    public static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : UNMATCHED_ROUTE;
+    }
+
+    private Timer[] timers(String routeId) {
+        Timer[] route = timers.get(routeId);
+        return route != null ? route : timers.computeIfAbsent(routeId, this::register);
+    }
+
+    private Timer[] register(String routeId) {
+        Timer[] route = new Timer[STAGES.length];
+        Duration window = properties.getWindow();
+        for (Stage stage : STAGES) {
+            route[stage.ordinal()] = Timer.builder(METER_NAME)
+                    .description("Time spent per gateway stage and route")
+                    .tag("route", routeId)
+                    .tag("stage", stage.tagValue())
+                    .publishPercentiles(percentiles)
+                    .percentilePrecision(2)
+                    .publishPercentileHistogram(properties.isPercentileHistogram())
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(properties.getMaxExpected())
+                    .distributionStatisticExpiry(window)
+                    .distributionStatisticBufferLength(properties.getWindowBuffers())
+                    .register(registry);
+        }
+        return route;
+    }
+}
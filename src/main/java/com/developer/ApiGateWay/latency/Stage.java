@@ -0,0 +1,36 @@
+package com.developer.ApiGateWay.latency;
+
+/**
+ * Parts of a request's path through the gateway that get their own latency
+ * histogram per route.
+ */
+public enum Stage {
+
+    // Finding the route for the request path
+    ROUTE_LOOKUP("route_lookup"),
+
+    // Token check in AuthenticationFilter, until the request is passed on
+    AUTH("auth"),
+
+    // RateLimiter decision for RequestRateLimiter
+    RATE_LIMIT("rate_limit"),
+
+    // From handing the request to the HTTP client until a pooled or new connection is ready
+    CONNECTION_ACQUIRE("connection_acquire"),
+
+    // From sending the upstream request until its response headers arrive
+    UPSTREAM_TTFB("upstream_ttfb"),
+
+    // Whole exchange as seen by LoggingFilter
+    TOTAL("total");
+
+    private final String tagValue;
+
+    Stage(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,58 @@
+package com.developer.ApiGateWay.latency;
+
+import org.springframework.cloud.gateway.event.FilterArgsEvent;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.context.ApplicationListener;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Records {@link Stage#RATE_LIMIT} around another {@link RateLimiter}. Route
+ * arguments are still bound by the delegate, which keeps receiving the
+ * {@link FilterArgsEvent}s it listens for.
+ */
+public class TimedRateLimiter<C> implements RateLimiter<C>, ApplicationListener<FilterArgsEvent> {
+
+    private final RateLimiter<C> delegate;
+    private final RouteLatencyRecorder recorder;
+
+    public TimedRateLimiter(RateLimiter<C> delegate, RouteLatencyRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        long start = System.nanoTime();
+        return delegate.isAllowed(routeId, id)
+                .doOnNext(response -> recorder.record(routeId, Stage.RATE_LIMIT, System.nanoTime() - start));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onApplicationEvent(FilterArgsEvent event) {
+        if (delegate instanceof ApplicationListener<?> listener) {
+            ((ApplicationListener<FilterArgsEvent>) listener).onApplicationEvent(event);
+        }
+    }
+
+    @Override
+    public Map<String, C> getConfig() {
+        return delegate.getConfig();
+    }
+
+    @Override
+    public Class<C> getConfigClass() {
+        return delegate.getConfigClass();
+    }
+
+    @Override
+    public C newConfig() {
+        return delegate.newConfig();
+    }
+
+    public RateLimiter<C> delegate() {
+        return delegate;
+    }
+}
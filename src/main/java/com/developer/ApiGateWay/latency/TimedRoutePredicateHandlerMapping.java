@@ -0,0 +1,38 @@
+package com.developer.ApiGateWay.latency;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records {@link Stage#ROUTE_LOOKUP} around {@link #findRoute}, which is Gateway's
+ * linear scan unless a subclass looks routes up another way.
+ */
+public class TimedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping {
+
+    private final RouteLatencyRecorder latencyRecorder;
+
+    public TimedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                             GlobalCorsProperties globalCorsProperties, Environment environment,
+                                             RouteLatencyRecorder latencyRecorder) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        long start = System.nanoTime();
+        return findRoute(exchange).doOnSuccess(route -> latencyRecorder.record(
+                route != null ? route.getId() : RouteLatencyRecorder.UNMATCHED_ROUTE,
+                Stage.ROUTE_LOOKUP, System.nanoTime() - start));
+    }
+
+    protected Mono<Route> findRoute(ServerWebExchange exchange) {
+        return super.lookupRoute(exchange);
+    }
+}
@@ -0,0 +1,39 @@
+package com.developer.ApiGateWay.latency;
+
+/**
+ * Timestamps of one upstream attempt, carried in the Reactor context from the
+ * routing filter to the HTTP client's request and response callbacks.
+ */
+public final class UpstreamTiming {
+
+    private final String routeId;
+    private final long dispatchNanos;
+    private volatile long requestNanos;
+
+    public UpstreamTiming(String routeId, long dispatchNanos) {
+        this.routeId = routeId;
+        this.dispatchNanos = dispatchNanos;
+    }
+
+    public long dispatchNanos() {
+        return dispatchNanos;
+    }
+
+    /**
+     * Called once a connection is ready and the request is about to be written.
+     */
+    public void requestStarted(RouteLatencyRecorder recorder, long nowNanos) {
+        requestNanos = nowNanos;
+        recorder.record(routeId, Stage.CONNECTION_ACQUIRE, nowNanos - dispatchNanos);
+    }
+
+    /**
+     * Called when the response headers have been read.
+     */
+    public void responseReceived(RouteLatencyRecorder recorder, long nowNanos) {
+        long start = requestNanos;
+        if (start != 0) {
+            recorder.record(routeId, Stage.UPSTREAM_TTFB, nowNanos - start);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.developer.ApiGateWay.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live load figures for one backend instance, updated with plain atomics from
+ * request completions on any thread. The latency estimate is a peak-sensitive
+ * EWMA: a sample above the current estimate replaces it at once, lower samples
+ * pull it down with a weight that depends on the time since the previous sample.
+ * While requests are outstanding, the time since the last response (or since the
+ * instance went from idle to busy) is a lower bound on its latency, so a new or
+ * suddenly hung instance stops attracting requests before any of them completes.
+ */
+public class InstanceStats {
+
+    private final AtomicLong ewmaNanos = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile long lastSampleNanos;
+    private volatile long busySinceNanos;
+    private volatile long lastFailureNanos;
+    private volatile long trippedUntilNanos;
+
+    public void start() {
+        if (inFlight.getAndIncrement() == 0) {
+            busySinceNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the end of a request started with {@link #start()}.
+     */
+    void complete(long latencyNanos, boolean success, long nowNanos, long decayNanos,
+                  int tripThreshold, long tripNanos) {
+        sample(latencyNanos, nowNanos, decayNanos);
+
+        if (success) {
+            consecutiveFailures.set(0);
+        } else {
+            lastFailureNanos = nowNanos;
+            if (consecutiveFailures.incrementAndGet() >= tripThreshold) {
+                trippedUntilNanos = nowNanos + tripNanos;
+                consecutiveFailures.set(0);
+            }
+        }
+    }
+
+    /**
+     * Records the end of a request started with {@link #start()} that was cancelled;
+     * the failure streak is left as it was.
+     */
+    void cancel(long latencyNanos, long nowNanos, long decayNanos) {
+        sample(latencyNanos, nowNanos, decayNanos);
+    }
+
+    private void sample(long latencyNanos, long nowNanos, long decayNanos) {
+        inFlight.decrementAndGet();
+
+        long elapsed = nowNanos - lastSampleNanos;
+        lastSampleNanos = nowNanos;
+        busySinceNanos = nowNanos;
+        double weight = Math.exp(-(double) Math.max(elapsed, 0) / decayNanos);
+        while (true) {
+            long current = ewmaNanos.get();
+            long next = current == 0 || latencyNanos > current
+                    ? latencyNanos
+                    : (long) (current * weight + latencyNanos * (1 - weight));
+            if (ewmaNanos.compareAndSet(current, Math.max(next, 1))) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Latency estimate aged by the time since the last sample, so an instance that
+     * stopped receiving traffic after a slow spell is eventually probed again.
+     * Returns 0 for an idle instance without samples.
+     */
+    long latencyNanos(long nowNanos, long decayNanos) {
+        long waiting = inFlight.get() > 0 ? Math.max(nowNanos - busySinceNanos, 0) : 0;
+        long ewma = ewmaNanos.get();
+        if (ewma == 0) {
+            return waiting;
+        }
+        long idle = Math.max(nowNanos - lastSampleNanos, 0);
+        return Math.max(Math.max((long) (ewma * Math.exp(-(double) idle / decayNanos)), waiting), 1);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    boolean failedSince(long sinceNanos) {
+        long last = lastFailureNanos;
+        return last != 0 && last - sinceNanos > 0;
+    }
+
+    boolean isTripped(long nowNanos) {
+        long until = trippedUntilNanos;
+        return until != 0 && until - nowNanos > 0;
+    }
+}
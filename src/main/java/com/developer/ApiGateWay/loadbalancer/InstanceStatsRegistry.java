@@ -0,0 +1,111 @@
+package com.developer.ApiGateWay.loadbalancer;
+
+import com.developer.ApiGateWay.config.LoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared {@link InstanceStats} for every load-balanced service, keyed by service id
+ * and host:port, plus the cost function {@link LatencyAwareLoadBalancer} compares.
+ * Stats of instances that leave a service's instance list are dropped.
+ */
+public class InstanceStatsRegistry {
+
+    private final Map<String, Service> services = new ConcurrentHashMap<>();
+    private final long decayNanos;
+    private final double failurePenalty;
+    private final long failurePenaltyNanos;
+    private final int tripThreshold;
+    private final long tripNanos;
+
+    public InstanceStatsRegistry(LoadBalancerProperties properties) {
+        this.decayNanos = Math.max(properties.getDecayTime().toNanos(), 1);
+        this.failurePenalty = properties.getFailurePenalty();
+        this.failurePenaltyNanos = properties.getFailurePenaltyWindow().toNanos();
+        this.tripThreshold = Math.max(properties.getTripThreshold(), 1);
+        this.tripNanos = properties.getTripDuration().toNanos();
+    }
+
+    private static final class Service {
+
+        private final Map<String, InstanceStats> instances = new ConcurrentHashMap<>();
+        private volatile List<ServiceInstance> lastSeen;
+    }
+
+    public InstanceStats stats(ServiceInstance instance) {
+        return services.computeIfAbsent(serviceKey(instance.getServiceId()), serviceId -> new Service())
+                .instances.computeIfAbsent(address(instance), address -> new InstanceStats());
+    }
+
+    /**
+     * Drops the stats of {@code serviceId}'s instances that are not in
+     * {@code instances}, its current instance list. Instance list suppliers hand out
+     * the same list until they refresh, so this only does work when the list changed.
+     * A request still in flight to a dropped instance completes on its own stats.
+     */
+    public void retain(String serviceId, List<ServiceInstance> instances) {
+        Service service = services.get(serviceKey(serviceId));
+        if (service == null || service.lastSeen == instances) {
+            return;
+        }
+        service.lastSeen = instances;
+        Set<String> addresses = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            addresses.add(address(instance));
+        }
+        service.instances.keySet().retainAll(addresses);
+    }
+
+    public void record(InstanceStats instance, long latencyNanos, boolean success) {
+        instance.complete(latencyNanos, success, System.nanoTime(), decayNanos, tripThreshold, tripNanos);
+    }
+
+    /**
+     * Records a request that was cancelled before it completed: its elapsed time is
+     * a latency sample, but it is neither a success nor a failure.
+     */
+    public void recordCancelled(InstanceStats instance, long latencyNanos) {
+        instance.cancel(latencyNanos, System.nanoTime(), decayNanos);
+    }
+
+    long latencyNanos(InstanceStats instance, long nowNanos) {
+        return instance.latencyNanos(nowNanos, decayNanos);
+    }
+
+    /**
+     * Expected wait for a new request: latency estimate times queue depth, scaled up
+     * after a recent failure. {@code fallbackLatency} stands in for instances
+     * without samples yet, so they are compared on in-flight requests alone.
+     */
+    double cost(InstanceStats instance, long latencyNanos, long fallbackLatency, long nowNanos) {
+        long latency = Math.max(latencyNanos != 0 ? latencyNanos : fallbackLatency, 1);
+        double cost = (double) latency * (instance.inFlight() + 1);
+        if (instance.failedSince(nowNanos - failurePenaltyNanos)) {
+            cost *= failurePenalty;
+        }
+        return cost;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Service service : services.values()) {
+            size += service.instances.size();
+        }
+        return size;
+    }
+
+    // Service ids are case-insensitive; Eureka reports them in upper case
+    private static String serviceKey(String serviceId) {
+        return serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    private static String address(ServiceInstance instance) {
+        return instance.getHost() + ':' + instance.getPort();
+    }
+}
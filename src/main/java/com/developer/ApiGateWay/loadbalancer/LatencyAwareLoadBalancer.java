@@ -0,0 +1,114 @@
+package com.developer.ApiGateWay.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices load balancer: picks two distinct instances at random and
+ * sends the request to the one with the lower expected wait according to
+ * {@link InstanceStatsRegistry}. Instances tripped by consecutive failures are only
+ * chosen when both picks are tripped. A request carrying
+ * {@link #EXCLUDED_INSTANCE_ATTR} (a hedged attempt) avoids that instance whenever
+ * another one is available.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    // Exchange attribute holding a ServiceInstance the request must not be sent to
+    public static final String EXCLUDED_INSTANCE_ATTR = LatencyAwareLoadBalancer.class.getName() + ".excludedInstance";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceStatsRegistry registry;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, InstanceStatsRegistry registry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.registry = registry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            registry.retain(serviceId, instances);
+            Response<ServiceInstance> response = choose(withoutExcluded(instances, request));
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static List<ServiceInstance> withoutExcluded(List<ServiceInstance> instances, Request request) {
+        if (instances.size() < 2 || !(request.getContext() instanceof RequestDataContext context)
+                || context.getClientRequest() == null
+                || !(context.getClientRequest().getAttributes().get(EXCLUDED_INSTANCE_ATTR) instanceof ServiceInstance excluded)) {
+            return instances;
+        }
+        List<ServiceInstance> remaining = new ArrayList<>(instances.size() - 1);
+        for (ServiceInstance instance : instances) {
+            if (!sameInstance(instance, excluded)) {
+                remaining.add(instance);
+            }
+        }
+        return remaining.isEmpty() ? instances : remaining;
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getPort() == b.getPort() && a.getHost().equals(b.getHost());
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        int size = instances.size();
+        if (size == 0) {
+            return new EmptyResponse();
+        }
+        if (size == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        InstanceStats statsA = registry.stats(a);
+        InstanceStats statsB = registry.stats(b);
+
+        long now = System.nanoTime();
+        boolean trippedA = statsA.isTripped(now);
+        boolean trippedB = statsB.isTripped(now);
+        if (trippedA != trippedB) {
+            return new DefaultResponse(trippedA ? b : a);
+        }
+        long latencyA = registry.latencyNanos(statsA, now);
+        long latencyB = registry.latencyNanos(statsB, now);
+        double costA = registry.cost(statsA, latencyA, latencyB, now);
+        double costB = registry.cost(statsB, latencyB, latencyA, now);
+        return new DefaultResponse(costA <= costB ? a : b);
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+}
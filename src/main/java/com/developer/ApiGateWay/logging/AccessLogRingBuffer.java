@@ -0,0 +1,96 @@
+package com.developer.ApiGateWay.logging;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded multi-producer / single-consumer ring of fixed-size records in one
+ * preallocated direct buffer. Producers claim a slot with a CAS, fill it with
+ * absolute puts and publish it; when the ring is full the record is dropped and
+ * counted instead of waiting, so callers on the event loop never block.
+ */
+public class AccessLogRingBuffer {
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int recordSize;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Written only by the consumer
+    private volatile long head;
+
+    public AccessLogRingBuffer(int capacity, int recordSize) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.recordSize = recordSize;
+        this.buffer = ByteBuffer.allocateDirect(capacity * recordSize);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next slot, returning its sequence or -1 when the ring is full.
+     */
+    public long claim() {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return -1;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    public void publish(long sequence) {
+        published.setRelease((int) sequence & mask, sequence);
+    }
+
+    public boolean isPublished(long sequence) {
+        return published.getAcquire((int) sequence & mask) == sequence;
+    }
+
+    // Consumer side: hands the slot back to producers once it has been copied out
+    public void release(long sequence) {
+        head = sequence + 1;
+    }
+
+    public long head() {
+        return head;
+    }
+
+    public int offset(long sequence) {
+        return ((int) sequence & mask) * recordSize;
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int recordSize() {
+        return recordSize;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long pending() {
+        return tail.get() - head;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
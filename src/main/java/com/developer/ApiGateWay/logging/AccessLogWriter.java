@@ -0,0 +1,267 @@
+package com.developer.ApiGateWay.logging;
+
+import com.developer.ApiGateWay.config.AccessLogProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log. Request threads copy a fixed-layout record into
+ * {@link AccessLogRingBuffer}; a single background thread formats records as JSON
+ * lines into a reusable direct buffer and appends them to the log file in batches
+ * through a {@link FileChannel}. Nothing on the request path formats text, takes a
+ * lock or touches the file system.
+ */
+public class AccessLogWriter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    // Record layout inside a ring slot
+    private static final int TIMESTAMP = 0;
+    private static final int REQUEST_ID = 8;
+    private static final int DURATION = 16;
+    private static final int STATUS = 24;
+    private static final int METHOD = 26;
+    private static final int PATH_LENGTH = 28;
+    private static final int PATH = 30;
+
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+    private static final byte[][] METHOD_NAMES = new byte[METHODS.length + 1][];
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int i = 0; i < METHODS.length; i++) {
+            METHOD_NAMES[i] = METHODS[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        METHOD_NAMES[METHODS.length] = "OTHER".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private final AccessLogRingBuffer ring;
+    private final Object[] remoteAddresses;
+    private final Path file;
+    private final int batchSize;
+    private final int maxLineLength;
+    private final long flushIntervalNanos;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeErrors = new LongAdder();
+
+    private volatile boolean running;
+    private Thread drainer;
+    private FileChannel channel;
+
+    public AccessLogWriter(AccessLogProperties properties) {
+        if (properties.getRecordSize() <= PATH) {
+            throw new IllegalArgumentException("recordSize must be larger than " + PATH);
+        }
+        this.ring = new AccessLogRingBuffer(properties.getBufferCapacity(), properties.getRecordSize());
+        // Remote addresses are kept by reference so the request thread does not copy them out
+        this.remoteAddresses = new Object[properties.getBufferCapacity()];
+        this.file = Path.of(properties.getFile());
+        // Every path byte may be escaped; the rest is field names and numbers
+        this.maxLineLength = 2 * (properties.getRecordSize() - PATH) + 256;
+        this.batchSize = Math.max(properties.getBatchSize(), maxLineLength);
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+    }
+
+    public void start() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        running = true;
+        drainer = new Thread(this::drainLoop, "access-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        if (drainer != null) {
+            LockSupport.unpark(drainer);
+            drainer.join(5_000);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Queues one access-log record. Returns false, and counts the record as
+     * dropped, when the ring is full.
+     */
+    public boolean record(long timestampMillis, long requestId, long durationNanos, int status,
+                          HttpMethod method, String path, InetSocketAddress remoteAddress) {
+        long sequence = ring.claim();
+        if (sequence < 0) {
+            return false;
+        }
+        ByteBuffer buffer = ring.buffer();
+        int offset = ring.offset(sequence);
+        buffer.putLong(offset + TIMESTAMP, timestampMillis);
+        buffer.putLong(offset + REQUEST_ID, requestId);
+        buffer.putLong(offset + DURATION, durationNanos);
+        buffer.putShort(offset + STATUS, (short) status);
+        buffer.putShort(offset + METHOD, (short) methodIndex(method));
+
+        int pathLength = Math.min(path.length(), ring.recordSize() - PATH);
+        for (int i = 0; i < pathLength; i++) {
+            char c = path.charAt(i);
+            buffer.put(offset + PATH + i, c < 0x80 ? (byte) c : (byte) '?');
+        }
+        buffer.putShort(offset + PATH_LENGTH, (short) pathLength);
+        remoteAddresses[(int) sequence & (ring.capacity() - 1)] = remoteAddress;
+
+        ring.publish(sequence);
+        return true;
+    }
+
+    public long dropped() {
+        return ring.dropped();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.access.log.records", written, LongAdder::sum)
+                .description("Access-log records written to the log file")
+                .register(registry);
+        FunctionCounter.builder("gateway.access.log.dropped", ring, AccessLogRingBuffer::dropped)
+                .description("Access-log records dropped because the ring buffer was full")
+                .register(registry);
+        FunctionCounter.builder("gateway.access.log.write.errors", writeErrors, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("gateway.access.log.pending", ring, AccessLogRingBuffer::pending)
+                .description("Access-log records waiting to be written")
+                .register(registry);
+    }
+
+    private static int methodIndex(HttpMethod method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i] == method) {
+                return i;
+            }
+        }
+        return METHODS.length;
+    }
+
+    private void drainLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(batchSize);
+        while (running) {
+            int drained = drain(batch);
+            if (batch.position() > 0 && (drained == 0 || batch.remaining() < maxLineLength)) {
+                flush(batch);
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        // Final pass on shutdown: write whatever has been published
+        while (drain(batch) > 0) {
+            flush(batch);
+        }
+        flush(batch);
+    }
+
+    private int drain(ByteBuffer batch) {
+        int drained = 0;
+        long sequence = ring.head();
+        while (batch.remaining() >= maxLineLength && ring.isPublished(sequence)) {
+            format(sequence, batch);
+            remoteAddresses[(int) sequence & (ring.capacity() - 1)] = null;
+            ring.release(sequence);
+            sequence++;
+            drained++;
+        }
+        written.add(drained);
+        return drained;
+    }
+
+    private void flush(ByteBuffer batch) {
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+        } catch (IOException e) {
+            writeErrors.increment();
+            logger.warn("Failed to write access log batch to {}: {}", file, e.getMessage());
+        }
+        batch.clear();
+    }
+
+    private void format(long sequence, ByteBuffer out) {
+        ByteBuffer buffer = ring.buffer();
+        int offset = ring.offset(sequence);
+
+        ascii(out, "{\"ts\":");
+        digits(out, buffer.getLong(offset + TIMESTAMP));
+        ascii(out, ",\"id\":\"");
+        long requestId = buffer.getLong(offset + REQUEST_ID);
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out.put(HEX[(int) (requestId >>> shift) & 0xF]);
+        }
+        ascii(out, "\",\"method\":\"");
+        out.put(METHOD_NAMES[buffer.getShort(offset + METHOD)]);
+        ascii(out, "\",\"path\":\"");
+        int pathLength = buffer.getShort(offset + PATH_LENGTH);
+        for (int i = 0; i < pathLength; i++) {
+            byte b = buffer.get(offset + PATH + i);
+            if (b == '"' || b == '\\') {
+                out.put((byte) '\\').put(b);
+            } else {
+                out.put(b < 0x20 ? (byte) '?' : b);
+            }
+        }
+        ascii(out, "\",\"status\":");
+        digits(out, buffer.getShort(offset + STATUS));
+        ascii(out, ",\"durationUs\":");
+        digits(out, buffer.getLong(offset + DURATION) / 1_000);
+        Object remote = remoteAddresses[(int) sequence & (ring.capacity() - 1)];
+        if (remote instanceof InetSocketAddress address && address.getAddress() != null) {
+            ascii(out, ",\"remote\":\"");
+            ascii(out, address.getAddress().getHostAddress());
+            out.put((byte) '"');
+        }
+        ascii(out, "}\n");
+    }
+
+    private static void ascii(ByteBuffer out, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            out.put((byte) s.charAt(i));
+        }
+    }
+
+    private static void digits(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            out.put((byte) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.developer.ApiGateWay.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cheap request identifiers for tracing. Uses ThreadLocalRandom instead of
+ * UUID.randomUUID(), which goes through SecureRandom; ids only need to be unique
+ * enough to correlate log lines, not unpredictable.
+ */
+public final class RequestIds {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private RequestIds() {
+    }
+
+    public static long next() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public static String toHex(long id) {
+        byte[] chars = new byte[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+}
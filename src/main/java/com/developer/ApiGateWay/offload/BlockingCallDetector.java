@@ -0,0 +1,204 @@
+package com.developer.ApiGateWay.offload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Debug aid in the spirit of BlockHound: finds blocking calls on threads that must
+ * not block, i.e. Netty event loops and Reactor's parallel threads (those marked
+ * {@link NonBlocking}). Two mechanisms, neither needing a Java agent:
+ * <ul>
+ * <li>a sampler thread that looks at those threads every {@code interval} and
+ *     reports any that is waiting, sleeping or blocked on a monitor outside the
+ *     idle waits of its event loop or pool;</li>
+ * <li>{@link #checkBlockingAllowed}, called at the entry of known blocking
+ *     operations, which reports every call made from such a thread.</li>
+ * </ul>
+ * Sampling misses blocks shorter than the interval, so it finds the calls that
+ * hurt rather than all of them. Reports are logged, counted in
+ * {@code gateway.offload.blocking.calls} and kept for tests; in {@link Mode#FAIL}
+ * the guarded calls also throw. Meant for tests and debugging, not production.
+ */
+public class BlockingCallDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingCallDetector.class);
+
+    // Reports kept for inspection; later ones are only logged and counted
+    private static final int MAX_KEPT = 100;
+    private static final int STACK_DEPTH = 12;
+
+    private static volatile BlockingCallDetector installed;
+
+    public enum Mode {
+        LOG, FAIL
+    }
+
+    /**
+     * A blocking call seen on a non-blocking thread.
+     */
+    public record Violation(String thread, String operation, List<StackTraceElement> stack) {
+    }
+
+    private final Duration interval;
+    private final Mode mode;
+    private final Counter sampled;
+    private final Counter guarded;
+    private final List<Violation> violations = new ArrayList<>();
+    // Top frame last reported per thread, so one long block is reported once
+    private final Map<Long, StackTraceElement> lastReported = new HashMap<>();
+    private Thread sampler;
+
+    public BlockingCallDetector(Duration interval, Mode mode, MeterRegistry meterRegistry) {
+        this.interval = interval;
+        this.mode = mode;
+        this.sampled = counter(meterRegistry, "sampled");
+        this.guarded = counter(meterRegistry, "guard");
+    }
+
+    public synchronized void start() {
+        installed = this;
+        sampler = new Thread(this::sampleLoop, "blocking-call-detector");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    public synchronized void stop() {
+        if (installed == this) {
+            installed = null;
+        }
+        if (sampler != null) {
+            sampler.interrupt();
+            sampler = null;
+        }
+    }
+
+    public List<Violation> violations() {
+        synchronized (violations) {
+            return List.copyOf(violations);
+        }
+    }
+
+    public void clear() {
+        synchronized (violations) {
+            violations.clear();
+        }
+    }
+
+    /**
+     * Marks the start of an operation that may block. Does nothing unless a
+     * detector is running and the caller is on a non-blocking thread.
+     */
+    public static void checkBlockingAllowed(String operation) {
+        BlockingCallDetector detector = installed;
+        if (detector == null || !Schedulers.isInNonBlockingThread()) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        StackTraceElement[] stack = thread.getStackTrace();
+        // Drop getStackTrace and this method
+        detector.report(detector.guarded, thread,
+                operation, Arrays.copyOfRange(stack, Math.min(2, stack.length), stack.length));
+        if (detector.mode == Mode.FAIL) {
+            throw new IllegalStateException("Blocking call " + operation + " on non-blocking thread "
+                    + thread.getName() + "; use BlockingOffload");
+        }
+    }
+
+    private void sampleLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            sample();
+        }
+    }
+
+    void sample() {
+        Map<Thread, StackTraceElement[]> stacks = Thread.getAllStackTraces();
+        for (Map.Entry<Thread, StackTraceElement[]> entry : stacks.entrySet()) {
+            Thread thread = entry.getKey();
+            if (!(thread instanceof NonBlocking)) {
+                continue;
+            }
+            StackTraceElement[] stack = entry.getValue();
+            Thread.State state = thread.getState();
+            boolean waiting = state == Thread.State.BLOCKED || state == Thread.State.WAITING
+                    || state == Thread.State.TIMED_WAITING;
+            if (!waiting || stack.length == 0 || isIdle(stack)) {
+                lastReported.remove(thread.threadId());
+                continue;
+            }
+            if (stack[0].equals(lastReported.put(thread.threadId(), stack[0]))) {
+                continue;
+            }
+            report(sampled, thread, state + " in " + firstApplicationFrame(stack), stack);
+        }
+        lastReported.keySet().retainAll(stacks.keySet().stream().map(Thread::threadId).toList());
+    }
+
+    private void report(Counter counter, Thread thread, String operation, StackTraceElement[] stack) {
+        counter.increment();
+        List<StackTraceElement> top = List.of(Arrays.copyOf(stack, Math.min(STACK_DEPTH, stack.length)));
+        Violation violation = new Violation(thread.getName(), operation, top);
+        synchronized (violations) {
+            if (violations.size() < MAX_KEPT) {
+                violations.add(violation);
+            }
+        }
+        if (logger.isWarnEnabled()) {
+            StringBuilder trace = new StringBuilder();
+            for (StackTraceElement frame : top) {
+                trace.append("\n\tat ").append(frame);
+            }
+            logger.warn("Blocking call on non-blocking thread {}: {}{}", thread.getName(), operation, trace);
+        }
+    }
+
+    /**
+     * Whether the thread is parked waiting for work: an event loop in its
+     * selector or task queue, or a pool thread waiting for its next task.
+     */
+    private static boolean isIdle(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            String method = frame.getMethodName();
+            if (("java.util.concurrent.ThreadPoolExecutor".equals(className) && "getTask".equals(method))
+                    || (className.endsWith("SingleThreadEventExecutor") && "takeTask".equals(method))
+                    || (className.startsWith("sun.nio.ch.") && method.contains("select"))
+                    || (className.startsWith("io.netty.channel.") && method.startsWith("epollWait"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstApplicationFrame(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return className + "." + frame.getMethodName();
+            }
+        }
+        return stack[0].getClassName() + "." + stack[0].getMethodName();
+    }
+
+    private static Counter counter(MeterRegistry registry, String source) {
+        return Counter.builder("gateway.offload.blocking.calls")
+                .description("Blocking calls found on event-loop and parallel threads, by how they were found")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.developer.ApiGateWay.offload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The place to run blocking work (discovery lookups, file or key-store reads,
+ * synchronous logging) off the Netty event loop. Work runs on virtual threads,
+ * at most {@code maxConcurrency} at a time; further tasks queue up to
+ * {@code maxQueued} and beyond that are rejected, so a stalled dependency cannot
+ * pile up unbounded work. {@link #call} adds a timeout, which interrupts the
+ * task, and per-task outcome counts; {@link #scheduler()} is for
+ * {@code publishOn}/{@code subscribeOn} in filters and controllers.
+ *
+ * <p>Virtual threads unmount while they wait on I/O, so a blocked task holds
+ * no carrier thread, but a task blocked inside {@code synchronized} or native
+ * code pins one; keep such sections short.
+ */
+public class BlockingOffload {
+
+    private final MeteredScheduler scheduler;
+    private final Duration defaultTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Outcomes> outcomes = new ConcurrentHashMap<>();
+
+    public BlockingOffload(int maxConcurrency, int maxQueued, Duration defaultTimeout, MeterRegistry meterRegistry) {
+        // The thread-per-task bounded elastic scheduler counts its queue per thread slot
+        int queuedPerThread = Math.max(1, maxQueued / maxConcurrency);
+        Scheduler virtualThreads = new Schedulers.Factory() { }.newThreadPerTaskBoundedElastic(maxConcurrency,
+                queuedPerThread, Thread.ofVirtual().name("offload-", 0).factory());
+        virtualThreads.init();
+        this.scheduler = new MeteredScheduler(virtualThreads, meterRegistry);
+        this.defaultTimeout = defaultTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Scheduler on the offload's virtual threads, sharing its concurrency bound
+     * and meters.
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    public <T> Mono<T> call(String task, Callable<T> work) {
+        return call(task, defaultTimeout, work);
+    }
+
+    /**
+     * Runs {@code work} on a virtual thread and emits its result. Errors with
+     * {@link TimeoutException} if it does not finish within {@code timeout}
+     * (counting time spent queued), interrupting it, and with
+     * {@link RejectedExecutionException} if the queue is full.
+     */
+    public <T> Mono<T> call(String task, Duration timeout, Callable<T> work) {
+        Outcomes counters = outcomes.computeIfAbsent(task, name -> new Outcomes(meterRegistry, name));
+        return Mono.fromCallable(work)
+                .subscribeOn(scheduler)
+                .timeout(timeout)
+                .doOnSuccess(value -> counters.success.increment())
+                .doOnError(error -> counters.failed(error).increment());
+    }
+
+    /**
+     * Runs {@code work} without waiting for it, e.g. a log write. Failures and
+     * rejections are counted, not propagated.
+     */
+    public void execute(String task, Runnable work) {
+        call(task, () -> {
+            work.run();
+            return Boolean.TRUE;
+        }).subscribe(null, error -> { });
+    }
+
+    public int pending() {
+        return scheduler.pending();
+    }
+
+    public int active() {
+        return scheduler.active();
+    }
+
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    private record Outcomes(Counter success, Counter error, Counter timeout, Counter rejected) {
+
+        Outcomes(MeterRegistry registry, String task) {
+            this(counter(registry, task, "success"), counter(registry, task, "error"),
+                    counter(registry, task, "timeout"), counter(registry, task, "rejected"));
+        }
+
+        Counter failed(Throwable error) {
+            if (error instanceof TimeoutException) {
+                return timeout;
+            }
+            return error instanceof RejectedExecutionException ? rejected : this.error;
+        }
+
+        private static Counter counter(MeterRegistry registry, String task, String outcome) {
+            return Counter.builder("gateway.offload.calls")
+                    .description("Offloaded calls by task and outcome")
+                    .tag("task", task)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.developer.ApiGateWay.offload;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Scheduler decorator that counts tasks waiting for and holding one of the
+ * delegate's threads, and times how long they wait and run. Every way of
+ * scheduling work goes through it, so the meters cover filters that
+ * {@code publishOn} or {@code subscribeOn} the offload scheduler as well as
+ * {@link BlockingOffload#call}.
+ */
+final class MeteredScheduler implements Scheduler {
+
+    private final Scheduler delegate;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer queueWait;
+    private final Timer runTime;
+
+    MeteredScheduler(Scheduler delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        Gauge.builder("gateway.offload.pending", pending, AtomicInteger::get)
+                .description("Offloaded tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("gateway.offload.active", active, AtomicInteger::get)
+                .description("Offloaded tasks running")
+                .register(registry);
+        this.queueWait = Timer.builder("gateway.offload.queue.wait")
+                .description("Time from scheduling an offloaded task to its start")
+                .register(registry);
+        this.runTime = Timer.builder("gateway.offload.run.time")
+                .description("Run time of offloaded tasks")
+                .register(registry);
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    int active() {
+        return active.get();
+    }
+
+    @Override
+    public Disposable schedule(Runnable task) {
+        MeteredTask metered = new MeteredTask(task);
+        return metered.track(() -> delegate.schedule(metered));
+    }
+
+    @Override
+    public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+        MeteredTask metered = new MeteredTask(task);
+        return metered.track(() -> delegate.schedule(metered, delay, unit));
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        // Periodic tasks are never pending in the sense of the gauge; only their runs are timed
+        return delegate.schedulePeriodically(() -> runTime.record(task), initialDelay, period, unit);
+    }
+
+    @Override
+    public long now(TimeUnit unit) {
+        return delegate.now(unit);
+    }
+
+    @Override
+    public Worker createWorker() {
+        Worker worker = delegate.createWorker();
+        return new Worker() {
+            @Override
+            public Disposable schedule(Runnable task) {
+                MeteredTask metered = new MeteredTask(task);
+                return metered.track(() -> worker.schedule(metered));
+            }
+
+            @Override
+            public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+                MeteredTask metered = new MeteredTask(task);
+                return metered.track(() -> worker.schedule(metered, delay, unit));
+            }
+
+            @Override
+            public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+                return worker.schedulePeriodically(() -> runTime.record(task), initialDelay, period, unit);
+            }
+
+            @Override
+            public void dispose() {
+                worker.dispose();
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return worker.isDisposed();
+            }
+        };
+    }
+
+    @Override
+    public void init() {
+        delegate.init();
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+
+    @Override
+    public Mono<Void> disposeGracefully() {
+        return delegate.disposeGracefully();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate.isDisposed();
+    }
+
+    /**
+     * A task counted as pending from scheduling until it starts, or until it is
+     * cancelled or rejected without starting.
+     */
+    private final class MeteredTask implements Runnable {
+
+        private static final int PENDING = 0;
+        private static final int STARTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Runnable task;
+        private final long scheduledAt = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        MeteredTask(Runnable task) {
+            this.task = task;
+            pending.incrementAndGet();
+        }
+
+        Disposable track(Supplier<Disposable> schedule) {
+            Disposable scheduled;
+            try {
+                scheduled = schedule.get();
+            } catch (RejectedExecutionException e) {
+                cancel();
+                throw e;
+            }
+            return new Disposable() {
+                @Override
+                public void dispose() {
+                    cancel();
+                    scheduled.dispose();
+                }
+
+                @Override
+                public boolean isDisposed() {
+                    return scheduled.isDisposed();
+                }
+            };
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(PENDING, STARTED)) {
+                return;
+            }
+            long start = System.nanoTime();
+            pending.decrementAndGet();
+            active.incrementAndGet();
+            queueWait.record(start - scheduledAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                runTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                active.decrementAndGet();
+            }
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                pending.decrementAndGet();
+            }
+        }
+    }
+}
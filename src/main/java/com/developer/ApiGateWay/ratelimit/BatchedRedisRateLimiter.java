@@ -0,0 +1,100 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import com.developer.ApiGateWay.redis.RedisBatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RedisRateLimiter}'s token bucket, with the Redis calls of concurrent
+ * requests merged by a {@link RedisBatcher} into one Lua call per batch. Route
+ * arguments keep the {@code redis-rate-limiter.*} prefix, and the Redis keys and
+ * response headers are the same, so nodes using either limiter share buckets.
+ */
+public class BatchedRedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchedRedisRateLimiter.class);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static final RedisScript<List<Long>> SCRIPT = (RedisScript) RedisScript.of(
+            new ClassPathResource("scripts/request_rate_limiter_batch.lua"), List.class);
+
+    // Two keys, four arguments and two results per request, as in request_rate_limiter.lua
+    public static final RedisBatcher.Script BATCH_SCRIPT = new RedisBatcher.Script(SCRIPT, 2, 4, 2);
+
+    private final RedisBatcher batcher;
+    private RedisRateLimiter.Config defaultConfig;
+    private boolean includeHeaders = true;
+
+    public BatchedRedisRateLimiter(RedisBatcher batcher, ConfigurationService configurationService) {
+        super(RedisRateLimiter.Config.class, RedisRateLimiter.CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.batcher = batcher;
+    }
+
+    // For use outside a route definition, e.g. tests and benchmarks
+    public BatchedRedisRateLimiter(RedisBatcher batcher, int replenishRate, int burstCapacity) {
+        super(RedisRateLimiter.Config.class, RedisRateLimiter.CONFIGURATION_PROPERTY_NAME, (ConfigurationService) null);
+        this.batcher = batcher;
+        this.defaultConfig = new RedisRateLimiter.Config().setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        RedisRateLimiter.Config config = loadConfiguration(routeId);
+        String prefix = "request_rate_limiter.{" + routeId + "." + id + "}.";
+        List<String> keys = List.of(prefix + "tokens", prefix + "timestamp");
+        // An empty "now" lets the script use the Redis server's clock, as RedisRateLimiter does
+        List<String> args = List.of(Integer.toString(config.getReplenishRate()),
+                Integer.toString(config.getBurstCapacity()), "", Integer.toString(config.getRequestedTokens()));
+
+        return batcher.execute(keys, args)
+                .map(results -> new Response(results.get(0) == 1L, getHeaders(config, results.get(1))))
+                .onErrorResume(error -> {
+                    // Fail open like RedisRateLimiter: Redis being down must not take the gateway with it
+                    logger.error("Error calling batched rate limiter lua", error);
+                    return Mono.just(new Response(true, getHeaders(config, -1L)));
+                });
+    }
+
+    public Map<String, String> getHeaders(RedisRateLimiter.Config config, Long tokensLeft) {
+        if (!includeHeaders) {
+            return Map.of();
+        }
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, tokensLeft.toString(),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+    }
+
+    public boolean isIncludeHeaders() {
+        return includeHeaders;
+    }
+
+    public void setIncludeHeaders(boolean includeHeaders) {
+        this.includeHeaders = includeHeaders;
+    }
+
+    RedisRateLimiter.Config loadConfiguration(String routeId) {
+        RedisRateLimiter.Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
+
+        if (routeConfig == null) {
+            routeConfig = getConfig().get(RouteDefinitionRouteLocator.DEFAULT_FILTERS);
+        }
+
+        if (routeConfig == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return routeConfig;
+    }
+}
@@ -0,0 +1,123 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} backed by
+ * {@link TokenBucketMap} instead of a Redis call per request. Route arguments use the
+ * {@code local-rate-limiter.*} prefix and the same fields and response headers as
+ * {@link RedisRateLimiter}, so switching between the two is a configuration change.
+ */
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private static final Mono<Response> ALLOWED = Mono.just(new Response(true, Map.of()));
+    private static final Mono<Response> DENIED = Mono.just(new Response(false, Map.of()));
+
+    private final TokenBucketMap buckets;
+    private Config defaultConfig;
+    private boolean includeHeaders = true;
+
+    public LocalRateLimiter(TokenBucketMap buckets, ConfigurationService configurationService) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.buckets = buckets;
+    }
+
+    // For use outside a route definition, e.g. tests and benchmarks
+    public LocalRateLimiter(TokenBucketMap buckets, int replenishRate, int burstCapacity) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, (ConfigurationService) null);
+        this.buckets = buckets;
+        this.defaultConfig = new Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        long remaining = buckets.tryConsume(routeId, id, config.getReplenishRate(), config.getBurstCapacity(),
+                config.getRequestedTokens());
+        boolean allowed = remaining >= 0;
+
+        if (!includeHeaders) {
+            return allowed ? ALLOWED : DENIED;
+        }
+        return Mono.just(new Response(allowed, getHeaders(config, allowed ? remaining : 0)));
+    }
+
+    public Map<String, String> getHeaders(Config config, long tokensLeft) {
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, Long.toString(tokensLeft),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, Integer.toString(config.getRequestedTokens()));
+    }
+
+    public boolean isIncludeHeaders() {
+        return includeHeaders;
+    }
+
+    public void setIncludeHeaders(boolean includeHeaders) {
+        this.includeHeaders = includeHeaders;
+    }
+
+    Config loadConfiguration(String routeId) {
+        Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
+
+        if (routeConfig == null) {
+            routeConfig = getConfig().get(RouteDefinitionRouteLocator.DEFAULT_FILTERS);
+        }
+
+        if (routeConfig == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return routeConfig;
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(0)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
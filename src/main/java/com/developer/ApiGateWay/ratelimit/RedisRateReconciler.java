@@ -0,0 +1,168 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import com.developer.ApiGateWay.config.LocalRateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hybrid mode: keeps the cluster-wide limit roughly intact while Redis stays off the
+ * request path. Every sync interval the tokens this node consumed per key are sent
+ * to Redis in one Lua call, which also heartbeats the node. The live node count
+ * sets each node's local share of the limit, and keys whose cluster-wide total for
+ * the current window is over the limit are blocked locally until the window ends.
+ *
+ * <p>A sync's counters and the nodes key go to Redis in one script call, so this is
+ * for standalone or primary/replica Redis; on Redis Cluster they would span slots.
+ */
+public class RedisRateReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateReconciler.class);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static final RedisScript<List<Long>> SCRIPT = (RedisScript) RedisScript.of(
+            new ClassPathResource("scripts/rate_limiter_reconcile.lua"), List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final TokenBucketMap buckets;
+    private final String nodesKey;
+    private final String keyPrefix;
+    private final String nodeId;
+    private final long syncIntervalMillis;
+    private final long windowMillis;
+    private final int batchSize;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    public RedisRateReconciler(ReactiveStringRedisTemplate redisTemplate, TokenBucketMap buckets,
+                               LocalRateLimitProperties.Hybrid properties) {
+        this.redisTemplate = redisTemplate;
+        this.buckets = buckets;
+        this.keyPrefix = properties.getKeyPrefix();
+        this.nodesKey = keyPrefix + ".nodes";
+        this.nodeId = properties.getNodeId() != null ? properties.getNodeId() : UUID.randomUUID().toString();
+        this.syncIntervalMillis = properties.getSyncInterval().toMillis();
+        this.windowMillis = properties.getWindow().toMillis();
+        this.batchSize = properties.getBatchSize();
+        buckets.setShareDivisor(properties.getInitialClusterSize());
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limiter-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, 0, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends one batch of consumed-token deltas (or just a heartbeat) to Redis. Skipped
+     * while the previous batch is still in flight; its deltas stay queued. Only a
+     * successful full batch is followed straight away by the next one; anything else
+     * waits for the next sync interval, so a failing Redis is retried at that pace.
+     */
+    public void sync() {
+        if (!inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        List<TokenBucket> batch = new ArrayList<>();
+        List<TokenBucket> sent = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        try {
+            boolean fullBatch = buckets.drainUnsynced(batchSize, batch) == batchSize;
+
+            long now = System.currentTimeMillis();
+            long window = now / windowMillis;
+            List<String> keys = new ArrayList<>(batch.size() + 1);
+            List<String> args = new ArrayList<>(batch.size() + 4);
+            keys.add(nodesKey);
+            args.add(Long.toString(now));
+            args.add(nodeId);
+            args.add(Long.toString(now - 3 * Math.max(syncIntervalMillis, 1_000)));
+            args.add(Long.toString(2 * windowMillis + 10 * syncIntervalMillis));
+
+            for (TokenBucket bucket : batch) {
+                long delta = bucket.takeUnsynced();
+                if (delta == 0) {
+                    continue;
+                }
+                keys.add(keyPrefix + "." + bucket.routeId() + "." + bucket.key() + "." + window);
+                args.add(Long.toString(delta));
+                sent.add(bucket);
+                deltas.add(delta);
+            }
+
+            redisTemplate.execute(SCRIPT, keys, args)
+                    .next()
+                    .doFinally(signal -> {
+                        inFlight.set(false);
+                        if (signal == SignalType.ON_COMPLETE && fullBatch && buckets.hasUnsynced()
+                                && scheduler != null && !scheduler.isShutdown()) {
+                            scheduler.execute(this::sync);
+                        }
+                    })
+                    .subscribe(
+                            results -> apply(results, sent, window),
+                            error -> {
+                                logger.warn("Rate limiter reconciliation failed, enforcing local limits only: {}",
+                                        error.getMessage());
+                                requeue(batch, sent, deltas);
+                            });
+        } catch (RuntimeException e) {
+            // Thrown before the call was made; the fixed-delay schedule must not die with it
+            logger.warn("Rate limiter reconciliation failed, enforcing local limits only", e);
+            requeue(batch, sent, deltas);
+            inFlight.set(false);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Puts a failed batch back so its consumption is counted on the next successful sync
+    private void requeue(List<TokenBucket> batch, List<TokenBucket> sent, List<Long> deltas) {
+        for (int i = 0; i < sent.size(); i++) {
+            buckets.restoreUnsynced(sent.get(i), deltas.get(i));
+        }
+        for (TokenBucket bucket : batch) {
+            if (!sent.contains(bucket)) {
+                long pending = bucket.takeUnsynced();
+                if (pending != 0) {
+                    buckets.restoreUnsynced(bucket, pending);
+                }
+            }
+        }
+    }
+
+    private void apply(List<Long> results, List<TokenBucket> sent, long window) {
+        buckets.setShareDivisor(results.get(0).intValue());
+        long windowEnd = (window + 1) * windowMillis;
+        for (int i = 0; i < sent.size(); i++) {
+            TokenBucket bucket = sent.get(i);
+            long clusterLimit = bucket.replenishRate() * windowMillis / 1000 + bucket.burstCapacity();
+            if (results.get(i + 1) > clusterLimit) {
+                bucket.blockUntil(windowEnd);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One token bucket kept entirely in primitives. Tokens (in thousandths) and the
+ * last refill time (32-bit milliseconds, wrap-safe) are packed into a single long
+ * and updated with a CAS loop, so consuming a token never takes a lock or allocates.
+ */
+public class TokenBucket {
+
+    static final long SCALE = 1000;
+    static final long MAX_CAPACITY = 0xFFFFFFFFL;
+    private static final long TIME_MASK = 0xFFFFFFFFL;
+
+    private final String routeId;
+    private final String key;
+    private final int replenishRate;
+    private final int burstCapacity;
+    private final AtomicLong state;
+
+    // Tokens consumed since the last hybrid reconciliation
+    private final AtomicLong unsynced = new AtomicLong();
+
+    // Wall-clock millis until which the cluster-wide limit is exhausted (hybrid mode)
+    private volatile long blockedUntil;
+
+    TokenBucket(String routeId, String key, int replenishRate, int burstCapacity, long nowMillis) {
+        this.routeId = routeId;
+        this.key = key;
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.state = new AtomicLong(pack(Math.min(burstCapacity * SCALE, MAX_CAPACITY), nowMillis));
+    }
+
+    /**
+     * Takes the requested tokens if available. Returns the whole tokens left, or
+     * -1 when the request is denied. {@code shareDivisor} scales rate and capacity
+     * down to this node's share of a cluster-wide limit.
+     */
+    long tryConsume(int requestedTokens, int shareDivisor, long nowMillis) {
+        long needed = requestedTokens * SCALE;
+        long capacity = Math.min(Math.max(burstCapacity * SCALE / shareDivisor, needed), MAX_CAPACITY);
+        long ratePerSecond = replenishRate * SCALE / shareDivisor;
+        long fullRefillMillis = ratePerSecond > 0 ? capacity * 1000 / ratePerSecond + 1 : Long.MAX_VALUE;
+
+        while (true) {
+            long current = state.get();
+            long tokens = current >>> 32;
+            long last = current & TIME_MASK;
+            long elapsed = (nowMillis - last) & TIME_MASK;
+
+            long refill = elapsed >= fullRefillMillis ? capacity : elapsed * ratePerSecond / 1000;
+            // Only advance the clock when it produced tokens, so frequent calls do not lose fractions
+            long time = refill > 0 ? nowMillis : last;
+            tokens = Math.min(capacity, tokens + refill);
+            if (tokens < needed) {
+                return -1;
+            }
+            long remaining = tokens - needed;
+            if (state.compareAndSet(current, pack(remaining, time))) {
+                return remaining / SCALE;
+            }
+        }
+    }
+
+    long idleMillis(long nowMillis) {
+        return (nowMillis - (state.get() & TIME_MASK)) & TIME_MASK;
+    }
+
+    boolean addUnsynced(long tokens) {
+        return unsynced.getAndAdd(tokens) == 0;
+    }
+
+    long takeUnsynced() {
+        return unsynced.getAndSet(0);
+    }
+
+    boolean hasUnsynced() {
+        return unsynced.get() != 0;
+    }
+
+    boolean isBlocked(long wallClockMillis) {
+        long until = blockedUntil;
+        return until != 0 && wallClockMillis < until;
+    }
+
+    void blockUntil(long wallClockMillis) {
+        blockedUntil = wallClockMillis;
+    }
+
+    boolean matches(int replenishRate, int burstCapacity) {
+        return this.replenishRate == replenishRate && this.burstCapacity == burstCapacity;
+    }
+
+    String routeId() {
+        return routeId;
+    }
+
+    String key() {
+        return key;
+    }
+
+    int replenishRate() {
+        return replenishRate;
+    }
+
+    int burstCapacity() {
+        return burstCapacity;
+    }
+
+    private static long pack(long tokens, long timeMillis) {
+        return (tokens << 32) | (timeMillis & TIME_MASK);
+    }
+}
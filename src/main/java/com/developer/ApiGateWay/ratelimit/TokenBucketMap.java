@@ -0,0 +1,166 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process token buckets keyed by route and rate-limit key. Each route gets a
+ * fixed set of stripes, each a {@link ConcurrentHashMap}, so a lookup is two hash
+ * probes with no key concatenation and resizes stay local to one stripe. Buckets
+ * idle for longer than the configured timeout are evicted by a background sweep.
+ */
+public class TokenBucketMap {
+
+    private final Map<String, ConcurrentHashMap<String, TokenBucket>[]> routes = new ConcurrentHashMap<>();
+    private final Queue<TokenBucket> unsyncedBuckets = new ConcurrentLinkedQueue<>();
+    private final int stripeMask;
+    private final long idleTimeoutMillis;
+    private final boolean trackConsumption;
+    private final long baseNanos = System.nanoTime();
+
+    // Number of gateway nodes sharing each limit; only changes in hybrid mode
+    private volatile int shareDivisor = 1;
+
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * @param trackConsumption record consumed tokens for later reconciliation (hybrid mode)
+     */
+    public TokenBucketMap(int stripes, long idleTimeoutMillis, boolean trackConsumption) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        this.stripeMask = stripes - 1;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.trackConsumption = trackConsumption;
+    }
+
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limiter-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1_000, idleTimeoutMillis / 4);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Consumes tokens from the bucket for {@code routeId}/{@code key}, creating it
+     * full on first use. Returns the whole tokens left, or -1 if denied.
+     */
+    public long tryConsume(String routeId, String key, int replenishRate, int burstCapacity, int requestedTokens) {
+        if (burstCapacity * TokenBucket.SCALE > TokenBucket.MAX_CAPACITY) {
+            throw new IllegalArgumentException("burstCapacity too large for a local bucket: " + burstCapacity);
+        }
+        long now = nowMillis();
+        ConcurrentHashMap<String, TokenBucket> stripe = stripeFor(routeId, key);
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null || !bucket.matches(replenishRate, burstCapacity)) {
+            bucket = createBucket(stripe, routeId, key, replenishRate, burstCapacity, now);
+        }
+
+        if (trackConsumption && bucket.isBlocked(System.currentTimeMillis())) {
+            return -1;
+        }
+        long remaining = bucket.tryConsume(requestedTokens, shareDivisor, now);
+        if (remaining >= 0 && trackConsumption && bucket.addUnsynced(requestedTokens)) {
+            unsyncedBuckets.add(bucket);
+        }
+        return remaining;
+    }
+
+    /**
+     * Moves up to {@code max} buckets with unreconciled consumption into {@code out}.
+     */
+    public int drainUnsynced(int max, List<TokenBucket> out) {
+        int drained = 0;
+        TokenBucket bucket;
+        while (drained < max && (bucket = unsyncedBuckets.poll()) != null) {
+            out.add(bucket);
+            drained++;
+        }
+        return drained;
+    }
+
+    // Re-queues consumption that could not be reconciled, e.g. after a Redis error
+    public void restoreUnsynced(TokenBucket bucket, long tokens) {
+        if (bucket.addUnsynced(tokens)) {
+            unsyncedBuckets.add(bucket);
+        }
+    }
+
+    public boolean hasUnsynced() {
+        return !unsyncedBuckets.isEmpty();
+    }
+
+    public void setShareDivisor(int shareDivisor) {
+        this.shareDivisor = Math.max(1, shareDivisor);
+    }
+
+    public int getShareDivisor() {
+        return shareDivisor;
+    }
+
+    public long size() {
+        long size = 0;
+        for (ConcurrentHashMap<String, TokenBucket>[] stripes : routes.values()) {
+            for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public void evictIdle() {
+        long now = nowMillis();
+        long wallClock = System.currentTimeMillis();
+        for (ConcurrentHashMap<String, TokenBucket>[] stripes : routes.values()) {
+            for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+                stripe.values().removeIf(bucket -> bucket.idleMillis(now) >= idleTimeoutMillis
+                        && !bucket.hasUnsynced()
+                        && !bucket.isBlocked(wallClock));
+            }
+        }
+    }
+
+    private TokenBucket createBucket(ConcurrentHashMap<String, TokenBucket> stripe, String routeId, String key,
+                                     int replenishRate, int burstCapacity, long now) {
+        TokenBucket created = new TokenBucket(routeId, key, replenishRate, burstCapacity, now);
+        // Route limits changed: replace the bucket rather than mixing old and new rates
+        return stripe.compute(key, (k, existing) ->
+                existing != null && existing.matches(replenishRate, burstCapacity) ? existing : created);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<String, TokenBucket> stripeFor(String routeId, String key) {
+        ConcurrentHashMap<String, TokenBucket>[] stripes = routes.get(routeId);
+        if (stripes == null) {
+            stripes = routes.computeIfAbsent(routeId, id -> {
+                ConcurrentHashMap<String, TokenBucket>[] created = new ConcurrentHashMap[stripeMask + 1];
+                for (int i = 0; i < created.length; i++) {
+                    created[i] = new ConcurrentHashMap<>();
+                }
+                return created;
+            });
+        }
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    long nowMillis() {
+        return (System.nanoTime() - baseNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,156 @@
+package com.developer.ApiGateWay.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges Redis operations from concurrent requests into batched Lua calls. An
+ * operation is one invocation of a per-operation script (a fixed number of keys and
+ * arguments, a fixed number of integer results); the batch script runs every
+ * queued operation in order and returns their results concatenated, which are then
+ * handed back to each caller. A batch is sent when it reaches {@code maxBatchSize}
+ * or when {@code window} has passed since its first operation, so Redis round trips
+ * grow with the number of batches rather than the number of requests.
+ *
+ * <p>All keys of a batch go to one server, so this is for standalone or
+ * primary/replica Redis; on Redis Cluster the keys of a batch would span slots.
+ */
+public class RedisBatcher {
+
+    /**
+     * A batch script and the shape of one operation in it.
+     */
+    public record Script(RedisScript<List<Long>> script, int keysPerOperation, int argsPerOperation,
+                         int resultsPerOperation) {
+    }
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Script script;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    private final Counter roundTrips;
+    private final Counter operations;
+    private final DistributionSummary batchSizes;
+
+    private final Object lock = new Object();
+    private List<Operation> pending;
+    // Identifies the pending batch, so a window timer does not flush a later one
+    private long generation;
+
+    public RedisBatcher(String name, ReactiveStringRedisTemplate redisTemplate, Script script, int maxBatchSize,
+                        Duration window, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.script = script;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.pending = new ArrayList<>(maxBatchSize);
+        this.roundTrips = Counter.builder("gateway.redis.round.trips")
+                .description("Batched Redis calls sent")
+                .tag("batcher", name)
+                .register(meterRegistry);
+        this.operations = Counter.builder("gateway.redis.operations")
+                .description("Operations sent in batched Redis calls")
+                .tag("batcher", name)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("gateway.redis.batch.size")
+                .description("Operations per batched Redis call")
+                .tag("batcher", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues one operation for the next batch; emits its results once the batch
+     * returns, or the batch's error.
+     */
+    public Mono<List<Long>> execute(List<String> keys, List<String> args) {
+        if (keys.size() != script.keysPerOperation() || args.size() != script.argsPerOperation()) {
+            return Mono.error(new IllegalArgumentException("Expected " + script.keysPerOperation() + " keys and "
+                    + script.argsPerOperation() + " arguments, got " + keys.size() + " and " + args.size()));
+        }
+        return Mono.create(sink -> enqueue(new Operation(keys, args, sink)));
+    }
+
+    private void enqueue(Operation operation) {
+        List<Operation> full = null;
+        long scheduled = -1;
+        synchronized (lock) {
+            pending.add(operation);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new ArrayList<>(maxBatchSize);
+                generation++;
+            } else if (pending.size() == 1) {
+                scheduled = generation;
+            }
+        }
+        if (full != null) {
+            send(full);
+        } else if (scheduled >= 0) {
+            long expected = scheduled;
+            scheduler.schedule(() -> flush(expected), windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flush(long expected) {
+        List<Operation> ready;
+        synchronized (lock) {
+            if (generation != expected || pending.isEmpty()) {
+                return;
+            }
+            ready = pending;
+            pending = new ArrayList<>(maxBatchSize);
+            generation++;
+        }
+        send(ready);
+    }
+
+    private void send(List<Operation> batch) {
+        List<String> keys = new ArrayList<>(batch.size() * script.keysPerOperation());
+        List<String> args = new ArrayList<>(batch.size() * script.argsPerOperation());
+        for (Operation operation : batch) {
+            keys.addAll(operation.keys());
+            args.addAll(operation.args());
+        }
+        roundTrips.increment();
+        operations.increment(batch.size());
+        batchSizes.record(batch.size());
+
+        redisTemplate.execute(script.script(), keys, args)
+                .reduce(new ArrayList<Long>(), (results, part) -> {
+                    results.addAll(part);
+                    return results;
+                })
+                .subscribe(results -> demultiplex(batch, results),
+                        error -> batch.forEach(operation -> operation.sink().error(error)));
+    }
+
+    private void demultiplex(List<Operation> batch, List<Long> results) {
+        int width = script.resultsPerOperation();
+        if (results.size() != batch.size() * width) {
+            IllegalStateException error = new IllegalStateException("Batch of " + batch.size()
+                    + " operations returned " + results.size() + " results, expected " + batch.size() * width);
+            batch.forEach(operation -> operation.sink().error(error));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).sink().success(List.copyOf(results.subList(i * width, (i + 1) * width)));
+        }
+    }
+
+    private record Operation(List<String> keys, List<String> args, MonoSink<List<Long>> sink) {
+    }
+}
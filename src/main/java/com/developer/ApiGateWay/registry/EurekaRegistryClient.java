@@ -0,0 +1,144 @@
+package com.developer.ApiGateWay.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the registry from Eureka's REST API: {@code GET apps} for all instances
+ * and {@code GET apps/delta} for the changes of the last few minutes, both as
+ * JSON. Servers are tried in the configured order until one answers. Calls block
+ * the calling thread; they are made from the registry's own background thread.
+ */
+public class EurekaRegistryClient {
+
+    /**
+     * A parsed response: its instances (as changes) and the server's
+     * {@code apps__hashcode} of its full registry.
+     */
+    public record Applications(List<RegistrySnapshot.Change> changes, String appsHashCode) {
+
+        List<RegisteredInstance> instances() {
+            return changes.stream()
+                    .filter(change -> change.action() != RegistrySnapshot.Action.DELETED)
+                    .map(RegistrySnapshot.Change::instance)
+                    .toList();
+        }
+    }
+
+    private final List<String> serviceUrls;
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public EurekaRegistryClient(List<String> serviceUrls, WebClient.Builder webClientBuilder,
+                                ObjectMapper objectMapper, Duration timeout, int maxResponseBytes) {
+        if (serviceUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one Eureka service URL is required");
+        }
+        this.serviceUrls = serviceUrls.stream()
+                .map(String::trim)
+                .map(url -> url.endsWith("/") ? url : url + "/")
+                .toList();
+        this.webClient = webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    public Applications fetchAll() {
+        return fetch("apps");
+    }
+
+    public Applications fetchDelta() {
+        return fetch("apps/delta");
+    }
+
+    private Applications fetch(String path) {
+        RuntimeException failure = null;
+        for (String serviceUrl : serviceUrls) {
+            try {
+                byte[] body = webClient.get()
+                        .uri(serviceUrl + path)
+                        .retrieve()
+                        .bodyToMono(byte[].class)
+                        .block(timeout);
+                if (body == null) {
+                    throw new IllegalStateException("Empty response");
+                }
+                return parse(objectMapper.readTree(body));
+            } catch (IOException | RuntimeException e) {
+                RuntimeException attempt = new IllegalStateException(
+                        "GET " + serviceUrl + path + " failed: " + e.getMessage(), e);
+                if (failure != null) {
+                    attempt.addSuppressed(failure);
+                }
+                failure = attempt;
+            }
+        }
+        throw failure;
+    }
+
+    static Applications parse(JsonNode root) {
+        JsonNode applications = root.path("applications");
+        if (!applications.isObject()) {
+            throw new IllegalStateException("Response has no applications");
+        }
+        List<RegistrySnapshot.Change> changes = new ArrayList<>();
+        for (JsonNode application : elements(applications.path("application"))) {
+            String name = application.path("name").asText();
+            for (JsonNode instance : elements(application.path("instance"))) {
+                changes.add(new RegistrySnapshot.Change(action(instance.path("actionType").asText(null)),
+                        instance(name, instance)));
+            }
+        }
+        return new Applications(List.copyOf(changes), applications.path("apps__hashcode").asText(""));
+    }
+
+    private static RegisteredInstance instance(String application, JsonNode instance) {
+        String serviceId = instance.path("app").asText(application).toLowerCase(Locale.ROOT);
+        String host = instance.path("hostName").asText();
+        boolean secure = instance.path("securePort").path("@enabled").asBoolean(false);
+        int port = (secure ? instance.path("securePort") : instance.path("port")).path("$").asInt();
+        String instanceId = instance.path("instanceId").asText(host + ":" + serviceId + ":" + port);
+        Map<String, String> metadata = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = instance.path("metadata").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            // "@class" is the server's serialization detail, not metadata
+            if (!field.getKey().startsWith("@")) {
+                metadata.put(field.getKey(), field.getValue().asText());
+            }
+        }
+        return new RegisteredInstance(serviceId, instanceId, host, port, secure,
+                RegisteredInstance.Status.parse(instance.path("status").asText(null)), metadata);
+    }
+
+    private static RegistrySnapshot.Action action(String actionType) {
+        if ("DELETED".equals(actionType)) {
+            return RegistrySnapshot.Action.DELETED;
+        }
+        return "MODIFIED".equals(actionType) ? RegistrySnapshot.Action.MODIFIED : RegistrySnapshot.Action.ADDED;
+    }
+
+    // Older servers write a single application or instance as an object rather than a one-element array
+    private static Iterable<JsonNode> elements(JsonNode node) {
+        if (node.isArray()) {
+            return node;
+        }
+        return node.isObject() ? List.of(node) : List.of();
+    }
+}
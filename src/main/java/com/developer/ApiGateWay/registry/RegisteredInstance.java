@@ -0,0 +1,46 @@
+package com.developer.ApiGateWay.registry;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+
+/**
+ * One instance as Eureka lists it. The service id is the Eureka application name
+ * in lower case, as {@code lb://} URIs spell it; host, port and security follow
+ * the Eureka client's {@code EurekaServiceInstance} (the secure port when it is
+ * enabled).
+ */
+public record RegisteredInstance(String serviceId, String instanceId, String host, int port, boolean secure,
+                                 Status status, Map<String, String> metadata) {
+
+    /**
+     * Eureka's instance statuses; only {@code UP} instances are handed to load balancers.
+     */
+    public enum Status {
+        UP,
+        DOWN,
+        STARTING,
+        OUT_OF_SERVICE,
+        UNKNOWN;
+
+        static Status parse(String status) {
+            if (status != null) {
+                for (Status candidate : values()) {
+                    if (candidate.name().equalsIgnoreCase(status)) {
+                        return candidate;
+                    }
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+
+    public RegisteredInstance {
+        metadata = Map.copyOf(metadata);
+    }
+
+    ServiceInstance toServiceInstance() {
+        return new DefaultServiceInstance(instanceId, serviceId, host, port, secure, metadata);
+    }
+}
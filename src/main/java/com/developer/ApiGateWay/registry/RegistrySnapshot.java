@@ -0,0 +1,179 @@
+package com.developer.ApiGateWay.registry;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable copy of the registry: every instance by service, whatever its
+ * status, and when Eureka last confirmed it. The {@code UP} instances of each
+ * service are materialized once per snapshot, so discovery lookups are a map
+ * read. {@link #apply} derives the next snapshot from a Eureka delta, copying only
+ * the services the delta touches.
+ */
+public final class RegistrySnapshot {
+
+    static final RegistrySnapshot EMPTY = new RegistrySnapshot(Map.of(), 0);
+
+    /**
+     * One entry of a Eureka delta; a full fetch is a list of {@code ADDED}.
+     */
+    public record Change(Action action, RegisteredInstance instance) {
+    }
+
+    public enum Action {
+        ADDED,
+        MODIFIED,
+        DELETED
+    }
+
+    private static final Comparator<RegisteredInstance> BY_INSTANCE_ID =
+            Comparator.comparing(RegisteredInstance::instanceId);
+
+    private final Map<String, List<RegisteredInstance>> services;
+    private final Map<String, List<ServiceInstance>> upInstances;
+    private final List<String> serviceIds;
+    private final String appsHashCode;
+    private final int instanceCount;
+    private final long syncedAt;
+
+    private RegistrySnapshot(Map<String, List<RegisteredInstance>> services, long syncedAt) {
+        this.services = Map.copyOf(services);
+        this.syncedAt = syncedAt;
+        Map<String, List<ServiceInstance>> up = new HashMap<>();
+        TreeMap<String, Integer> statusCounts = new TreeMap<>();
+        int count = 0;
+        for (Map.Entry<String, List<RegisteredInstance>> service : this.services.entrySet()) {
+            List<ServiceInstance> upOfService = new ArrayList<>();
+            for (RegisteredInstance instance : service.getValue()) {
+                statusCounts.merge(instance.status().name(), 1, Integer::sum);
+                if (instance.status() == RegisteredInstance.Status.UP) {
+                    upOfService.add(instance.toServiceInstance());
+                }
+            }
+            count += service.getValue().size();
+            up.put(service.getKey(), List.copyOf(upOfService));
+        }
+        this.upInstances = Map.copyOf(up);
+        this.serviceIds = this.services.keySet().stream().sorted().toList();
+        this.instanceCount = count;
+        this.appsHashCode = appsHashCode(statusCounts);
+    }
+
+    /**
+     * A snapshot of exactly these instances, as after a full fetch.
+     */
+    public static RegistrySnapshot of(Collection<RegisteredInstance> instances, long syncedAt) {
+        Map<String, Map<String, RegisteredInstance>> byService = new HashMap<>();
+        for (RegisteredInstance instance : instances) {
+            byService.computeIfAbsent(instance.serviceId(), id -> new LinkedHashMap<>())
+                    .put(instance.instanceId(), instance);
+        }
+        Map<String, List<RegisteredInstance>> services = new HashMap<>();
+        byService.forEach((id, byId) -> services.put(id, sorted(byId.values())));
+        return new RegistrySnapshot(services, syncedAt);
+    }
+
+    /**
+     * This snapshot with a delta applied. Additions and modifications replace the
+     * instance with the same id, deletions of unknown instances are ignored, so a
+     * delta overlapping changes already applied is harmless.
+     */
+    public RegistrySnapshot apply(List<Change> changes, long syncedAt) {
+        Map<String, Map<String, RegisteredInstance>> touched = new HashMap<>();
+        for (Change change : changes) {
+            RegisteredInstance instance = change.instance();
+            Map<String, RegisteredInstance> byId = touched.computeIfAbsent(instance.serviceId(), id -> {
+                Map<String, RegisteredInstance> current = new LinkedHashMap<>();
+                for (RegisteredInstance existing : services.getOrDefault(id, List.of())) {
+                    current.put(existing.instanceId(), existing);
+                }
+                return current;
+            });
+            if (change.action() == Action.DELETED) {
+                byId.remove(instance.instanceId());
+            } else {
+                byId.put(instance.instanceId(), instance);
+            }
+        }
+        Map<String, List<RegisteredInstance>> next = new HashMap<>(services);
+        touched.forEach((id, byId) -> {
+            if (byId.isEmpty()) {
+                next.remove(id);
+            } else {
+                next.put(id, sorted(byId.values()));
+            }
+        });
+        return new RegistrySnapshot(next, syncedAt);
+    }
+
+    RegistrySnapshot withSyncedAt(long syncedAt) {
+        return new RegistrySnapshot(services, syncedAt);
+    }
+
+    /**
+     * The {@code UP} instances of a service, or an empty list.
+     */
+    public List<ServiceInstance> instances(String serviceId) {
+        List<ServiceInstance> instances = upInstances.get(serviceId);
+        if (instances == null) {
+            instances = upInstances.getOrDefault(serviceId.toLowerCase(Locale.ROOT), List.of());
+        }
+        return instances;
+    }
+
+    public List<String> serviceIds() {
+        return serviceIds;
+    }
+
+    /**
+     * All instances by service id, each list sorted by instance id.
+     */
+    public Map<String, List<RegisteredInstance>> services() {
+        return services;
+    }
+
+    /**
+     * Eureka's reconciliation hash of this registry: the instance count per
+     * status, e.g. {@code DOWN_1_UP_3_}, compared with {@code apps__hashcode} after
+     * applying a delta.
+     */
+    public String appsHashCode() {
+        return appsHashCode;
+    }
+
+    public int instanceCount() {
+        return instanceCount;
+    }
+
+    /**
+     * When Eureka last confirmed this registry (epoch millis), 0 if it never has.
+     */
+    public long syncedAt() {
+        return syncedAt;
+    }
+
+    boolean sameInstances(RegistrySnapshot other) {
+        return services.equals(other.services);
+    }
+
+    private static List<RegisteredInstance> sorted(Collection<RegisteredInstance> instances) {
+        List<RegisteredInstance> list = new ArrayList<>(instances);
+        list.sort(BY_INSTANCE_ID);
+        return List.copyOf(list);
+    }
+
+    private static String appsHashCode(TreeMap<String, Integer> statusCounts) {
+        StringBuilder hash = new StringBuilder();
+        statusCounts.forEach((status, count) -> hash.append(status).append('_').append(count).append('_'));
+        return hash.toString();
+    }
+}
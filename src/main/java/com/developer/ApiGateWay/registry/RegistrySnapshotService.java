@@ -0,0 +1,207 @@
+package com.developer.ApiGateWay.registry;
+
+import com.developer.ApiGateWay.config.RegistryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the gateway's own copy of the Eureka registry, served to load balancers
+ * and health reporting through {@link SnapshotDiscoveryClient} and
+ * {@link SnapshotReactiveDiscoveryClient}.
+ *
+ * <p>On start the last snapshot is read from disk, so {@code lb://} routes have
+ * instances before Eureka has answered, or while it does not. A background thread
+ * then reconciles with Eureka: while the snapshot is younger than Eureka's delta
+ * retention, only {@code apps/delta} is fetched and applied, and the result is
+ * accepted if its hash matches the server's {@code apps__hashcode}; otherwise, or
+ * when the delta fails, the full registry is fetched. When Eureka cannot be
+ * reached the current snapshot stays in use.
+ *
+ * <p>A snapshot whose instances changed is written back to disk and announced
+ * with a {@link HeartbeatEvent}, as the Eureka client does after its fetches, so
+ * health snapshots and connection prewarming follow it. Unchanged snapshots are
+ * rewritten only every half delta retention, to keep the on-disk sync time
+ * recent enough for a restart to reconcile through a delta.
+ */
+public class RegistrySnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrySnapshotService.class);
+
+    private final EurekaRegistryClient eureka;
+    private final RegistryProperties properties;
+    private final ApplicationEventPublisher publisher;
+    private final Counter fullFetches;
+    private final Counter failedFullFetches;
+    private final Counter deltaFetches;
+    private final Counter failedDeltaFetches;
+    private final Counter mismatchedDeltas;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registry-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+    private long persistedSyncedAt;
+    private long version;
+
+    public RegistrySnapshotService(EurekaRegistryClient eureka, RegistryProperties properties,
+                                   ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        this.eureka = eureka;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.fullFetches = fetches(meterRegistry, "full", "applied");
+        this.failedFullFetches = fetches(meterRegistry, "full", "failed");
+        this.deltaFetches = fetches(meterRegistry, "delta", "applied");
+        this.failedDeltaFetches = fetches(meterRegistry, "delta", "failed");
+        this.mismatchedDeltas = fetches(meterRegistry, "delta", "mismatch");
+        Gauge.builder("gateway.registry.instances", this, service -> service.snapshot.instanceCount())
+                .description("Instances in the registry snapshot, of any status")
+                .register(meterRegistry);
+        Gauge.builder("gateway.registry.age", this, service -> service.snapshot.syncedAt() == 0
+                        ? Double.NaN
+                        : (System.currentTimeMillis() - service.snapshot.syncedAt()) / 1000.0)
+                .description("Time since Eureka last confirmed the registry snapshot")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        load();
+        long interval = properties.getFetchInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::syncQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public RegistrySnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reads the snapshot file into the registry; false when there is none, or it
+     * is unreadable or older than {@code max-snapshot-age}.
+     */
+    public synchronized boolean load() {
+        Path file = properties.getSnapshotFile();
+        if (!Files.exists(file)) {
+            logger.info("No registry snapshot at {}; routing waits for the first Eureka fetch", file);
+            return false;
+        }
+        RegistrySnapshot loaded;
+        try {
+            loaded = SnapshotFile.read(file);
+        } catch (IOException e) {
+            logger.warn("Ignoring registry snapshot {}: {}", file, e.getMessage());
+            return false;
+        }
+        Duration age = Duration.ofMillis(System.currentTimeMillis() - loaded.syncedAt());
+        if (age.compareTo(properties.getMaxSnapshotAge()) > 0) {
+            logger.warn("Ignoring registry snapshot {}: synced {} ago", file, age);
+            return false;
+        }
+        snapshot = loaded;
+        persistedSyncedAt = loaded.syncedAt();
+        logger.info("Loaded registry snapshot of {} instances in {} services, synced {} ago",
+                loaded.instanceCount(), loaded.serviceIds().size(), age);
+        return true;
+    }
+
+    /**
+     * Reconciles with Eureka now; returns true if the instances changed. Throws
+     * when no Eureka server could be read, leaving the registry as it was.
+     */
+    public synchronized boolean sync() {
+        RegistrySnapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        RegistrySnapshot next = null;
+        if (current.syncedAt() > 0 && now - current.syncedAt() < properties.getDeltaWindow().toMillis()) {
+            next = applyDelta(current, now);
+        }
+        if (next == null) {
+            try {
+                next = RegistrySnapshot.of(eureka.fetchAll().instances(), now);
+            } catch (RuntimeException e) {
+                failedFullFetches.increment();
+                throw e;
+            }
+            fullFetches.increment();
+        }
+        return install(current, next);
+    }
+
+    private RegistrySnapshot applyDelta(RegistrySnapshot current, long now) {
+        EurekaRegistryClient.Applications delta;
+        try {
+            delta = eureka.fetchDelta();
+        } catch (RuntimeException e) {
+            failedDeltaFetches.increment();
+            logger.debug("Registry delta fetch failed, fetching the full registry", e);
+            return null;
+        }
+        RegistrySnapshot next = current.apply(delta.changes(), now);
+        if (!next.appsHashCode().equals(delta.appsHashCode())) {
+            mismatchedDeltas.increment();
+            logger.debug("Registry hash {} after delta, Eureka has {}; fetching the full registry",
+                    next.appsHashCode(), delta.appsHashCode());
+            return null;
+        }
+        deltaFetches.increment();
+        return next;
+    }
+
+    private boolean install(RegistrySnapshot current, RegistrySnapshot next) {
+        boolean changed = !next.sameInstances(current);
+        snapshot = next;
+        if (changed || next.syncedAt() - persistedSyncedAt >= properties.getDeltaWindow().toMillis() / 2) {
+            persist(next);
+        }
+        if (changed) {
+            logger.info("Registry now has {} instances in {} services", next.instanceCount(),
+                    next.serviceIds().size());
+            publisher.publishEvent(new HeartbeatEvent(this, ++version));
+        }
+        return changed;
+    }
+
+    private void persist(RegistrySnapshot next) {
+        try {
+            SnapshotFile.write(properties.getSnapshotFile(), next);
+            persistedSyncedAt = next.syncedAt();
+        } catch (IOException e) {
+            logger.warn("Could not write registry snapshot {}: {}", properties.getSnapshotFile(), e.getMessage());
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            logger.warn("Registry sync failed; keeping {} known instances: {}", snapshot.instanceCount(),
+                    e.getMessage());
+        }
+    }
+
+    private static Counter fetches(MeterRegistry meterRegistry, String type, String outcome) {
+        return Counter.builder("gateway.registry.fetches")
+                .description("Eureka registry fetches by type and outcome")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
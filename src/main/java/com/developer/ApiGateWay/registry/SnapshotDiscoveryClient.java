@@ -0,0 +1,42 @@
+package com.developer.ApiGateWay.registry;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.util.List;
+
+/**
+ * Serves the {@code UP} instances of the registry snapshot. Ordered ahead of the
+ * Eureka and simple discovery clients, so the composite client answers from the
+ * snapshot and only asks those for services the snapshot does not know.
+ */
+public class SnapshotDiscoveryClient implements DiscoveryClient {
+
+    public static final int ORDER = DiscoveryClient.DEFAULT_ORDER - 1;
+
+    private final RegistrySnapshotService registry;
+
+    public SnapshotDiscoveryClient(RegistrySnapshotService registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String description() {
+        return "Registry snapshot";
+    }
+
+    @Override
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return registry.snapshot().instances(serviceId);
+    }
+
+    @Override
+    public List<String> getServices() {
+        return registry.snapshot().serviceIds();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
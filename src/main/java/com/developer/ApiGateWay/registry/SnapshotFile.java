@@ -0,0 +1,169 @@
+package com.developer.ApiGateWay.registry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * The binary form of a {@link RegistrySnapshot} on disk. Big-endian:
+ *
+ * <pre>
+ * int    magic "GWRS", short version
+ * long   syncedAt (epoch millis)
+ * int    services
+ *   str  service id, int instances
+ *     str instance id, str host, int port, byte secure, byte status,
+ *     short metadata entries, (str key, str value)*
+ * int    CRC32C of everything before it
+ * </pre>
+ *
+ * where {@code str} is an unsigned short length and that many UTF-8 bytes. Files
+ * are read through a read-only memory map and replaced atomically (written to a
+ * temporary file in the same directory, forced, then moved over the old one), so
+ * a reader never sees a partial file; one that fails its checksum is rejected.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x47575253;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4;
+    private static final int CHECKSUM_BYTES = 4;
+    private static final RegisteredInstance.Status[] STATUSES = RegisteredInstance.Status.values();
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Reads a snapshot; throws {@link IOException} for a file that is missing,
+     * truncated, fails its checksum or is of another format.
+     */
+    public static RegistrySnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a registry snapshot: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int contentBytes = (int) size - CHECKSUM_BYTES;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, contentBytes));
+            if ((int) crc.getValue() != buffer.getInt(contentBytes)) {
+                throw new IOException("Registry snapshot checksum mismatch");
+            }
+            return decode(buffer.limit(contentBytes));
+        } catch (RuntimeException e) {
+            // Out-of-range lengths or counts in a file that passed its checksum: another writer's format
+            throw new IOException("Malformed registry snapshot", e);
+        }
+    }
+
+    public static void write(Path file, RegistrySnapshot snapshot) throws IOException {
+        byte[] content = encode(snapshot);
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static byte[] encode(RegistrySnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + snapshot.instanceCount() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(snapshot.syncedAt());
+        out.writeInt(snapshot.services().size());
+        for (Map.Entry<String, List<RegisteredInstance>> service : snapshot.services().entrySet()) {
+            writeString(out, service.getKey());
+            out.writeInt(service.getValue().size());
+            for (RegisteredInstance instance : service.getValue()) {
+                writeString(out, instance.instanceId());
+                writeString(out, instance.host());
+                out.writeInt(instance.port());
+                out.writeByte(instance.secure() ? 1 : 0);
+                out.writeByte(instance.status().ordinal());
+                out.writeShort(instance.metadata().size());
+                for (Map.Entry<String, String> entry : instance.metadata().entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static RegistrySnapshot decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a registry snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported registry snapshot version " + version);
+        }
+        long syncedAt = buffer.getLong();
+        int services = buffer.getInt();
+        List<RegisteredInstance> instances = new ArrayList<>();
+        for (int s = 0; s < services; s++) {
+            String serviceId = readString(buffer);
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String instanceId = readString(buffer);
+                String host = readString(buffer);
+                int port = buffer.getInt();
+                boolean secure = buffer.get() != 0;
+                RegisteredInstance.Status status = STATUSES[buffer.get()];
+                int entries = buffer.getShort() & 0xFFFF;
+                Map<String, String> metadata = new HashMap<>(entries * 2);
+                for (int e = 0; e < entries; e++) {
+                    metadata.put(readString(buffer), readString(buffer));
+                }
+                instances.add(new RegisteredInstance(serviceId, instanceId, host, port, secure, status, metadata));
+            }
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("Trailing bytes in registry snapshot");
+        }
+        return RegistrySnapshot.of(instances, syncedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > 0xFFFF) {
+            throw new IOException("String of " + utf8.length + " bytes does not fit a registry snapshot");
+        }
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,39 @@
+package com.developer.ApiGateWay.registry;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * The reactive counterpart of {@link SnapshotDiscoveryClient}, which is what the
+ * load balancers of {@code lb://} routes read. Lookups never block: they read the
+ * current snapshot when subscribed.
+ */
+public class SnapshotReactiveDiscoveryClient implements ReactiveDiscoveryClient {
+
+    private final RegistrySnapshotService registry;
+
+    public SnapshotReactiveDiscoveryClient(RegistrySnapshotService registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String description() {
+        return "Registry snapshot";
+    }
+
+    @Override
+    public Flux<ServiceInstance> getInstances(String serviceId) {
+        return Flux.defer(() -> Flux.fromIterable(registry.snapshot().instances(serviceId)));
+    }
+
+    @Override
+    public Flux<String> getServices() {
+        return Flux.defer(() -> Flux.fromIterable(registry.snapshot().serviceIds()));
+    }
+
+    @Override
+    public int getOrder() {
+        return SnapshotDiscoveryClient.ORDER;
+    }
+}
@@ -0,0 +1,195 @@
+package com.developer.ApiGateWay.routing;
+
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.latency.Stage;
+import com.developer.ApiGateWay.latency.TimedRoutePredicateHandlerMapping;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.NameUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route lookup through a {@link PathPrefixIndex} compiled from the Path predicates
+ * of the routes' definitions whenever the route cache is refreshed. Only the routes
+ * whose path prefix fits the request, plus routes that cannot be anchored to a
+ * prefix, have their predicates evaluated, in the same order as the default linear
+ * scan. Lookups are timed as {@link Stage#ROUTE_LOOKUP} by the superclass, which also
+ * times the linear scan when the index is disabled.
+ */
+public class IndexedRoutePredicateHandlerMapping extends TimedRoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    /**
+     * Route metadata key under which a route built without a definition lists the
+     * path patterns every request it matches falls under, so that it can be anchored.
+     */
+    public static final String PATH_PATTERNS_METADATA = "path-patterns";
+
+    private final RouteLocator routeLocator;
+    private final RouteDefinitionLocator routeDefinitionLocator;
+    private final ObjectProvider<RouteStore> routeStore;
+
+    // Null until the first refresh completes; lookups fall back to the linear scan meanwhile
+    private volatile PathPrefixIndex<Route> index;
+
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+                                               RouteDefinitionLocator routeDefinitionLocator,
+                                               ObjectProvider<RouteStore> routeStore,
+                                               GlobalCorsProperties globalCorsProperties, Environment environment,
+                                               RouteLatencyRecorder latencyRecorder) {
+        super(webHandler, routeLocator, globalCorsProperties, environment, latencyRecorder);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.routeStore = routeStore;
+    }
+
+    @Override
+    protected Mono<Route> findRoute(ServerWebExchange exchange) {
+        PathPrefixIndex<Route> current = index;
+        if (current == null) {
+            return super.findRoute(exchange);
+        }
+        List<Route> candidates = current.candidates(exchange.getRequest().getPath().pathWithinApplication());
+        return Flux.fromIterable(candidates)
+                .concatMap(route -> Mono.just(route)
+                        .filterWhen(candidate -> {
+                            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR,
+                                    candidate.getId());
+                            return candidate.getPredicate().apply(exchange);
+                        })
+                        // As in the linear scan, a predicate that throws only rules out its own route
+                        .doOnError(e -> logger.error("Error applying predicate for route: " + route.getId(), e))
+                        .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (event.isSuccess()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        RouteStore store = routeStore.getIfAvailable();
+        Flux<RouteDefinition> definitions = store != null
+                ? Flux.concat(routeDefinitionLocator.getRouteDefinitions(), store.getRouteDefinitions())
+                : routeDefinitionLocator.getRouteDefinitions();
+        Mono.zip(routeLocator.getRoutes().collectList(),
+                        definitions.collectMap(RouteDefinition::getId, definition -> definition, LinkedHashMap::new))
+                .subscribe(routesAndDefinitions -> {
+                    List<Route> routes = routesAndDefinitions.getT1();
+                    long start = System.nanoTime();
+                    index = compile(routes, routesAndDefinitions.getT2());
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Compiled route index for " + routes.size() + " routes in "
+                                + (System.nanoTime() - start) / 1_000 + "us");
+                    }
+                }, error -> logger.warn("Failed to rebuild route index, keeping the previous one", error));
+    }
+
+    /**
+     * Builds the index for routes in lookup order, with the definitions they were
+     * compiled from by route id.
+     */
+    public static PathPrefixIndex<Route> compile(List<Route> routes, Map<String, RouteDefinition> definitions) {
+        PathPrefixIndex.Builder<Route> builder = PathPrefixIndex.builder();
+        for (Route route : routes) {
+            builder.add(route, pathPatterns(route, definitions.get(route.getId())));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Path patterns that every exchange matched by {@code route} must match one of,
+     * or an empty list when that cannot be established. The predicates of a route
+     * definition are all ANDed, so any one of its Path predicates will do. Routes
+     * without a definition (Java DSL, custom locators) may combine predicates with
+     * OR or negation, which the compiled predicate does not reveal, so they are only
+     * anchored by patterns they declare under {@link #PATH_PATTERNS_METADATA}. Either
+     * way the patterns are only used if the route's compiled predicate has a Path
+     * leaf with the same patterns, in case the definition found by id is not the one
+     * the route was built from, or the metadata went stale.
+     */
+    static List<String> pathPatterns(Route route, RouteDefinition definition) {
+        List<List<String>> declared = new ArrayList<>();
+        if (definition != null) {
+            for (PredicateDefinition predicate : definition.getPredicates()) {
+                if ("Path".equals(predicate.getName())) {
+                    declared.add(patterns(predicate));
+                }
+            }
+        } else if (route.getMetadata().get(PATH_PATTERNS_METADATA) instanceof List<?> patterns) {
+            declared.add(patterns.stream().map(String::valueOf).toList());
+        }
+        if (declared.isEmpty()) {
+            return List.of();
+        }
+        List<List<String>> compiled = new ArrayList<>();
+        route.getPredicate().accept(leaf -> {
+            if (leaf.getConfig() instanceof PathRoutePredicateFactory.Config config && config.getPatterns() != null) {
+                compiled.add(config.getPatterns());
+            }
+        });
+        // Take the most selective Path predicate
+        List<String> best = List.of();
+        int bestDepth = -1;
+        for (List<String> patterns : declared) {
+            if (patterns.isEmpty() || !compiled.contains(patterns)) {
+                continue;
+            }
+            int depth = Integer.MAX_VALUE;
+            for (String pattern : patterns) {
+                depth = Math.min(depth, PathPrefixIndex.literalPrefix(pattern).size());
+            }
+            if (depth > bestDepth) {
+                best = patterns;
+                bestDepth = depth;
+            }
+        }
+        return best;
+    }
+
+    // Both the shortcut form (Path=/a/**,/b/**[,matchTrailingSlash]) and patterns: given as args
+    private static List<String> patterns(PredicateDefinition predicate) {
+        List<String> patterns = new ArrayList<>();
+        for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+            String value = arg.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (arg.getKey().startsWith(NameUtils.GENERATED_NAME_PREFIX)) {
+                if (!value.equals("true") && !value.equals("false")) {
+                    patterns.add(value);
+                }
+            } else if (arg.getKey().startsWith("patterns")) {
+                for (String pattern : value.split(",")) {
+                    patterns.add(pattern.trim());
+                }
+            }
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,162 @@
+package com.developer.ApiGateWay.routing;
+
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable segment trie over the literal leading segments of path patterns.
+ * Each value is filed under the literal prefix of every pattern it was added with
+ * (e.g. {@code /api/users/**} under {@code api → users}); values without a usable
+ * prefix sit at the root. A lookup walks the request path once and returns the
+ * values of the deepest node reached together with those of all its ancestors, in
+ * the order they were added. Those lists are merged when the index is built, so a
+ * lookup allocates nothing.
+ *
+ * <p>The index only narrows the candidates: callers still evaluate each
+ * candidate's own predicate or pattern.
+ */
+public final class PathPrefixIndex<T> {
+
+    private final Node<T> root;
+    private final int size;
+
+    private PathPrefixIndex(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Values whose patterns could match {@code path}, in insertion order.
+     */
+    public List<T> candidates(PathContainer path) {
+        Node<T> node = root;
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment) {
+                Node<T> child = node.children.get(segment.valueToMatch());
+                if (child == null) {
+                    break;
+                }
+                node = child;
+            }
+        }
+        return node.candidates;
+    }
+
+    public List<T> candidates(String path) {
+        return candidates(PathContainer.parsePath(path));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Literal segments a pattern starts with, up to the first segment containing a
+     * wildcard, capture variable or regex.
+     */
+    static List<String> literalPrefix(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0
+                    || segment.indexOf(';') >= 0) {
+                break;
+            }
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    public static final class Builder<T> {
+
+        private final MutableNode<T> root = new MutableNode<>();
+        private int ordinal;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a value that can only match paths matching one of {@code patterns}.
+         */
+        public Builder<T> add(T value, Collection<String> patterns) {
+            if (patterns.isEmpty()) {
+                return addUnanchored(value);
+            }
+            Ordered<T> entry = new Ordered<>(ordinal++, value);
+            for (String pattern : patterns) {
+                MutableNode<T> node = root;
+                for (String segment : literalPrefix(pattern)) {
+                    node = node.children.computeIfAbsent(segment, s -> new MutableNode<>());
+                }
+                node.values.add(entry);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a value that is a candidate for every path.
+         */
+        public Builder<T> addUnanchored(T value) {
+            root.values.add(new Ordered<>(ordinal++, value));
+            return this;
+        }
+
+        public PathPrefixIndex<T> build() {
+            return new PathPrefixIndex<>(freeze(root, List.of()), ordinal);
+        }
+
+        private Node<T> freeze(MutableNode<T> node, List<Ordered<T>> inherited) {
+            List<Ordered<T>> merged = merge(inherited, node.values);
+            List<T> candidates = new ArrayList<>(merged.size());
+            for (Ordered<T> entry : merged) {
+                candidates.add(entry.value());
+            }
+            Map<String, Node<T>> children = new HashMap<>();
+            node.children.forEach((segment, child) -> children.put(segment, freeze(child, merged)));
+            return new Node<>(Map.copyOf(children), List.copyOf(candidates));
+        }
+
+        // Both inputs sorted by ordinal; a value filed under nested prefixes appears once
+        private static <T> List<Ordered<T>> merge(List<Ordered<T>> inherited, List<Ordered<T>> own) {
+            List<Ordered<T>> sorted = new ArrayList<>(own);
+            sorted.sort((a, b) -> Integer.compare(a.ordinal(), b.ordinal()));
+            List<Ordered<T>> merged = new ArrayList<>(inherited.size() + sorted.size());
+            int i = 0;
+            int j = 0;
+            while (i < inherited.size() || j < sorted.size()) {
+                Ordered<T> next;
+                if (j == sorted.size() || (i < inherited.size() && inherited.get(i).ordinal() <= sorted.get(j).ordinal())) {
+                    next = inherited.get(i++);
+                } else {
+                    next = sorted.get(j++);
+                }
+                if (merged.isEmpty() || merged.get(merged.size() - 1).ordinal() != next.ordinal()) {
+                    merged.add(next);
+                }
+            }
+            return merged;
+        }
+    }
+
+    private record Ordered<T>(int ordinal, T value) {
+    }
+
+    private static final class MutableNode<T> {
+        final Map<String, MutableNode<T>> children = new HashMap<>();
+        final List<Ordered<T>> values = new ArrayList<>();
+    }
+
+    private record Node<T>(Map<String, Node<T>> children, List<T> candidates) {
+    }
+}
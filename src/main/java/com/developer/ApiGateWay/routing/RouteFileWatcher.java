@@ -0,0 +1,131 @@
+package com.developer.ApiGateWay.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Feeds a {@link RouteStore} from a YAML file with a top-level {@code routes} list
+ * in the same format as {@code spring.cloud.gateway.server.webflux.routes}. The
+ * file's directory is watched; after a change, and a short settle time for editors
+ * that write in several steps, the file is read and applied if its content differs
+ * from the last one applied. A file that does not parse leaves the current routes in place.
+ */
+public class RouteFileWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteFileWatcher.class);
+
+    private final Path file;
+    private final Duration settle;
+    private final RouteStore store;
+
+    private byte[] lastContent;
+    private WatchService watchService;
+    private Thread thread;
+
+    public RouteFileWatcher(Path file, Duration settle, RouteStore store) {
+        this.file = file.toAbsolutePath();
+        this.settle = settle;
+        this.store = store;
+    }
+
+    public synchronized void start() throws IOException {
+        reload();
+        watchService = file.getFileSystem().newWatchService();
+        // Watch the directory: editors and config mounts replace the file rather than write to it
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        WatchService watching = watchService;
+        thread = new Thread(() -> watch(watching), "route-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+        thread = null;
+    }
+
+    /**
+     * Reads the file and applies it to the store. Returns null when the content
+     * is unchanged, missing or unreadable.
+     */
+    public synchronized RouteStore.Result reload() {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            logger.warn("Route file {} does not exist; keeping {} stored routes", file, store.size());
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to read route file {}; keeping the current routes", file, e);
+            return null;
+        }
+        if (Arrays.equals(content, lastContent)) {
+            return null;
+        }
+        List<RouteDefinition> definitions;
+        try {
+            definitions = parse(content, file.getFileName().toString());
+        } catch (RuntimeException | IOException e) {
+            logger.warn("Failed to parse route file {}; keeping the current routes", file, e);
+            return null;
+        }
+        lastContent = content;
+        return store.apply(definitions);
+    }
+
+    static List<RouteDefinition> parse(byte[] content, String name) throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader().load(name, new ByteArrayResource(content));
+        return new Binder(ConfigurationPropertySources.from(sources))
+                .bind("routes", Bindable.listOf(RouteDefinition.class))
+                .orElse(List.of());
+    }
+
+    private void watch(WatchService watching) {
+        try {
+            while (true) {
+                drain(watching.take());
+                // Let the writer finish, and fold the events it causes meanwhile into one reload
+                Thread.sleep(settle.toMillis());
+                WatchKey key;
+                while ((key = watching.poll()) != null) {
+                    drain(key);
+                }
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to apply route file {}", file, e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+}
@@ -0,0 +1,232 @@
+package com.developer.ApiGateWay.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes that can be added, changed and removed at runtime, one at a time. Each
+ * {@link #apply} is diffed against the current table by route id: only added and
+ * modified definitions are compiled, unchanged routes keep their {@link Route}
+ * instance (and with it any state their filters hold), and the new table replaces
+ * the old one in a single volatile write. Requests already routed keep the
+ * {@code Route} they matched.
+ *
+ * <p>Routes from the store carry {@link #METADATA_KEY} metadata, and a change
+ * publishes a {@link RefreshRoutesEvent} scoped to it, so Gateway's route cache
+ * only re-reads this store's routes instead of recompiling those from
+ * application.yml.
+ */
+public class RouteStore implements RouteLocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteStore.class);
+
+    public static final String METADATA_KEY = "route-store";
+
+    private static final Map<String, Object> SCOPE = Map.of(METADATA_KEY, true);
+
+    @SuppressWarnings("rawtypes")
+    private final List<RoutePredicateFactory> predicates;
+    @SuppressWarnings("rawtypes")
+    private final List<GatewayFilterFactory> filterFactories;
+    private final GatewayProperties gatewayProperties;
+    private final ConfigurationService configurationService;
+    private final ApplicationEventPublisher publisher;
+    private final Timer reloadTimer;
+    private final Map<String, Counter> changes = new HashMap<>();
+
+    private volatile Table table = new Table(Map.of(), List.of());
+
+    /**
+     * Outcome of one {@link #apply}, by route id. {@code failed} routes did not
+     * compile; a modified one keeps its previous version.
+     */
+    public record Result(List<String> added, List<String> modified, List<String> removed, List<String> failed,
+                         int unchanged, long nanos) {
+
+        public boolean changed() {
+            return !added.isEmpty() || !modified.isEmpty() || !removed.isEmpty();
+        }
+    }
+
+    private record Entry(RouteDefinition definition, Route route) {
+    }
+
+    // Entries by id, and their routes in definition order
+    private record Table(Map<String, Entry> entries, List<Route> routes) {
+    }
+
+    @SuppressWarnings("rawtypes")
+    public RouteStore(List<RoutePredicateFactory> predicates, List<GatewayFilterFactory> filterFactories,
+                      GatewayProperties gatewayProperties, ConfigurationService configurationService,
+                      ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        this.predicates = predicates;
+        this.filterFactories = filterFactories;
+        this.gatewayProperties = gatewayProperties;
+        this.configurationService = configurationService;
+        this.publisher = publisher;
+        this.reloadTimer = Timer.builder("gateway.routes.reload")
+                .description("Time to diff, compile and swap in a new set of stored routes")
+                .register(meterRegistry);
+        for (String change : List.of("added", "modified", "removed", "failed")) {
+            changes.put(change, Counter.builder("gateway.routes.changes")
+                    .description("Stored routes changed by reloads, by kind of change")
+                    .tag("change", change)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("gateway.routes.stored", this, store -> store.table.routes().size())
+                .description("Routes currently held by the route store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<Route> getRoutes() {
+        return Flux.fromIterable(table.routes());
+    }
+
+    /**
+     * The definitions the current routes were compiled from.
+     */
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.fromIterable(table.entries().values()).map(Entry::definition);
+    }
+
+    public int size() {
+        return table.routes().size();
+    }
+
+    /**
+     * Makes {@code definitions} the store's routes. Disabled definitions count as
+     * absent. Publishes a scoped refresh when anything changed.
+     */
+    public synchronized Result apply(List<RouteDefinition> definitions) {
+        long start = System.nanoTime();
+        Map<String, Entry> current = table.entries();
+
+        Map<String, RouteDefinition> wanted = new LinkedHashMap<>();
+        for (RouteDefinition definition : definitions) {
+            if (definition.isEnabled()) {
+                wanted.put(definition.getId(), definition);
+            }
+        }
+        List<String> added = new ArrayList<>();
+        List<String> modified = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        Map<String, RouteDefinition> toCompile = new LinkedHashMap<>();
+        for (RouteDefinition definition : wanted.values()) {
+            Entry existing = current.get(definition.getId());
+            if (existing == null) {
+                added.add(definition.getId());
+                toCompile.put(definition.getId(), definition);
+            } else if (!existing.definition().equals(definition)) {
+                modified.add(definition.getId());
+                toCompile.put(definition.getId(), definition);
+            }
+        }
+        for (String id : current.keySet()) {
+            if (!wanted.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+
+        Map<String, Route> compiled = compile(toCompile.values());
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        for (RouteDefinition definition : wanted.values()) {
+            String id = definition.getId();
+            Route route = compiled.get(id);
+            if (route != null) {
+                entries.put(id, new Entry(definition, route));
+            } else if (toCompile.containsKey(id)) {
+                failed.add(id);
+                Entry previous = current.get(id);
+                if (previous != null) {
+                    entries.put(id, previous);
+                }
+            } else {
+                entries.put(id, current.get(id));
+            }
+        }
+        added.removeAll(failed);
+        modified.removeAll(failed);
+
+        boolean changed = !added.isEmpty() || !modified.isEmpty() || !removed.isEmpty();
+        if (changed) {
+            table = new Table(Map.copyOf(entries), entries.values().stream().map(Entry::route).toList());
+            publisher.publishEvent(new RefreshRoutesEvent(this, SCOPE));
+        }
+        long nanos = System.nanoTime() - start;
+        reloadTimer.record(nanos, TimeUnit.NANOSECONDS);
+        changes.get("added").increment(added.size());
+        changes.get("modified").increment(modified.size());
+        changes.get("removed").increment(removed.size());
+        changes.get("failed").increment(failed.size());
+        Result result = new Result(List.copyOf(added), List.copyOf(modified), List.copyOf(removed),
+                List.copyOf(failed), wanted.size() - toCompile.size(), nanos);
+        if (changed || !failed.isEmpty()) {
+            logger.info("Route store reloaded in {}us: added {}, modified {}, removed {}, failed {}, unchanged {}",
+                    nanos / 1_000, result.added(), result.modified(), result.removed(), result.failed(),
+                    result.unchanged());
+        }
+        return result;
+    }
+
+    /**
+     * Compiles definitions the way Gateway compiles those from application.yml,
+     * default filters included. Each is compiled on its own so one bad definition
+     * does not fail the others; those that fail are missing from the result.
+     */
+    private Map<String, Route> compile(Collection<RouteDefinition> definitions) {
+        Map<String, Route> routes = new HashMap<>();
+        for (RouteDefinition definition : definitions) {
+            RouteDefinition marked = marked(definition);
+            RouteDefinitionRouteLocator locator = new RouteDefinitionRouteLocator(() -> Flux.just(marked),
+                    predicates, filterFactories, gatewayProperties, configurationService);
+            try {
+                Route route = locator.getRoutes().blockFirst();
+                if (route != null) {
+                    routes.put(route.getId(), route);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Route {} does not compile: {}", definition.getId(), e.getMessage());
+            }
+        }
+        return routes;
+    }
+
+    // A copy carrying the store's metadata, so the definition kept for diffing is the one given
+    private static RouteDefinition marked(RouteDefinition definition) {
+        RouteDefinition copy = new RouteDefinition();
+        copy.setId(definition.getId());
+        copy.setUri(definition.getUri());
+        copy.setOrder(definition.getOrder());
+        copy.setPredicates(definition.getPredicates());
+        copy.setFilters(definition.getFilters());
+        Map<String, Object> metadata = new HashMap<>(definition.getMetadata());
+        metadata.put(METADATA_KEY, true);
+        copy.setMetadata(metadata);
+        return copy;
+    }
+}
@@ -0,0 +1,232 @@
+package com.developer.ApiGateWay.security;
+
+import com.developer.ApiGateWay.config.JwtProperties;
+import com.developer.ApiGateWay.offload.BlockingCallDetector;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the signature verifiers built from the configured JWKS. The key set is
+ * re-read on a background thread and swapped atomically, so keys can be rotated
+ * without a restart and request threads never touch the file system.
+ */
+public class JwksKeyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyStore.class);
+
+    private final JwtProperties properties;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final AtomicLong reloads = new AtomicLong();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Keys keys = Keys.EMPTY;
+    private volatile byte[] loadedSource;
+    private volatile long lastReloadNanos;
+    private volatile long generation;
+    private ScheduledExecutorService scheduler;
+
+    public JwksKeyStore(JwtProperties properties) {
+        this.properties = properties;
+    }
+
+    public void start() {
+        reload();
+        if (properties.getJwksFile() != null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "jwks-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = properties.getReloadInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the verifier for the key referenced by the token header, or null if
+     * no loaded key matches. An unknown key id triggers an early reload in the
+     * background, which picks up keys published ahead of the next scheduled check;
+     * at most one per {@code min-refresh-interval}, so tokens with made-up key ids
+     * cannot keep the reload thread busy.
+     */
+    public JWSVerifier verifierFor(JWSHeader header) {
+        Keys current = keys;
+        String kid = header.getKeyID();
+        if (kid != null) {
+            KeyEntry entry = current.byKid.get(kid);
+            if (entry == null) {
+                requestRefresh();
+                return null;
+            }
+            return entry.accepts(header.getAlgorithm()) ? entry.verifier : null;
+        }
+        for (KeyEntry entry : current.withoutKid) {
+            if (entry.accepts(header.getAlgorithm())) {
+                return entry.verifier;
+            }
+        }
+        return null;
+    }
+
+    // Invoked after a new key set has been swapped in, e.g. to drop claims verified with a revoked key
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Number of key-set swaps so far; a result verified under an older generation
+     * may have used a key that is gone.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return keys.byKid.size() + keys.withoutKid.size();
+    }
+
+    /**
+     * Re-reads the key source and swaps in the new key set if it changed. A source
+     * that fails to parse keeps the previous keys in place.
+     */
+    public synchronized void reload() {
+        try {
+            byte[] source = readSource();
+            if (source == null || Arrays.equals(source, loadedSource)) {
+                return;
+            }
+            JWKSet jwkSet = JWKSet.parse(new String(source, StandardCharsets.UTF_8));
+            keys = Keys.from(jwkSet);
+            generation++;
+            loadedSource = source;
+            logger.info("Loaded {} JWT verification keys", size());
+            changeListeners.forEach(Runnable::run);
+        } catch (NoSuchFileException e) {
+            logger.warn("JWKS file {} not found, keeping {} existing keys", properties.getJwksFile(), size());
+        } catch (Exception e) {
+            logger.warn("Failed to load JWKS, keeping {} existing keys: {}", size(), e.getMessage());
+        } finally {
+            lastReloadNanos = System.nanoTime();
+            reloads.incrementAndGet();
+            refreshPending.set(false);
+        }
+    }
+
+    long reloadCount() {
+        return reloads.get();
+    }
+
+    private void requestRefresh() {
+        if (scheduler != null
+                && System.nanoTime() - lastReloadNanos >= properties.getMinRefreshInterval().toNanos()
+                && refreshPending.compareAndSet(false, true)) {
+            scheduler.execute(this::reload);
+        }
+    }
+
+    private byte[] readSource() throws IOException {
+        if (properties.getJwksFile() != null) {
+            BlockingCallDetector.checkBlockingAllowed("JwksKeyStore.readSource");
+            return Files.readAllBytes(Path.of(properties.getJwksFile()));
+        }
+        if (properties.getJwks() != null) {
+            return properties.getJwks().getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private record KeyEntry(JWSVerifier verifier, JWSAlgorithm algorithm) {
+
+        // Keys published without "alg" accept any algorithm their key type supports
+        boolean accepts(JWSAlgorithm requested) {
+            return algorithm != null
+                    ? algorithm.equals(requested)
+                    : verifier.supportedJWSAlgorithms().contains(requested);
+        }
+    }
+
+    private record Keys(Map<String, KeyEntry> byKid, List<KeyEntry> withoutKid) {
+
+        static final Keys EMPTY = new Keys(Map.of(), List.of());
+
+        // A key that cannot be used (e.g. a short HMAC secret) is skipped; the others still load
+        static Keys from(JWKSet jwkSet) {
+            Map<String, KeyEntry> byKid = new HashMap<>();
+            List<KeyEntry> withoutKid = new ArrayList<>();
+            for (JWK jwk : jwkSet.getKeys()) {
+                if (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse())) {
+                    continue;
+                }
+                JWSVerifier verifier;
+                try {
+                    verifier = createVerifier(jwk);
+                } catch (JOSEException e) {
+                    logger.warn("Skipping JWT verification key {}: {}", jwk.getKeyID(), e.getMessage());
+                    continue;
+                }
+                if (verifier == null) {
+                    continue;
+                }
+                JWSAlgorithm algorithm = jwk.getAlgorithm() != null
+                        ? JWSAlgorithm.parse(jwk.getAlgorithm().getName())
+                        : null;
+                KeyEntry entry = new KeyEntry(verifier, algorithm);
+                if (jwk.getKeyID() != null) {
+                    byKid.put(jwk.getKeyID(), entry);
+                } else {
+                    withoutKid.add(entry);
+                }
+            }
+            return new Keys(Map.copyOf(byKid), List.copyOf(withoutKid));
+        }
+
+        private static JWSVerifier createVerifier(JWK jwk) throws JOSEException {
+            if (jwk instanceof RSAKey rsaKey) {
+                return new RSASSAVerifier(rsaKey.toRSAPublicKey());
+            }
+            if (jwk instanceof ECKey ecKey) {
+                return new ECDSAVerifier(ecKey.toECPublicKey());
+            }
+            if (jwk instanceof OctetSequenceKey octetKey) {
+                return new MACVerifier(octetKey.toByteArray());
+            }
+            return null;
+        }
+    }
+}
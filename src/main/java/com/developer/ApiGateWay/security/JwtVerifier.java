@@ -0,0 +1,158 @@
+package com.developer.ApiGateWay.security;
+
+import com.developer.ApiGateWay.config.JwtProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies signed JWTs locally against {@link JwksKeyStore}. Successfully verified
+ * claims are cached by a SHA-256 of the token, bounded by size and by the earlier of
+ * the token expiry and the configured max TTL, so a hot token is parsed and
+ * signature-checked once per window. Rejected tokens are never cached, and the cache
+ * is cleared whenever the key set changes so a revoked key stops working at once.
+ */
+public class JwtVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwksKeyStore keyStore;
+    private final JwtProperties properties;
+    private final long clockSkewMillis;
+    private final Cache<TokenKey, VerifiedToken> cache;
+
+    public JwtVerifier(JwksKeyStore keyStore, JwtProperties properties) {
+        this.keyStore = keyStore;
+        this.properties = properties;
+        this.clockSkewMillis = properties.getClockSkew().toMillis();
+        long maxTtlNanos = properties.getCache().getMaxTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaxSize())
+                .expireAfter(new Expiry<TokenKey, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenKey key, VerifiedToken token, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(
+                                token.expiresAtMillis() + clockSkewMillis - System.currentTimeMillis());
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenKey key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenKey key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        keyStore.addChangeListener(cache::invalidateAll);
+    }
+
+    /**
+     * Returns the verified claims for the token, or null if it is malformed, signed
+     * by an unknown key, or outside its validity window.
+     */
+    public VerifiedToken verify(String token) {
+        TokenKey key = TokenKey.of(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = keyStore.generation();
+        VerifiedToken verified = verifyUncached(token);
+        if (verified != null) {
+            cache.put(key, verified);
+            // The keys changed since the check, and the flush may have run before this put
+            if (keyStore.generation() != generation) {
+                cache.invalidate(key);
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Full parse and signature check, bypassing the cache.
+     */
+    public VerifiedToken verifyUncached(String token) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            JWSVerifier verifier = keyStore.verifierFor(jwt.getHeader());
+            if (verifier == null || !jwt.verify(verifier)) {
+                return null;
+            }
+            return checkClaims(jwt.getJWTClaimsSet());
+        } catch (ParseException | JOSEException e) {
+            return null;
+        }
+    }
+
+    public long cachedTokens() {
+        return cache.estimatedSize();
+    }
+
+    private VerifiedToken checkClaims(JWTClaimsSet claims) {
+        long now = System.currentTimeMillis();
+        Date expiration = claims.getExpirationTime();
+        if (expiration == null || expiration.getTime() + clockSkewMillis < now) {
+            return null;
+        }
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && notBefore.getTime() - clockSkewMillis > now) {
+            return null;
+        }
+        if (properties.getIssuer() != null && !properties.getIssuer().equals(claims.getIssuer())) {
+            return null;
+        }
+        if (properties.getAudience() != null
+                && (claims.getAudience() == null || !claims.getAudience().contains(properties.getAudience()))) {
+            return null;
+        }
+
+        Object userId = claims.getClaim(properties.getUserIdClaim());
+        if (userId == null) {
+            return null;
+        }
+        return new VerifiedToken(userId.toString(), extractRole(claims), expiration.getTime());
+    }
+
+    private String extractRole(JWTClaimsSet claims) {
+        Object role = claims.getClaim(properties.getRoleClaim());
+        if (role instanceof List<?> roles) {
+            role = roles.isEmpty() ? null : roles.get(0);
+        }
+        return role != null ? role.toString() : properties.getDefaultRole();
+    }
+
+    // 256-bit digest of the raw token, so the cache never holds bearer tokens themselves
+    record TokenKey(long a, long b, long c, long d) {
+
+        static TokenKey of(String token) {
+            MessageDigest digest = SHA_256.get();
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.developer.ApiGateWay.security;
+
+import com.developer.ApiGateWay.routing.PathPrefixIndex;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * Public and authenticated path patterns compiled once into a {@link PathPrefixIndex},
+ * shared by {@code AuthenticationFilter} and {@code SecurityConfig}. The first rule
+ * whose pattern matches decides; public rules are checked before authenticated ones.
+ */
+public class PathAccessRules {
+
+    public enum Access {
+        PUBLIC,
+        AUTHENTICATED
+    }
+
+    private record Rule(PathPattern pattern, Access access) {
+    }
+
+    private final PathPrefixIndex<Rule> index;
+
+    public PathAccessRules(List<String> publicPaths, List<String> authenticatedPaths) {
+        PathPrefixIndex.Builder<Rule> builder = PathPrefixIndex.builder();
+        add(builder, publicPaths, Access.PUBLIC);
+        add(builder, authenticatedPaths, Access.AUTHENTICATED);
+        this.index = builder.build();
+    }
+
+    /**
+     * Access rule for {@code path}, or null when no rule applies.
+     */
+    public Access access(PathContainer path) {
+        for (Rule rule : index.candidates(path)) {
+            if (rule.pattern().matches(path)) {
+                return rule.access();
+            }
+        }
+        return null;
+    }
+
+    public boolean isPublic(PathContainer path) {
+        return access(path) == Access.PUBLIC;
+    }
+
+    public boolean requiresAuthentication(PathContainer path) {
+        return access(path) == Access.AUTHENTICATED;
+    }
+
+    public ServerWebExchangeMatcher matcher(Access access) {
+        return exchange -> access(exchange.getRequest().getPath().pathWithinApplication()) == access
+                ? ServerWebExchangeMatcher.MatchResult.match()
+                : ServerWebExchangeMatcher.MatchResult.notMatch();
+    }
+
+    private static void add(PathPrefixIndex.Builder<Rule> builder, List<String> patterns, Access access) {
+        for (String pattern : patterns) {
+            builder.add(new Rule(PathPatternParser.defaultInstance.parse(pattern), access), List.of(pattern));
+        }
+    }
+}
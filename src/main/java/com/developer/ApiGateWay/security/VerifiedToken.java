@@ -0,0 +1,8 @@
+package com.developer.ApiGateWay.security;
+
+/**
+ * Claims the gateway forwards downstream, taken from a token whose signature and
+ * time window have been checked.
+ */
+public record VerifiedToken(String userId, String role, long expiresAtMillis) {
+}
@@ -0,0 +1,28 @@
+package com.developer.ApiGateWay.streaming;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Routes marked with {@code streaming: true} metadata carry bodies too large to hold.
+ * Filters that buffer, replay or time bodies (response cache, hedging, latency
+ * samples) check this flag and step aside.
+ */
+public final class StreamingRoutes {
+
+    public static final String METADATA_KEY = "streaming";
+
+    private StreamingRoutes() {
+    }
+
+    public static boolean isStreaming(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null && isStreaming(route);
+    }
+
+    public static boolean isStreaming(Route route) {
+        Object value = route.getMetadata().get(METADATA_KEY);
+        return value != null && Boolean.parseBoolean(value.toString());
+    }
+}
@@ -0,0 +1,47 @@
+package com.developer.ApiGateWay.time;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Local timestamps as {@code yyyy-MM-ddTHH:mm:ss.SSS} bytes. The part up to the
+ * seconds is formatted once per second and shared; only the milliseconds are
+ * written per call.
+ */
+public class TimestampWriter {
+
+    public static final int WIDTH = 23;
+
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.");
+
+    private record Second(long epochSecond, byte[] bytes) {
+    }
+
+    private final Clock clock;
+    private volatile Second current = new Second(Long.MIN_VALUE, null);
+
+    public TimestampWriter(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void writeNow(DataBuffer buffer) {
+        long millis = clock.millis();
+        long epochSecond = Math.floorDiv(millis, 1000);
+        Second second = current;
+        if (second.epochSecond() != epochSecond) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), clock.getZone());
+            second = new Second(epochSecond, SECONDS.format(time).getBytes(StandardCharsets.US_ASCII));
+            current = second;
+        }
+        int ms = (int) Math.floorMod(millis, 1000);
+        buffer.write(second.bytes());
+        buffer.write((byte) ('0' + ms / 100));
+        buffer.write((byte) ('0' + ms / 10 % 10));
+        buffer.write((byte) ('0' + ms % 10));
+    }
+}
@@ -0,0 +1,158 @@
+package com.developer.ApiGateWay.upstream;
+
+import com.developer.ApiGateWay.config.UpstreamPoolProperties;
+import io.netty.handler.codec.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens connections ahead of traffic for pool profiles with
+ * {@code prewarm-connections}: to every instance of their routes once the
+ * application is ready, and to instances that appear after a Eureka registry
+ * fetch. Each connection is opened by a small request whose response returns it
+ * to the pool, so the first routed requests skip TCP (and TLS) setup. Instances
+ * that disappear are forgotten and warmed again if they come back.
+ */
+public class ConnectionPrewarmer implements SmartApplicationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPrewarmer.class);
+
+    private final UpstreamPools pools;
+    private final RouteLocator routeLocator;
+    private final DiscoveryClient discoveryClient;
+    private final Duration timeout;
+    // Written from the warm-up thread and from failed warm-ups
+    private final Set<Target> warmed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean warmQueued = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ConnectionPrewarmer(UpstreamPools pools, RouteLocator routeLocator, DiscoveryClient discoveryClient,
+                               UpstreamPoolProperties properties) {
+        this.pools = pools;
+        this.routeLocator = routeLocator;
+        this.discoveryClient = discoveryClient;
+        this.timeout = properties.getPrewarmTimeout();
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return ApplicationReadyEvent.class.isAssignableFrom(eventType) || HeartbeatEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (warmQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                warmQueued.set(false);
+                try {
+                    warmNewInstances();
+                } catch (RuntimeException e) {
+                    logger.warn("Connection pre-warming failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Warms every target not warmed yet and waits for the warm-up requests; returns
+     * the number of targets warmed.
+     */
+    public int warmNewInstances() {
+        Set<Target> current = targets();
+        warmed.retainAll(current);
+        List<Mono<Void>> warmups = new ArrayList<>();
+        for (Target target : current) {
+            if (warmed.add(target)) {
+                warmups.add(warm(target));
+            }
+        }
+        if (!warmups.isEmpty()) {
+            Flux.merge(warmups).blockLast(timeout.plusSeconds(1));
+            logger.debug("Pre-warmed connections to {} upstream instance(s)", warmups.size());
+        }
+        return warmups.size();
+    }
+
+    private Set<Target> targets() {
+        Set<Target> targets = new HashSet<>();
+        List<Route> routes = routeLocator.getRoutes().collectList().block(timeout);
+        if (routes == null) {
+            return targets;
+        }
+        for (Route route : routes) {
+            UpstreamPool pool = pools.poolFor(route);
+            if (pool == null || pool.profile().getPrewarmConnections() <= 0) {
+                continue;
+            }
+            URI uri = route.getUri();
+            if ("lb".equals(uri.getScheme())) {
+                for (ServiceInstance instance : discoveryClient.getInstances(uri.getHost())) {
+                    targets.add(new Target(pool, instance.getUri()));
+                }
+            } else if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                targets.add(new Target(pool, URI.create(uri.getScheme() + "://" + uri.getRawAuthority())));
+            }
+        }
+        return targets;
+    }
+
+    private Mono<Void> warm(Target target) {
+        UpstreamPoolProperties.Profile profile = target.pool().profile();
+        String uri = target.base() + profile.getPrewarmPath();
+        int connections = profile.getPrewarmConnections();
+        // Concurrent requests, each held until all have a connection, so that HTTP/1.1
+        // pools open one connection per request instead of reusing one released early
+        AtomicInteger acquired = new AtomicInteger();
+        Sinks.Empty<Void> allAcquired = Sinks.empty();
+        return Flux.range(0, connections)
+                .flatMap(i -> target.pool().client().request(HttpMethod.GET).uri(uri)
+                        .send((request, outbound) -> {
+                            if (acquired.incrementAndGet() == connections) {
+                                allAcquired.tryEmitEmpty();
+                            }
+                            return allAcquired.asMono().then(outbound.then());
+                        })
+                        .responseSingle((response, body) -> body.then())
+                        .timeout(timeout), connections)
+                .then()
+                .onErrorResume(e -> {
+                    warmed.remove(target);
+                    logger.debug("Could not pre-warm {} for pool {}: {}", target.base(), target.pool().name(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private record Target(UpstreamPool pool, URI base) {
+    }
+}
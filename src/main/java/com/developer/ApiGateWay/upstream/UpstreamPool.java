@@ -0,0 +1,13 @@
+package com.developer.ApiGateWay.upstream;
+
+import com.developer.ApiGateWay.config.UpstreamPoolProperties;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One pool profile: its own connection provider, holding a pool per backend
+ * address, and the HTTP client that routes assigned to the profile use.
+ */
+public record UpstreamPool(String name, UpstreamPoolProperties.Profile profile,
+                           ConnectionProvider provider, HttpClient client) {
+}
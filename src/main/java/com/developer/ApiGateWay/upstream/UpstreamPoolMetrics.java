@@ -0,0 +1,83 @@
+package com.developer.ApiGateWay.upstream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the state of every per-address pool reactor-netty creates for a
+ * profile: active, idle and waiting connections, and saturation as the share of
+ * the connection limit in use. Gauges are removed again when reactor-netty
+ * disposes an address's pool.
+ */
+public class UpstreamPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    public static final String CONNECTIONS = "gateway.upstream.pool.connections";
+    public static final String PENDING = "gateway.upstream.pool.pending";
+    public static final String SATURATION = "gateway.upstream.pool.saturation";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+    public UpstreamPoolMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        Tags tags = Tags.of("profile", poolName, "remote", remote(remoteAddress));
+        meters.put(key(poolName, id, remoteAddress), List.of(
+                gauge(CONNECTIONS, "Connections per backend address by state", tags.and("state", "active"),
+                        metrics, ConnectionPoolMetrics::acquiredSize),
+                gauge(CONNECTIONS, "Connections per backend address by state", tags.and("state", "idle"),
+                        metrics, ConnectionPoolMetrics::idleSize),
+                gauge(PENDING, "Requests waiting for a connection", tags,
+                        metrics, ConnectionPoolMetrics::pendingAcquireSize),
+                gauge(SATURATION, "Share of the connection limit in use", tags,
+                        metrics, UpstreamPoolMetrics::saturation)));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        List<Meter> registered = meters.remove(key(poolName, id, remoteAddress));
+        if (registered != null) {
+            registered.forEach(meterRegistry::remove);
+        }
+    }
+
+    private Meter gauge(String name, String description, Tags tags, ConnectionPoolMetrics metrics,
+                        ToDoubleFunction<ConnectionPoolMetrics> value) {
+        // Strong reference: the metrics wrapper handed to registrars is not held anywhere else
+        return Gauge.builder(name, metrics, value)
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    private static double saturation(ConnectionPoolMetrics metrics) {
+        int max = metrics.maxAllocatedSize();
+        return max > 0 ? (double) metrics.acquiredSize() / max : 0;
+    }
+
+    private static String key(String poolName, String id, SocketAddress remoteAddress) {
+        return poolName + '|' + id + '|' + remoteAddress;
+    }
+
+    private static String remote(SocketAddress address) {
+        if (address instanceof InetSocketAddress inet) {
+            return inet.getHostString() + ':' + inet.getPort();
+        }
+        return String.valueOf(address);
+    }
+}
@@ -0,0 +1,129 @@
+package com.developer.ApiGateWay.upstream;
+
+import com.developer.ApiGateWay.config.UpstreamPoolProperties;
+import com.developer.ApiGateWay.latency.UpstreamTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Connection pools per profile under {@code gateway.upstream-pool}. Each profile
+ * gets its own connection provider, with its own limits and protocol, and a client
+ * built like the gateway's default one. Routes are assigned by id or by the service
+ * of their lb:// URI; routes without a profile keep the default client.
+ */
+public class UpstreamPools {
+
+    public static final String ACQUIRE_METER = "gateway.upstream.pool.acquire";
+
+    private final Map<String, UpstreamPool> pools = new LinkedHashMap<>();
+    private final Map<String, UpstreamPool> byRoute = new HashMap<>();
+    private final Map<String, UpstreamPool> byService = new HashMap<>();
+
+    /**
+     * @param clientFactory builds a client on the given provider the same way the
+     *                      gateway builds its default one
+     */
+    public UpstreamPools(UpstreamPoolProperties properties, MeterRegistry meterRegistry,
+                         Function<ConnectionProvider, HttpClient> clientFactory) {
+        UpstreamPoolMetrics metrics = new UpstreamPoolMetrics(meterRegistry);
+        properties.getProfiles().forEach((name, profile) ->
+                pools.put(name, create(name, profile, clientFactory, metrics, meterRegistry)));
+        properties.getRoutes().forEach((routeId, name) -> byRoute.put(routeId, pool(name)));
+        properties.getServices().forEach((serviceId, name) -> byService.put(serviceId, pool(name)));
+    }
+
+    /**
+     * The pool for a route, or null when the route uses the default client.
+     */
+    public UpstreamPool poolFor(Route route) {
+        UpstreamPool pool = byRoute.get(route.getId());
+        if (pool == null && !byService.isEmpty()) {
+            URI uri = route.getUri();
+            if ("lb".equals(uri.getScheme())) {
+                pool = byService.get(uri.getHost());
+            }
+        }
+        return pool;
+    }
+
+    public Collection<UpstreamPool> pools() {
+        return pools.values();
+    }
+
+    public void dispose() {
+        for (UpstreamPool pool : pools.values()) {
+            pool.provider().dispose();
+        }
+    }
+
+    private UpstreamPool pool(String name) {
+        UpstreamPool pool = pools.get(name);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown upstream pool profile: " + name);
+        }
+        return pool;
+    }
+
+    private static UpstreamPool create(String name, UpstreamPoolProperties.Profile profile,
+                                       Function<ConnectionProvider, HttpClient> clientFactory,
+                                       UpstreamPoolMetrics metrics, MeterRegistry meterRegistry) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(profile.getMaxConnections())
+                .pendingAcquireMaxCount(profile.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(profile.getPendingAcquireTimeout())
+                .maxIdleTime(profile.getMaxIdleTime())
+                .metrics(true, () -> metrics);
+        if (profile.getProtocol() != UpstreamPoolProperties.Protocol.HTTP11) {
+            // Without an HTTP/2 strategy concurrent acquires each open a connection instead of sharing streams
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(profile.getMaxConnections())
+                    .minConnections(1)
+                    .build());
+        }
+        if (profile.getMaxLifeTime() != null) {
+            builder.maxLifeTime(profile.getMaxLifeTime());
+        }
+        if (profile.getEvictionInterval() != null && !profile.getEvictionInterval().isZero()) {
+            builder.evictInBackground(profile.getEvictionInterval());
+        }
+        ConnectionProvider provider = builder.build();
+
+        Timer acquire = Timer.builder(ACQUIRE_METER)
+                .description("Time from dispatch until a pooled connection is ready for the request")
+                .tag("profile", name)
+                .publishPercentiles(0.5, 0.99)
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .register(meterRegistry);
+        HttpClient client = protocol(clientFactory.apply(provider), profile.getProtocol())
+                .doOnRequest((request, connection) -> {
+                    // Absent for pre-warm requests, which are not routed
+                    UpstreamTiming timing = request.currentContextView().getOrDefault(UpstreamTiming.class, null);
+                    if (timing != null) {
+                        acquire.record(System.nanoTime() - timing.dispatchNanos(), TimeUnit.NANOSECONDS);
+                    }
+                });
+        return new UpstreamPool(name, profile, provider, client);
+    }
+
+    private static HttpClient protocol(HttpClient client, UpstreamPoolProperties.Protocol protocol) {
+        return switch (protocol) {
+            case HTTP11 -> client.protocol(HttpProtocol.HTTP11);
+            case H2C -> client.protocol(HttpProtocol.H2C);
+            case H2 -> client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        };
+    }
+}
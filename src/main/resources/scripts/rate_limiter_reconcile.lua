@@ -0,0 +1,20 @@
+-- Reconciles locally enforced rate-limit buckets across gateway nodes in one call.
+-- KEYS[1]      sorted set of live gateway nodes, scored by last heartbeat
+-- KEYS[2..n]   per-key counters for the current window
+-- ARGV[1]      now (ms)
+-- ARGV[2]      this node's id
+-- ARGV[3]      nodes with a heartbeat older than this (ms) are dropped
+-- ARGV[4]      counter and node-set ttl (ms)
+-- ARGV[5..]    tokens consumed on this node since the last call, one per counter key
+-- Returns { live node count, cluster-wide total for each counter key }
+
+redis.call('zadd', KEYS[1], ARGV[1], ARGV[2])
+redis.call('zremrangebyscore', KEYS[1], '-inf', ARGV[3])
+redis.call('pexpire', KEYS[1], ARGV[4])
+
+local results = { redis.call('zcard', KEYS[1]) }
+for i = 2, #KEYS do
+  results[i] = redis.call('incrby', KEYS[i], ARGV[i + 3])
+  redis.call('pexpire', KEYS[i], ARGV[4])
+end
+return results
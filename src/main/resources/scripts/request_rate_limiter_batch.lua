@@ -0,0 +1,43 @@
+-- Spring Cloud Gateway's request_rate_limiter.lua for a batch of requests in one call.
+-- Requests are applied in order, so several requests for one key see each other's tokens.
+-- KEYS[2i-1], KEYS[2i]   tokens and timestamp keys of request i
+-- ARGV[4i-3..4i]         replenish rate, burst capacity, now (empty: server time), requested tokens
+-- Returns { allowed 1, tokens left 1, allowed 2, tokens left 2, ... }
+
+redis.replicate_commands()
+
+local server_time = nil
+local results = {}
+for i = 1, #KEYS / 2 do
+  local tokens_key = KEYS[2 * i - 1]
+  local timestamp_key = KEYS[2 * i]
+
+  local rate = tonumber(ARGV[4 * i - 3])
+  local capacity = tonumber(ARGV[4 * i - 2])
+  local now = tonumber(ARGV[4 * i - 1])
+  if not now then
+    server_time = server_time or tonumber(redis.call('TIME')[1])
+    now = server_time
+  end
+  local requested = tonumber(ARGV[4 * i])
+
+  local fill_time = capacity / rate
+  local ttl = math.floor(fill_time * 2)
+
+  local last_tokens = tonumber(redis.call("get", tokens_key)) or capacity
+  local last_refreshed = tonumber(redis.call("get", timestamp_key)) or 0
+
+  local delta = math.max(0, now - last_refreshed)
+  local filled_tokens = math.min(capacity, last_tokens + (delta * rate))
+  local allowed = filled_tokens >= requested
+  local new_tokens = allowed and filled_tokens - requested or filled_tokens
+
+  if ttl > 0 then
+    redis.call("setex", tokens_key, ttl, new_tokens)
+    redis.call("setex", timestamp_key, ttl, now)
+  end
+
+  results[2 * i - 1] = allowed and 1 or 0
+  results[2 * i] = new_tokens
+end
+return results
@@ -0,0 +1,185 @@
+package com.developer.ApiGateWay.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batches through the whole gateway against in-process backends: user-service and
+ * order-service answer after a delay, notification-service echoes or stalls, and
+ * product-service refuses connections so its circuit-breaker fallback answers.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local",
+        "gateway.batch.max-requests=4"
+})
+class BatchEndpointTest {
+
+    private static final Duration BACKEND_DELAY = Duration.ofMillis(400);
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/42", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just("{\"id\":42,\"name\":\"Ada\"}").delayElement(BACKEND_DELAY)))
+                    .get("/", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just("[{\"id\":1},{\"id\":2}]").delayElement(BACKEND_DELAY)))
+                    .post("/echo", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .send(request.receive().retain()))
+                    .get("/slow", (request, response) -> response
+                            .sendString(Mono.just("late").delayElement(Duration.ofSeconds(3))))
+                    .get("/text", (request, response) -> response
+                            .header("Content-Type", "text/plain")
+                            .sendString(Mono.just("plain \"text\""))))
+            .bindNow();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + backend.port();
+        registry.add("spring.cloud.discovery.client.simple.instances.user-service[0].uri", () -> uri);
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri", () -> uri);
+        registry.add("spring.cloud.discovery.client.simple.instances.notification-service[0].uri", () -> uri);
+        registry.add("spring.cloud.discovery.client.simple.instances.product-service[0].uri",
+                () -> "http://localhost:" + closedPort());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void runsSubRequestsInParallel() throws Exception {
+        long start = System.nanoTime();
+        Map<String, JsonNode> responses = batch("""
+                {"requests":[
+                  {"id":"user","path":"/api/users/42"},
+                  {"id":"orders","path":"/api/orders"}
+                ]}""");
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(responses.get("user").get("status").asInt()).isEqualTo(200);
+        assertThat(responses.get("user").get("body").get("name").asText()).isEqualTo("Ada");
+        assertThat(responses.get("orders").get("body").isArray()).isTrue();
+        assertThat(responses.get("orders").get("headers").get("Content-Type").asText()).contains("application/json");
+        assertThat(Duration.ofNanos(elapsed)).isLessThan(BACKEND_DELAY.multipliedBy(2));
+    }
+
+    @Test
+    void returnsPartialResultsWhenAServiceIsDown() throws Exception {
+        Map<String, JsonNode> responses = batch("""
+                {"requests":[
+                  {"id":"user","path":"/api/users/42"},
+                  {"id":"product","path":"/api/products/7"}
+                ]}""");
+
+        assertThat(responses.get("user").get("status").asInt()).isEqualTo(200);
+        assertThat(responses.get("product").get("status").asInt()).isEqualTo(503);
+        assertThat(responses.get("product").get("body").get("service").asText()).isEqualTo("product-service");
+    }
+
+    @Test
+    void timesOutSlowSubRequests() throws Exception {
+        long start = System.nanoTime();
+        Map<String, JsonNode> responses = batch("""
+                {"requests":[
+                  {"id":"slow","path":"/api/notifications/slow","timeoutMs":200},
+                  {"id":"text","path":"/api/notifications/text"}
+                ]}""");
+
+        assertThat(responses.get("slow").get("status").asInt()).isEqualTo(504);
+        assertThat(responses.get("slow").get("error").asText()).contains("200ms");
+        assertThat(responses.get("text").get("body").asText()).isEqualTo("plain \"text\"");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void sendsSubRequestBodies() throws Exception {
+        Map<String, JsonNode> responses = batch("""
+                {"requests":[
+                  {"id":"send","method":"POST","path":"/api/notifications/echo","body":{"to":"ada","text":"hi"}}
+                ]}""");
+
+        assertThat(responses.get("send").get("status").asInt()).isEqualTo(200);
+        assertThat(responses.get("send").get("body").get("to").asText()).isEqualTo("ada");
+    }
+
+    @Test
+    void rejectsInvalidEntriesIndividually() throws Exception {
+        Map<String, JsonNode> responses = batch("""
+                {"requests":[
+                  {"path":"/api/batch"},
+                  {"path":"api/users/42"},
+                  {"path":"/api/users/42"}
+                ]}""");
+
+        assertThat(responses.get("0").get("status").asInt()).isEqualTo(400);
+        assertThat(responses.get("1").get("status").asInt()).isEqualTo(400);
+        assertThat(responses.get("2").get("status").asInt()).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsOversizedBatches() {
+        HttpStatus status = HttpStatus.resolve(WebClient.create("http://localhost:" + port).post()
+                .uri("/api/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"requests\":[{\"path\":\"/a\"},{\"path\":\"/b\"},{\"path\":\"/c\"},"
+                        + "{\"path\":\"/d\"},{\"path\":\"/e\"}]}")
+                .exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                .block(Duration.ofSeconds(10)));
+
+        assertThat(status).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private Map<String, JsonNode> batch(String body) throws IOException {
+        String response = WebClient.create("http://localhost:" + port).post()
+                .uri("/api/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+        Map<String, JsonNode> byId = new HashMap<>();
+        for (JsonNode element : objectMapper.readTree(response).get("responses")) {
+            byId.put(element.get("id").asText(), element);
+        }
+        return byId;
+    }
+
+    private static int closedPort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
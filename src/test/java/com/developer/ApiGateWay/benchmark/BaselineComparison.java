@@ -0,0 +1,136 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result against the committed baseline and exits with status 1
+ * when a benchmark got slower, or allocates more per operation, by more than the
+ * tolerance. Throughput scores must not drop; time scores, sample-time p99 and
+ * gc.alloc.rate.norm must not rise. Benchmarks missing from either file are listed
+ * but do not fail the comparison.
+ *
+ * <p>Usage: {@code BaselineComparison <baseline.json> <result.json> [tolerance]},
+ * tolerance as a fraction (default 0.10).
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Allocation changes below this many bytes per operation are noise, e.g. from JIT decisions
+    private static final double ALLOCATION_SLACK_BYTES = 32;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonNode> baseline = read(Path.of(args[0]));
+        Map<String, JsonNode> current = read(Path.of(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s new, no baseline%n", entry.getKey());
+                continue;
+            }
+            for (Metric metric : metrics(before, entry.getValue())) {
+                double change = metric.change();
+                boolean regressed = metric.regressed(tolerance);
+                System.out.printf("%-90s %-20s %14.3f -> %14.3f %-10s %+7.1f%%%s%n", entry.getKey(), metric.name,
+                        metric.before, metric.after, metric.unit, change * 100, regressed ? "  REGRESSION" : "");
+                if (regressed) {
+                    regressions.add(entry.getKey() + " " + metric.name);
+                }
+            }
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s not run%n", key));
+
+        if (!regressions.isEmpty()) {
+            System.out.printf("%n%d regression(s) beyond %.0f%%:%n", regressions.size(), tolerance * 100);
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.printf("%nNo regressions beyond %.0f%%%n", tolerance * 100);
+    }
+
+    private static List<Metric> metrics(JsonNode before, JsonNode after) {
+        boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+        JsonNode primaryBefore = before.path("primaryMetric");
+        JsonNode primaryAfter = after.path("primaryMetric");
+        String unit = primaryAfter.path("scoreUnit").asText();
+
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new Metric("score", unit, primaryBefore.path("score").asDouble(),
+                primaryAfter.path("score").asDouble(), higherIsBetter, 0));
+        if ("sample".equals(after.path("mode").asText())) {
+            metrics.add(new Metric("p99", unit, primaryBefore.path("scorePercentiles").path("99.0").asDouble(),
+                    primaryAfter.path("scorePercentiles").path("99.0").asDouble(), false, 0));
+        }
+        JsonNode allocationBefore = allocation(before);
+        JsonNode allocationAfter = allocation(after);
+        if (allocationBefore != null && allocationAfter != null) {
+            metrics.add(new Metric(ALLOCATION, "B/op", allocationBefore.path("score").asDouble(),
+                    allocationAfter.path("score").asDouble(), false, ALLOCATION_SLACK_BYTES));
+        }
+        return metrics;
+    }
+
+    // Older JMH versions prefix profiler metrics with a middle dot
+    private static JsonNode allocation(JsonNode result) {
+        JsonNode secondary = result.path("secondaryMetrics");
+        JsonNode metric = secondary.get(ALLOCATION);
+        return metric != null ? metric : secondary.get("·" + ALLOCATION);
+    }
+
+    /**
+     * Results keyed by benchmark, mode and parameters.
+     */
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String name = result.path("benchmark").asText().replace("com.developer.ApiGateWay.benchmark.", "");
+            results.put(name + " [" + result.path("mode").asText() + "]" + (params.isEmpty() ? "" : " " + params),
+                    result);
+        }
+        return results;
+    }
+
+    private record Metric(String name, String unit, double before, double after, boolean higherIsBetter,
+                          double slack) {
+
+        double change() {
+            return before == 0 ? 0 : (after - before) / before;
+        }
+
+        boolean regressed(double tolerance) {
+            if (Math.abs(after - before) <= slack) {
+                return false;
+            }
+            if (before == 0) {
+                return !higherIsBetter && after > 0;
+            }
+            return higherIsBetter ? change() < -tolerance : change() > tolerance;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.ApiGateWayApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole gateway while a backend is down: POSTs to {@code /api/notifications}
+ * (Java DSL route, not retried, no circuit breaker) against a port nothing
+ * listens on, so every request fails with a {@code ConnectException} and is
+ * answered by the exception handler. {@code healthy} is the same request against
+ * a live stub for reference; {@code refused} uses the configured trace interval,
+ * {@code refused-trace-every-error} logs a stack trace per failure, as the handler
+ * did before traces were rate-limited. Logging goes through Spring Boot's console
+ * layout into a discarding stream, so formatting costs are kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class ErrorStormBenchmark {
+
+    @Param({"healthy", "refused", "refused-trace-every-error"})
+    public String scenario;
+
+    private DisposableServer backend;
+    private ConfigurableApplicationContext gateway;
+    private ConnectionProvider connections;
+    private HttpClient client;
+    private Path accessLog;
+    private int expectedStatus;
+
+    @Setup
+    public void setUp() throws Exception {
+        backend = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> request.receive().then(response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just("{\"sent\":true}"))
+                        .then()))
+                .bindNow();
+        int backendPort = backend.port();
+        expectedStatus = 200;
+        if (!scenario.equals("healthy")) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                backendPort = socket.getLocalPort();
+            }
+            expectedStatus = 503;
+        }
+
+        accessLog = Files.createTempFile("access", ".log");
+        gateway = new SpringApplicationBuilder(ApiGateWayApplication.class)
+                .properties(
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "logging.level.root=WARN",
+                        "gateway.access-log.file=" + accessLog,
+                        "gateway.rate-limiter.mode=local",
+                        // Keep sending to the dead instance rather than tripping it out of rotation
+                        "gateway.load-balancer.mode=round-robin",
+                        "gateway.errors.trace-interval=" + (scenario.equals("refused-trace-every-error") ? "0s" : "10s"),
+                        "spring.cloud.discovery.client.simple.instances.notification-service[0].uri=http://localhost:"
+                                + backendPort)
+                .run();
+        DiscardingLogOutput.install();
+        int gatewayPort = ((ReactiveWebServerApplicationContext) gateway).getWebServer().getPort();
+
+        connections = ConnectionProvider.builder("benchmark").maxConnections(64).build();
+        client = HttpClient.create(connections).port(gatewayPort);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        gateway.close();
+        connections.disposeLater().block(Duration.ofSeconds(10));
+        backend.disposeNow();
+        Files.deleteIfExists(accessLog);
+    }
+
+    @Benchmark
+    public int notify42() {
+        Integer status = client.post()
+                .uri("/api/notifications/42")
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .block(Duration.ofSeconds(10));
+        if (status == null || status != expectedStatus) {
+            throw new IllegalStateException("Unexpected status " + status + " in scenario " + scenario);
+        }
+        return status;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ErrorStormBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
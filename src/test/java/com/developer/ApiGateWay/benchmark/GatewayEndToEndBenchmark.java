@@ -0,0 +1,130 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.ApiGateWayApplication;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole gateway, started as the application with its own configuration,
+ * in front of an in-process stub backend. Throughput gives requests per second
+ * and sample time the latency distribution (p50 to p99.99) as seen by a client
+ * over keep-alive connections; {@link #direct()} is the client and stub alone, so
+ * the difference is the gateway's share. Client, gateway and stub share the JVM,
+ * so gc.alloc.rate.norm is everything allocated per request on all three.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class GatewayEndToEndBenchmark {
+
+    private static final ByteBuf BODY = Unpooled.unreleasableBuffer(Unpooled.directBuffer()
+            .writeBytes("{\"id\":42,\"status\":\"SHIPPED\",\"items\":3}".getBytes(StandardCharsets.UTF_8)));
+
+    // order-service: YAML route with CircuitBreaker; notification-service: Java DSL route, StripPrefix only
+    @Param({"/api/orders/42", "/api/notifications/42"})
+    public String path;
+
+    private DisposableServer backend;
+    private ConfigurableApplicationContext gateway;
+    private ConnectionProvider connections;
+    private HttpClient viaGateway;
+    private HttpClient direct;
+    private Path accessLog;
+
+    @Setup
+    public void setUp() throws Exception {
+        backend = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .header("Content-Length", Integer.toString(BODY.readableBytes()))
+                        .send(Mono.just(BODY.retainedDuplicate())))
+                .bindNow();
+        String backendUri = "http://localhost:" + backend.port();
+
+        accessLog = Files.createTempFile("access", ".log");
+        gateway = new SpringApplicationBuilder(ApiGateWayApplication.class)
+                .properties(
+                        "server.port=0",
+                        "eureka.client.enabled=false",
+                        "logging.level.root=WARN",
+                        "gateway.access-log.file=" + accessLog,
+                        "spring.cloud.discovery.client.simple.instances.order-service[0].uri=" + backendUri,
+                        "spring.cloud.discovery.client.simple.instances.notification-service[0].uri=" + backendUri)
+                .run();
+        int gatewayPort = ((ReactiveWebServerApplicationContext) gateway).getWebServer().getPort();
+
+        connections = ConnectionProvider.builder("benchmark").maxConnections(64).build();
+        viaGateway = HttpClient.create(connections).port(gatewayPort);
+        direct = HttpClient.create(connections).port(backend.port());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        gateway.close();
+        connections.disposeLater().block(Duration.ofSeconds(10));
+        backend.disposeNow();
+        Files.deleteIfExists(accessLog);
+    }
+
+    @Benchmark
+    public int gateway() {
+        return request(viaGateway);
+    }
+
+    @Benchmark
+    public int direct() {
+        return request(direct);
+    }
+
+    private int request(HttpClient client) {
+        Integer status = client.get()
+                .uri(path)
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                .block(Duration.ofSeconds(10));
+        if (status == null || status != 200) {
+            throw new IllegalStateException("Unexpected status " + status + " for " + path);
+        }
+        return status;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GatewayEndToEndBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
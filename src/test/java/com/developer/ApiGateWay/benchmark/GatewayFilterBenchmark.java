@@ -0,0 +1,237 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.config.AccessLogProperties;
+import com.developer.ApiGateWay.config.JwtProperties;
+import com.developer.ApiGateWay.config.LatencyMetricsProperties;
+import com.developer.ApiGateWay.config.PathAccessProperties;
+import com.developer.ApiGateWay.config.RateLimitConfig;
+import com.developer.ApiGateWay.exception.ErrorBodies;
+import com.developer.ApiGateWay.exception.ErrorReporter;
+import com.developer.ApiGateWay.exception.GlobalExceptionHandler;
+import com.developer.ApiGateWay.filter.AuthenticationFilter;
+import com.developer.ApiGateWay.filter.LoggingFilter;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.logging.AccessLogWriter;
+import com.developer.ApiGateWay.offload.BlockingOffload;
+import com.developer.ApiGateWay.security.JwksKeyStore;
+import com.developer.ApiGateWay.security.JwtVerifier;
+import com.developer.ApiGateWay.security.PathAccessRules;
+import com.developer.ApiGateWay.time.TimestampWriter;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.i18n.LocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each gateway filter, key resolver and the exception handler in isolation, driven
+ * with mock requests and a chain that completes the response at once. Every
+ * operation builds its own exchange, sharing the codec, session and locale
+ * infrastructure a server would share ({@code MockServerWebExchange} creates codecs
+ * per exchange, which would dwarf the filters); {@link #mockExchange()} measures
+ * that alone so it can be subtracted from the other scores. Run with
+ * {@code -prof gc} (the benchmark profile does) for allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayFilterBenchmark {
+
+    private static final InetSocketAddress CLIENT = new InetSocketAddress("10.1.2.3", 52000);
+    private static final GatewayFilterChain COMPLETE = exchange -> exchange.getResponse().setComplete();
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final WebSessionManager SESSIONS = new DefaultWebSessionManager();
+    private static final LocaleContextResolver LOCALES = new AcceptHeaderLocaleContextResolver();
+
+    private Path accessLog;
+    private AccessLogWriter accessLogWriter;
+    private LoggingFilter loggingFilter;
+    private GatewayFilter authenticationFilter;
+    private KeyResolver userKeyResolver;
+    private KeyResolver apiKeyResolver;
+    private GlobalExceptionHandler exceptionHandler;
+    private String bearerToken;
+    private BlockingOffload offload;
+    private ConnectException connectException;
+    private ResponseStatusException statusException;
+
+    @Setup
+    public void setUp() throws Exception {
+        DiscardingLogOutput.install();
+        RouteLatencyRecorder latencyRecorder = new RouteLatencyRecorder(
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), new LatencyMetricsProperties());
+
+        accessLog = Files.createTempFile("access", ".log");
+        AccessLogProperties accessLogProperties = new AccessLogProperties();
+        accessLogProperties.setFile(accessLog.toString());
+        accessLogWriter = new AccessLogWriter(accessLogProperties);
+        accessLogWriter.start();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("accessLogWriter", accessLogWriter);
+        offload = new BlockingOffload(16, 1024, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        loggingFilter = new LoggingFilter(beans.getBeanProvider(AccessLogWriter.class), latencyRecorder, offload);
+
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench").algorithm(JWSAlgorithm.RS256).generate();
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setJwks(new JWKSet(key.toPublicJWK()).toString());
+        JwksKeyStore keyStore = new JwksKeyStore(jwtProperties);
+        keyStore.reload();
+        PathAccessProperties paths = new PathAccessProperties();
+        authenticationFilter = new AuthenticationFilter(new JwtVerifier(keyStore, jwtProperties),
+                new PathAccessRules(paths.getPublicPaths(), paths.getAuthenticatedPaths()), latencyRecorder)
+                .apply(new AuthenticationFilter.Config());
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(),
+                new JWTClaimsSet.Builder()
+                        .subject("user-42")
+                        .claim("role", "USER")
+                        .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        bearerToken = "Bearer " + jwt.serialize();
+
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        userKeyResolver = rateLimitConfig.userKeyResolver();
+        apiKeyResolver = rateLimitConfig.apiKeyResolver();
+
+        exceptionHandler = new GlobalExceptionHandler(
+                new ErrorReporter(new SimpleMeterRegistry(), Duration.ofSeconds(10), 1000),
+                new ErrorBodies(256), new TimestampWriter(Clock.systemDefaultZone()));
+        connectException = new ConnectException("Connection refused: order-service/10.0.0.7:8080");
+        statusException = new ResponseStatusException(HttpStatus.NOT_FOUND, "No route");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        accessLogWriter.stop();
+        offload.dispose();
+        Files.deleteIfExists(accessLog);
+    }
+
+    @Benchmark
+    public ServerWebExchange mockExchange() {
+        return get("/api/orders/42");
+    }
+
+    @Benchmark
+    public ServerWebExchange loggingFilter() {
+        ServerWebExchange exchange = get("/api/orders/42");
+        loggingFilter.filter(exchange, COMPLETE).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange authenticationPublicPath() {
+        ServerWebExchange exchange = get("/api/auth/login");
+        authenticationFilter.filter(exchange, COMPLETE).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange authenticationValidToken() {
+        ServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/admin/users")
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .remoteAddress(CLIENT));
+        authenticationFilter.filter(exchange, COMPLETE).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange authenticationMissingToken() {
+        ServerWebExchange exchange = get("/api/admin/users");
+        authenticationFilter.filter(exchange, COMPLETE).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public String userKeyResolverByUserId() {
+        return userKeyResolver.resolve(exchange(MockServerHttpRequest.get("/api/orders/42")
+                .header("X-User-Id", "user-42")
+                .remoteAddress(CLIENT))).block();
+    }
+
+    @Benchmark
+    public String userKeyResolverByAddress() {
+        return userKeyResolver.resolve(get("/api/orders/42")).block();
+    }
+
+    @Benchmark
+    public String apiKeyResolverByPath() {
+        return apiKeyResolver.resolve(get("/api/orders/42")).block();
+    }
+
+    @Benchmark
+    public ServerWebExchange exceptionHandlerConnectFailure() {
+        ServerWebExchange exchange = get("/api/orders/42");
+        exceptionHandler.handle(exchange, connectException).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange exceptionHandlerResponseStatus() {
+        ServerWebExchange exchange = get("/api/unknown");
+        exceptionHandler.handle(exchange, statusException).block();
+        return exchange;
+    }
+
+    private static ServerWebExchange get(String path) {
+        return exchange(MockServerHttpRequest.get(path).remoteAddress(CLIENT));
+    }
+
+    private static ServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return new DefaultServerWebExchange(request.build(), new MockServerHttpResponse(), SESSIONS, CODECS, LOCALES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GatewayFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
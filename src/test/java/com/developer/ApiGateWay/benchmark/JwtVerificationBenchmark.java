@@ -0,0 +1,83 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.config.JwtProperties;
+import com.developer.ApiGateWay.security.JwksKeyStore;
+import com.developer.ApiGateWay.security.JwtVerifier;
+import com.developer.ApiGateWay.security.VerifiedToken;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold verification (parse + RS256 signature check on every call) versus the
+ * cached path taken by AuthenticationFilter for a token it has already seen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench").algorithm(JWSAlgorithm.RS256).generate();
+
+        JwtProperties properties = new JwtProperties();
+        properties.setJwks(new JWKSet(key.toPublicJWK()).toString());
+        JwksKeyStore keyStore = new JwksKeyStore(properties);
+        keyStore.reload();
+        verifier = new JwtVerifier(keyStore, properties);
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user-42")
+                .claim("role", "USER")
+                .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+        verifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken coldVerification() {
+        return verifier.verifyUncached(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerification() {
+        return verifier.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.config.LocalRateLimitProperties;
+import com.developer.ApiGateWay.ratelimit.LocalRateLimiter;
+import com.developer.ApiGateWay.ratelimit.RedisRateReconciler;
+import com.developer.ApiGateWay.ratelimit.TokenBucketMap;
+import com.developer.ApiGateWay.support.StandInRedisTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the three rate-limiter modes. Redis is replaced by
+ * {@link StandInRedisTemplate} with a simulated round trip, so the redis numbers are
+ * a lower bound for a real network hop while local and hybrid do not depend on it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    @Param({"0", "200"})
+    public int redisLatencyMicros;
+
+    private String[] keys;
+    private LocalRateLimiter local;
+    private LocalRateLimiter hybrid;
+    private RedisRateReconciler reconciler;
+    private RedisRateLimiter redis;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user-" + i;
+        }
+        StandInRedisTemplate template = new StandInRedisTemplate(Duration.ofNanos(redisLatencyMicros * 1_000L));
+
+        // High limits so the benchmark measures the decision path, not rejections
+        local = new LocalRateLimiter(new TokenBucketMap(64, 60_000, false), 1_000_000, 1_000_000);
+
+        TokenBucketMap hybridBuckets = new TokenBucketMap(64, 60_000, true);
+        hybrid = new LocalRateLimiter(hybridBuckets, 1_000_000, 1_000_000);
+        template.register(RedisRateReconciler.SCRIPT, template::rateLimiterReconcile);
+        reconciler = new RedisRateReconciler(template, hybridBuckets, new LocalRateLimitProperties.Hybrid());
+        reconciler.start();
+
+        RedisScript<List<Long>> script = (RedisScript) RedisScript.of(
+                new ClassPathResource("META-INF/scripts/request_rate_limiter.lua"), List.class);
+        template.register(script, template::requestRateLimiter);
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton(RedisRateLimiter.REDIS_SCRIPT_NAME, script);
+        redis = new RedisRateLimiter(template, script, null);
+        redis.getConfig().put("route", new RedisRateLimiter.Config()
+                .setReplenishRate(1_000_000).setBurstCapacity(1_000_000).setRequestedTokens(1));
+        redis.setApplicationContext(context);
+    }
+
+    @TearDown
+    public void tearDown() {
+        reconciler.stop();
+    }
+
+    @Benchmark
+    public RateLimiter.Response local() {
+        return local.isAllowed("route", nextKey()).block();
+    }
+
+    @Benchmark
+    public RateLimiter.Response hybrid() {
+        return hybrid.isAllowed("route", nextKey()).block();
+    }
+
+    @Benchmark
+    public RateLimiter.Response redis() {
+        return redis.isAllowed("route", nextKey()).block();
+    }
+
+    private String nextKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.routing.IndexedRoutePredicateHandlerMapping;
+import com.developer.ApiGateWay.routing.PathPrefixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route lookup as the gateway performs it (evaluate predicates in order, take the
+ * first match) over every route versus over the candidates from the compiled
+ * prefix index. The requested path belongs to the route in the middle of the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int routeCount;
+
+    private List<Route> routes;
+    private Map<String, RouteDefinition> definitions;
+    private PathPrefixIndex<Route> index;
+    private ServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        PathRoutePredicateFactory factory = new PathRoutePredicateFactory();
+        routes = new ArrayList<>(routeCount);
+        definitions = new HashMap<>();
+        for (int i = 0; i < routeCount; i++) {
+            definitions.put("service-" + i, new RouteDefinition("service-" + i + "=lb://service-" + i
+                    + ",Path=/api/service-" + i + "/**"));
+            routes.add(Route.async()
+                    .id("service-" + i)
+                    .uri("lb://service-" + i)
+                    .asyncPredicate(factory.applyAsync(new PathRoutePredicateFactory.Config()
+                            .setPatterns(List.of("/api/service-" + i + "/**"))))
+                    .build());
+        }
+        index = IndexedRoutePredicateHandlerMapping.compile(routes, definitions);
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/service-" + routeCount / 2 + "/items/7"));
+    }
+
+    @Benchmark
+    public Route linearScan() {
+        return firstMatch(routes);
+    }
+
+    @Benchmark
+    public Route indexedLookup() {
+        return firstMatch(index.candidates(exchange.getRequest().getPath().pathWithinApplication()));
+    }
+
+    @Benchmark
+    public PathPrefixIndex<Route> compileIndex() {
+        return IndexedRoutePredicateHandlerMapping.compile(routes, definitions);
+    }
+
+    private Route firstMatch(List<Route> candidates) {
+        return Flux.fromIterable(candidates)
+                .filterWhen(route -> route.getPredicate().apply(exchange))
+                .next()
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.routing.RouteStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of applying a new route set to a {@link RouteStore} as the table grows:
+ * every route changed (what a full rebuild pays on each reload), one route
+ * changed, and nothing changed (the diff alone). Each invocation alternates
+ * between two versions so every call really applies its change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteReloadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routeCount;
+
+    private RouteStore store;
+    private List<RouteDefinition> base;
+    private List<RouteDefinition> allChanged;
+    private List<RouteDefinition> oneChanged;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        // Each applied change is logged
+        DiscardingLogOutput.install();
+        store = new RouteStore(List.of(new PathRoutePredicateFactory()),
+                List.of(new StripPrefixGatewayFilterFactory(), new AddRequestHeaderGatewayFilterFactory()),
+                new GatewayProperties(),
+                new ConfigurationService(new StaticListableBeanFactory(),
+                        DefaultConversionService::getSharedInstance, () -> null),
+                event -> {
+                }, new SimpleMeterRegistry());
+        base = new ArrayList<>(routeCount);
+        allChanged = new ArrayList<>(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            base.add(route(i, "v1"));
+            allChanged.add(route(i, "v2"));
+        }
+        oneChanged = new ArrayList<>(base);
+        oneChanged.set(routeCount / 2, route(routeCount / 2, "v2"));
+        store.apply(base);
+    }
+
+    @Benchmark
+    public RouteStore.Result reloadAllRoutes() {
+        flip = !flip;
+        return store.apply(flip ? allChanged : base);
+    }
+
+    @Benchmark
+    public RouteStore.Result reloadOneRoute() {
+        flip = !flip;
+        return store.apply(flip ? oneChanged : base);
+    }
+
+    @Benchmark
+    public RouteStore.Result reloadUnchanged() {
+        return store.apply(base);
+    }
+
+    private static RouteDefinition route(int i, String version) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId("service-" + i);
+        definition.setUri(URI.create("lb://service-" + i));
+        definition.setPredicates(List.of(new PredicateDefinition("Path=/api/service-" + i + "/**")));
+        definition.setFilters(List.of(new FilterDefinition("StripPrefix=2"),
+                new FilterDefinition("AddRequestHeader=X-Route-Version," + version)));
+        return definition;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteReloadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
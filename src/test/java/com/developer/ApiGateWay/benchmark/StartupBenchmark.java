@@ -0,0 +1,162 @@
+package com.developer.ApiGateWay.benchmark;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup of a gateway build, started as a separate process the given number of
+ * times in front of an in-process stub backend. For each run it reports the
+ * process time Spring Boot logs with "Started" (JVM or native startup included),
+ * the wall time from launch until the first request through a route
+ * ({@code /api/orders}, YAML route with CircuitBreaker and the default filters)
+ * succeeds, and how long that first, cold request took. Eureka registration and
+ * fetching are switched off; the route resolves through the simple discovery client.
+ *
+ * <p>Usage: {@code StartupBenchmark <runs> <command...>}, e.g.
+ * {@code StartupBenchmark 5 java -jar target/ApiGateWay-0.0.1-SNAPSHOT.jar} or
+ * {@code StartupBenchmark 5 target/api-gateway}.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\S+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final Duration RUN_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    private record Run(double startedSeconds, long firstResponseMillis, long firstRequestMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <runs> <command...>");
+            System.exit(2);
+        }
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = Arrays.asList(args).subList(1, args.length);
+
+        DisposableServer backend = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just("{\"id\":42,\"status\":\"SHIPPED\"}")))
+                .bindNow();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Path logs = Files.createTempDirectory("startup-benchmark");
+        List<Run> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs; i++) {
+                Run run = run(command, backend.port(), client, logs);
+                results.add(run);
+                System.out.printf("run %d: started in %.3f s (process), first response after %d ms, "
+                        + "first request took %d ms%n", i + 1, run.startedSeconds(), run.firstResponseMillis(),
+                        run.firstRequestMillis());
+            }
+        } finally {
+            backend.disposeNow();
+        }
+        System.out.printf("%s%n  started (process):   %s s%n  first response:      %s ms%n  first request:       %s ms%n",
+                String.join(" ", command),
+                summary(results.stream().mapToDouble(Run::startedSeconds).toArray(), "%.3f"),
+                summary(results.stream().mapToDouble(Run::firstResponseMillis).toArray(), "%.0f"),
+                summary(results.stream().mapToDouble(Run::firstRequestMillis).toArray(), "%.0f"));
+    }
+
+    private static Run run(List<String> command, int backendPort, HttpClient client, Path logs) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> arguments = new ArrayList<>(command);
+        arguments.addAll(List.of(
+                "--server.port=" + port,
+                "--eureka.client.register-with-eureka=false",
+                "--eureka.client.fetch-registry=false",
+                "--spring.cloud.discovery.client.simple.instances.order-service[0].uri=http://localhost:" + backendPort,
+                "--logging.file.name=" + logs.resolve("api-gateway.log"),
+                "--gateway.access-log.file=" + logs.resolve("access.log")));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/42"))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> readOutput(process, started));
+        try {
+            long deadline = start + RUN_TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Gateway exited with status " + process.exitValue());
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Gateway did not answer within " + RUN_TIMEOUT);
+                }
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long now = System.nanoTime();
+                        double startedSeconds = started.get(RUN_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+                        return new Run(startedSeconds, (now - start) / 1_000_000, (now - sent) / 1_000_000);
+                    }
+                    throw new IllegalStateException("Gateway answered " + response.statusCode());
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // Reads the output to the end, so the process never blocks on a full pipe
+    private static void readOutput(Process process, CompletableFuture<Double> started) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find()) {
+                    started.complete(Double.parseDouble(matcher.group(2)));
+                }
+            }
+        } catch (IOException e) {
+            // process ended
+        }
+        started.complete(Double.NaN);
+    }
+
+    private static String summary(double[] values, String format) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return String.format("median " + format + ", min " + format + ", max " + format,
+                sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1]);
+    }
+}
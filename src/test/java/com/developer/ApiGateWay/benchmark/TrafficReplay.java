@@ -0,0 +1,406 @@
+package com.developer.ApiGateWay.benchmark;
+
+import com.developer.ApiGateWay.ApiGateWayApplication;
+import com.developer.ApiGateWay.capture.CapturedRequest;
+import com.developer.ApiGateWay.capture.PathTemplates;
+import com.developer.ApiGateWay.capture.TrafficCaptureReader;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpMethod;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Replays a traffic capture ({@code gateway.capture}) through the whole gateway,
+ * started in this JVM in front of one in-process stub backend per captured route.
+ * Requests keep their captured inter-arrival times divided by the speed, route,
+ * method, path (templates filled with random ids), client (as {@code X-User-Id}),
+ * header and body sizes; the stubs answer with the captured status and response
+ * size after a delay drawn from the route's latency distribution. Statuses the
+ * gateway produces itself (401, 403, 429, 503, 504) are answered with 200 by the
+ * stubs, so the gateway decides them again.
+ *
+ * <p>Each request is sent at its scheduled time whether or not earlier ones have
+ * completed, and its latency counts from that time, so a stalled gateway shows up
+ * in the percentiles rather than slowing the load down. Per speed it reports
+ * throughput against the scheduled rate, latency percentiles overall and per
+ * route, statuses, and heap allocated per request by the whole process (gateway,
+ * stubs and load generator together; compare runs with each other, not with JMH's
+ * per-operation figures). An unreported warm-up pass of up to 20 s at the first
+ * speed comes first. A capture sampled at rate r is replayed at its original load
+ * at speed 1/r.
+ *
+ * <p>Usage: {@code TrafficReplay <capture-file> <speed[,speed...]> [route=distribution...] [--property=value...]},
+ * e.g. {@code TrafficReplay logs/traffic.capture 100,200 default=lognormal:20ms:0.6 order-service=fixed:50ms}.
+ * Distributions are {@code fixed:<d>}, {@code uniform:<min>:<max>}, {@code exponential:<mean>} and
+ * {@code lognormal:<median>:<sigma>}; {@code default} applies to routes not named (initially
+ * {@code fixed:1ms}). {@code --} arguments are passed to the gateway as properties.
+ */
+public final class TrafficReplay {
+
+    private static final String STATUS_HEADER = "X-Replay-Status";
+    private static final String RESPONSE_BYTES_HEADER = "X-Replay-Response-Bytes";
+    private static final String PADDING_HEADER = "X-Replay-Padding";
+    private static final Set<Integer> GATEWAY_STATUSES = Set.of(401, 403, 429, 503, 504);
+    // Host, Accept, User-Agent and Content-Length, as the client sends them
+    private static final int CLIENT_HEADER_BYTES = 80;
+    private static final int MAX_BODY = 8 * 1024 * 1024;
+    private static final byte[] PAYLOAD = new byte[MAX_BODY];
+    private static final int MAX_IN_FLIGHT = 4096;
+    private static final Duration WARMUP = Duration.ofSeconds(20);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    static {
+        Arrays.fill(PAYLOAD, (byte) 'x');
+    }
+
+    private TrafficReplay() {
+    }
+
+    /**
+     * Upstream latency of a stub backend.
+     */
+    interface LatencyDistribution {
+
+        long nanos(RandomGenerator random);
+
+        static LatencyDistribution parse(String spec) {
+            String[] parts = spec.split(":");
+            switch (parts[0]) {
+                case "fixed" -> {
+                    long fixed = nanos(parts, 1);
+                    return random -> fixed;
+                }
+                case "uniform" -> {
+                    long min = nanos(parts, 1);
+                    long max = nanos(parts, 2);
+                    return random -> min + (long) (random.nextDouble() * (max - min));
+                }
+                case "exponential" -> {
+                    long mean = nanos(parts, 1);
+                    return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+                }
+                case "lognormal" -> {
+                    long median = nanos(parts, 1);
+                    double sigma = Double.parseDouble(parts[2]);
+                    return random -> (long) (median * Math.exp(sigma * random.nextGaussian()));
+                }
+                default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+            }
+        }
+
+        private static long nanos(String[] parts, int index) {
+            return DurationStyle.detectAndParse(parts[index]).toNanos();
+        }
+    }
+
+    private record CaptureSummary(long requests, long durationNanos, double sampleRate, Set<String> routes) {
+    }
+
+    /**
+     * Results of one pass, filled in from the client's event loops.
+     */
+    private static final class Pass {
+
+        final Histogram latency = histogram();
+        final Map<String, Histogram> routes = new ConcurrentHashMap<>();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong lastCompletion = new AtomicLong();
+        long sent;
+        long maxLagNanos;
+
+        void completed(String route, long scheduled, int status) {
+            long now = System.nanoTime();
+            long micros = Math.min((now - scheduled) / 1_000, HIGHEST_MICROS);
+            latency.recordValue(micros);
+            routes.computeIfAbsent(route, key -> histogram()).recordValue(micros);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            lastCompletion.accumulateAndGet(now, Math::max);
+            inFlight.decrementAndGet();
+        }
+
+        void failed() {
+            errors.increment();
+            lastCompletion.accumulateAndGet(System.nanoTime(), Math::max);
+            inFlight.decrementAndGet();
+        }
+
+        private static Histogram histogram() {
+            return new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: TrafficReplay <capture-file> <speed[,speed...]> "
+                    + "[route=distribution...] [--property=value...]");
+            System.exit(2);
+        }
+        Path capture = Path.of(args[0]);
+        double[] speeds = Arrays.stream(args[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+        Map<String, LatencyDistribution> latencies = new HashMap<>();
+        latencies.put("default", LatencyDistribution.parse("fixed:1ms"));
+        List<String> gatewayArgs = new ArrayList<>();
+        for (String arg : Arrays.asList(args).subList(2, args.length)) {
+            if (arg.startsWith("--")) {
+                gatewayArgs.add(arg);
+            } else {
+                int equals = arg.indexOf('=');
+                latencies.put(arg.substring(0, equals), LatencyDistribution.parse(arg.substring(equals + 1)));
+            }
+        }
+
+        CaptureSummary summary = summarize(capture);
+        System.out.printf("%s: %d requests over %.1f s, sample rate %s (speed %.0f replays the full load)%n",
+                capture, summary.requests(), summary.durationNanos() / 1e9, summary.sampleRate(),
+                1 / summary.sampleRate());
+        if (summary.requests() == 0) {
+            return;
+        }
+
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "eureka.client.enabled=false",
+                "logging.level.root=WARN",
+                "gateway.capture.enabled=false",
+                "gateway.rate-limiter.mode=local"));
+        Path logs = Files.createTempDirectory("traffic-replay");
+        properties.add("logging.file.name=" + logs.resolve("api-gateway.log"));
+        properties.add("gateway.access-log.file=" + logs.resolve("access.log"));
+        List<DisposableServer> stubs = new ArrayList<>();
+        for (String route : summary.routes()) {
+            LatencyDistribution latency = latencies.getOrDefault(route, latencies.get("default"));
+            DisposableServer stub = stub(latency);
+            stubs.add(stub);
+            properties.add("spring.cloud.discovery.client.simple.instances." + route + "[0].uri=http://localhost:"
+                    + stub.port());
+        }
+
+        ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ApiGateWayApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run(gatewayArgs.toArray(String[]::new));
+        int port = ((ReactiveWebServerApplicationContext) gateway).getWebServer().getPort();
+        ConnectionProvider connections = ConnectionProvider.builder("replay")
+                .maxConnections(MAX_IN_FLIGHT)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient client = HttpClient.create(connections).port(port);
+        try {
+            replay(capture, speeds[0], client, WARMUP);
+            for (double speed : speeds) {
+                long allocatedBefore = allocatedBytes();
+                long[] gcBefore = gc();
+                Pass pass = replay(capture, speed, client, null);
+                long allocated = allocatedBytes() - allocatedBefore;
+                long[] gcAfter = gc();
+                report(speed, summary, pass, allocated, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+            }
+        } finally {
+            gateway.close();
+            connections.disposeLater().block(Duration.ofSeconds(10));
+            stubs.forEach(DisposableServer::disposeNow);
+        }
+    }
+
+    private static CaptureSummary summarize(Path capture) throws Exception {
+        try (TrafficCaptureReader reader = new TrafficCaptureReader(capture)) {
+            long requests = 0;
+            long first = 0;
+            long last = 0;
+            Set<String> routes = new TreeSet<>();
+            CapturedRequest request;
+            while ((request = reader.next()) != null) {
+                if (requests++ == 0) {
+                    first = request.arrivalNanos();
+                }
+                last = request.arrivalNanos();
+                if (!request.routeId().equals(RouteLatencyRecorder.UNMATCHED_ROUTE)) {
+                    routes.add(request.routeId());
+                }
+            }
+            double sampleRate = reader.segments().isEmpty() ? 1 : reader.segments().get(0).sampleRate();
+            return new CaptureSummary(requests, last - first, sampleRate, routes);
+        }
+    }
+
+    private static DisposableServer stub(LatencyDistribution latency) {
+        return HttpServer.create()
+                .port(0)
+                .handle((request, response) -> {
+                    int status = intHeader(request.requestHeaders().get(STATUS_HEADER), 200);
+                    int bytes = Math.min(intHeader(request.requestHeaders().get(RESPONSE_BYTES_HEADER), 0), MAX_BODY);
+                    long delay = Math.max(0, latency.nanos(ThreadLocalRandom.current()));
+                    Mono<Long> wait = delay > 0 ? Mono.delay(Duration.ofNanos(delay)) : Mono.just(0L);
+                    return request.receive().then(wait).then(response
+                            .status(status)
+                            .header("Content-Type", "application/octet-stream")
+                            .send(Mono.just(payload(bytes)))
+                            .then());
+                })
+                .bindNow();
+    }
+
+    // A null duration replays the whole capture
+    private static Pass replay(Path capture, double speed, HttpClient client, Duration duration) throws Exception {
+        Pass pass = new Pass();
+        RandomGenerator random = new SplittableRandom(42);
+        try (TrafficCaptureReader reader = new TrafficCaptureReader(capture)) {
+            long start = System.nanoTime();
+            long end = duration != null ? start + duration.toNanos() : Long.MAX_VALUE;
+            long firstArrival = -1;
+            CapturedRequest request;
+            while ((request = reader.next()) != null) {
+                if (firstArrival < 0) {
+                    firstArrival = request.arrivalNanos();
+                }
+                long scheduled = start + (long) ((request.arrivalNanos() - firstArrival) / speed);
+                if (scheduled - end > 0) {
+                    break;
+                }
+                waitUntil(scheduled);
+                while (pass.inFlight.get() >= MAX_IN_FLIGHT) {
+                    LockSupport.parkNanos(100_000);
+                }
+                pass.maxLagNanos = Math.max(pass.maxLagNanos, System.nanoTime() - scheduled);
+                pass.inFlight.incrementAndGet();
+                pass.sent++;
+                send(client, request, random, scheduled, pass);
+            }
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (pass.inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            pass.lastCompletion.accumulateAndGet(start, Math::max);
+            pass.lastCompletion.addAndGet(-start);
+        }
+        return pass;
+    }
+
+    private static void send(HttpClient client, CapturedRequest request, RandomGenerator random, long scheduled,
+                             Pass pass) {
+        int status = GATEWAY_STATUSES.contains(request.status()) ? 200 : Math.max(request.status(), 200);
+        String statusValue = Integer.toString(status);
+        String responseBytes = Long.toString(request.responseBodyBytes());
+        String userId = request.client() > 0 ? "replay-client-" + request.client() : null;
+        int headerBytes = STATUS_HEADER.length() + statusValue.length() + RESPONSE_BYTES_HEADER.length()
+                + responseBytes.length() + 8 + CLIENT_HEADER_BYTES
+                + (userId != null ? "X-User-Id".length() + userId.length() + 4 : 0);
+        int padding = request.requestHeaderBytes() - headerBytes - PADDING_HEADER.length() - 4;
+        int bodyBytes = (int) Math.min(request.requestBodyBytes(), MAX_BODY);
+        client.headers(headers -> {
+                    headers.set(STATUS_HEADER, statusValue);
+                    headers.set(RESPONSE_BYTES_HEADER, responseBytes);
+                    if (userId != null) {
+                        headers.set("X-User-Id", userId);
+                    }
+                    if (padding > 0) {
+                        headers.set(PADDING_HEADER, "x".repeat(padding));
+                    }
+                })
+                .request(HttpMethod.valueOf(request.method()))
+                .uri(PathTemplates.expand(request.pathTemplate(), random))
+                .send(bodyBytes > 0 ? Mono.just(payload(bodyBytes)) : Mono.empty())
+                .response((response, body) -> body.then(Mono.just(response.status().code())))
+                .next()
+                .subscribe(code -> pass.completed(request.routeId(), scheduled, code), error -> pass.failed());
+    }
+
+    // Parks for longer waits; only the last stretch, below the park granularity, spins
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > 100_000) {
+                LockSupport.parkNanos(remaining - 50_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static void report(double speed, CaptureSummary summary, Pass pass, long allocatedBytes,
+                               long collections, long collectionMillis) {
+        double elapsedSeconds = pass.lastCompletion.get() / 1e9;
+        double targetRate = summary.durationNanos() > 0 ? pass.sent / (summary.durationNanos() / 1e9 / speed) : 0;
+        System.out.printf("%nspeed %sx: %d requests in %.1f s, %.1f req/s (scheduled %.1f req/s), "
+                        + "max dispatch lag %.2f ms%n", format(speed), pass.sent, elapsedSeconds,
+                pass.latency.getTotalCount() / Math.max(elapsedSeconds, 1e-9), targetRate, pass.maxLagNanos / 1e6);
+        System.out.printf("  %-22s %8s %8s %8s %8s %8s %8s%n", "latency ms", "count", "p50", "p90", "p99", "p99.9",
+                "max");
+        row("all", pass.latency);
+        new TreeMap<>(pass.routes).forEach(TrafficReplay::row);
+        Map<Integer, Long> statuses = new TreeMap<>();
+        pass.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+        System.out.printf("  statuses %s, errors %d%n", statuses, pass.errors.sum());
+        System.out.printf("  allocated %.1f KB/request (whole process), %d GCs taking %d ms%n",
+                allocatedBytes / 1024.0 / Math.max(pass.sent, 1), collections, collectionMillis);
+    }
+
+    private static void row(String name, Histogram histogram) {
+        System.out.printf("  %-22s %8d %8.2f %8.2f %8.2f %8.2f %8.2f%n", name, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+    }
+
+    private static String format(double speed) {
+        return speed == Math.rint(speed) ? Long.toString((long) speed) : Double.toString(speed);
+    }
+
+    private static ByteBuf payload(int bytes) {
+        return Unpooled.wrappedBuffer(PAYLOAD, 0, bytes);
+    }
+
+    private static int intHeader(String value, int defaultValue) {
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    private static long[] gc() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+}
@@ -0,0 +1,67 @@
+package com.developer.ApiGateWay.cache;
+
+import com.developer.ApiGateWay.config.ResponseCacheProperties;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheStoreTest {
+
+    private final ResponseCacheStore store = new ResponseCacheStore(new ResponseCacheProperties());
+    private final NettyDataBufferFactory factory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    @Test
+    void evictedEntryServesNoBodyAndReleasesItsBuffer() {
+        NettyDataBuffer body = body("[{\"id\":1}]");
+        CachedResponse cached = store.put("k", 200, new HttpHeaders(), body, null, 60, 0, 0);
+
+        store.invalidateAll();
+
+        assertThat(cached.bodyFor(factory)).isNull();
+        assertThat(body.getNativeBuffer().refCnt()).isZero();
+        assertThat(cached.bodySize()).isEqualTo(10);
+    }
+
+    @Test
+    void bodyTakenBeforeEvictionStaysReadable() {
+        NettyDataBuffer body = body("[{\"id\":1}]");
+        CachedResponse cached = store.put("k", 200, new HttpHeaders(), body, null, 60, 0, 0);
+        DataBuffer served = cached.bodyFor(factory);
+
+        store.invalidateAll();
+
+        assertThat(served.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1}]");
+        DataBufferUtils.release(served);
+        assertThat(body.getNativeBuffer().refCnt()).isZero();
+    }
+
+    @Test
+    void refreshedEntryKeepsTheSharedBodyAfterThePreviousIsReplaced() {
+        NettyDataBuffer body = body("[{\"id\":1}]");
+        CachedResponse previous = store.put("k", 200, new HttpHeaders(), body, null, 60, 0, 0);
+
+        CachedResponse refreshed = store.refresh("k", previous, new HttpHeaders(), 60, 0);
+
+        assertThat(previous.bodyFor(factory)).isNull();
+        DataBuffer served = refreshed.bodyFor(factory);
+        assertThat(served.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1}]");
+        DataBufferUtils.release(served);
+        store.invalidateAll();
+        assertThat(body.getNativeBuffer().refCnt()).isZero();
+        assertThat(store.refresh("k", refreshed, new HttpHeaders(), 60, 0)).isNull();
+    }
+
+    private NettyDataBuffer body(String json) {
+        NettyDataBuffer buffer = store.allocate(json.length());
+        buffer.write(json, StandardCharsets.UTF_8);
+        return buffer;
+    }
+}
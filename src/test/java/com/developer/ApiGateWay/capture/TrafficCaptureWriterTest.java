@@ -0,0 +1,170 @@
+package com.developer.ApiGateWay.capture;
+
+import com.developer.ApiGateWay.config.CaptureProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficCaptureWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsRequestsWithTemplatesAndInterArrivalTimes() throws Exception {
+        CaptureProperties properties = properties(1024);
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(properties);
+        writer.start();
+        long start = System.nanoTime();
+
+        writer.record(start + 1_000_000, 2_500_000, "user-service", HttpMethod.GET, "/api/users/42",
+                "alice", 120, 0, 80, 512, 200);
+        writer.record(start + 3_000_000, 900_000, "order-service", HttpMethod.POST, "/api/orders",
+                "bob", 300, 1024, 60, 0, 201);
+        writer.record(start + 2_500_000, 4_000_000, "user-service", HttpMethod.GET,
+                "/api/users/7/files/0f8fad5b-d9cb-469f-a165-70867728950e", "alice", 120, 0, 80, 2048, 404);
+        writer.record(start + 4_000_000, 1_000, "unmatched", HttpMethod.GET, "/favicon.ico", null, 10, 0, 0, 0, 404);
+        writer.stop();
+
+        List<CapturedRequest> requests = TrafficCaptureReader.readAll(properties.getFile());
+        assertThat(requests).hasSize(4);
+        assertThat(requests.get(0)).isEqualTo(new CapturedRequest(requests.get(0).arrivalNanos(),
+                "user-service", "GET", "/api/users/{n}", 1, 120, 0, 80, 512, 200, 2_500_000));
+        assertThat(requests.get(1)).isEqualTo(new CapturedRequest(requests.get(0).arrivalNanos() + 2_000_000,
+                "order-service", "POST", "/api/orders", 2, 300, 1024, 60, 0, 201, 900_000));
+        assertThat(requests.get(2).arrivalNanos()).isEqualTo(requests.get(0).arrivalNanos() + 1_500_000);
+        assertThat(requests.get(2).pathTemplate()).isEqualTo("/api/users/{n}/files/{uuid}");
+        assertThat(requests.get(2).client()).isEqualTo(1);
+        assertThat(requests.get(3).client()).isZero();
+        assertThat(requests.get(3).routeId()).isEqualTo("unmatched");
+        assertThat(writer.written()).isEqualTo(4);
+    }
+
+    @Test
+    void repeatedStringsAreWrittenOnce() throws Exception {
+        CaptureProperties properties = properties(4096);
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(properties);
+        writer.start();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 1000; i++) {
+            writer.record(start + i * 1_000_000L, 1_000_000, "product-service", HttpMethod.GET,
+                    "/api/products/" + i, "client-" + (i % 10), 200, 0, 150, 4096, 200);
+        }
+        writer.stop();
+
+        assertThat(TrafficCaptureReader.readAll(properties.getFile())).hasSize(1000)
+                .allSatisfy(request -> assertThat(request.pathTemplate()).isEqualTo("/api/products/{n}"));
+        // About 20 bytes a request once route, method and template are in the dictionary
+        assertThat(Files.size(properties.getFile())).isLessThan(1000 * 24);
+    }
+
+    @Test
+    void runsAppendedToOneFileReplayBackToBack() throws Exception {
+        CaptureProperties properties = properties(16);
+        for (int run = 0; run < 2; run++) {
+            TrafficCaptureWriter writer = new TrafficCaptureWriter(properties);
+            writer.start();
+            writer.record(System.nanoTime(), 1_000, "user-service", HttpMethod.GET, "/api/users", "alice",
+                    10, 0, 10, 10, 200);
+            writer.stop();
+        }
+
+        try (TrafficCaptureReader reader = new TrafficCaptureReader(properties.getFile())) {
+            CapturedRequest first = reader.next();
+            CapturedRequest second = reader.next();
+            assertThat(reader.next()).isNull();
+            assertThat(second.arrivalNanos()).isGreaterThanOrEqualTo(first.arrivalNanos());
+            assertThat(reader.segments()).hasSize(2)
+                    .allSatisfy(segment -> {
+                        assertThat(segment.sampleRate()).isEqualTo(0.5);
+                        assertThat(segment.continuation()).isFalse();
+                    });
+        }
+    }
+
+    @Test
+    void stopsAtAnEntryCutShort() throws Exception {
+        CaptureProperties properties = properties(16);
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(properties);
+        writer.start();
+        for (int i = 0; i < 3; i++) {
+            writer.record(System.nanoTime(), 1_000, "user-service", HttpMethod.GET, "/api/users", "alice",
+                    10, 0, 10, 10, 200);
+        }
+        writer.stop();
+
+        try (FileChannel channel = FileChannel.open(properties.getFile(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        assertThat(TrafficCaptureReader.readAll(properties.getFile())).hasSize(2);
+    }
+
+    @Test
+    void stopsCapturingAtMaxFileSize() throws Exception {
+        CaptureProperties properties = properties(16384);
+        properties.setMaxFileSize(DataSize.ofKilobytes(16));
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(properties);
+        writer.start();
+
+        for (int i = 0; i < 2000; i++) {
+            writer.record(System.nanoTime(), 1_000, "user-service", HttpMethod.GET, "/api/users/" + i + "/x" + i,
+                    "client-" + i, 10, 0, 10, 10, 200);
+        }
+        writer.stop();
+
+        assertThat(writer.accepting()).isFalse();
+        assertThat(writer.written()).isPositive().isLessThan(2000);
+        assertThat(writer.written() + writer.dropped()).isEqualTo(2000);
+        assertThat(Files.size(properties.getFile())).isLessThanOrEqualTo(DataSize.ofKilobytes(16).toBytes());
+        assertThat(TrafficCaptureReader.readAll(properties.getFile())).hasSize((int) writer.written());
+    }
+
+    @Test
+    void dropsAndCountsRequestsWhenRingIsFull() {
+        // Not started, so nothing drains the ring
+        TrafficCaptureWriter writer = new TrafficCaptureWriter(properties(4));
+
+        for (int i = 0; i < 10; i++) {
+            writer.record(i, 0, "user-service", HttpMethod.GET, "/", null, 0, 0, 0, 0, 200);
+        }
+
+        assertThat(writer.dropped()).isEqualTo(6);
+    }
+
+    @Test
+    void templatesIdentifiersInPaths() {
+        assertThat(PathTemplates.template("/api/users/42")).isEqualTo("/api/users/{n}");
+        assertThat(PathTemplates.template("/api/orders/9b2d4c1e-0000-4a5b-8c7d-1234567890ab/items/3"))
+                .isEqualTo("/api/orders/{uuid}/items/{n}");
+        assertThat(PathTemplates.template("/api/files/5f1e3c9a7b2d4e6f8a0b/download"))
+                .isEqualTo("/api/files/{id}/download");
+        assertThat(PathTemplates.template("/api/products/")).isEqualTo("/api/products/");
+        assertThat(PathTemplates.template("/api/v2/health")).isEqualTo("/api/v2/health");
+        assertThat(PathTemplates.template("/")).isEqualTo("/");
+
+        String path = PathTemplates.expand("/api/orders/{uuid}/items/{n}", new SplittableRandom(1));
+        assertThat(path).matches("/api/orders/[0-9a-f-]{36}/items/[0-9]+");
+        assertThat(PathTemplates.template(path)).isEqualTo("/api/orders/{uuid}/items/{n}");
+    }
+
+    private CaptureProperties properties(int capacity) {
+        CaptureProperties properties = new CaptureProperties();
+        properties.setEnabled(true);
+        properties.setFile(tempDir.resolve("traffic.capture"));
+        properties.setSampleRate(0.5);
+        properties.setBufferCapacity(capacity);
+        return properties;
+    }
+}
@@ -0,0 +1,110 @@
+package com.developer.ApiGateWay.concurrency;
+
+import com.developer.ApiGateWay.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_NANOS = Duration.ofMillis(100).toNanos();
+    private static final long MILLI = 1_000_000;
+
+    // Starts one window ahead, so the first simulated window is already due
+    private long now = System.nanoTime() + WINDOW_NANOS;
+
+    @Test
+    void limitGrowsWhileLatencyIsFlatAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(50));
+
+        runWindows(limiter, 30, 10 * MILLI);
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(50);
+
+        runWindows(limiter, 30, 40 * MILLI);
+        assertThat(limiter.limit()).isLessThan(grown / 2);
+    }
+
+    @Test
+    void limitIsKeptWhileRouteIsMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(50));
+
+        for (int window = 0; window < 30; window++) {
+            now += WINDOW_NANOS;
+            for (int i = 0; i < 10; i++) {
+                assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+                limiter.release(10 * MILLI, false, now);
+            }
+        }
+
+        assertThat(limiter.limit()).isEqualTo(50);
+    }
+
+    @Test
+    void upstreamErrorsBackOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(100));
+
+        now += WINDOW_NANOS;
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+            limiter.release(10 * MILLI, i == 0, now);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(90);
+    }
+
+    @Test
+    void lowerPrioritiesAreShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(10));
+
+        int bulk = 0;
+        while (limiter.tryAcquire(Priority.BULK)) {
+            bulk++;
+        }
+        int normal = 0;
+        while (limiter.tryAcquire(Priority.NORMAL)) {
+            normal++;
+        }
+        int critical = 0;
+        while (limiter.tryAcquire(Priority.CRITICAL)) {
+            critical++;
+        }
+
+        assertThat(bulk).isEqualTo(7);
+        assertThat(normal).isEqualTo(2);
+        assertThat(critical).isEqualTo(1);
+        assertThat(limiter.inFlight()).isEqualTo(10);
+
+        limiter.release();
+        assertThat(limiter.tryAcquire(Priority.BULK)).isFalse();
+        assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+    }
+
+    /**
+     * Runs saturated windows: every window fills the whole limit, then completes all
+     * requests with the given latency.
+     */
+    private void runWindows(AdaptiveConcurrencyLimiter limiter, int windows, long latencyNanos) {
+        for (int window = 0; window < windows; window++) {
+            now += WINDOW_NANOS;
+            int acquired = 0;
+            while (limiter.tryAcquire(Priority.CRITICAL)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(latencyNanos, false, now);
+            }
+        }
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(1);
+        properties.setWindow(Duration.ofMillis(100));
+        properties.setMinWindowSamples(5);
+        return properties;
+    }
+}
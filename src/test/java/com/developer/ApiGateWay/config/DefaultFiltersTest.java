@@ -0,0 +1,136 @@
+package com.developer.ApiGateWay.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The gateway settings in application.yml are bound from
+ * spring.cloud.gateway.server.webflux: the YAML routes carry the rate limiter from
+ * the default filters, which rejects requests beyond a client's burst, and the
+ * global CORS configuration is in place. Responses served by ResponseCacheFilter
+ * still count against the limit.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local"
+})
+class DefaultFiltersTest {
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/{id}", (request, response) -> response
+                    .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+                    .sendString(Mono.just("{}"))))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GatewayProperties gatewayProperties;
+
+    @Autowired
+    private GlobalCorsProperties globalCorsProperties;
+
+    @Autowired
+    private RouteLocator routeLocator;
+
+    @DynamicPropertySource
+    static void orderService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.product-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void bindsDefaultFiltersAndCors() {
+        assertThat(gatewayProperties.getDefaultFilters()).extracting(FilterDefinition::getName)
+                .containsExactly("RequestRateLimiter");
+        assertThat(globalCorsProperties.getCorsConfigurations()).containsKey("/**");
+    }
+
+    @Test
+    void yamlRoutesCarryTheRateLimiter() {
+        List<Route> routes = routeLocator.getRoutes()
+                .filter(route -> List.of("user-service", "product-service", "order-service").contains(route.getId()))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(routes).hasSize(3).allSatisfy(route -> assertThat(route.getFilters())
+                .anySatisfy(filter -> assertThat(filter.toString()).contains("RequestRateLimiter")));
+    }
+
+    @Test
+    void rejectsRequestsBeyondTheBurst() {
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            statuses.add(status("/api/orders/" + i, "burst"));
+        }
+
+        assertThat(statuses.subList(0, 20)).containsOnly(200);
+        assertThat(statuses).contains(429);
+    }
+
+    @Test
+    void cacheHitsAreRateLimited() {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        assertThat(cacheStatus(client).block(Duration.ofSeconds(10))).isEqualTo("MISS");
+
+        // Sent together, and more than the burst plus what a second refills
+        List<String> cacheStatuses = Flux.range(0, 40)
+                .flatMap(i -> cacheStatus(client))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(cacheStatuses).contains("HIT", "429");
+    }
+
+    // The X-Cache header of a product read, or the status when there is none
+    private static Mono<String> cacheStatus(WebClient client) {
+        return client.get()
+                .uri("/api/products/1")
+                .header("X-User-Id", "cached")
+                .exchangeToMono(response -> response.releaseBody().thenReturn(Optional.ofNullable(
+                        response.headers().asHttpHeaders().getFirst("X-Cache"))
+                        .orElse(Integer.toString(response.statusCode().value()))));
+    }
+
+    private int status(String path, String userId) {
+        return WebClient.create("http://localhost:" + port)
+                .method(HttpMethod.GET)
+                .uri(path)
+                .header("X-User-Id", userId)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,51 @@
+package com.developer.ApiGateWay.config;
+
+import com.developer.ApiGateWay.filter.AuthenticationFilter;
+import com.developer.ApiGateWay.filter.HedgingFilter;
+import com.developer.ApiGateWay.filter.RequestCoalescingFilter;
+import com.developer.ApiGateWay.filter.ResponseCacheFilter;
+import com.developer.ApiGateWay.filter.ResponseCompressionFilter;
+import com.developer.ApiGateWay.filter.StreamingPassThroughFilter;
+import com.developer.ApiGateWay.ratelimit.BatchedRedisRateLimiter;
+import com.developer.ApiGateWay.ratelimit.LocalRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void findsEveryConfigurableFactory() {
+        assertThat(GatewayRuntimeHints.configurableTypes(getClass().getClassLoader())).contains(
+                AuthenticationFilter.class, HedgingFilter.class, RequestCoalescingFilter.class,
+                ResponseCacheFilter.class, ResponseCompressionFilter.class, StreamingPassThroughFilter.class,
+                LocalRateLimiter.class, BatchedRedisRateLimiter.class);
+    }
+
+    @Test
+    void registersConfigTypesForBinding() throws NoSuchMethodException {
+        new GatewayRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(ResponseCompressionFilter.Config.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(HedgingFilter.Config.class.getMethod("setPercentile", double.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(LocalRateLimiter.Config.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RedisRateLimiter.Config.class)).accepts(hints);
+    }
+
+    @Test
+    void registersRedisScripts() {
+        new GatewayRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.resource().forResource("scripts/request_rate_limiter_batch.lua"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("scripts/rate_limiter_reconcile.lua"))
+                .accepts(hints);
+    }
+}
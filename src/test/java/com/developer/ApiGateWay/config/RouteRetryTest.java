@@ -0,0 +1,95 @@
+package com.developer.ApiGateWay.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Retry filter on the YAML routes: GETs are retried on a 5xx or a dropped
+ * connection while other methods are not, and it runs inside the circuit
+ * breaker, so a GET that still fails gets the fallback instead of an error.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local"
+})
+class RouteRetryTest {
+
+    private static final AtomicInteger calls = new AtomicInteger();
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    // Fails the first two calls of every three with 503
+                    .route(request -> request.uri().startsWith("/flaky"), (request, response) ->
+                            request.receive().then(calls.incrementAndGet() % 3 != 0
+                                    ? response.status(503).send()
+                                    : response.sendString(Mono.just("{}")).then()))
+                    // Closes the connection without answering
+                    .route(request -> request.uri().startsWith("/dropped"), (request, response) -> {
+                        calls.incrementAndGet();
+                        return response.withConnection(connection -> connection.channel().close())
+                                .then(Mono.never());
+                    }))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void orderService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @BeforeEach
+    void resetCalls() {
+        calls.set(0);
+    }
+
+    @Test
+    void retriesGetsOnServerErrors() {
+        assertThat(status(HttpMethod.GET, "/api/orders/flaky")).isEqualTo(200);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryPosts() {
+        assertThat(status(HttpMethod.POST, "/api/orders/flaky")).isEqualTo(503);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void fallsBackOnceRetriesAreExhausted() {
+        assertThat(status(HttpMethod.GET, "/api/orders/dropped")).isEqualTo(503);
+        assertThat(calls).hasValue(4);
+    }
+
+    private int status(HttpMethod method, String path) {
+        return WebClient.create("http://localhost:" + port)
+                .method(method)
+                .uri(path)
+                .header("X-User-Id", "retry-" + method.name())
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block(Duration.ofSeconds(10));
+    }
+}
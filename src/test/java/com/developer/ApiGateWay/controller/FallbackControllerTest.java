@@ -0,0 +1,99 @@
+package com.developer.ApiGateWay.controller;
+
+import com.developer.ApiGateWay.cache.ResponseCacheStore;
+import com.developer.ApiGateWay.config.FallbackProperties;
+import com.developer.ApiGateWay.config.ResponseCacheProperties;
+import com.developer.ApiGateWay.fallback.FallbackResponses;
+import com.developer.ApiGateWay.filter.ResponseCacheFilter;
+import com.developer.ApiGateWay.time.TimestampWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FallbackControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TimestampWriter clock = new TimestampWriter(
+            Clock.fixed(Instant.parse("2026-03-01T09:15:42.007Z"), ZoneOffset.UTC));
+    private final ResponseCacheStore store = new ResponseCacheStore(new ResponseCacheProperties());
+    private final FallbackResponses responses = new FallbackResponses(properties(), objectMapper);
+    private final FallbackController controller = new FallbackController(responses, clock, store);
+
+    @AfterEach
+    void releaseEntries() {
+        store.invalidateAll();
+    }
+
+    @Test
+    void servesPreSerializedBodyWithCurrentTimestamp() throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/fallback/users"));
+
+        controller.fallback("users", exchange).block();
+
+        String body = exchange.getResponse().getBodyAsString().block();
+        JsonNode json = objectMapper.readTree(body);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getContentLength())
+                .isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(json.get("service").asText()).isEqualTo("user-service");
+        assertThat(json.get("message").asText()).isEqualTo("User \"service\" is down");
+        assertThat(json.get("status").asText()).isEqualTo("fallback");
+        assertThat(json.get("timestamp").asText()).isEqualTo("2026-03-01T09:15:42.007");
+    }
+
+    @Test
+    void unconfiguredNameGetsDefaultBody() throws Exception {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/fallback/payments"));
+
+        controller.fallback("payments", exchange).block();
+
+        JsonNode json = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertThat(json.get("service").asText()).isEqualTo("unknown");
+    }
+
+    @Test
+    void servesLastKnownGoodResponseForGets() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        NettyDataBuffer cachedBody = store.allocate(16);
+        cachedBody.write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+        // Past freshness and stale window, still inside the last-known-good retention
+        store.put("user-service /api/users/1", 200, headers, cachedBody, null, 0, 0, 600);
+
+        MockServerWebExchange get = MockServerWebExchange.from(MockServerHttpRequest.get("/fallback/users"));
+        get.getAttributes().put(ResponseCacheFilter.CACHE_KEY_ATTR, "user-service /api/users/1");
+        controller.fallback("users", get).block();
+
+        assertThat(get.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("LAST-KNOWN-GOOD");
+        assertThat(get.getResponse().getBodyAsString().block()).isEqualTo("[{\"id\":1}]");
+
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/fallback/users"));
+        post.getAttributes().put(ResponseCacheFilter.CACHE_KEY_ATTR, "user-service /api/users/1");
+        controller.fallback("users", post).block();
+
+        assertThat(post.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static FallbackProperties properties() {
+        FallbackProperties properties = new FallbackProperties();
+        FallbackProperties.Body users = new FallbackProperties.Body("user-service", "User \"service\" is down",
+                "Try again later");
+        users.setLastKnownGood(true);
+        properties.getBodies().put("users", users);
+        return properties;
+    }
+}
@@ -0,0 +1,174 @@
+package com.developer.ApiGateWay.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.developer.ApiGateWay.time.TimestampWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final ErrorReporter reporter = new ErrorReporter(registry, Duration.ofSeconds(10), 3, nanoTime::get);
+    private final ErrorBodies bodies = new ErrorBodies(2);
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(reporter, bodies,
+            new TimestampWriter(Clock.fixed(Instant.parse("2026-03-01T09:15:42.007Z"), ZoneOffset.UTC)));
+    private final Logger reporterLogger = (Logger) LoggerFactory.getLogger(ErrorReporter.class);
+    private final ListAppender<ILoggingEvent> logs = new ListAppender<>();
+
+    @BeforeEach
+    void captureLogs() {
+        logs.start();
+        reporterLogger.addAppender(logs);
+    }
+
+    @AfterEach
+    void releaseLogs() {
+        reporterLogger.detachAppender(logs);
+    }
+
+    @Test
+    void writesPreEncodedBodyWithRequestFields() throws Exception {
+        MockServerWebExchange exchange = exchange("/api/orders/42", "req-1");
+
+        handler.handle(exchange, new ConnectException("Connection refused")).block();
+
+        String body = exchange.getResponse().getBodyAsString().block();
+        JsonNode json = objectMapper.readTree(body);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getContentLength())
+                .isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(json.get("error").asText()).isEqualTo("Service temporarily unavailable");
+        assertThat(json.get("status").asInt()).isEqualTo(503);
+        assertThat(json.get("timestamp").asText()).isEqualTo("2026-03-01T09:15:42.007");
+        assertThat(json.get("path").asText()).isEqualTo("/api/orders/42");
+        assertThat(json.get("requestId").asText()).isEqualTo("req-1");
+    }
+
+    @Test
+    void missingRequestIdIsNull() throws Exception {
+        MockServerWebExchange exchange = exchange("/api/orders/42", null);
+
+        handler.handle(exchange, new IllegalStateException("boom")).block();
+
+        JsonNode json = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(json.get("requestId").isNull()).isTrue();
+    }
+
+    @Test
+    void escapesReasonsAndRequestIds() throws Exception {
+        MockServerWebExchange exchange = exchange("/api/café", "\"id\"\\é");
+
+        handler.handle(exchange, new ResponseStatusException(HttpStatus.NOT_FOUND, "No \"route\"\n")).block();
+
+        String body = exchange.getResponse().getBodyAsString().block();
+        JsonNode json = objectMapper.readTree(body);
+        assertThat(exchange.getResponse().getHeaders().getContentLength())
+                .isEqualTo(body.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(json.get("error").asText()).isEqualTo("No \"route\"\n");
+        assertThat(json.get("path").asText()).isEqualTo("/api/caf%C3%A9");
+        assertThat(json.get("requestId").asText()).isEqualTo("\"id\"\\é");
+    }
+
+    @Test
+    void bodiesAreCachedUpToTheLimit() {
+        for (String reason : new String[] {"a", "b", "c", "a"}) {
+            handler.handle(exchange("/api/orders/1", null), new ResponseStatusException(HttpStatus.BAD_REQUEST, reason))
+                    .block();
+        }
+
+        assertThat(bodies.size()).isEqualTo(2);
+        assertThat(bodies.get(HttpStatus.BAD_REQUEST, "a")).isSameAs(bodies.get(HttpStatus.BAD_REQUEST, "a"));
+    }
+
+    @Test
+    void logsOneTracePerIntervalWithSuppressedCount() {
+        for (int i = 0; i < 5; i++) {
+            handler.handle(routed("order-service"), new ConnectException("Connection refused")).block();
+        }
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        handler.handle(routed("order-service"), new ConnectException("Connection refused")).block();
+
+        assertThat(logs.list).hasSize(2);
+        assertThat(logs.list.get(0).getLevel()).isEqualTo(Level.ERROR);
+        assertThat(logs.list.get(0).getThrowableProxy()).isNotNull();
+        assertThat(logs.list.get(1).getFormattedMessage()).contains("4 similar suppressed");
+        assertThat(registry.get(ErrorReporter.METER_NAME)
+                .tags("route", "order-service", "exception", "ConnectException", "status", "503")
+                .counter().count()).isEqualTo(6);
+        assertThat(registry.get(ErrorReporter.METER_NAME + ".suppressed").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void tracesAreLimitedPerRouteAndExceptionType() {
+        handler.handle(routed("order-service"), new ConnectException("Connection refused")).block();
+        handler.handle(routed("user-service"), new ConnectException("Connection refused")).block();
+        handler.handle(routed("order-service"), new IllegalStateException("boom")).block();
+        handler.handle(routed("order-service"), new ConnectException("Connection refused")).block();
+
+        assertThat(logs.list).hasSize(3);
+    }
+
+    @Test
+    void clientErrorsAreCountedWithoutTraces() {
+        handler.handle(exchange("/api/unknown", null), new ResponseStatusException(HttpStatus.NOT_FOUND)).block();
+
+        assertThat(logs.list).noneMatch(event -> event.getLevel() == Level.ERROR);
+        assertThat(registry.get(ErrorReporter.METER_NAME).tags("route", "unmatched", "status", "404")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exceptionTypesPastTheLimitShareOneCounter() {
+        handler.handle(routed("order-service"), new ConnectException("refused")).block();
+        handler.handle(routed("order-service"), new IllegalStateException("a")).block();
+        handler.handle(routed("order-service"), new IllegalArgumentException("b")).block();
+        handler.handle(routed("order-service"), new UnsupportedOperationException("c")).block();
+        handler.handle(routed("order-service"), new ArithmeticException("d")).block();
+
+        assertThat(registry.get(ErrorReporter.METER_NAME)
+                .tags("route", "order-service", "exception", ErrorReporter.OTHER_EXCEPTION).counter().count())
+                .isEqualTo(2);
+    }
+
+    private static MockServerWebExchange exchange(String path, String requestId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (requestId != null) {
+            request.header("X-Request-ID", requestId);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static MockServerWebExchange routed(String routeId) {
+        MockServerWebExchange exchange = exchange("/api/orders/42", null);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id(routeId).uri("http://localhost").predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,93 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shedsBulkReadsWithRetryAfterWhileLoginStillPasses() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(1);
+        AdaptiveConcurrencyFilter filter = new AdaptiveConcurrencyFilter(properties, meterRegistry);
+
+        // Requests that stay in flight until the test ends
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        GatewayFilterChain hanging = exchange -> upstream.asMono();
+        for (int i = 0; i < 7; i++) {
+            filter.filter(exchange(MockServerHttpRequest.get("/api/products/" + i)), hanging).subscribe();
+        }
+
+        MockServerWebExchange shed = exchange(MockServerHttpRequest.get("/api/products/8"));
+        filter.filter(shed, hanging).block();
+        assertThat(shed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(shed.getResponse().getBodyAsString().block()).contains("overloaded");
+
+        MockServerWebExchange login = exchange(MockServerHttpRequest.post("/api/auth/login"));
+        filter.filter(login, exchange -> Mono.empty()).block();
+        assertThat(login.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(meterRegistry.get("gateway.concurrency.rejected").tag("priority", "bulk").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.concurrency.in.flight").tag("route", "product-service").gauge().value())
+                .isEqualTo(7);
+
+        upstream.tryEmitEmpty();
+        assertThat(filter.limiter("product-service").inFlight()).isZero();
+    }
+
+    @Test
+    void countsOnlyUpstream503And504AsDrops() {
+        MockServerWebExchange upstream = exchange(MockServerHttpRequest.get("/api/products/1"));
+        ServerWebExchangeUtils.setAlreadyRouted(upstream);
+        upstream.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(AdaptiveConcurrencyFilter.upstreamDropped(upstream, SignalType.ON_COMPLETE)).isTrue();
+
+        MockServerWebExchange failed = exchange(MockServerHttpRequest.get("/api/products/1"));
+        ServerWebExchangeUtils.setAlreadyRouted(failed);
+        assertThat(AdaptiveConcurrencyFilter.upstreamDropped(failed, SignalType.ON_ERROR)).isTrue();
+
+        // The circuit breaker reset the routed mark and forwarded to its fallback
+        MockServerWebExchange fallback = exchange(MockServerHttpRequest.get("/api/products/1"));
+        fallback.getAttributes().put(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR,
+                new IllegalStateException("open"));
+        fallback.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(AdaptiveConcurrencyFilter.upstreamDropped(fallback, SignalType.ON_COMPLETE)).isFalse();
+
+        // Answered by the gateway before any upstream call, e.g. no instance available
+        MockServerWebExchange local = exchange(MockServerHttpRequest.get("/api/products/1"));
+        local.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(AdaptiveConcurrencyFilter.upstreamDropped(local, SignalType.ON_COMPLETE)).isFalse();
+        assertThat(AdaptiveConcurrencyFilter.upstreamDropped(local, SignalType.ON_ERROR)).isFalse();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async()
+                .id("product-service")
+                .uri(URI.create("lb://product-service"))
+                .predicate(e -> true)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,159 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.loadbalancer.LatencyAwareLoadBalancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hedgeToAnotherInstanceWinsOverSlowPrimary() {
+        GatewayFilter filter = filter(Duration.ofMillis(20), 1.0);
+        FakeUpstream upstream = new FakeUpstream(Duration.ofSeconds(2), Duration.ofMillis(5));
+
+        MockServerWebExchange exchange = get();
+        long start = System.nanoTime();
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(upstream.attempts).hasValue(2);
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Attempt")).isEqualTo("2");
+        assertThat(exchange.getAttributes()).containsEntry("attempt", 2);
+        assertThat(upstream.cancelled).containsKey(1);
+        assertThat(upstream.excluded.get(2)).isEqualTo(upstream.instance(1));
+        assertThat(count("sent")).isEqualTo(1);
+        assertThat(count("won")).isEqualTo(1);
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        GatewayFilter filter = filter(Duration.ofMillis(200), 1.0);
+        FakeUpstream upstream = new FakeUpstream(Duration.ofMillis(5), Duration.ofMillis(5));
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        assertThat(upstream.attempts).hasValue(1);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Attempt")).isEqualTo("1");
+    }
+
+    @Test
+    void doesNotHedgeNonIdempotentRequests() {
+        GatewayFilter filter = filter(Duration.ofMillis(5), 1.0);
+        FakeUpstream upstream = new FakeUpstream(Duration.ofMillis(100), Duration.ofMillis(5));
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/users/1"));
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        assertThat(upstream.attempts).hasValue(1);
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Attempt")).isEqualTo("1");
+    }
+
+    @Test
+    void budgetCapsHedgesAsShareOfTraffic() {
+        GatewayFilter filter = filter(Duration.ofMillis(5), 0.1);
+        FakeUpstream upstream = new FakeUpstream(Duration.ofMillis(30), Duration.ofMillis(30));
+
+        for (int i = 0; i < 30; i++) {
+            filter.filter(get(), upstream).block(Duration.ofSeconds(5));
+        }
+
+        // 30 requests at 10% leave room for three hedges
+        assertThat(count("sent")).isEqualTo(3);
+        assertThat(count("budget_exhausted")).isEqualTo(27);
+        assertThat(upstream.attempts).hasValue(33);
+    }
+
+    @Test
+    void primaryFailureBeforeHedgeIsPropagated() {
+        GatewayFilter filter = filter(Duration.ofMillis(50), 1.0);
+        GatewayFilterChain failing = exchange -> Mono.error(new IOException("connection refused"));
+
+        assertThatThrownBy(() -> filter.filter(get(), failing).block(Duration.ofSeconds(5)))
+                .hasRootCauseInstanceOf(IOException.class);
+        assertThat(count("sent")).isZero();
+    }
+
+    private GatewayFilter filter(Duration delay, double budget) {
+        HedgingFilter.Config config = new HedgingFilter.Config();
+        config.setDelay(delay);
+        config.setBudget(budget);
+        config.setBudgetBurst(1);
+        return new HedgingFilter(meterRegistry).apply(config);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.find("gateway.hedge.requests").tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/1"));
+    }
+
+    /**
+     * Chain standing in for load balancing and routing: attempt n answers after the
+     * n-th configured delay from its own instance.
+     */
+    private static final class FakeUpstream implements GatewayFilterChain {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        final Map<Integer, Boolean> cancelled = new ConcurrentHashMap<>();
+        final Map<Integer, Object> excluded = new ConcurrentHashMap<>();
+        private final List<Duration> delays;
+
+        FakeUpstream(Duration... delays) {
+            this.delays = List.of(delays);
+        }
+
+        ServiceInstance instance(int attempt) {
+            return new DefaultServiceInstance("user-service-" + attempt, "user-service", "10.0.0." + attempt, 8080, false);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            int attempt = attempts.incrementAndGet();
+            Object exclusion = exchange.getAttributes().get(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR);
+            if (exclusion != null) {
+                excluded.put(attempt, exclusion);
+            }
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                    new DefaultResponse(instance(attempt)));
+            Duration delay = delays.get(Math.min(attempt - 1, delays.size() - 1));
+            return Mono.delay(delay)
+                    .doOnCancel(() -> cancelled.put(attempt, true))
+                    .doOnNext(t -> {
+                        exchange.getResponse().setStatusCode(HttpStatus.OK);
+                        exchange.getResponse().getHeaders().set("X-Attempt", String.valueOf(attempt));
+                        exchange.getAttributes().put("attempt", attempt);
+                    })
+                    .then();
+        }
+    }
+}
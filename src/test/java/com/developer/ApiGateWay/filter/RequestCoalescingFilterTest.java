@@ -0,0 +1,174 @@
+package com.developer.ApiGateWay.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescingFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescingFilter factory = new RequestCoalescingFilter(registry);
+    private final CoalescingCaptureFilter capture = new CoalescingCaptureFilter(factory);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> gate = Sinks.empty();
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() {
+        GatewayFilterChain chain = chain(filter(Duration.ofSeconds(5)), upstream(response -> { }));
+
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        List<Mono<Void>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange exchange = exchange("user-1");
+            exchanges.add(exchange);
+            requests.add(capture.filter(exchange, chain));
+        }
+        Mono<Void> all = Flux.merge(requests).then();
+        gate.tryEmitEmpty();
+        all.block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        for (MockServerWebExchange exchange : exchanges) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[{\"id\":1}]");
+        }
+        assertThat(exchanges.get(0).getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER)).isNull();
+        assertThat(exchanges.subList(1, 5)).allSatisfy(exchange -> assertThat(
+                exchange.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER)).isEqualTo("true"));
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("shared")).isEqualTo(4);
+
+        // Nothing is kept once the call completed: the next request goes upstream
+        capture.filter(exchange("user-1"), chain).block(Duration.ofSeconds(5));
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void requestsWithDifferentKeyHeadersAreNotMerged() {
+        GatewayFilterChain chain = chain(filter(Duration.ofSeconds(5)), upstream(response -> { }));
+
+        Mono<Void> first = capture.filter(exchange("user-1"), chain);
+        Mono<Void> second = capture.filter(exchange("user-2"), chain);
+        Mono<Void> both = Flux.merge(first, second).then();
+        gate.tryEmitEmpty();
+        both.block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(count("leader")).isEqualTo(2);
+    }
+
+    @Test
+    void responsesSettingCookiesAreNotShared() {
+        GatewayFilterChain chain = chain(filter(Duration.ofSeconds(5)),
+                upstream(response -> response.addCookie(ResponseCookie.from("session", "abc").build())));
+
+        MockServerWebExchange leader = exchange("user-1");
+        MockServerWebExchange follower = exchange("user-1");
+        Mono<Void> both = Flux.merge(capture.filter(leader, chain), capture.filter(follower, chain)).then();
+        gate.tryEmitEmpty();
+        both.block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER)).isNull();
+        assertThat(count("not_shared")).isEqualTo(1);
+    }
+
+    @Test
+    void leaderErrorReachesFollowers() {
+        GatewayFilterChain chain = chain(filter(Duration.ofSeconds(5)), exchange -> {
+            upstreamCalls.incrementAndGet();
+            return gate.asMono().then(Mono.error(new IllegalStateException("upstream down")));
+        });
+
+        Mono<Void> leader = capture.filter(exchange("user-1"), chain);
+        Mono<Void> follower = capture.filter(exchange("user-1"), chain);
+        gate.tryEmitEmpty();
+
+        assertThatThrownBy(() -> leader.block(Duration.ofSeconds(5))).hasMessage("upstream down");
+        assertThatThrownBy(() -> follower.block(Duration.ofSeconds(5))).hasMessage("upstream down");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void followerStopsWaitingAfterMaxWait() {
+        GatewayFilter filter = filter(Duration.ofMillis(50));
+        GatewayFilterChain slowThenFast = exchange -> upstreamCalls.incrementAndGet() == 1
+                ? gate.asMono().then(Mono.defer(() -> write(exchange.getResponse())))
+                : write(exchange.getResponse());
+        GatewayFilterChain chain = chain(filter, slowThenFast);
+
+        Mono<Void> leader = capture.filter(exchange("user-1"), chain);
+        MockServerWebExchange follower = exchange("user-1");
+        capture.filter(follower, chain).block(Duration.ofSeconds(5));
+
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("[{\"id\":1}]");
+        assertThat(count("timeout")).isEqualTo(1);
+        gate.tryEmitEmpty();
+        leader.block(Duration.ofSeconds(5));
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private GatewayFilter filter(Duration maxWait) {
+        RequestCoalescingFilter.Config config = new RequestCoalescingFilter.Config();
+        config.setRouteId("product-service");
+        config.setKeyHeaders(List.of(HttpHeaders.AUTHORIZATION));
+        config.setMaxWait(maxWait);
+        return factory.apply(config);
+    }
+
+    // The capture filter runs first, as it does ahead of the route's filters
+    private static GatewayFilterChain chain(GatewayFilter filter, GatewayFilterChain upstream) {
+        return exchange -> filter.filter(exchange, upstream);
+    }
+
+    private GatewayFilterChain upstream(Consumer<ServerHttpResponse> customizer) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return gate.asMono().then(Mono.defer(() -> {
+                customizer.accept(exchange.getResponse());
+                return write(exchange.getResponse());
+            }));
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response) {
+        byte[] bytes = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private double count(String outcome) {
+        return registry.get("gateway.coalescing.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static MockServerWebExchange exchange(String user) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + user));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("product-service").uri("lb://product-service").predicate(e -> true).build());
+        return exchange;
+    }
+}
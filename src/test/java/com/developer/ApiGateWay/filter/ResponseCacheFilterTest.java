@@ -0,0 +1,220 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.cache.ResponseCacheStore;
+import com.developer.ApiGateWay.config.ResponseCacheProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private ResponseCacheStore store;
+
+    @AfterEach
+    void releaseEntries() {
+        if (store != null) {
+            store.invalidateAll();
+        }
+    }
+
+    @Test
+    void servesSecondRequestFromCache() {
+        GatewayFilter filter = filter();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GatewayFilterChain chain = upstream(upstreamCalls, "public, max-age=60", "\"v1\"", "[{\"id\":1}]", 0);
+
+        MockServerWebExchange first = exchange(HttpHeaders.EMPTY);
+        filter.filter(first, chain).block();
+        MockServerWebExchange second = exchange(HttpHeaders.EMPTY);
+        filter.filter(second, chain).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[{\"id\":1}]");
+    }
+
+    @Test
+    void doesNotStoreNoStoreResponses() {
+        GatewayFilter filter = filter();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GatewayFilterChain chain = upstream(upstreamCalls, "no-store", null, "secret", 0);
+
+        filter.filter(exchange(HttpHeaders.EMPTY), chain).block();
+        filter.filter(exchange(HttpHeaders.EMPTY), chain).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() {
+        GatewayFilter filter = filter();
+        GatewayFilterChain chain = upstream(new AtomicInteger(), "max-age=60", "\"v1\"", "body", 0);
+        filter.filter(exchange(HttpHeaders.EMPTY), chain).block();
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch("\"v1\"");
+        MockServerWebExchange exchange = exchange(conditional);
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEmpty();
+    }
+
+    @Test
+    void matchesWeakIfNoneMatchFromCompressedResponses() {
+        GatewayFilter filter = filter();
+        GatewayFilterChain chain = upstream(new AtomicInteger(), "max-age=60", "\"v1\"", "body", 0);
+        filter.filter(exchange(HttpHeaders.EMPTY), chain).block();
+
+        // ResponseCompressionFilter weakens the ETag of the bodies it compresses
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch("W/\"v1\"");
+        MockServerWebExchange exchange = exchange(conditional);
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void collapsesConcurrentMisses() {
+        GatewayFilter filter = filter();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GatewayFilterChain chain = upstream(upstreamCalls, "max-age=60", null, "slow", 200);
+
+        MockServerWebExchange leader = exchange(HttpHeaders.EMPTY);
+        MockServerWebExchange follower = exchange(HttpHeaders.EMPTY);
+        Mono.when(filter.filter(leader, chain), filter.filter(follower, chain)).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("COLLAPSED");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("slow");
+    }
+
+    @Test
+    void revalidatesStaleEntryAgainstUpstreamUrl() throws InterruptedException {
+        AtomicInteger conditionalRequests = new AtomicInteger();
+        DisposableServer backend = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/1", (request, response) -> {
+                    if ("\"v1\"".equals(request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH))) {
+                        conditionalRequests.incrementAndGet();
+                        return response.status(304).header(HttpHeaders.CACHE_CONTROL, "max-age=60").send();
+                    }
+                    return response.status(500).send();
+                }))
+                .bindNow();
+        try {
+            GatewayFilter filter = filter();
+            URI upstream = URI.create("http://127.0.0.1:" + backend.port() + "/1");
+            GatewayFilterChain upstreamChain = upstream(new AtomicInteger(),
+                    "max-age=1, stale-while-revalidate=60", "\"v1\"", "body", 0);
+            GatewayFilterChain chain = exchange -> {
+                exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, upstream);
+                return upstreamChain.filter(exchange);
+            };
+            filter.filter(exchange(HttpHeaders.EMPTY), chain).block();
+            Thread.sleep(1_100);
+
+            MockServerWebExchange stale = exchange(HttpHeaders.EMPTY);
+            filter.filter(stale, chain).block();
+            // Wait for the 304 to land: the backend counts the request before the gateway has it
+            String key = stale.getAttribute(ResponseCacheFilter.CACHE_KEY_ATTR);
+            for (int i = 0; i < 100 && !store.get(key).isFresh(System.nanoTime()); i++) {
+                Thread.sleep(20);
+            }
+            MockServerWebExchange refreshed = exchange(HttpHeaders.EMPTY);
+            filter.filter(refreshed, chain).block();
+
+            assertThat(stale.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STALE");
+            assertThat(conditionalRequests).hasValue(1);
+            assertThat(refreshed.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+            assertThat(refreshed.getResponse().getBodyAsString().block()).isEqualTo("body");
+        } finally {
+            backend.disposeNow();
+        }
+    }
+
+    @Test
+    void evictsToStayWithinByteBudget() {
+        properties.setMaxSize(DataSize.ofKilobytes(64));
+        GatewayFilter filter = filter();
+        String body = "x".repeat(8 * 1024);
+        GatewayFilterChain chain = upstream(new AtomicInteger(), "max-age=60", null, body, 0);
+
+        for (int i = 0; i < 32; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(
+                    MockServerHttpRequest.get("/api/products/" + i));
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+            filter.filter(exchange, chain).block();
+        }
+
+        assertThat(store.size()).isBetween(1L, 7L);
+    }
+
+    /**
+     * The route filter behind its capture, as the gateway runs them.
+     */
+    private GatewayFilter filter() {
+        store = new ResponseCacheStore(properties);
+        ResponseCacheFilter factory = new ResponseCacheFilter(store, properties, WebClient.builder(),
+                new StaticListableBeanFactory().getBeanProvider(ReactorLoadBalancerExchangeFilterFunction.class));
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setRouteId("product-service");
+        GatewayFilter filter = factory.apply(config);
+        CacheCaptureFilter capture = new CacheCaptureFilter(factory);
+        return (exchange, chain) -> capture.filter(exchange, captured -> filter.filter(captured, chain));
+    }
+
+    private static MockServerWebExchange exchange(HttpHeaders headers) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/products/1").headers(headers));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        return exchange;
+    }
+
+    private static Route route() {
+        return Route.async().id("product-service").uri("lb://product-service").predicate(e -> true).build();
+    }
+
+    private static GatewayFilterChain upstream(AtomicInteger calls, String cacheControl, String etag, String body,
+                                               long delayMillis) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return exchange -> Mono.delay(Duration.ofMillis(delayMillis)).then(Mono.defer(() -> {
+            calls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.setCacheControl(cacheControl);
+            if (etag != null) {
+                headers.setETag(etag);
+            }
+            headers.setContentLength(bytes.length);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+        }));
+    }
+}
@@ -0,0 +1,249 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.compression.CompressedBodyCache;
+import com.developer.ApiGateWay.compression.ContentCoding;
+import com.developer.ApiGateWay.config.CompressionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.BrotliDecoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.ZstdDecoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionFilterTest {
+
+    private static final String JSON = json(400);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CompressedBodyCache cache = new CompressedBodyCache(new CompressionProperties());
+    private final ResponseCompressionFilter factory =
+            new ResponseCompressionFilter(cache, new CompressionProperties(), registry);
+
+    @AfterEach
+    void releaseEntries() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    void negotiatesByQualityThenByServerPreference() {
+        List<ContentCoding> preferred = List.of(ContentCoding.ZSTD, ContentCoding.BROTLI, ContentCoding.GZIP);
+
+        assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd", preferred)).isEqualTo(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("gzip;q=1.0, br;q=0.8", preferred)).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("zstd;q=0, *;q=0.5", preferred)).isEqualTo(ContentCoding.BROTLI);
+        assertThat(ContentCoding.negotiate("x-gzip", preferred)).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("deflate, identity", preferred)).isNull();
+        assertThat(ContentCoding.negotiate("*;q=0", preferred)).isNull();
+    }
+
+    @Test
+    void compressesChunkedBodyWithEachCoding() {
+        for (ContentCoding coding : ContentCoding.values()) {
+            MockServerWebExchange exchange = exchange(coding.token());
+            filter().filter(exchange, upstream(headers -> { })).block(Duration.ofSeconds(5));
+
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo(coding.token());
+            assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(headers.containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+            byte[] body = body(exchange);
+            assertThat(body.length).isLessThan(JSON.length() / 4);
+            assertThat(decode(coding, body)).isEqualTo(JSON);
+        }
+        assertThat(registry.get("gateway.compression.bytes").tag("encoding", "gzip").tag("direction", "in")
+                .counter().count()).isEqualTo(JSON.length());
+        assertThat(registry.get("gateway.compression.time").tag("encoding", "gzip").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesSmallEncodedAndUnacceptedBodiesAlone() {
+        MockServerWebExchange small = exchange("gzip");
+        filter().filter(small, upstream(headers -> headers.setContentLength(100))).block(Duration.ofSeconds(5));
+        assertThat(small.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(small.getResponse().getBodyAsString().block()).isEqualTo(JSON);
+
+        MockServerWebExchange encoded = exchange("gzip");
+        filter().filter(encoded, upstream(headers -> headers.set(HttpHeaders.CONTENT_ENCODING, "br")))
+                .block(Duration.ofSeconds(5));
+        assertThat(encoded.getResponse().getHeaders().get(HttpHeaders.CONTENT_ENCODING)).containsExactly("br");
+
+        MockServerWebExchange image = exchange("gzip");
+        filter().filter(image, upstream(headers -> headers.setContentType(MediaType.IMAGE_PNG)))
+                .block(Duration.ofSeconds(5));
+        assertThat(image.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+
+        MockServerWebExchange identity = exchange(null);
+        filter().filter(identity, upstream(headers -> { })).block(Duration.ofSeconds(5));
+        assertThat(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getResponse().getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(identity.getResponse().getBodyAsString().block()).isEqualTo(JSON);
+
+        assertThat(count("identity", "too_small")).isEqualTo(1);
+        assertThat(count("identity", "already_encoded")).isEqualTo(1);
+        assertThat(count("identity", "not_compressible")).isEqualTo(1);
+        assertThat(count("identity", "not_accepted")).isEqualTo(1);
+    }
+
+    @Test
+    void compressesResponsesWithTheSameStrongEtagOnce() {
+        GatewayFilter filter = filter();
+        Consumer<HttpHeaders> cacheable = headers -> {
+            headers.setETag("\"v1\"");
+            headers.setCacheControl("public, max-age=60");
+        };
+
+        MockServerWebExchange first = exchange("br");
+        filter.filter(first, upstream(cacheable)).block(Duration.ofSeconds(5));
+        MockServerWebExchange second = exchange("br");
+        filter.filter(second, upstream(cacheable)).block(Duration.ofSeconds(5));
+
+        byte[] firstBody = body(first);
+        byte[] secondBody = body(second);
+        assertThat(secondBody).isEqualTo(firstBody);
+        assertThat(second.getResponse().getHeaders().getContentLength()).isEqualTo(firstBody.length);
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo("W/\"v1\"");
+        assertThat(decode(ContentCoding.BROTLI, secondBody)).isEqualTo(JSON);
+        assertThat(count("br", "compressed")).isEqualTo(1);
+        assertThat(count("br", "cache_hit")).isEqualTo(1);
+        assertThat(registry.get("gateway.compression.time").tag("encoding", "br").timer().count()).isEqualTo(1);
+
+        // A new version of the body is compressed again
+        MockServerWebExchange changed = exchange("br");
+        filter.filter(changed, upstream(headers -> {
+            cacheable.accept(headers);
+            headers.setETag("\"v2\"");
+        })).block(Duration.ofSeconds(5));
+        assertThat(count("br", "compressed")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheCompressedPrivateResponses() {
+        GatewayFilter filter = filter();
+        Consumer<HttpHeaders> personal = headers -> {
+            headers.setETag("\"v1\"");
+            headers.setCacheControl("private, max-age=60");
+        };
+
+        filter.filter(exchange("gzip"), upstream(personal)).block(Duration.ofSeconds(5));
+        filter.filter(exchange("gzip"), upstream(personal)).block(Duration.ofSeconds(5));
+
+        assertThat(count("gzip", "compressed")).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void cachedBodyIsReleasedOnlyAfterTheLastReader() {
+        ByteBuf body = cache.allocate(16).writeBytes("compressed".getBytes(StandardCharsets.UTF_8));
+        cache.put("gzip|k", body, 100);
+        CompressedBodyCache.Entry reading = cache.get("gzip|k");
+
+        cache.invalidateAll();
+
+        assertThat(cache.get("gzip|k")).isNull();
+        assertThat(reading.body().toString(StandardCharsets.UTF_8)).isEqualTo("compressed");
+        reading.body().release();
+        assertThat(body.refCnt()).isZero();
+    }
+
+    private GatewayFilter filter() {
+        return factory.apply(new ResponseCompressionFilter.Config());
+    }
+
+    // Writes JSON as several chunks, as a backend's chunked response arrives
+    private static GatewayFilterChain upstream(Consumer<HttpHeaders> customizer) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            customizer.accept(response.getHeaders());
+            byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+            int chunk = 4096;
+            return response.writeWith(Flux.range(0, (bytes.length + chunk - 1) / chunk)
+                    .map(i -> response.bufferFactory().wrap(
+                            Arrays.copyOfRange(bytes, i * chunk, Math.min(bytes.length, (i + 1) * chunk)))));
+        };
+    }
+
+    private double count(String encoding, String result) {
+        return registry.get("gateway.compression.responses").tag("encoding", encoding).tag("result", result)
+                .counter().count();
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        return exchange.getResponse().getBody()
+                .reduce(new ByteArrayOutputStream(), (out, buffer) -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    out.writeBytes(bytes);
+                    return out;
+                })
+                .map(ByteArrayOutputStream::toByteArray)
+                .defaultIfEmpty(new byte[0])
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static String decode(ContentCoding coding, byte[] body) {
+        ChannelHandler decoder = switch (coding) {
+            case GZIP -> ZlibCodecFactory.newZlibDecoder(ZlibWrapper.GZIP);
+            case BROTLI -> new BrotliDecoder();
+            case ZSTD -> new ZstdDecoder();
+        };
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        channel.writeInbound(Unpooled.wrappedBuffer(body));
+        channel.finish();
+        StringBuilder decoded = new StringBuilder();
+        ByteBuf part;
+        while ((part = channel.readInbound()) != null) {
+            decoded.append(part.toString(StandardCharsets.UTF_8));
+            part.release();
+        }
+        return decoded.toString();
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/products");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("product-service").uri("lb://product-service").predicate(e -> true).build());
+        return exchange;
+    }
+
+    private static String json(int items) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"name\":\"Product ").append(i).append("\",\"price\":").append(i * 3 % 100).append('}');
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.developer.ApiGateWay.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingPassThroughFilterTest {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final GatewayFilter filter = new StreamingPassThroughFilter().apply(new StreamingPassThroughFilter.Config()
+            .setMaxBodySize(DataSize.ofMegabytes(1))
+            .setMaxInFlightBytes(DataSize.ofKilobytes(256)));
+
+    @Test
+    void rejectsDeclaredOversizedBodyWithoutCallingUpstream() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/files/upload")
+                .contentLength(DataSize.ofMegabytes(2).toBytes())
+                .body(chunks(0)));
+        AtomicBoolean upstreamCalled = new AtomicBoolean();
+
+        filter.filter(exchange, e -> {
+            upstreamCalled.set(true);
+            return e.getRequest().getBody().then();
+        }).block();
+
+        assertThat(upstreamCalled).isFalse();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @Test
+    void enforcesLimitOnChunkedBodyStream() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/files/upload")
+                .header("Transfer-Encoding", "chunked")
+                .body(chunks(32)));
+        AtomicLong forwarded = new AtomicLong();
+
+        assertThatThrownBy(() -> filter.filter(exchange, e -> e.getRequest().getBody()
+                        .doOnNext(buffer -> {
+                            forwarded.addAndGet(buffer.readableByteCount());
+                            DataBufferUtils.release(buffer);
+                        })
+                        .then())
+                .block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        assertThat(forwarded.get()).isLessThanOrEqualTo(DataSize.ofMegabytes(1).toBytes());
+    }
+
+    @Test
+    void boundsDemandOnTheRequestBody() {
+        AtomicLong largestRequest = new AtomicLong();
+        Flux<DataBuffer> body = chunks(16).doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/files/upload")
+                .body(body));
+
+        filter.filter(exchange, e -> e.getRequest().getBody().doOnNext(DataBufferUtils::release).then()).block();
+
+        // 256KB of 64KB reads
+        assertThat(largestRequest.get()).isEqualTo(4);
+    }
+
+    private static Flux<DataBuffer> chunks(int count) {
+        return Flux.range(0, count).map(i -> DefaultDataBufferFactory.sharedInstance.wrap(new byte[CHUNK]));
+    }
+}
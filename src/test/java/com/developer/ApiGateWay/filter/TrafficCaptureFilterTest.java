@@ -0,0 +1,133 @@
+package com.developer.ApiGateWay.filter;
+
+import com.developer.ApiGateWay.capture.CapturedRequest;
+import com.developer.ApiGateWay.capture.TrafficCaptureReader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures every request (sample rate 1) through the gateway and reads the
+ * capture file back.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local",
+        "gateway.capture.enabled=true",
+        "gateway.capture.sample-rate=1",
+        "gateway.capture.flush-interval=20ms"
+})
+class TrafficCaptureFilterTest {
+
+    private static final String USER = "{\"id\":42,\"name\":\"Ada\"}";
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/{id}", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just(USER)))
+                    .post("/", (request, response) -> response
+                            .status(201)
+                            .send(request.receive().retain())))
+            .bindNow();
+
+    private static final Path file = tempFile();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void capture(DynamicPropertyRegistry registry) {
+        registry.add("gateway.capture.file", file::toString);
+        registry.add("spring.cloud.discovery.client.simple.instances.user-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void recordsRouteTemplateAndSizes() throws Exception {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        String user = client.get().uri("/api/users/42")
+                .header("X-User-Id", "alice")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+        assertThat(user).isEqualTo(USER);
+        String order = "{\"items\":[1,2,3]}";
+        client.post().uri("/api/orders")
+                .header("X-User-Id", "bob")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(order)
+                .retrieve()
+                .toBodilessEntity()
+                .block(Duration.ofSeconds(10));
+
+        List<CapturedRequest> requests = awaitCaptured(2);
+
+        CapturedRequest get = requests.stream().filter(r -> r.method().equals("GET")).findFirst().orElseThrow();
+        assertThat(get.routeId()).isEqualTo("user-service");
+        assertThat(get.pathTemplate()).isEqualTo("/api/users/{n}");
+        assertThat(get.status()).isEqualTo(200);
+        assertThat(get.requestBodyBytes()).isZero();
+        assertThat(get.responseBodyBytes()).isEqualTo(USER.length());
+        assertThat(get.requestHeaderBytes()).isPositive();
+        assertThat(get.responseHeaderBytes()).isPositive();
+        assertThat(get.durationNanos()).isPositive();
+
+        CapturedRequest post = requests.stream().filter(r -> r.method().equals("POST")).findFirst().orElseThrow();
+        assertThat(post.routeId()).isEqualTo("order-service");
+        assertThat(post.pathTemplate()).isEqualTo("/api/orders");
+        assertThat(post.status()).isEqualTo(201);
+        assertThat(post.requestBodyBytes()).isEqualTo(order.length());
+        assertThat(post.client()).isNotEqualTo(get.client()).isPositive();
+    }
+
+    // The writer flushes in the background
+    private static List<CapturedRequest> awaitCaptured(int count) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        List<CapturedRequest> requests = List.of();
+        while (System.nanoTime() < deadline) {
+            if (Files.exists(file)) {
+                requests = TrafficCaptureReader.readAll(file);
+                if (requests.size() >= count) {
+                    break;
+                }
+            }
+            Thread.sleep(20);
+        }
+        assertThat(requests).hasSize(count);
+        return requests;
+    }
+
+    private static Path tempFile() {
+        try {
+            return Files.createTempDirectory("capture").resolve("traffic.capture");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.developer.ApiGateWay.health;
+
+import com.developer.ApiGateWay.config.HealthSnapshotProperties;
+import com.developer.ApiGateWay.controller.HealthController;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HealthSnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final FakeDiscoveryClient discovery = new FakeDiscoveryClient();
+    private final HealthSnapshotProperties properties = new HealthSnapshotProperties();
+
+    @Test
+    void rebuildsSnapshotOnlyWhenDiscoveryStateChanges() throws Exception {
+        HealthSnapshotService service = service();
+        discovery.add("user-service", "localhost", 8081);
+
+        assertThat(service.refresh()).isTrue();
+        HealthSnapshot first = service.snapshot();
+        assertThat(service.refresh()).isFalse();
+        assertThat(service.snapshot()).isSameAs(first);
+
+        discovery.add("user-service", "localhost", 8082);
+        assertThat(service.refresh()).isTrue();
+        JsonNode services = objectMapper.readTree(service.snapshot().servicesJson());
+        assertThat(services.at("/services/user-service/instances").asInt()).isEqualTo(2);
+        assertThat(services.at("/services/user-service/status").asText()).isEqualTo("DISCOVERED");
+    }
+
+    @Test
+    void endpointsServeSnapshotWithoutCallingDiscovery() throws Exception {
+        HealthSnapshotService service = service();
+        discovery.add("order-service", "localhost", 8083);
+        service.refresh();
+        HealthController controller = new HealthController(service);
+        int callsAfterRefresh = discovery.calls.get();
+
+        MockServerWebExchange exchange = null;
+        for (int i = 0; i < 100; i++) {
+            exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/health"));
+            controller.getHealth(exchange).block();
+            controller.health();
+        }
+
+        assertThat(discovery.calls).hasValue(callsAfterRefresh);
+        JsonNode summary = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertThat(summary.get("status").asText()).isEqualTo("UP");
+        assertThat(summary.get("serviceCount").asInt()).isEqualTo(1);
+        assertThat(controller.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void probingReportsDegradedServices() throws Exception {
+        DisposableServer healthy = HttpServer.create().port(0)
+                .route(routes -> routes.get("/actuator/health", (request, response) -> response.sendString(Mono.just("{}"))))
+                .bindNow();
+        DisposableServer failing = HttpServer.create().port(0)
+                .route(routes -> routes.get("/actuator/health", (request, response) -> response.status(503).send()))
+                .bindNow();
+        try {
+            properties.getProbe().setEnabled(true);
+            HealthSnapshotService service = service();
+            discovery.add("product-service", "localhost", healthy.port());
+            discovery.add("product-service", "localhost", failing.port());
+
+            service.refresh();
+
+            JsonNode services = objectMapper.readTree(service.snapshot().servicesJson());
+            assertThat(services.at("/services/product-service/status").asText()).isEqualTo("DEGRADED");
+            assertThat(services.at("/services/product-service/healthyInstances").asInt()).isEqualTo(1);
+        } finally {
+            healthy.disposeNow();
+            failing.disposeNow();
+        }
+    }
+
+    @Test
+    void discoveryFailureKeepsLastServicesAndReportsDown() {
+        HealthSnapshotService service = service();
+        discovery.add("user-service", "localhost", 8081);
+        service.refresh();
+
+        discovery.failing = true;
+        assertThat(service.refresh()).isTrue();
+
+        assertThat(service.snapshot().health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(service.snapshot().state().services()).hasSize(1);
+    }
+
+    private HealthSnapshotService service() {
+        return new HealthSnapshotService(discovery, properties, objectMapper, WebClient.builder());
+    }
+
+    private static final class FakeDiscoveryClient implements DiscoveryClient {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final Map<String, List<ServiceInstance>> instances = new ConcurrentHashMap<>();
+        volatile boolean failing;
+
+        void add(String serviceId, String host, int port) {
+            instances.computeIfAbsent(serviceId, id -> new ArrayList<>())
+                    .add(new DefaultServiceInstance(serviceId + "-" + port, serviceId, host, port, false));
+        }
+
+        @Override
+        public String description() {
+            return "fake";
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            calls.incrementAndGet();
+            return List.copyOf(instances.getOrDefault(serviceId, List.of()));
+        }
+
+        @Override
+        public List<String> getServices() {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new IllegalStateException("registry unavailable");
+            }
+            return List.copyOf(instances.keySet());
+        }
+    }
+}
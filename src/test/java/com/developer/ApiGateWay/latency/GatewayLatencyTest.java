@@ -0,0 +1,78 @@
+package com.developer.ApiGateWay.latency;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends requests through the order-service route to an in-process backend and
+ * checks that every stage on the way is recorded for the route.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local"
+})
+class GatewayLatencyTest {
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/{id}", (request, response) -> response.sendString(Mono.just("{}"))))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LatencyEndpoint endpoint;
+
+
+    @DynamicPropertySource
+    static void orderService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void recordsStagesPerRoute() throws InterruptedException {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        for (int i = 0; i < 5; i++) {
+            HttpStatus status = HttpStatus.resolve(client.get().uri("/api/orders/" + i)
+                    .exchangeToMono(response -> Mono.just(response.statusCode().value()))
+                    .block(Duration.ofSeconds(10)));
+            assertThat(status).isEqualTo(HttpStatus.OK);
+        }
+
+        // The total is recorded once the response is written, which can be just after the client has it
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        Map<String, LatencyEndpoint.StageLatency> stages = endpoint.route("order-service");
+        while (stages.values().stream().anyMatch(stage -> stage.count() < 5) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stages = endpoint.route("order-service");
+        }
+
+        assertThat(stages).containsKeys("route_lookup", "connection_acquire", "upstream_ttfb", "total");
+        assertThat(stages.values()).allSatisfy(stage -> {
+            assertThat(stage.count()).isEqualTo(5);
+            assertThat(stage.percentiles()).containsKeys("p50", "p99", "p999");
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.developer.ApiGateWay.latency;
+
+import com.developer.ApiGateWay.config.LatencyMetricsProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteLatencyRecorderTest {
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RouteLatencyRecorder recorder = new RouteLatencyRecorder(registry, new LatencyMetricsProperties());
+
+    @Test
+    void recordsEachRouteAndStageSeparately() {
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record("user-service", Stage.TOTAL, TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        recorder.record("order-service", Stage.AUTH, 5_000);
+
+        Timer total = registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", "user-service").tag("stage", "total").timer();
+        assertThat(total.count()).isEqualTo(1000);
+        assertThat(registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", "user-service").tag("stage", "auth").timer().count()).isZero();
+        assertThat(registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", "order-service").tag("stage", "auth").timer().count()).isEqualTo(1);
+
+        Map<String, LatencyEndpoint.StageLatency> stages = new LatencyEndpoint(recorder).route("user-service");
+        assertThat(stages).containsOnlyKeys("total");
+        Map<String, Double> percentiles = stages.get("total").percentiles();
+        assertThat(percentiles).containsOnlyKeys("p50", "p99", "p999");
+        // Percentile precision 2 keeps values within about 1%
+        assertThat(percentiles.get("p50")).isBetween(0.49, 0.51);
+        assertThat(percentiles.get("p99")).isBetween(0.98, 1.0);
+    }
+
+    @Test
+    void timedRateLimiterRecordsDecisionTimePerRoute() {
+        RateLimiter<Object> limiter = new TimedRateLimiter<>(new AllowingRateLimiter(), recorder);
+
+        RateLimiter.Response response = limiter.isAllowed("order-service", "client-1").block();
+
+        assertThat(response.isAllowed()).isTrue();
+        assertThat(registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", "order-service").tag("stage", "rate_limit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void timedLinearScanRecordsLookupTimePerRoute() {
+        Route users = Route.async().id("user-service").uri("lb://user-service")
+                .asyncPredicate(new PathRoutePredicateFactory().applyAsync(new PathRoutePredicateFactory.Config()
+                        .setPatterns(List.of("/api/users/**"))))
+                .build();
+        TimedRoutePredicateHandlerMapping mapping = new TimedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of()), () -> Flux.just(users), new GlobalCorsProperties(),
+                new MockEnvironment(), recorder);
+
+        mapping.lookupRoute(MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/42"))).block();
+        mapping.lookupRoute(MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/42"))).block();
+
+        assertThat(registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", "user-service").tag("stage", "route_lookup").timer().count()).isEqualTo(1);
+        assertThat(registry.get(RouteLatencyRecorder.METER_NAME)
+                .tag("route", RouteLatencyRecorder.UNMATCHED_ROUTE).tag("stage", "route_lookup").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // Until the record path is JIT-compiled, short-lived objects are not yet scalar-replaced
+        for (int i = 0; i < 100_000; i++) {
+            recordAllStages(i);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            recordAllStages(i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 600,000 samples; anything per sample would show up as megabytes
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    private void recordAllStages(int i) {
+        for (Stage stage : STAGES) {
+            recorder.record("user-service", stage, 1_000 + (i & 0xFFFF) * 1_000L);
+        }
+    }
+
+    private static final class AllowingRateLimiter extends AbstractRateLimiter<Object> {
+
+        AllowingRateLimiter() {
+            super(Object.class, "allowing-rate-limiter", (ConfigurationService) null);
+        }
+
+        @Override
+        public Mono<Response> isAllowed(String routeId, String id) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.developer.ApiGateWay.loadbalancer;
+
+import com.developer.ApiGateWay.config.LoadBalancerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE = "user-service";
+
+    // Three healthy fake backends answering in 1ms and one answering in 40ms
+    private final List<ServiceInstance> instances = List.of(
+            instance(8081), instance(8082), instance(8083), instance(8084));
+    private final Map<Integer, Duration> latencies = Map.of(
+            8081, Duration.ofMillis(1), 8082, Duration.ofMillis(1),
+            8083, Duration.ofMillis(1), 8084, Duration.ofMillis(40));
+
+    // Fake latencies run on their own timer thread, not behind tasks other tests left on the shared one
+    private final Scheduler timer = Schedulers.newSingle("fake-backend-latency");
+
+    @AfterEach
+    void stopTimer() {
+        timer.dispose();
+    }
+
+    @Test
+    void cutsTailLatencyCausedByOneSlowInstance() {
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(new LoadBalancerProperties());
+        LatencyAwareLoadBalancer latencyAware = new LatencyAwareLoadBalancer(supplier(), SERVICE, registry);
+        RoundRobinLoadBalancer roundRobin = new RoundRobinLoadBalancer(supplier(), SERVICE);
+
+        Result baseline = run(roundRobin, new InstanceStatsRegistry(new LoadBalancerProperties()));
+        Result improved = run(latencyAware, registry);
+
+        assertThat(baseline.slowShare()).isGreaterThan(0.2);
+        assertThat(improved.slowShare()).isLessThan(0.05);
+        assertThat(improved.percentile(0.99)).isLessThan(baseline.percentile(0.99) / 4);
+    }
+
+    @Test
+    void prefersInstanceWithFewerRequestsInFlight() {
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(new LoadBalancerProperties());
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(supplier(), SERVICE, registry);
+        List<ServiceInstance> pair = instances.subList(0, 2);
+        for (ServiceInstance instance : pair) {
+            InstanceStats stats = registry.stats(instance);
+            stats.start();
+            registry.record(stats, Duration.ofMillis(5).toNanos(), true);
+        }
+        InstanceStats busy = registry.stats(pair.get(0));
+        for (int i = 0; i < 10; i++) {
+            busy.start();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(pair).getServer().getPort()).isEqualTo(8082);
+        }
+    }
+
+    @Test
+    void avoidsInstanceTrippedByConsecutiveFailures() {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setTripThreshold(3);
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(properties);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(supplier(), SERVICE, registry);
+        List<ServiceInstance> pair = instances.subList(0, 2);
+
+        // The failing instance answers fast, so only the failure handling can steer traffic away
+        InstanceStats failing = registry.stats(pair.get(0));
+        for (int i = 0; i < 3; i++) {
+            failing.start();
+            registry.record(failing, Duration.ofMillis(1).toNanos(), false);
+        }
+        InstanceStats healthy = registry.stats(pair.get(1));
+        healthy.start();
+        registry.record(healthy, Duration.ofMillis(20).toNanos(), true);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.choose(pair).getServer().getPort()).isEqualTo(8082);
+        }
+    }
+
+    @Test
+    void cancellationLeavesTheFailureStreakAlone() {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setTripThreshold(3);
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(properties);
+        InstanceStats stats = registry.stats(instances.get(0));
+
+        for (int i = 0; i < 2; i++) {
+            stats.start();
+            registry.record(stats, Duration.ofMillis(1).toNanos(), false);
+        }
+        stats.start();
+        registry.recordCancelled(stats, Duration.ofMillis(30).toNanos());
+        assertThat(stats.isTripped(System.nanoTime())).isFalse();
+        assertThat(stats.inFlight()).isZero();
+
+        stats.start();
+        registry.record(stats, Duration.ofMillis(1).toNanos(), false);
+        assertThat(stats.isTripped(System.nanoTime())).isTrue();
+    }
+
+    @Test
+    void dropsStatsOfInstancesThatLeaveTheList() {
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(new LoadBalancerProperties());
+        AtomicReference<List<ServiceInstance>> current = new AtomicReference<>(instances);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(supplier(current), SERVICE, registry);
+        instances.forEach(registry::stats);
+        InstanceStats kept = registry.stats(instances.get(1));
+
+        current.set(List.of(instances.get(1), instance(8085)));
+        loadBalancer.choose(new DefaultRequest<>()).block();
+
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.stats(instances.get(1))).isSameAs(kept);
+        assertThat(registry.stats(instances.get(0))).isNotSameAs(kept);
+    }
+
+    /**
+     * Sends 4000 requests, 16 at a time, to the fake backends chosen by
+     * {@code loadBalancer}, recording outcomes the way LoadBalancerStatsFilter does.
+     */
+    private Result run(ReactorServiceInstanceLoadBalancer loadBalancer, InstanceStatsRegistry registry) {
+        List<Long> samples = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger slow = new AtomicInteger();
+        Flux.range(0, 4000)
+                .flatMap(i -> Mono.from(loadBalancer.choose(new DefaultRequest<>())).flatMap(response -> {
+                    ServiceInstance instance = response.getServer();
+                    InstanceStats stats = registry.stats(instance);
+                    stats.start();
+                    long start = System.nanoTime();
+                    if (instance.getPort() == 8084) {
+                        slow.incrementAndGet();
+                    }
+                    return Mono.delay(latencies.get(instance.getPort()), timer).doFinally(signal -> {
+                        long elapsed = System.nanoTime() - start;
+                        registry.record(stats, elapsed, true);
+                        samples.add(elapsed);
+                    });
+                }), 16)
+                .blockLast(Duration.ofSeconds(60));
+        return new Result(samples, slow.get());
+    }
+
+    private ObjectProvider<ServiceInstanceListSupplier> supplier() {
+        return supplier(new AtomicReference<>(instances));
+    }
+
+    private ObjectProvider<ServiceInstanceListSupplier> supplier(AtomicReference<List<ServiceInstance>> current) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("supplier", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICE;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.defer(() -> Flux.just(current.get()));
+            }
+        });
+        return beanFactory.getBeanProvider(ServiceInstanceListSupplier.class);
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance(SERVICE + "-" + port, SERVICE, "127.0.0.1", port, false);
+    }
+
+    private record Result(List<Long> samples, int slowRequests) {
+
+        long percentile(double quantile) {
+            List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1));
+        }
+
+        double slowShare() {
+            return (double) slowRequests / samples.size();
+        }
+    }
+}
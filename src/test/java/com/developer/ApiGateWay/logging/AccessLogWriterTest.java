@@ -0,0 +1,73 @@
+package com.developer.ApiGateWay.logging;
+
+import com.developer.ApiGateWay.config.AccessLogProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void drainsRecordsToFileAsJsonLines() throws Exception {
+        AccessLogProperties properties = properties(1024);
+        AccessLogWriter writer = new AccessLogWriter(properties);
+        writer.start();
+
+        writer.record(1_700_000_000_000L, 0xabcdefL, 2_500_000, 200, HttpMethod.GET,
+                "/api/users/42", new InetSocketAddress("127.0.0.1", 5000));
+        writer.record(1_700_000_000_001L, 1L, 1_000, 503, HttpMethod.POST, "/api/\"quoted\"", null);
+        writer.stop();
+
+        List<String> lines = Files.readAllLines(Path.of(properties.getFile()));
+        assertThat(lines).containsExactly(
+                "{\"ts\":1700000000000,\"id\":\"0000000000abcdef\",\"method\":\"GET\",\"path\":\"/api/users/42\","
+                        + "\"status\":200,\"durationUs\":2500,\"remote\":\"127.0.0.1\"}",
+                "{\"ts\":1700000000001,\"id\":\"0000000000000001\",\"method\":\"POST\",\"path\":\"/api/\\\"quoted\\\"\","
+                        + "\"status\":503,\"durationUs\":1}");
+        assertThat(writer.written()).isEqualTo(2);
+        assertThat(writer.dropped()).isZero();
+    }
+
+    @Test
+    void dropsAndCountsRecordsWhenRingIsFull() {
+        // Not started, so nothing drains the ring
+        AccessLogWriter writer = new AccessLogWriter(properties(4));
+
+        for (int i = 0; i < 10; i++) {
+            writer.record(0, i, 0, 200, HttpMethod.GET, "/", null);
+        }
+
+        assertThat(writer.dropped()).isEqualTo(6);
+    }
+
+    @Test
+    void truncatesLongPathsToRecordSize() throws Exception {
+        AccessLogProperties properties = properties(16);
+        properties.setRecordSize(40);
+        AccessLogWriter writer = new AccessLogWriter(properties);
+        writer.start();
+
+        writer.record(0, 0, 0, 200, HttpMethod.GET, "/api/products/0123456789", null);
+        writer.stop();
+
+        assertThat(Files.readString(Path.of(properties.getFile()))).contains("\"path\":\"/api/produ\"");
+    }
+
+    private AccessLogProperties properties(int capacity) {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setMode(AccessLogProperties.Mode.STRUCTURED);
+        properties.setFile(tempDir.resolve("access.log").toString());
+        properties.setBufferCapacity(capacity);
+        return properties;
+    }
+}
@@ -0,0 +1,104 @@
+package com.developer.ApiGateWay.offload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlockingCallDetectorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BlockingOffload offload = new BlockingOffload(4, 100, Duration.ofSeconds(5), registry);
+    private BlockingCallDetector detector;
+    private DisposableServer server;
+
+    @BeforeEach
+    void startDetector() {
+        detector = new BlockingCallDetector(Duration.ofMillis(10), BlockingCallDetector.Mode.FAIL, registry);
+        detector.start();
+    }
+
+    @AfterEach
+    void stop() {
+        detector.stop();
+        offload.dispose();
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void flagsSleepOnTheEventLoop() {
+        server = HttpServer.create().port(0).handle((request, response) -> {
+            sleep(200);
+            return response.sendString(Mono.just("ok"));
+        }).bindNow();
+
+        assertThat(get()).isEqualTo("ok");
+
+        assertThat(detector.violations()).anySatisfy(violation -> {
+            assertThat(violation.thread()).startsWith("reactor-http");
+            assertThat(violation.stack()).anyMatch(frame -> frame.getMethodName().equals("sleep"));
+        });
+        assertThat(registry.get("gateway.offload.blocking.calls").tag("source", "sampled").counter().count())
+                .isPositive();
+    }
+
+    @Test
+    void acceptsTheSameWorkWhenOffloaded() {
+        server = HttpServer.create().port(0).handle((request, response) -> response.sendString(
+                offload.call("sleep", () -> {
+                    sleep(200);
+                    return "ok";
+                }))).bindNow();
+
+        assertThat(get()).isEqualTo("ok");
+
+        assertThat(detector.violations()).isEmpty();
+    }
+
+    @Test
+    void guardedCallsFailOnNonBlockingThreads() {
+        Mono<Void> onParallel = Mono.<Void>fromRunnable(() -> BlockingCallDetector.checkBlockingAllowed("lookup"))
+                .subscribeOn(Schedulers.parallel());
+        assertThatThrownBy(() -> onParallel.block(Duration.ofSeconds(5))).hasMessageContaining("lookup");
+
+        // Off the event loop the same call is fine
+        offload.call("lookup", () -> {
+            BlockingCallDetector.checkBlockingAllowed("lookup");
+            return true;
+        }).block(Duration.ofSeconds(5));
+        assertThat(detector.violations()).hasSize(1);
+        assertThat(registry.get("gateway.offload.blocking.calls").tag("source", "guard").counter().count())
+                .isEqualTo(1);
+    }
+
+    private String get() {
+        return HttpClient.create()
+                .port(server.port())
+                .get()
+                .uri("/")
+                .responseContent()
+                .aggregate()
+                .asString()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
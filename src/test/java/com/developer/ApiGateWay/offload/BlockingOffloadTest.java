@@ -0,0 +1,121 @@
+package com.developer.ApiGateWay.offload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlockingOffloadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BlockingOffload offload;
+
+    @AfterEach
+    void dispose() {
+        offload.dispose();
+    }
+
+    @Test
+    void runsWorkOnVirtualThreads() throws InterruptedException {
+        offload = new BlockingOffload(4, 100, Duration.ofSeconds(5), registry);
+
+        Boolean virtual = offload.call("lookup", () -> Thread.currentThread().isVirtual()).block(Duration.ofSeconds(5));
+
+        assertThat(virtual).isTrue();
+        awaitIdle();
+        assertThat(outcome("lookup", "success")).isEqualTo(1);
+        assertThat(registry.get("gateway.offload.run.time").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void boundsConcurrency() throws InterruptedException {
+        offload = new BlockingOffload(2, 100, Duration.ofSeconds(5), registry);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Integer> results = Flux.range(0, 10)
+                .flatMap(i -> offload.call("slow", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return i;
+                }))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(10);
+        assertThat(maxRunning).hasValue(2);
+        awaitIdle();
+        assertThat(offload.pending()).isZero();
+        assertThat(offload.active()).isZero();
+    }
+
+    @Test
+    void interruptsTasksThatTimeOut() throws InterruptedException {
+        offload = new BlockingOffload(2, 100, Duration.ofSeconds(5), registry);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Mono<String> stuck = offload.call("stuck", Duration.ofMillis(50), () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "done";
+        });
+
+        assertThatThrownBy(() -> stuck.block(Duration.ofSeconds(5))).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(outcome("stuck", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWorkBeyondTheQueue() {
+        offload = new BlockingOffload(1, 1, Duration.ofSeconds(5), registry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean sawRejection = new AtomicBoolean();
+
+        List<Mono<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(offload.call("held", () -> release.await(5, TimeUnit.SECONDS))
+                    .onErrorResume(RejectedExecutionException.class, e -> {
+                        sawRejection.set(true);
+                        release.countDown();
+                        return Mono.just(false);
+                    }));
+        }
+        Flux.merge(calls).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(sawRejection).isTrue();
+        assertThat(outcome("held", "rejected")).isPositive();
+        assertThat(offload.pending()).isZero();
+    }
+
+    // A task counts as active, and its run time is recorded, when its virtual thread returns,
+    // just after the result is emitted
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (offload.active() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double outcome(String task, String outcome) {
+        return registry.get("gateway.offload.calls").tag("task", task).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,99 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import com.developer.ApiGateWay.latency.TimedRateLimiter;
+import com.developer.ApiGateWay.support.StandInRedisTemplate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With gateway.rate-limiter.mode=batched the RequestRateLimiter default filter on
+ * the YAML routes runs on {@link BatchedRedisRateLimiter}, with the route's
+ * redis-rate-limiter.* arguments.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=batched"
+})
+class BatchedRateLimiterRoutingTest {
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/{id}", (request, response) -> response.sendString(Mono.just("{}"))))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RequestRateLimiterGatewayFilterFactory requestRateLimiter;
+
+    @Autowired
+    private StandInRedisTemplate redis;
+
+    @TestConfiguration
+    static class StandInRedis {
+
+        // Takes the place of the auto-configured template of the same name
+        @Bean
+        StandInRedisTemplate reactiveStringRedisTemplate() {
+            StandInRedisTemplate redis = new StandInRedisTemplate();
+            redis.register(BatchedRedisRateLimiter.SCRIPT, redis::requestRateLimiterBatch);
+            return redis;
+        }
+    }
+
+    @DynamicPropertySource
+    static void orderService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void routesAreLimitedThroughTheBatcher() {
+        // Wrapped to record the rate-limit stage of the latency breakdown
+        assertThat(requestRateLimiter.getDefaultRateLimiter()).isInstanceOfSatisfying(TimedRateLimiter.class,
+                timed -> assertThat(timed.delegate()).isInstanceOf(BatchedRedisRateLimiter.class));
+
+        // Sent together, and more than the burst plus the 10 tokens one second boundary refills
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<ResponseEntity<Void>> responses = Flux.range(0, 50)
+                .flatMap(i -> client.get()
+                        .uri("/api/orders/" + i)
+                        .header("X-User-Id", "batched")
+                        .exchangeToMono(response -> response.toBodilessEntity()))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(responses).filteredOn(response -> response.getStatusCode().value() == 200)
+                .hasSizeGreaterThanOrEqualTo(20)
+                .allSatisfy(response -> assertThat(response.getHeaders()
+                        .getFirst(RedisRateLimiter.BURST_CAPACITY_HEADER)).isEqualTo("20"));
+        assertThat(responses).extracting(response -> response.getStatusCode().value()).contains(429);
+        assertThat(redis.roundTrips()).isPositive();
+    }
+}
@@ -0,0 +1,72 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import com.developer.ApiGateWay.redis.RedisBatcher;
+import com.developer.ApiGateWay.support.StandInRedisTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchedRedisRateLimiterTest {
+
+    @Test
+    void concurrentRequestsShareFewRoundTripsAndKeepTheLimit() {
+        // 1ms per call stands in for the network round trip
+        StandInRedisTemplate redis = new StandInRedisTemplate(Duration.ofMillis(1));
+        redis.register(BatchedRedisRateLimiter.SCRIPT, redis::requestRateLimiterBatch);
+        BatchedRedisRateLimiter limiter = limiter(redis, 1, 50);
+
+        List<RateLimiter.Response> responses = Flux.range(0, 256)
+                .flatMap(i -> limiter.isAllowed("user-service", "alice"), 256)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(responses).hasSize(256);
+        // The burst, plus one refilled token if the run crossed a second boundary
+        assertThat(responses.stream().filter(RateLimiter.Response::isAllowed).count()).isBetween(50L, 51L);
+        // One Redis call per 64 requests instead of one per request
+        assertThat(redis.roundTrips()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerKeyWithinOneBatch() {
+        StandInRedisTemplate redis = new StandInRedisTemplate();
+        redis.register(BatchedRedisRateLimiter.SCRIPT, redis::requestRateLimiterBatch);
+        BatchedRedisRateLimiter limiter = limiter(redis, 1, 1);
+
+        List<RateLimiter.Response> responses = Flux.merge(
+                        limiter.isAllowed("user-service", "alice"),
+                        limiter.isAllowed("user-service", "bob"),
+                        limiter.isAllowed("order-service", "alice"),
+                        limiter.isAllowed("user-service", "alice"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(responses).extracting(RateLimiter.Response::isAllowed).containsExactlyInAnyOrder(
+                true, true, true, false);
+        assertThat(redis.roundTrips()).isEqualTo(1);
+    }
+
+    @Test
+    void allowsRequestsWhenRedisFails() {
+        // No script registered: every call fails
+        BatchedRedisRateLimiter limiter = limiter(new StandInRedisTemplate(), 1, 1);
+
+        RateLimiter.Response response = limiter.isAllowed("user-service", "alice").block(Duration.ofSeconds(5));
+
+        assertThat(response.isAllowed()).isTrue();
+        assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "-1");
+    }
+
+    private static BatchedRedisRateLimiter limiter(StandInRedisTemplate redis, int replenishRate, int burstCapacity) {
+        RedisBatcher batcher = new RedisBatcher("rate_limiter", redis, BatchedRedisRateLimiter.BATCH_SCRIPT, 64,
+                Duration.ofMillis(50), new SimpleMeterRegistry());
+        return new BatchedRedisRateLimiter(batcher, replenishRate, burstCapacity);
+    }
+}
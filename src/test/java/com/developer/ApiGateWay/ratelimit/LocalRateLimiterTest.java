@@ -0,0 +1,188 @@
+package com.developer.ApiGateWay.ratelimit;
+
+import com.developer.ApiGateWay.config.LocalRateLimitProperties;
+import com.developer.ApiGateWay.support.StandInRedisTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    @Test
+    void allowsBurstThenDenies() {
+        LocalRateLimiter limiter = new LocalRateLimiter(new TokenBucketMap(4, 60_000, false), 1, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.isAllowed("user-service", "alice").block().isAllowed()).isTrue();
+        }
+        RateLimiter.Response denied = limiter.isAllowed("user-service", "alice").block();
+
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(RedisRateLimiter.BURST_CAPACITY_HEADER, "5");
+    }
+
+    @Test
+    void keepsSeparateBucketsPerRouteAndKey() {
+        LocalRateLimiter limiter = new LocalRateLimiter(new TokenBucketMap(4, 60_000, false), 1, 1);
+
+        assertThat(limiter.isAllowed("user-service", "alice").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("user-service", "bob").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("order-service", "alice").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("user-service", "alice").block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void refillsAtReplenishRate() throws InterruptedException {
+        TokenBucketMap buckets = new TokenBucketMap(4, 60_000, false);
+
+        assertThat(buckets.tryConsume("r", "k", 100, 1, 1)).isZero();
+        assertThat(buckets.tryConsume("r", "k", 100, 1, 1)).isEqualTo(-1);
+        Thread.sleep(30);
+        assertThat(buckets.tryConsume("r", "k", 100, 1, 1)).isZero();
+    }
+
+    @Test
+    void evictsIdleBuckets() {
+        TokenBucketMap buckets = new TokenBucketMap(4, 0, false);
+        buckets.tryConsume("r", "a", 1, 1, 1);
+        buckets.tryConsume("r", "b", 1, 1, 1);
+        assertThat(buckets.size()).isEqualTo(2);
+
+        buckets.evictIdle();
+
+        assertThat(buckets.size()).isZero();
+    }
+
+    @Test
+    void hybridNodesEnforceClusterWideLimitThroughRedis() {
+        StandInRedisTemplate redis = new StandInRedisTemplate();
+        redis.register(RedisRateReconciler.SCRIPT, redis::rateLimiterReconcile);
+        LocalRateLimitProperties.Hybrid properties = new LocalRateLimitProperties.Hybrid();
+        properties.setWindow(Duration.ofMinutes(1));
+
+        TokenBucketMap nodeA = new TokenBucketMap(4, 60_000, true);
+        TokenBucketMap nodeB = new TokenBucketMap(4, 60_000, true);
+        properties.setNodeId("a");
+        RedisRateReconciler reconcilerA = new RedisRateReconciler(redis, nodeA, properties);
+        properties.setNodeId("b");
+        RedisRateReconciler reconcilerB = new RedisRateReconciler(redis, nodeB, properties);
+
+        // Cluster limit for the window: 1/s * 60s + 100 burst = 160; each node has allowed 100
+        for (int i = 0; i < 100; i++) {
+            assertThat(nodeA.tryConsume("r", "k", 1, 100, 1)).isNotNegative();
+            assertThat(nodeB.tryConsume("r", "k", 1, 100, 1)).isNotNegative();
+        }
+        reconcilerA.sync();
+        reconcilerB.sync();
+
+        assertThat(nodeB.tryConsume("r", "k", 1, 100, 1)).isEqualTo(-1);
+        assertThat(nodeA.getShareDivisor()).isEqualTo(1);
+        assertThat(nodeB.getShareDivisor()).isEqualTo(2);
+
+        // Node A learns the cluster total with its next batch
+        nodeA.tryConsume("r", "k", 1, 100, 1);
+        reconcilerA.sync();
+        assertThat(nodeA.tryConsume("r", "k", 1, 100, 1)).isEqualTo(-1);
+        assertThat(nodeA.getShareDivisor()).isEqualTo(2);
+        assertThat(redis.roundTrips()).isEqualTo(3);
+    }
+
+    @Test
+    void hybridSyncRunsEarlyOnlyAfterAFullBatch() throws InterruptedException {
+        TokenBucketMap buckets = new TokenBucketMap(4, 60_000, true);
+        StandInRedisTemplate redis = new StandInRedisTemplate();
+        redis.register(RedisRateReconciler.SCRIPT, (keys, args) -> {
+            // Traffic that arrives during the round trip queues its bucket again
+            buckets.tryConsume("r", "steady", 1, 1_000, 1);
+            return redis.rateLimiterReconcile(keys, args);
+        });
+        LocalRateLimitProperties.Hybrid properties = new LocalRateLimitProperties.Hybrid();
+        properties.setSyncInterval(Duration.ofMinutes(10));
+        properties.setBatchSize(3);
+        for (String key : new String[] {"a", "b", "c", "d"}) {
+            buckets.tryConsume("r", key, 1, 1_000, 1);
+        }
+
+        RedisRateReconciler reconciler = new RedisRateReconciler(redis, buckets, properties);
+        reconciler.start();
+        try {
+            Thread.sleep(300);
+        } finally {
+            reconciler.stop();
+        }
+
+        // a, b, c fill the first batch; d and steady are a partial one, and the steady
+        // traffic seen during that call waits for the next interval
+        assertThat(redis.roundTrips()).isEqualTo(2);
+        assertThat(buckets.hasUnsynced()).isTrue();
+    }
+
+    @Test
+    void hybridSyncWaitsForTheNextIntervalAfterARedisError() throws InterruptedException {
+        TokenBucketMap buckets = new TokenBucketMap(4, 60_000, true);
+        StandInRedisTemplate redis = new StandInRedisTemplate();
+        redis.register(RedisRateReconciler.SCRIPT, (keys, args) -> {
+            throw new IllegalStateException("connection refused");
+        });
+        LocalRateLimitProperties.Hybrid properties = new LocalRateLimitProperties.Hybrid();
+        properties.setSyncInterval(Duration.ofMinutes(10));
+        properties.setBatchSize(1);
+        buckets.tryConsume("r", "k", 1, 1_000, 1);
+
+        RedisRateReconciler reconciler = new RedisRateReconciler(redis, buckets, properties);
+        reconciler.start();
+        try {
+            Thread.sleep(300);
+        } finally {
+            reconciler.stop();
+        }
+
+        // The delta is kept for the next sync instead of being retried in a loop
+        assertThat(redis.roundTrips()).isEqualTo(1);
+        assertThat(buckets.hasUnsynced()).isTrue();
+    }
+
+    @Test
+    void hybridSyncKeepsRunningAfterAnErrorThrownBeforeTheCall() throws InterruptedException {
+        TokenBucketMap buckets = new TokenBucketMap(4, 60_000, true);
+        AtomicBoolean thrown = new AtomicBoolean();
+        StandInRedisTemplate redis = new StandInRedisTemplate() {
+            @Override
+            public <T> Flux<T> execute(RedisScript<T> script, List<String> keys, List<?> args) {
+                // As the connection factory does while it is being reset
+                if (thrown.compareAndSet(false, true)) {
+                    throw new IllegalStateException("LettuceConnectionFactory is stopped");
+                }
+                return super.execute(script, keys, args);
+            }
+        };
+        redis.register(RedisRateReconciler.SCRIPT, redis::rateLimiterReconcile);
+        LocalRateLimitProperties.Hybrid properties = new LocalRateLimitProperties.Hybrid();
+        properties.setSyncInterval(Duration.ofMillis(50));
+        buckets.tryConsume("r", "k", 1, 1_000, 1);
+
+        RedisRateReconciler reconciler = new RedisRateReconciler(redis, buckets, properties);
+        reconciler.start();
+        try {
+            for (int i = 0; i < 100 && (redis.roundTrips() == 0 || buckets.hasUnsynced()); i++) {
+                Thread.sleep(10);
+            }
+        } finally {
+            reconciler.stop();
+        }
+
+        // The consumption held back by the failed sync reached Redis on a later one
+        assertThat(thrown).isTrue();
+        assertThat(redis.roundTrips()).isPositive();
+        assertThat(buckets.hasUnsynced()).isFalse();
+    }
+}
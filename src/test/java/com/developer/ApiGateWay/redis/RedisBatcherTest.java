@@ -0,0 +1,101 @@
+package com.developer.ApiGateWay.redis;
+
+import com.developer.ApiGateWay.support.StandInRedisTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisBatcherTest {
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> DOUBLE = (RedisScript) RedisScript.of(
+            "local r = {} for i = 1, #ARGV do r[i] = ARGV[i] * 2 end return r", List.class);
+
+    private final StandInRedisTemplate redis = new StandInRedisTemplate(Duration.ofMillis(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sendsFullBatchesAndHandsEachOperationItsResult() {
+        redis.register(DOUBLE, (keys, args) -> doubled(args));
+        RedisBatcher batcher = batcher(10, Duration.ofSeconds(10));
+
+        List<List<Long>> results = Flux.range(0, 100)
+                .flatMapSequential(i -> batcher.execute(List.of("k" + i), List.of(Integer.toString(i))), 100)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(redis.roundTrips()).isEqualTo(10);
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i)).containsExactly(2L * i);
+        }
+        assertThat(registry.get("gateway.redis.operations").counter().count()).isEqualTo(100);
+        assertThat(registry.get("gateway.redis.round.trips").counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    void sendsPartialBatchWhenWindowEnds() {
+        redis.register(DOUBLE, (keys, args) -> doubled(args));
+        RedisBatcher batcher = batcher(64, Duration.ofMillis(50));
+
+        List<List<Long>> results = Flux.range(0, 3)
+                .flatMap(i -> batcher.execute(List.of("k" + i), List.of("1")))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(3).containsOnly(List.of(2L));
+        assertThat(redis.roundTrips()).isEqualTo(1);
+    }
+
+    @Test
+    void batchErrorReachesEveryOperation() {
+        redis.register(DOUBLE, (keys, args) -> {
+            throw new IllegalStateException("ERR script failed");
+        });
+        RedisBatcher batcher = batcher(2, Duration.ofSeconds(10));
+
+        List<String> outcomes = Flux.merge(
+                        batcher.execute(List.of("a"), List.of("1")).map(Object::toString)
+                                .onErrorResume(e -> Mono.just(e.getMessage())),
+                        batcher.execute(List.of("b"), List.of("2")).map(Object::toString)
+                                .onErrorResume(e -> Mono.just(e.getMessage())))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(outcomes).containsExactly("ERR script failed", "ERR script failed");
+    }
+
+    @Test
+    void rejectsBatchWithWrongResultCount() {
+        redis.register(DOUBLE, (keys, args) -> List.of(1L));
+        RedisBatcher batcher = batcher(2, Duration.ofSeconds(10));
+
+        assertThatThrownBy(() -> Flux.merge(
+                batcher.execute(List.of("a"), List.of("1")),
+                batcher.execute(List.of("b"), List.of("2")))
+                .blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("returned 1 results, expected 2");
+    }
+
+    private RedisBatcher batcher(int maxBatchSize, Duration window) {
+        return new RedisBatcher("test", redis, new RedisBatcher.Script(DOUBLE, 1, 1, 1), maxBatchSize, window,
+                registry);
+    }
+
+    private static List<Long> doubled(List<?> args) {
+        List<Long> results = new ArrayList<>(args.size());
+        for (Object arg : args) {
+            results.add(Long.parseLong(arg.toString()) * 2);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,184 @@
+package com.developer.ApiGateWay.registry;
+
+import com.developer.ApiGateWay.config.RegistryProperties;
+import com.developer.ApiGateWay.support.StandInEureka;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegistrySnapshotServiceTest {
+
+    private static final String UNREACHABLE = "http://localhost:1/eureka/";
+
+    private final StandInEureka eureka = new StandInEureka();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> events = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void stopEureka() {
+        eureka.stop();
+    }
+
+    @Test
+    void fetchesTheRegistryOnceThenAppliesDeltas() {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        eureka.register("user-service", "user-2", "10.0.0.2", 8081, "STARTING");
+        eureka.registerSecure("order-service", "order-1", "10.0.0.3", 8443);
+        RegistrySnapshotService registry = registry(eureka.url());
+
+        assertThat(registry.sync()).isTrue();
+        SnapshotDiscoveryClient discovery = new SnapshotDiscoveryClient(registry);
+        assertThat(discovery.getServices()).containsExactly("order-service", "user-service");
+        assertThat(discovery.getInstances("user-service")).extracting(ServiceInstance::getInstanceId)
+                .containsExactly("user-1");
+        ServiceInstance order = discovery.getInstances("ORDER-SERVICE").get(0);
+        assertThat(order.getUri().toString()).isEqualTo("https://10.0.0.3:8443");
+
+        eureka.register("user-service", "user-2", "10.0.0.2", 8081, "UP");
+        eureka.cancel("order-1");
+        assertThat(registry.sync()).isTrue();
+        assertThat(discovery.getInstances("user-service")).hasSize(2);
+        assertThat(discovery.getServices()).containsExactly("user-service");
+
+        assertThat(registry.sync()).isFalse();
+        assertThat(eureka.fullFetches()).isEqualTo(1);
+        assertThat(eureka.deltaFetches()).isEqualTo(2);
+        assertThat(events).hasSize(2).allMatch(HeartbeatEvent.class::isInstance);
+        assertThat(meterRegistry.get("gateway.registry.fetches").tags("type", "delta", "outcome", "applied")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchesTheRegistryAgainWhenADeltaDoesNotReconcile() {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        RegistrySnapshotService registry = registry(eureka.url());
+        registry.sync();
+
+        // Same status counts, different instance: invisible to the hash, so it must come with the delta
+        eureka.register("user-service", "user-2", "10.0.0.2", 8081, "UP");
+        eureka.forgetDeltas();
+        registry.sync();
+
+        assertThat(eureka.deltaFetches()).isEqualTo(1);
+        assertThat(eureka.fullFetches()).isEqualTo(2);
+        assertThat(registry.snapshot().instances("user-service")).hasSize(2);
+        assertThat(meterRegistry.get("gateway.registry.fetches").tags("type", "delta", "outcome", "mismatch")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void restartsFromTheSnapshotFileAndReconcilesThroughADelta() {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        registry(eureka.url()).sync();
+        assertThat(directory.resolve("registry.snapshot")).exists();
+
+        eureka.register("user-service", "user-2", "10.0.0.2", 8081, "UP");
+        RegistrySnapshotService restarted = registry(eureka.url());
+        assertThat(restarted.load()).isTrue();
+        assertThat(restarted.snapshot().instances("user-service")).hasSize(1);
+
+        restarted.sync();
+        assertThat(restarted.snapshot().instances("user-service")).hasSize(2);
+        assertThat(eureka.fullFetches()).isEqualTo(1);
+        assertThat(eureka.deltaFetches()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsRoutingFromTheSnapshotWhileEurekaIsDown() {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        registry(eureka.url()).sync();
+        events.clear();
+
+        RegistrySnapshotService restarted = registry(UNREACHABLE);
+        restarted.load();
+        assertThatThrownBy(restarted::sync).isInstanceOf(IllegalStateException.class);
+
+        SnapshotReactiveDiscoveryClient discovery = new SnapshotReactiveDiscoveryClient(restarted);
+        assertThat(discovery.getInstances("user-service").collectList().block())
+                .extracting(ServiceInstance::getHost).containsExactly("10.0.0.1");
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void triesEurekaServersInOrder() {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        RegistryProperties properties = properties();
+        properties.setEurekaUrls(List.of(UNREACHABLE, eureka.url()));
+        RegistrySnapshotService registry = registry(properties);
+
+        assertThat(registry.sync()).isTrue();
+        assertThat(registry.snapshot().instanceCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresCorruptAndStaleSnapshots() throws IOException {
+        eureka.register("user-service", "user-1", "10.0.0.1", 8081, "UP");
+        registry(eureka.url()).sync();
+        Path file = directory.resolve("registry.snapshot");
+        byte[] content = Files.readAllBytes(file);
+
+        RegistryProperties stale = properties();
+        stale.setMaxSnapshotAge(Duration.ZERO);
+        assertThat(registry(stale).load()).isFalse();
+
+        content[content.length / 2] ^= 1;
+        Files.write(file, content);
+        RegistrySnapshotService restarted = registry(eureka.url());
+        assertThat(restarted.load()).isFalse();
+        assertThat(restarted.snapshot().instanceCount()).isZero();
+    }
+
+    @Test
+    void snapshotFileRoundTripsEveryField() throws IOException {
+        RegisteredInstance instance = new RegisteredInstance("file-service", "file-1", "files.internal", 9443, true,
+                RegisteredInstance.Status.OUT_OF_SERVICE, Map.of("zone", "eu-1", "version", "3.2"));
+        RegistrySnapshot snapshot = RegistrySnapshot.of(List.of(instance), 1_700_000_000_000L);
+        Path file = directory.resolve("round-trip.snapshot");
+
+        SnapshotFile.write(file, snapshot);
+        RegistrySnapshot read = SnapshotFile.read(file);
+
+        assertThat(read.services()).isEqualTo(snapshot.services());
+        assertThat(read.syncedAt()).isEqualTo(snapshot.syncedAt());
+        assertThat(read.appsHashCode()).isEqualTo("OUT_OF_SERVICE_1_");
+        assertThat(read.instances("file-service")).isEmpty();
+    }
+
+    private RegistrySnapshotService registry(String eurekaUrl) {
+        RegistryProperties properties = properties();
+        properties.setEurekaUrls(List.of(eurekaUrl));
+        return registry(properties);
+    }
+
+    private RegistrySnapshotService registry(RegistryProperties properties) {
+        EurekaRegistryClient client = new EurekaRegistryClient(properties.getEurekaUrls(), WebClient.builder(),
+                new ObjectMapper(), properties.getFetchTimeout(), 1024 * 1024);
+        return new RegistrySnapshotService(client, properties, events::add, meterRegistry);
+    }
+
+    private RegistryProperties properties() {
+        RegistryProperties properties = new RegistryProperties();
+        properties.setSnapshotFile(directory.resolve("registry.snapshot"));
+        properties.setFetchTimeout(Duration.ofSeconds(2));
+        return properties;
+    }
+}
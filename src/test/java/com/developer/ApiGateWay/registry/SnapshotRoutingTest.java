@@ -0,0 +1,104 @@
+package com.developer.ApiGateWay.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The whole gateway started with the Eureka client enabled but no Eureka server
+ * reachable: user-service is known only from a registry snapshot written before
+ * startup, and is routed to and reported from it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.register-with-eureka=false",
+        "eureka.client.fetch-registry=false",
+        "gateway.rate-limiter.mode=local",
+        "gateway.health.refresh-interval=100ms"
+})
+class SnapshotRoutingTest {
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/42", (request, response) -> response
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just("{\"id\":42,\"name\":\"Ada\"}"))))
+            .bindNow();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void registry(DynamicPropertyRegistry registry) throws IOException {
+        Path file = Files.createTempDirectory("registry").resolve("registry.snapshot");
+        SnapshotFile.write(file, RegistrySnapshot.of(List.of(new RegisteredInstance("user-service", "user-1",
+                "localhost", backend.port(), false, RegisteredInstance.Status.UP, Map.of())),
+                System.currentTimeMillis()));
+        registry.add("gateway.registry.snapshot-file", file::toString);
+        registry.add("gateway.registry.eureka-urls", () -> "http://localhost:" + closedPort() + "/eureka/");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void routesFromTheSnapshotWithoutEureka() throws IOException {
+        String body = WebClient.create("http://localhost:" + port).get()
+                .uri("/api/users/42")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(10));
+
+        assertThat(objectMapper.readTree(body).get("name").asText()).isEqualTo("Ada");
+    }
+
+    @Test
+    void reportsSnapshotServicesInHealth() throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        JsonNode services;
+        do {
+            services = objectMapper.readTree(WebClient.create("http://localhost:" + port).get()
+                    .uri("/api/health/services")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(Duration.ofSeconds(10)));
+            if (services.at("/services/user-service/instances").asInt() == 1) {
+                break;
+            }
+            Thread.sleep(50);
+        } while (System.nanoTime() < deadline);
+
+        assertThat(services.at("/services/user-service/instances").asInt()).isEqualTo(1);
+    }
+
+    private static int closedPort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
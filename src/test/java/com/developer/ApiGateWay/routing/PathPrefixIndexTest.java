@@ -0,0 +1,179 @@
+package com.developer.ApiGateWay.routing;
+
+import com.developer.ApiGateWay.config.LatencyMetricsProperties;
+import com.developer.ApiGateWay.latency.RouteLatencyRecorder;
+import com.developer.ApiGateWay.security.PathAccessRules;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.predicate.HeaderRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathPrefixIndexTest {
+
+    @Test
+    void returnsAnchoredAndUnanchoredCandidatesInOrder() {
+        PathPrefixIndex<String> index = PathPrefixIndex.<String>builder()
+                .add("users", List.of("/api/users/**"))
+                .addUnanchored("catch-all")
+                .add("products", List.of("/api/products/**"))
+                .add("api", List.of("/api/{service}/**"))
+                .build();
+
+        assertThat(index.candidates("/api/users/42")).containsExactly("users", "catch-all", "api");
+        assertThat(index.candidates("/api/orders")).containsExactly("catch-all", "api");
+        assertThat(index.candidates("/other")).containsExactly("catch-all");
+    }
+
+    @Test
+    void listsValueOnceWhenAnchoredUnderNestedPrefixes() {
+        PathPrefixIndex<String> index = PathPrefixIndex.<String>builder()
+                .add("files", List.of("/api/files/**", "/api/files/public/**"))
+                .build();
+
+        assertThat(index.candidates("/api/files/public/a.txt")).containsExactly("files");
+    }
+
+    @Test
+    void anchorsRoutesByTheirDefinitionsPathPredicates() {
+        Route users = route("users", path("/api/users/**").and(header("X-Tenant")));
+
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(users,
+                definition("users", "Path=/api/users/**", "Header=X-Tenant, .+"))).containsExactly("/api/users/**");
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(route("files",
+                        path("/api/files/**", "/files/**")),
+                definition("files", "Path=/api/files/**,/files/**,false")))
+                .containsExactly("/api/files/**", "/files/**");
+        // No definition: built in Java, where OR and negation cannot be ruled out
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(users, null)).isEmpty();
+        // Unless the route declares its patterns in its metadata
+        Route declared = Route.async().id("users").uri("lb://users")
+                .asyncPredicate(path("/api/users/**").and(header("X-Tenant")))
+                .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/users/**"))
+                .build();
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(declared, null))
+                .containsExactly("/api/users/**");
+        Route stale = Route.async().id("users").uri("lb://users").asyncPredicate(path("/api/users/**"))
+                .metadata(IndexedRoutePredicateHandlerMapping.PATH_PATTERNS_METADATA, List.of("/api/customers/**"))
+                .build();
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(stale, null)).isEmpty();
+        // A definition that does not describe the route found by its id
+        assertThat(IndexedRoutePredicateHandlerMapping.pathPatterns(users,
+                definition("users", "Path=/api/customers/**"))).isEmpty();
+    }
+
+    @Test
+    void movesOnWhenAPredicateFails() {
+        List<Route> routes = List.of(
+                route("broken", exchange -> Mono.error(new IllegalStateException("broken predicate"))),
+                route("users", path("/api/users/**")));
+        Map<String, RouteDefinition> definitions = Map.of("users", definition("users", "Path=/api/users/**"));
+        IndexedRoutePredicateHandlerMapping mapping = new IndexedRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of()), () -> Flux.fromIterable(routes),
+                () -> Flux.fromIterable(definitions.values()),
+                new StaticListableBeanFactory().getBeanProvider(RouteStore.class), new GlobalCorsProperties(),
+                new MockEnvironment(),
+                new RouteLatencyRecorder(new SimpleMeterRegistry(), new LatencyMetricsProperties()));
+        mapping.rebuild();
+
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/42"));
+        mapping.getHandler(exchange).block();
+        assertThat(exchange.<Route>getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR))
+                .extracting(Route::getId).isEqualTo("users");
+    }
+
+    @Test
+    void findsSameRouteAsLinearScan() {
+        List<Route> routes = new ArrayList<>();
+        routes.add(route("auth", path("/api/auth/**")));
+        routes.add(route("files", path("/api/files/**").and(header("Content-Length"))));
+        routes.add(route("either", path("/api/reports/**").or(path("/legacy/**"))));
+        routes.add(route("not-admin", path("/api/admin/**").negate().and(path("/api/*/internal/**"))));
+        for (int i = 0; i < 50; i++) {
+            routes.add(route("service-" + i, path("/api/service-" + i + "/**")));
+        }
+        routes.add(route("fallback", path("/**")));
+        Map<String, RouteDefinition> definitions = new HashMap<>();
+        definitions.put("auth", definition("auth", "Path=/api/auth/**"));
+        definitions.put("files", definition("files", "Path=/api/files/**", "Header=Content-Length, .+"));
+        for (int i = 0; i < 50; i++) {
+            definitions.put("service-" + i, definition("service-" + i, "Path=/api/service-" + i + "/**"));
+        }
+        definitions.put("fallback", definition("fallback", "Path=/**"));
+        PathPrefixIndex<Route> index = IndexedRoutePredicateHandlerMapping.compile(routes, definitions);
+
+        for (String path : List.of("/api/auth/login", "/api/files/a", "/legacy/x", "/api/reports/1",
+                "/api/service-7/items", "/api/service-49", "/api/orders/internal/x", "/api/admin/internal/x",
+                "/unknown")) {
+            ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+            assertThat(firstMatch(index.candidates(PathContainer.parsePath(path)), exchange))
+                    .as(path)
+                    .isEqualTo(firstMatch(routes, exchange));
+        }
+    }
+
+    @Test
+    void resolvesPublicAndAuthenticatedPaths() {
+        PathAccessRules rules = new PathAccessRules(
+                List.of("/api/health/**", "/api/auth/login", "/actuator/**"), List.of("/api/admin/**"));
+
+        assertThat(rules.isPublic(PathContainer.parsePath("/api/health"))).isTrue();
+        assertThat(rules.isPublic(PathContainer.parsePath("/api/auth/login"))).isTrue();
+        assertThat(rules.isPublic(PathContainer.parsePath("/api/auth/login-as-admin"))).isFalse();
+        assertThat(rules.isPublic(PathContainer.parsePath("/actuator/metrics"))).isTrue();
+        assertThat(rules.requiresAuthentication(PathContainer.parsePath("/api/admin/users"))).isTrue();
+        assertThat(rules.access(PathContainer.parsePath("/api/users/1"))).isNull();
+    }
+
+    private static String firstMatch(List<Route> routes, ServerWebExchange exchange) {
+        for (Route route : routes) {
+            if (Boolean.TRUE.equals(Mono.from(route.getPredicate().apply(exchange)).block())) {
+                return route.getId();
+            }
+        }
+        return null;
+    }
+
+    private static Route route(String id, AsyncPredicate<ServerWebExchange> predicate) {
+        return Route.async().id(id).uri("lb://" + id).asyncPredicate(predicate).build();
+    }
+
+    private static RouteDefinition definition(String id, String... predicates) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setPredicates(Arrays.stream(predicates).map(PredicateDefinition::new).toList());
+        return definition;
+    }
+
+    private static AsyncPredicate<ServerWebExchange> path(String... patterns) {
+        return new PathRoutePredicateFactory().applyAsync(new PathRoutePredicateFactory.Config()
+                .setPatterns(List.of(patterns)));
+    }
+
+    private static AsyncPredicate<ServerWebExchange> header(String name) {
+        return new HeaderRoutePredicateFactory().applyAsync(new HeaderRoutePredicateFactory.Config()
+                .setHeader(name).setRegexp(".+"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.developer.ApiGateWay.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.CachingRouteLocator;
+import org.springframework.cloud.gateway.route.CompositeRouteLocator;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.convert.support.DefaultConversionService;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteStoreTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private CachingRouteLocator cachingLocator;
+    private final ApplicationEventPublisher publisher = event -> {
+        events.add(event);
+        if (cachingLocator != null && event instanceof RefreshRoutesEvent refresh) {
+            cachingLocator.onApplicationEvent(refresh);
+        }
+    };
+    private final ConfigurationService configurationService = new ConfigurationService(
+            new StaticListableBeanFactory(), DefaultConversionService::getSharedInstance, () -> null);
+    private final RouteStore store = new RouteStore(
+            List.of(new PathRoutePredicateFactory(), new MethodRoutePredicateFactory()),
+            List.of(new StripPrefixGatewayFilterFactory(), new AddRequestHeaderGatewayFilterFactory()),
+            new GatewayProperties(), configurationService, publisher, new SimpleMeterRegistry());
+    private RouteFileWatcher watcher;
+
+    @AfterEach
+    void stopWatcher() throws Exception {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void compilesOnlyAddedAndModifiedRoutes() {
+        RouteStore.Result first = store.apply(List.of(route("users", "/api/users/**", "2"),
+                route("orders", "/api/orders/**", "2"), route("reports", "/api/reports/**", "2")));
+        assertThat(first.added()).containsExactly("users", "orders", "reports");
+        Map<String, Route> before = routes();
+
+        RouteStore.Result second = store.apply(List.of(route("users", "/api/users/**", "2"),
+                route("orders", "/api/orders/**", "3"), route("files", "/api/files/**", "2")));
+
+        assertThat(second.added()).containsExactly("files");
+        assertThat(second.modified()).containsExactly("orders");
+        assertThat(second.removed()).containsExactly("reports");
+        assertThat(second.unchanged()).isEqualTo(1);
+        Map<String, Route> after = routes();
+        assertThat(after).containsOnlyKeys("users", "orders", "files");
+        assertThat(after.get("users")).isSameAs(before.get("users"));
+        assertThat(after.get("orders")).isNotSameAs(before.get("orders"));
+        assertThat(after.get("files").getMetadata()).containsEntry(RouteStore.METADATA_KEY, true);
+    }
+
+    @Test
+    void publishesScopedRefreshOnlyWhenSomethingChanged() {
+        List<RouteDefinition> definitions = List.of(route("users", "/api/users/**", "2"));
+        store.apply(definitions);
+        RouteStore.Result again = store.apply(definitions);
+
+        assertThat(again.changed()).isFalse();
+        assertThat(events).singleElement().isInstanceOfSatisfying(RefreshRoutesEvent.class, event -> {
+            assertThat(event.isScoped()).isTrue();
+            assertThat(event.getMetadata()).containsEntry(RouteStore.METADATA_KEY, true);
+        });
+    }
+
+    @Test
+    void keepsPreviousVersionWhenAChangeDoesNotCompile() {
+        store.apply(List.of(route("users", "/api/users/**", "2")));
+        Route previous = routes().get("users");
+
+        RouteDefinition broken = route("users", "/api/users/**", "2");
+        broken.getFilters().add(new FilterDefinition("NoSuchFilter=1"));
+        RouteStore.Result result = store.apply(List.of(broken, route("orders", "/api/orders/**", "2")));
+
+        assertThat(result.failed()).containsExactly("users");
+        assertThat(result.modified()).isEmpty();
+        assertThat(result.added()).containsExactly("orders");
+        assertThat(routes().get("users")).isSameAs(previous);
+    }
+
+    @Test
+    void scopedRefreshLeavesOtherRoutesCompiledOnce() {
+        RouteDefinition configured = route("configured", "/api/configured/**", "2");
+        RouteDefinitionRouteLocator configuredLocator = new RouteDefinitionRouteLocator(
+                () -> Flux.just(configured), List.of(new PathRoutePredicateFactory()),
+                List.of(new StripPrefixGatewayFilterFactory()), new GatewayProperties(), configurationService);
+        cachingLocator = new CachingRouteLocator(new CompositeRouteLocator(Flux.just(configuredLocator, store)));
+        cachingLocator.setApplicationEventPublisher(event -> {
+        });
+        Route configuredRoute = cachingLocator.getRoutes().blockFirst();
+
+        store.apply(List.of(route("users", "/api/users/**", "2")));
+        store.apply(List.of(route("orders", "/api/orders/**", "2")));
+
+        List<Route> routes = cachingLocator.getRoutes().collectList().block();
+        assertThat(routes).extracting(Route::getId).containsExactlyInAnyOrder("configured", "orders");
+        assertThat(routes).filteredOn(route -> route.getId().equals("configured")).singleElement()
+                .isSameAs(configuredRoute);
+    }
+
+    @Test
+    void appliesEditsToTheWatchedFile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("routes.yml");
+        Files.writeString(file, """
+                routes:
+                  - id: users
+                    uri: http://localhost:8081
+                    predicates:
+                      - Path=/api/users/**
+                    filters:
+                      - StripPrefix=2
+                """);
+        watcher = new RouteFileWatcher(file, Duration.ofMillis(20), store);
+        watcher.start();
+        assertThat(routes()).containsOnlyKeys("users");
+
+        Files.writeString(file, """
+                routes:
+                  - id: users
+                    uri: http://localhost:8081
+                    predicates:
+                      - Path=/api/users/**
+                    filters:
+                      - StripPrefix=2
+                  - id: orders
+                    uri: http://localhost:8082
+                    predicates:
+                      - Path=/api/orders/**
+                      - Method=GET,POST
+                    filters:
+                      - name: AddRequestHeader
+                        args:
+                          name: X-Gateway
+                          value: API-Gateway
+                """);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (store.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(routes()).containsOnlyKeys("users", "orders");
+        assertThat(routes().get("orders").getUri()).isEqualTo(URI.create("http://localhost:8082"));
+    }
+
+    @Test
+    void keepsRoutesWhenTheFileDoesNotParse(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("routes.yml");
+        Files.writeString(file, "routes:\n  - id: users\n    uri: http://localhost:8081\n"
+                + "    predicates:\n      - Path=/api/users/**\n");
+        watcher = new RouteFileWatcher(file, Duration.ofMillis(20), store);
+        assertThat(watcher.reload().added()).containsExactly("users");
+
+        Files.writeString(file, "routes: [ {id: users, uri: ");
+
+        assertThat(watcher.reload()).isNull();
+        assertThat(routes()).containsOnlyKeys("users");
+    }
+
+    private Map<String, Route> routes() {
+        return store.getRoutes().collectList().block().stream()
+                .collect(Collectors.toMap(Route::getId, Function.identity()));
+    }
+
+    private static RouteDefinition route(String id, String path, String stripParts) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setUri(URI.create("lb://" + id));
+        definition.setPredicates(new ArrayList<>(List.of(new PredicateDefinition("Path=" + path))));
+        definition.setFilters(new ArrayList<>(List.of(new FilterDefinition("StripPrefix=" + stripParts))));
+        return definition;
+    }
+}
@@ -0,0 +1,182 @@
+package com.developer.ApiGateWay.security;
+
+import com.developer.ApiGateWay.config.JwtProperties;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtVerifierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path jwksFile;
+    private RSAKey signingKey;
+    private JwksKeyStore keyStore;
+    private JwtProperties properties;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").algorithm(JWSAlgorithm.RS256).generate();
+        jwksFile = tempDir.resolve("jwks.json");
+        writeJwks(signingKey);
+
+        properties = new JwtProperties();
+        properties.setJwksFile(jwksFile.toString());
+        properties.setIssuer("auth-service");
+        properties.setClockSkew(Duration.ZERO);
+        keyStore = new JwksKeyStore(properties);
+        keyStore.reload();
+        verifier = new JwtVerifier(keyStore, properties);
+    }
+
+    @Test
+    void verifiesSignedTokenAndExtractsClaims() throws Exception {
+        VerifiedToken verified = verifier.verify(sign(signingKey, "auth-service", 60_000));
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.userId()).isEqualTo("user-42");
+        assertThat(verified.role()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void servesRepeatedTokenFromCache() throws Exception {
+        String token = sign(signingKey, "auth-service", 60_000);
+
+        VerifiedToken first = verifier.verify(token);
+        VerifiedToken second = verifier.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifier.cachedTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsExpiredTokenWrongIssuerAndUnknownKey() throws Exception {
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("key-1").algorithm(JWSAlgorithm.RS256).generate();
+
+        assertThat(verifier.verify(sign(signingKey, "auth-service", -1_000))).isNull();
+        assertThat(verifier.verify(sign(signingKey, "someone-else", 60_000))).isNull();
+        assertThat(verifier.verify(sign(otherKey, "auth-service", 60_000))).isNull();
+        assertThat(verifier.verify("not-a-jwt")).isNull();
+        assertThat(verifier.cachedTokens()).isZero();
+    }
+
+    @Test
+    void picksUpRotatedKeysAndDropsCachedClaims() throws Exception {
+        String oldToken = sign(signingKey, "auth-service", 60_000);
+        assertThat(verifier.verify(oldToken)).isNotNull();
+
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").algorithm(JWSAlgorithm.RS256).generate();
+        writeJwks(rotatedKey);
+        keyStore.reload();
+
+        assertThat(verifier.verify(oldToken)).isNull();
+        assertThat(verifier.verify(sign(rotatedKey, "auth-service", 60_000))).isNotNull();
+    }
+
+    @Test
+    void loadsTheOtherKeysWhenOneCannotBeUsed() throws Exception {
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").algorithm(JWSAlgorithm.RS256).generate();
+        // 128 bits: too short for any HMAC verifier
+        OctetSequenceKey shortSecret = new OctetSequenceKey.Builder(new byte[16]).keyID("hmac-1").build();
+        Files.writeString(jwksFile, new JWKSet(List.of(shortSecret, rotatedKey.toPublicJWK())).toString(false));
+        keyStore.reload();
+
+        assertThat(keyStore.size()).isEqualTo(1);
+        assertThat(verifier.verify(sign(rotatedKey, "auth-service", 60_000))).isNotNull();
+    }
+
+    @Test
+    void doesNotCacheClaimsVerifiedAgainstKeysRotatedMeanwhile() throws Exception {
+        RSAKey rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").algorithm(JWSAlgorithm.RS256).generate();
+        AtomicBoolean rotated = new AtomicBoolean();
+        JwtVerifier racing = new JwtVerifier(keyStore, properties) {
+            @Override
+            public VerifiedToken verifyUncached(String token) {
+                VerifiedToken verified = super.verifyUncached(token);
+                // The rotation lands between the signature check and the cache put
+                if (rotated.compareAndSet(false, true)) {
+                    try {
+                        writeJwks(rotatedKey);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    keyStore.reload();
+                }
+                return verified;
+            }
+        };
+        String oldToken = sign(signingKey, "auth-service", 60_000);
+
+        assertThat(racing.verify(oldToken)).isNotNull();
+        assertThat(racing.cachedTokens()).isZero();
+        assertThat(racing.verify(oldToken)).isNull();
+    }
+
+    @Test
+    void reloadsForUnknownKeyIdsAtMostOncePerInterval() throws Exception {
+        JwtProperties properties = new JwtProperties();
+        properties.setJwksFile(jwksFile.toString());
+        properties.setReloadInterval(Duration.ofHours(1));
+        properties.setMinRefreshInterval(Duration.ofMillis(300));
+        JwksKeyStore store = new JwksKeyStore(properties);
+        store.start();
+        try {
+            Thread.sleep(350);
+            unknownKeyIds(store);
+            for (int i = 0; i < 100 && store.reloadCount() < 2; i++) {
+                Thread.sleep(10);
+            }
+            // Still inside the interval that reload started
+            unknownKeyIds(store);
+            Thread.sleep(100);
+
+            // The one at start, and one for both bursts
+            assertThat(store.reloadCount()).isEqualTo(2);
+        } finally {
+            store.stop();
+        }
+    }
+
+    private static void unknownKeyIds(JwksKeyStore store) {
+        for (int i = 0; i < 100; i++) {
+            assertThat(store.verifierFor(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("random-" + i).build()))
+                    .isNull();
+        }
+    }
+
+    private void writeJwks(RSAKey key) throws Exception {
+        Files.writeString(jwksFile, new JWKSet(key.toPublicJWK()).toString());
+    }
+
+    private static String sign(RSAKey key, String issuer, long validForMillis) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user-42")
+                .issuer(issuer)
+                .claim("role", "ADMIN")
+                .expirationTime(new Date(System.currentTimeMillis() + validForMillis))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
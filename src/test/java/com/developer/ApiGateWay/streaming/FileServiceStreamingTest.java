@@ -0,0 +1,169 @@
+package com.developer.ApiGateWay.streaming;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pushes large bodies through the file-service route in both directions against an
+ * in-process backend and checks that the JVM heap does not grow with the body.
+ * Client, gateway and backend share the heap, so the check covers all three; the
+ * client and backend reuse one off-heap chunk and allocate nothing per byte.
+ *
+ * <p>Bodies are 64MB by default, so that the test fits a normal build; run the
+ * multi-GB case with {@code -Dgateway.streaming.test-bytes=2147483648}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.streaming.max-body-size=3GB"
+})
+class FileServiceStreamingTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long BODY_BYTES = Long.getLong("gateway.streaming.test-bytes", 64L << 20);
+    // Half the body for small bodies, so that buffering one would still fail the check
+    private static final long HEAP_GROWTH_LIMIT = Math.min(128L << 20, BODY_BYTES / 2);
+
+    private static final ByteBuf CHUNK = Unpooled.unreleasableBuffer(
+            Unpooled.directBuffer(CHUNK_SIZE).writeZero(CHUNK_SIZE));
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .post("/upload", (request, response) -> request.receive()
+                            .map(ByteBuf::readableBytes)
+                            .reduce(0L, Long::sum)
+                            .flatMap(total -> response.sendString(Mono.just(total.toString())).then()))
+                    .get("/download/{bytes}", (request, response) -> {
+                        long bytes = Long.parseLong(request.param("bytes"));
+                        return response.header("Content-Length", Long.toString(bytes))
+                                .send(chunks(bytes));
+                    }))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void fileService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.file-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void uploadStreamsWithFlatHeap() {
+        HttpClient client = HttpClient.create().port(port).responseTimeout(Duration.ofMinutes(5));
+
+        HeapSampler heap = HeapSampler.start();
+        String received = client.post()
+                .uri("/api/files/upload")
+                .send(chunks(BODY_BYTES))
+                .responseSingle((response, body) -> body.asString())
+                .block(Duration.ofMinutes(5));
+        long growth = heap.stop();
+
+        assertThat(received).isEqualTo(Long.toString(BODY_BYTES));
+        assertThat(growth).as("heap growth while uploading %d bytes", BODY_BYTES).isLessThan(HEAP_GROWTH_LIMIT);
+    }
+
+    @Test
+    void downloadStreamsWithFlatHeap() {
+        HttpClient client = HttpClient.create().port(port).responseTimeout(Duration.ofMinutes(5));
+
+        HeapSampler heap = HeapSampler.start();
+        Long received = client.get()
+                .uri("/api/files/download/" + BODY_BYTES)
+                .responseContent()
+                .map(ByteBuf::readableBytes)
+                .reduce(0L, Long::sum)
+                .block(Duration.ofMinutes(5));
+        long growth = heap.stop();
+
+        assertThat(received).isEqualTo(BODY_BYTES);
+        assertThat(growth).as("heap growth while downloading %d bytes", BODY_BYTES).isLessThan(HEAP_GROWTH_LIMIT);
+    }
+
+    @Test
+    void declaredUploadOverLimitIsRejected() {
+        HttpClient client = HttpClient.create().port(port).responseTimeout(Duration.ofMinutes(1));
+
+        Integer status = client.headers(headers -> headers.set("Content-Length", Long.toString(4L << 30)))
+                .post()
+                .uri("/api/files/upload")
+                .send(Flux.empty())
+                .response()
+                .map(response -> response.status().code())
+                .block(Duration.ofMinutes(1));
+
+        assertThat(status).isEqualTo(413);
+    }
+
+    private static Flux<ByteBuf> chunks(long bytes) {
+        return Flux.generate(() -> bytes, (remaining, sink) -> {
+            if (remaining <= 0) {
+                sink.complete();
+                return remaining;
+            }
+            int size = (int) Math.min(CHUNK_SIZE, remaining);
+            sink.next(CHUNK.duplicate().writerIndex(size));
+            return remaining - size;
+        });
+    }
+
+    /**
+     * Peak heap in use during a transfer, relative to a collected baseline. Garbage
+     * not yet collected counts too, so the bound is conservative.
+     */
+    private static final class HeapSampler {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicLong peak = new AtomicLong();
+        private final long baseline;
+
+        private HeapSampler() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        static HeapSampler start() {
+            HeapSampler sampler = new HeapSampler();
+            sampler.executor.scheduleAtFixedRate(sampler::sample, 0, 20, TimeUnit.MILLISECONDS);
+            return sampler;
+        }
+
+        private void sample() {
+            peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+
+        long stop() {
+            executor.shutdownNow();
+            return peak.get() - baseline;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.developer.ApiGateWay.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for a Eureka server's read API in tests: {@code GET
+ * /eureka/apps} and {@code GET /eureka/apps/delta} as JSON, in the server's
+ * format, including {@code apps__hashcode}. Every registration change is kept for
+ * the delta until {@link #forgetDeltas()}, which stands in for the server's delta
+ * retention running out. Fetches of either kind are counted.
+ */
+public class StandInEureka {
+
+    private record Instance(String app, String id, String host, int port, String status, boolean secure) {
+    }
+
+    private record Change(String actionType, Instance instance) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Instance> instances = new LinkedHashMap<>();
+    private final List<Change> changes = new ArrayList<>();
+    private final AtomicInteger fullFetches = new AtomicInteger();
+    private final AtomicInteger deltaFetches = new AtomicInteger();
+    private final DisposableServer server;
+
+    public StandInEureka() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/eureka/apps", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.fromSupplier(this::apps)))
+                        .get("/eureka/apps/delta", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.fromSupplier(this::delta))))
+                .bindNow();
+    }
+
+    public String url() {
+        return "http://localhost:" + server.port() + "/eureka/";
+    }
+
+    public void stop() {
+        server.disposeNow();
+    }
+
+    public synchronized void register(String app, String id, String host, int port, String status) {
+        put(new Instance(app.toUpperCase(Locale.ROOT), id, host, port, status, false));
+    }
+
+    public synchronized void registerSecure(String app, String id, String host, int securePort) {
+        put(new Instance(app.toUpperCase(Locale.ROOT), id, host, securePort, "UP", true));
+    }
+
+    public synchronized void cancel(String id) {
+        Instance removed = instances.remove(id);
+        if (removed != null) {
+            changes.add(new Change("DELETED", removed));
+        }
+    }
+
+    public synchronized void forgetDeltas() {
+        changes.clear();
+    }
+
+    public int fullFetches() {
+        return fullFetches.get();
+    }
+
+    public int deltaFetches() {
+        return deltaFetches.get();
+    }
+
+    private void put(Instance instance) {
+        Instance previous = instances.put(instance.id(), instance);
+        changes.add(new Change(previous == null ? "ADDED" : "MODIFIED", instance));
+    }
+
+    private synchronized String apps() {
+        fullFetches.incrementAndGet();
+        return render(instances.values().stream().map(instance -> new Change(null, instance)).toList());
+    }
+
+    private synchronized String delta() {
+        deltaFetches.incrementAndGet();
+        return render(changes);
+    }
+
+    private String render(List<Change> listed) {
+        Map<String, ArrayNode> byApp = new TreeMap<>();
+        for (Change change : listed) {
+            Instance instance = change.instance();
+            ObjectNode node = objectMapper.createObjectNode()
+                    .put("instanceId", instance.id())
+                    .put("hostName", instance.host())
+                    .put("app", instance.app())
+                    .put("ipAddr", instance.host())
+                    .put("status", instance.status());
+            node.putObject("port").put("$", instance.secure() ? 8080 : instance.port())
+                    .put("@enabled", String.valueOf(!instance.secure()));
+            node.putObject("securePort").put("$", instance.secure() ? instance.port() : 443)
+                    .put("@enabled", String.valueOf(instance.secure()));
+            node.putObject("metadata").put("@class", "java.util.Collections$EmptyMap");
+            if (change.actionType() != null) {
+                node.put("actionType", change.actionType());
+            }
+            byApp.computeIfAbsent(instance.app(), app -> objectMapper.createArrayNode()).add(node);
+        }
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode applications = root.putObject("applications")
+                .put("versions__delta", "1")
+                .put("apps__hashcode", hashCode(instances.values()));
+        ArrayNode list = applications.putArray("application");
+        byApp.forEach((app, appInstances) -> list.addObject().put("name", app).set("instance", appInstances));
+        return root.toString();
+    }
+
+    // As Eureka's Applications.getReconcileHashCode: instance count per status, sorted by status
+    private static String hashCode(Iterable<Instance> all) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Instance instance : all) {
+            counts.merge(instance.status(), 1, Integer::sum);
+        }
+        StringBuilder hash = new StringBuilder();
+        counts.forEach((status, count) -> hash.append(status).append('_').append(count).append('_'));
+        return hash.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.developer.ApiGateWay.support;
+
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * In-process stand-in for Redis in tests and benchmarks. Lua scripts are answered
+ * by Java handlers registered per script SHA, against plain maps guarded by one lock
+ * (Redis runs scripts atomically too). An optional delay simulates the network
+ * round trip, and every call is counted as one round trip.
+ */
+public class StandInRedisTemplate extends ReactiveStringRedisTemplate {
+
+    private final Map<String, BiFunction<List<String>, List<?>, Object>> scripts = new ConcurrentHashMap<>();
+    private final Map<String, Long> counters = new HashMap<>();
+    private final Map<String, Map<String, Long>> sortedSets = new HashMap<>();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final Duration latency;
+
+    public StandInRedisTemplate() {
+        this(Duration.ZERO);
+    }
+
+    public StandInRedisTemplate(Duration latency) {
+        // Never started: nothing here opens a connection
+        super(new LettuceConnectionFactory());
+        this.latency = latency;
+    }
+
+    public StandInRedisTemplate register(RedisScript<?> script, BiFunction<List<String>, List<?>, Object> handler) {
+        scripts.put(script.getSha1(), handler);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> execute(RedisScript<T> script, List<String> keys, List<?> args) {
+        BiFunction<List<String>, List<?>, Object> handler = scripts.get(script.getSha1());
+        if (handler == null) {
+            return Flux.error(new IllegalStateException("NOSCRIPT " + script.getSha1()));
+        }
+        Mono<T> result = Mono.fromSupplier(() -> {
+            roundTrips.incrementAndGet();
+            synchronized (this) {
+                return (T) handler.apply(keys, args);
+            }
+        });
+        return (latency.isZero() ? result : result.delaySubscription(latency)).flux();
+    }
+
+    public long roundTrips() {
+        return roundTrips.get();
+    }
+
+    public synchronized Long counter(String key) {
+        return counters.get(key);
+    }
+
+    /**
+     * Java port of Spring Cloud Gateway's request_rate_limiter.lua.
+     */
+    public List<Long> requestRateLimiter(List<String> keys, List<?> args) {
+        double rate = Double.parseDouble(args.get(0).toString());
+        double capacity = Double.parseDouble(args.get(1).toString());
+        long now = System.currentTimeMillis() / 1000;
+        long requested = Long.parseLong(args.get(3).toString());
+
+        long lastTokens = counters.getOrDefault(keys.get(0), (long) capacity);
+        long lastRefreshed = counters.getOrDefault(keys.get(1), 0L);
+        long delta = Math.max(0, now - lastRefreshed);
+        long filled = (long) Math.min(capacity, lastTokens + delta * rate);
+        boolean allowed = filled >= requested;
+        long newTokens = allowed ? filled - requested : filled;
+
+        counters.put(keys.get(0), newTokens);
+        counters.put(keys.get(1), now);
+        return List.of(allowed ? 1L : 0L, newTokens);
+    }
+
+    /**
+     * Java port of scripts/request_rate_limiter_batch.lua.
+     */
+    public List<Long> requestRateLimiterBatch(List<String> keys, List<?> args) {
+        List<Long> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size() / 2; i++) {
+            results.addAll(requestRateLimiter(keys.subList(2 * i, 2 * i + 2), args.subList(4 * i, 4 * i + 4)));
+        }
+        return results;
+    }
+
+    /**
+     * Java port of scripts/rate_limiter_reconcile.lua (expiry is not modelled).
+     */
+    public List<Long> rateLimiterReconcile(List<String> keys, List<?> args) {
+        Map<String, Long> nodes = sortedSets.computeIfAbsent(keys.get(0), k -> new HashMap<>());
+        nodes.put(args.get(1).toString(), Long.parseLong(args.get(0).toString()));
+        long staleBefore = Long.parseLong(args.get(2).toString());
+        nodes.values().removeIf(score -> score <= staleBefore);
+
+        List<Long> results = new ArrayList<>(keys.size());
+        results.add((long) nodes.size());
+        for (int i = 1; i < keys.size(); i++) {
+            results.add(counters.merge(keys.get(i), Long.parseLong(args.get(i + 3).toString()), Long::sum));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,204 @@
+package com.developer.ApiGateWay.upstream;
+
+import com.developer.ApiGateWay.config.UpstreamPoolProperties;
+import com.developer.ApiGateWay.latency.UpstreamTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPrewarmerTest {
+
+    private static final Route ORDER_ROUTE = Route.async()
+            .id("order-service")
+            .uri("lb://order-service")
+            .predicate(exchange -> true)
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeDiscoveryClient discovery = new FakeDiscoveryClient();
+    private final List<Backend> backends = new ArrayList<>();
+    private UpstreamPools pools;
+
+    @AfterEach
+    void tearDown() {
+        if (pools != null) {
+            pools.dispose();
+        }
+        backends.forEach(backend -> backend.server.disposeNow());
+    }
+
+    @Test
+    void warmsEachNewInstanceOnceAndRoutedRequestsReuseItsConnections() throws InterruptedException {
+        ConnectionPrewarmer prewarmer = prewarmer(UpstreamPoolProperties.Protocol.HTTP11, 3);
+        Backend first = backend();
+        discovery.add("order-service", first.server.port());
+
+        assertThat(prewarmer.warmNewInstances()).isEqualTo(1);
+        assertThat(first.connections).hasSize(3);
+        assertThat(first.warmups).hasValue(3);
+        assertThat(prewarmer.warmNewInstances()).isZero();
+
+        Backend second = backend();
+        discovery.add("order-service", second.server.port());
+        assertThat(prewarmer.warmNewInstances()).isEqualTo(1);
+        assertThat(second.connections).hasSize(3);
+
+        HttpClient client = pools.poolFor(ORDER_ROUTE).client();
+        for (int i = 0; i < 3; i++) {
+            client.get().uri("http://localhost:" + first.server.port() + "/orders/" + i)
+                    .responseSingle((response, body) -> body.then())
+                    .contextWrite(context -> context.put(UpstreamTiming.class,
+                            new UpstreamTiming("order-service", System.nanoTime())))
+                    .block(Duration.ofSeconds(5));
+        }
+        assertThat(first.connections).hasSize(3);
+        assertThat(meterRegistry.get(UpstreamPools.ACQUIRE_METER).tag("profile", "test").timer().count())
+                .isEqualTo(3);
+        assertThat(idleConnections(first, 3)).isEqualTo(3);
+
+        // An instance that leaves and returns is warmed again, from the connections still pooled
+        discovery.remove("order-service", first.server.port());
+        assertThat(prewarmer.warmNewInstances()).isZero();
+        discovery.add("order-service", first.server.port());
+        assertThat(prewarmer.warmNewInstances()).isEqualTo(1);
+        assertThat(first.warmups).hasValue(6);
+        assertThat(first.connections).hasSize(3);
+    }
+
+    @Test
+    void h2cProfileMultiplexesRequestsOverOneConnection() {
+        ConnectionPrewarmer prewarmer = prewarmer(UpstreamPoolProperties.Protocol.H2C, 1);
+        Backend backend = backend();
+        discovery.add("order-service", backend.server.port());
+        prewarmer.warmNewInstances();
+
+        HttpClient client = pools.poolFor(ORDER_ROUTE).client();
+        Flux.range(0, 20)
+                .flatMap(i -> client.get().uri("http://localhost:" + backend.server.port() + "/orders/" + i)
+                        .responseSingle((response, body) -> body.then()))
+                .blockLast(Duration.ofSeconds(5));
+
+        assertThat(backend.connections).hasSize(1);
+        assertThat(backend.protocols).hasSize(21).containsOnly("HTTP/2.0");
+    }
+
+    @Test
+    void failedWarmupIsRetriedOnNextRun() {
+        ConnectionPrewarmer prewarmer = prewarmer(UpstreamPoolProperties.Protocol.HTTP11, 2);
+        Backend backend = backend();
+        int port = backend.server.port();
+        backend.server.disposeNow();
+        backends.remove(backend);
+        discovery.add("order-service", port);
+
+        assertThat(prewarmer.warmNewInstances()).isEqualTo(1);
+        assertThat(prewarmer.warmNewInstances()).isEqualTo(1);
+    }
+
+    // Connections go back to the pool on the event loop, just after the response completes
+    private double idleConnections(Backend backend, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (true) {
+            double idle = meterRegistry.get(UpstreamPoolMetrics.CONNECTIONS).tag("profile", "test")
+                    .tag("remote", "localhost:" + backend.server.port()).tag("state", "idle").gauge().value();
+            if (idle >= expected || System.nanoTime() > deadline) {
+                return idle;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private ConnectionPrewarmer prewarmer(UpstreamPoolProperties.Protocol protocol, int connections) {
+        UpstreamPoolProperties properties = new UpstreamPoolProperties();
+        UpstreamPoolProperties.Profile profile = new UpstreamPoolProperties.Profile();
+        profile.setProtocol(protocol);
+        profile.setPrewarmConnections(connections);
+        properties.getProfiles().put("test", profile);
+        properties.getServices().put("order-service", "test");
+        properties.setPrewarmTimeout(Duration.ofSeconds(2));
+        pools = new UpstreamPools(properties, meterRegistry, HttpClient::create);
+        return new ConnectionPrewarmer(pools, () -> Flux.just(ORDER_ROUTE), discovery, properties);
+    }
+
+    private Backend backend() {
+        Backend backend = new Backend();
+        backends.add(backend);
+        return backend;
+    }
+
+    private static final class Backend {
+
+        // Client addresses seen; HTTP/2 streams report the address of their connection
+        final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+        final AtomicInteger warmups = new AtomicInteger();
+        final Queue<String> protocols = new ConcurrentLinkedQueue<>();
+        final DisposableServer server = HttpServer.create()
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/actuator/health", (request, response) -> {
+                            warmups.incrementAndGet();
+                            connections.add(request.remoteAddress());
+                            protocols.add(request.protocol());
+                            return response.sendString(Mono.just("{\"status\":\"UP\"}"));
+                        })
+                        .get("/orders/{id}", (request, response) -> {
+                            connections.add(request.remoteAddress());
+                            protocols.add(request.protocol());
+                            return response.sendString(Mono.just("{}"));
+                        }))
+                .bindNow();
+    }
+
+    private static final class FakeDiscoveryClient implements DiscoveryClient {
+
+        final Map<String, List<ServiceInstance>> instances = new ConcurrentHashMap<>();
+
+        void add(String serviceId, int port) {
+            instances.computeIfAbsent(serviceId, id -> new ArrayList<>())
+                    .add(new DefaultServiceInstance(serviceId + "-" + port, serviceId, "localhost", port, false));
+        }
+
+        void remove(String serviceId, int port) {
+            instances.getOrDefault(serviceId, new ArrayList<>()).removeIf(instance -> instance.getPort() == port);
+        }
+
+        @Override
+        public String description() {
+            return "fake";
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            return List.copyOf(instances.getOrDefault(serviceId, List.of()));
+        }
+
+        @Override
+        public List<String> getServices() {
+            return List.copyOf(instances.keySet());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.developer.ApiGateWay.upstream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes order-service through an h2c pool profile with one pre-warmed connection
+ * and checks that concurrent routed requests arrive as HTTP/2 streams on it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "gateway.rate-limiter.mode=local",
+        "gateway.upstream-pool.profiles.multiplexed.protocol=h2c",
+        "gateway.upstream-pool.profiles.multiplexed.prewarm-connections=1",
+        "gateway.upstream-pool.routes.order-service=multiplexed"
+})
+class UpstreamPoolRoutingTest {
+
+    private static final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private static final Queue<String> warmups = new ConcurrentLinkedQueue<>();
+    private static final Queue<String> protocols = new ConcurrentLinkedQueue<>();
+
+    private static final DisposableServer backend = HttpServer.create()
+            .port(0)
+            .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+            .route(routes -> routes
+                    .get("/actuator/health", (request, response) -> {
+                        connections.add(request.remoteAddress());
+                        warmups.add(request.protocol());
+                        return response.sendString(Mono.just("{\"status\":\"UP\"}"));
+                    })
+                    .get("/{id}", (request, response) -> {
+                        connections.add(request.remoteAddress());
+                        protocols.add(request.protocol());
+                        return response.sendString(Mono.just("{}"));
+                    }))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void orderService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.order-service[0].uri",
+                () -> "http://localhost:" + backend.port());
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void routedRequestsShareThePrewarmedConnection() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (warmups.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(warmups).containsExactly("HTTP/2.0");
+
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<Integer> statuses = Flux.range(0, 10)
+                .flatMap(i -> client.get().uri("/api/orders/" + i)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value())))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(statuses).hasSize(10).containsOnly(200);
+        assertThat(protocols).hasSize(10).containsOnly("HTTP/2.0");
+        assertThat(connections).hasSize(1);
+    }
+}